@@ -0,0 +1,19 @@
+-- Removes the duplicate entries of refactored comments from an existing MySQL database, so
+-- that the unique constraint UK_REFACTORED_ISSUES_COMMENT on (repo_service, comment_serviceid)
+-- can be created. Only the oldest entry of every comment is kept.
+--
+-- Usage:
+--   1. Stop the bot and back up the database.
+--   2. mysql -u <user> -p refactoringbot_db < dev/database/remove-duplicate-refactored-comments.sql
+--   3. Start the bot, which creates the constraint with its next schema update.
+--
+-- The removed rows are kept in the table refactored_issues_duplicates. Drop it once the bot
+-- started successfully.
+
+CREATE TABLE refactored_issues_duplicates AS
+SELECT a.* FROM refactored_issues a
+WHERE EXISTS (SELECT 1 FROM refactored_issues b WHERE b.repo_service = a.repo_service
+		AND b.comment_serviceid = a.comment_serviceid AND b.issue_id < a.issue_id);
+
+DELETE a FROM refactored_issues a
+JOIN refactored_issues_duplicates d ON a.issue_id = d.issue_id;
@@ -0,0 +1,70 @@
+package de.refactoringbot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.refactoringbot.refactoring.RefactoringHelper;
+import de.refactoringbot.services.main.FileService;
+import de.refactoringbot.testutils.SyntheticRepository;
+
+/**
+ * Benchmarks of the search for the java roots of generated repositories, once
+ * with all files parsed again and once with the parsed files taken from the
+ * cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileServiceBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int fileCount;
+
+	private File repoFolder;
+	private SyntheticRepository repository;
+	private FileService fileService = new FileService();
+
+	@Setup(Level.Trial)
+	public void createRepository() throws Exception {
+		repoFolder = Files.createTempDirectory("file-service-benchmark").toFile().getCanonicalFile();
+		repository = RefactoringBenchmark.createGenerator(fileCount).generate(repoFolder);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() throws IOException {
+		FileUtils.deleteDirectory(repoFolder);
+		RefactoringHelper.discardCachedCompilationUnits(repoFolder.getPath());
+	}
+
+	@Benchmark
+	public List<String> findJavaRoots() throws IOException {
+		RefactoringHelper.discardCachedCompilationUnits(repoFolder.getPath());
+		return fileService.findJavaRoots(repository.getAllJavaFiles());
+	}
+
+	@Benchmark
+	public List<String> findJavaRootsWithCachedFiles() throws IOException {
+		return fileService.findJavaRoots(repository.getAllJavaFiles());
+	}
+}
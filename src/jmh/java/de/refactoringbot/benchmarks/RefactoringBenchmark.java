@@ -0,0 +1,153 @@
+package de.refactoringbot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.refactoring.MethodCallIndex;
+import de.refactoringbot.refactoring.RefactoringHelper;
+import de.refactoringbot.refactoring.RefactoringImpl;
+import de.refactoringbot.refactoring.RefactoringOperations;
+import de.refactoringbot.refactoring.TypeHierarchyIndex;
+import de.refactoringbot.refactoring.WorkspaceSymbolSolver;
+import de.refactoringbot.refactoring.supportedrefactorings.AddOverrideAnnotation;
+import de.refactoringbot.refactoring.supportedrefactorings.RemoveCommentedOutCode;
+import de.refactoringbot.refactoring.supportedrefactorings.RemoveMethodParameter;
+import de.refactoringbot.refactoring.supportedrefactorings.RenameMethod;
+import de.refactoringbot.refactoring.supportedrefactorings.ReorderModifier;
+import de.refactoringbot.testutils.SyntheticRepository;
+import de.refactoringbot.testutils.SyntheticRepositoryGenerator;
+
+/**
+ * End to end benchmarks of the supported refactorings on generated repositories.
+ * Like in the bot, the refactorings use the symbol solver and the indexes of
+ * the workspace, which are built before the first iteration. Every iteration
+ * refactors the same issue once and the changed files are restored afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RefactoringBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int fileCount;
+
+	private File repoFolder;
+	private SyntheticRepository repository;
+	private GitConfiguration gitConfig;
+	private WorkspaceSymbolSolver symbolSolver;
+	private TypeHierarchyIndex typeHierarchyIndex;
+	private MethodCallIndex methodCallIndex;
+	private BotIssue issue;
+
+	@Setup(Level.Trial)
+	public void createRepository() throws Exception {
+		repoFolder = Files.createTempDirectory("refactoring-benchmark").toFile().getCanonicalFile();
+		repository = createGenerator(fileCount).generate(repoFolder);
+
+		gitConfig = new GitConfiguration();
+		gitConfig.setRepoFolder(repository.getRepoFolderPath());
+
+		symbolSolver = new WorkspaceSymbolSolver(Collections.singletonList(repository.getJavaRootPath()));
+		typeHierarchyIndex = new TypeHierarchyIndex();
+		typeHierarchyIndex.update(repository.getAllJavaFiles(), symbolSolver.createSymbolResolver());
+		methodCallIndex = new MethodCallIndex();
+		methodCallIndex.update(repository.getAllJavaFiles());
+	}
+
+	@TearDown(Level.Iteration)
+	public void restoreChangedFiles() throws IOException {
+		if (issue == null) {
+			return;
+		}
+		List<String> restoredFiles = repository.restore(issue.getChangedFiles().keySet());
+		typeHierarchyIndex.markFilesAsChanged(restoredFiles);
+		methodCallIndex.markFilesAsChanged(restoredFiles);
+		symbolSolver.invalidateFiles(restoredFiles);
+		issue = null;
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() throws IOException {
+		FileUtils.deleteDirectory(repoFolder);
+		RefactoringHelper.discardCachedCompilationUnits(repoFolder.getPath());
+	}
+
+	@Benchmark
+	public String renameMethod() throws Exception {
+		return refactor(new RenameMethod(), RefactoringOperations.RENAME_METHOD);
+	}
+
+	@Benchmark
+	public String removeMethodParameter() throws Exception {
+		return refactor(new RemoveMethodParameter(), RefactoringOperations.REMOVE_PARAMETER);
+	}
+
+	@Benchmark
+	public String addOverrideAnnotation() throws Exception {
+		return refactor(new AddOverrideAnnotation(), RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
+	}
+
+	@Benchmark
+	public String reorderModifier() throws Exception {
+		return refactor(new ReorderModifier(), RefactoringOperations.REORDER_MODIFIER);
+	}
+
+	@Benchmark
+	public String removeCommentedOutCode() throws Exception {
+		return refactor(new RemoveCommentedOutCode(), RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
+	}
+
+	/**
+	 * Creates a generator for repositories with the given number of files, which
+	 * are split into packages of 100 files with inheritance chains of ten classes.
+	 *
+	 * @param fileCount
+	 * @return generator
+	 */
+	static SyntheticRepositoryGenerator createGenerator(int fileCount) {
+		SyntheticRepositoryGenerator generator = new SyntheticRepositoryGenerator();
+		generator.setPackageCount(Math.max(1, fileCount / 100));
+		generator.setClassesPerPackage(98);
+		generator.setInterfaceFanOut(2);
+		generator.setInheritanceDepth(10);
+		generator.setCallDensity(1);
+		generator.setCommentedOutCodeBlocks(1);
+		generator.setCommitCount(0);
+		return generator;
+	}
+
+	private String refactor(RefactoringImpl refactoring, String refactoringOperation) throws Exception {
+		// The first issue of every operation belongs to the first class of the repository
+		issue = repository.createIssues(refactoringOperation).get(0);
+		issue.setJavaRoots(Collections.singletonList(repository.getJavaRootPath()));
+		issue.setAllJavaFiles(repository.getAllJavaFiles());
+		issue.setSymbolSolver(symbolSolver);
+		issue.setTypeHierarchyIndex(typeHierarchyIndex);
+		issue.setMethodCallIndex(methodCallIndex);
+		return refactoring.performRefactoring(issue, gitConfig);
+	}
+}
@@ -0,0 +1,95 @@
+package de.refactoringbot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.refactoring.RefactoringHelper;
+import de.refactoringbot.refactoring.RefactoringOperations;
+import de.refactoringbot.refactoring.TypeHierarchyIndex;
+import de.refactoringbot.refactoring.WorkspaceSymbolSolver;
+import de.refactoringbot.testutils.SyntheticRepository;
+
+/**
+ * Benchmarks of the search for classes and interfaces related to a method on
+ * generated repositories, once with a new type hierarchy index (like without a
+ * persisted index) and once with an up-to-date index of the workspace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RefactoringHelperBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int fileCount;
+
+	private File repoFolder;
+	private SyntheticRepository repository;
+	private TypeHierarchyIndex typeHierarchyIndex;
+	private ClassOrInterfaceDeclaration targetClass;
+	private MethodDeclaration targetMethod;
+
+	@Setup(Level.Trial)
+	public void createRepository() throws Exception {
+		repoFolder = Files.createTempDirectory("refactoring-helper-benchmark").toFile().getCanonicalFile();
+		repository = RefactoringBenchmark.createGenerator(fileCount).generate(repoFolder);
+
+		// Method 'compute' of the first class of the repository
+		BotIssue issue = repository.createIssues(RefactoringOperations.RENAME_METHOD).get(0);
+		WorkspaceSymbolSolver symbolSolver = new WorkspaceSymbolSolver(
+				Collections.singletonList(repository.getJavaRootPath()));
+		CompilationUnit compilationUnit = RefactoringHelper.getCompilationUnitFromFile(
+				repository.getRepoFolderPath() + File.separator + issue.getFilePath(),
+				symbolSolver.createSymbolResolver());
+		targetMethod = RefactoringHelper.getMethodDeclarationByLineNumber(issue.getLine(), compilationUnit);
+		targetClass = RefactoringHelper.getClassOrInterfaceOfMethod(targetMethod);
+
+		typeHierarchyIndex = new TypeHierarchyIndex();
+		RefactoringHelper.findRelatedClassesAndInterfaces(typeHierarchyIndex, repository.getAllJavaFiles(),
+				targetClass, targetMethod);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() throws IOException {
+		FileUtils.deleteDirectory(repoFolder);
+		RefactoringHelper.discardCachedCompilationUnits(repoFolder.getPath());
+	}
+
+	@Benchmark
+	public Set<String> findRelatedClassesAndInterfaces() throws Exception {
+		return RefactoringHelper.findRelatedClassesAndInterfaces(repository.getAllJavaFiles(), targetClass,
+				targetMethod);
+	}
+
+	@Benchmark
+	public Set<String> findRelatedClassesAndInterfacesWithIndex() throws Exception {
+		return RefactoringHelper.findRelatedClassesAndInterfaces(typeHierarchyIndex, repository.getAllJavaFiles(),
+				targetClass, targetMethod);
+	}
+}
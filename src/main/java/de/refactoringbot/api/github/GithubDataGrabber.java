@@ -8,11 +8,13 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -20,6 +22,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.refactoringbot.api.main.ConditionalRequestCache;
+import de.refactoringbot.api.main.PagedIterator;
 import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
@@ -48,11 +52,19 @@ public class GithubDataGrabber {
 	ObjectMapper mapper;
 	@Autowired
 	BotConfiguration botConfig;
+	@Autowired
+	RestTemplate rest;
+	@Autowired
+	ConditionalRequestCache requestCache;
+	@Autowired
+	@Qualifier("apiExecutor")
+	AsyncTaskExecutor apiExecutor;
 
 	private static final Logger logger = LoggerFactory.getLogger(GithubDataGrabber.class);
 
 	private static final String USER_AGENT = "Mozilla/5.0";
 	private static final String GITHUB_DEFAULT_APILINK = "https://api.github.com";
+	private static final int PAGE_SIZE = 100;
 
 	/**
 	 * This method tries to get a repository from github.
@@ -85,8 +97,6 @@ public class GithubDataGrabber {
 
 		URI githubURI = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
@@ -129,7 +139,6 @@ public class GithubDataGrabber {
 
 		URI githubURI = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
@@ -178,8 +187,6 @@ public class GithubDataGrabber {
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
@@ -200,15 +207,14 @@ public class GithubDataGrabber {
 	}
 
 	/**
-	 * This method returns all PullRequest from Github.
+	 * This method returns all PullRequest from Github. The pull requests are
+	 * fetched page by page while they are iterated.
 	 * 
 	 * @return allRequests
 	 * @throws URISyntaxException
-	 * @throws GitHubAPIException
-	 * @throws IOException
 	 */
-	public GithubPullRequests getAllPullRequests(GitConfiguration gitConfig)
-			throws URISyntaxException, GitHubAPIException, IOException {
+	public PagedIterator<GithubPullRequests> getAllPullRequests(GitConfiguration gitConfig)
+			throws URISyntaxException {
 
 		URI configUri = createURIFromApiLink(gitConfig.getRepoApiLink());
 
@@ -216,32 +222,48 @@ public class GithubDataGrabber {
 		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme(configUri.getScheme())
 				.host(configUri.getHost()).path(configUri.getPath() + "/pulls");
 
+		apiUriBuilder.queryParam("per_page", PAGE_SIZE);
 		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
+		return new PagedIterator<>(pullsUri, pageUri -> getPullRequestPage(pageUri, gitConfig), apiExecutor);
+	}
 
+	/**
+	 * This method returns a single page of the pull requests from Github.
+	 * 
+	 * @param pullsUri
+	 * @param gitConfig
+	 * @return page
+	 * @throws GitHubAPIException
+	 * @throws IOException
+	 */
+	private PagedIterator.Page<GithubPullRequests> getPullRequestPage(URI pullsUri, GitConfiguration gitConfig)
+			throws GitHubAPIException, IOException {
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
 
-		String json = null;
+		ResponseEntity<String> response = null;
 		try {
 			// Send Request to the GitHub-API
-			json = rest.exchange(pullsUri, HttpMethod.GET, entity, String.class).getBody();
+			response = rest.exchange(pullsUri, HttpMethod.GET, entity, String.class);
 		} catch (RestClientException e) {
 			logger.error(e.getMessage(), e);
 			throw new GitHubAPIException("Could not get Pull-Requests from Github!", e);
 		}
 
-		GithubPullRequests allRequests = new GithubPullRequests();
-
 		try {
-			List<GithubPullRequest> requestList = mapper.readValue(json,
-					mapper.getTypeFactory().constructCollectionType(List.class, GithubPullRequest.class));
-			allRequests.setAllPullRequests(requestList);
-			return allRequests;
+			// Unchanged pull requests are not parsed again
+			GithubPullRequests requests = requestCache.parse(response, json -> {
+				List<GithubPullRequest> requestList = mapper.readValue(json,
+						mapper.getTypeFactory().constructCollectionType(List.class, GithubPullRequest.class));
+				GithubPullRequests allRequests = new GithubPullRequests();
+				allRequests.setAllPullRequests(requestList);
+				return allRequests;
+			});
+			return new PagedIterator.Page<>(requests, getNextPageUri(response, gitConfig));
 		} catch (IOException e) {
 			logger.error(e.getMessage(), e);
 			throw new IOException("Could not create object from Github-Request json!", e);
@@ -249,7 +271,8 @@ public class GithubDataGrabber {
 	}
 
 	/**
-	 * This method returns all comments of a pull request from Github.
+	 * This method returns all comments of a pull request from Github. All pages of
+	 * the comments are fetched.
 	 * 
 	 * @return allRequests
 	 * @throws GitHubAPIException
@@ -261,36 +284,44 @@ public class GithubDataGrabber {
 		UriComponentsBuilder apiUriBuilder = UriComponentsBuilder.newInstance().scheme(commentsUri.getScheme())
 				.host(commentsUri.getHost()).path(commentsUri.getPath());
 
+		apiUriBuilder.queryParam("per_page", PAGE_SIZE);
 		apiUriBuilder.queryParam("access_token", gitConfig.getBotToken());
 
 		URI githubURI = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
 
-		String json = null;
-		try {
-			// Send request to the GitHub-API
-			json = rest.exchange(githubURI, HttpMethod.GET, entity, String.class).getBody();
-		} catch (RestClientException r) {
-			throw new GitHubAPIException("Could not get pull request comments from Github!", r);
-		}
-
 		GitHubPullRequestComments allComments = new GitHubPullRequestComments();
+		while (githubURI != null) {
+			ResponseEntity<String> response = null;
+			try {
+				// Send request to the GitHub-API
+				response = rest.exchange(githubURI, HttpMethod.GET, entity, String.class);
+			} catch (RestClientException r) {
+				throw new GitHubAPIException("Could not get pull request comments from Github!", r);
+			}
 
-		try {
-			// Try to map json to object
-			List<PullRequestComment> commentList = mapper.readValue(json,
-					mapper.getTypeFactory().constructCollectionType(List.class, PullRequestComment.class));
-			allComments.setComments(commentList);
-			return allComments;
-		} catch (IOException e) {
-			logger.error(e.getMessage(), e);
-			throw new IOException("Could not create object from Github-Comment json!", e);
+			try {
+				// Try to map json to object
+				GitHubPullRequestComments pageComments = requestCache.parse(response, json -> {
+					List<PullRequestComment> commentList = mapper.readValue(json,
+							mapper.getTypeFactory().constructCollectionType(List.class, PullRequestComment.class));
+					GitHubPullRequestComments comments = new GitHubPullRequestComments();
+					comments.setComments(commentList);
+					return comments;
+				});
+				allComments.getComments().addAll(pageComments.getComments());
+			} catch (IOException e) {
+				logger.error(e.getMessage(), e);
+				throw new IOException("Could not create object from Github-Comment json!", e);
+			}
+
+			githubURI = getNextPageUri(response, gitConfig);
 		}
+
+		return allComments;
 	}
 
 	/**
@@ -319,9 +350,6 @@ public class GithubDataGrabber {
 		MediaType mediaType = new MediaType("application", "merge-patch+json");
 		headers.setContentType(mediaType);
 
-		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-		RestTemplate rest = new RestTemplate(requestFactory);
-
 		try {
 			// Send request to the GitHub-API
 			rest.exchange(pullsUri, HttpMethod.PATCH, new HttpEntity<>(send), String.class);
@@ -352,8 +380,6 @@ public class GithubDataGrabber {
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		try {
 			// Send request to Github-API
 			rest.exchange(pullsUri, HttpMethod.POST, new HttpEntity<>(comment), String.class);
@@ -383,8 +409,6 @@ public class GithubDataGrabber {
 
 		URI pullsUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		try {
 			// Send request to the GitHub-API
 			return rest.exchange(pullsUri, HttpMethod.POST, new HttpEntity<>(request), GithubPullRequest.class)
@@ -414,8 +438,6 @@ public class GithubDataGrabber {
 
 		URI forksUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		try {
 			// Send request to the Github-API
 			return rest.exchange(forksUri, HttpMethod.POST, null, GithubRepository.class).getBody();
@@ -450,8 +472,6 @@ public class GithubDataGrabber {
 
 		URI repoUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		try {
 			// Send request to the Github-API
 			rest.exchange(repoUri, HttpMethod.DELETE, null, String.class);
@@ -460,6 +480,34 @@ public class GithubDataGrabber {
 		}
 	}
 
+	/**
+	 * This method reads the URI of the next page from the Link header of a
+	 * response. The token is added to the URI again, since Github might not
+	 * include it in the link.
+	 * 
+	 * @param response
+	 * @param gitConfig
+	 * @return nextPageUri or null for the last page
+	 */
+	private URI getNextPageUri(ResponseEntity<String> response, GitConfiguration gitConfig) {
+		List<String> linkHeaders = response.getHeaders().get(HttpHeaders.LINK);
+		if (linkHeaders == null) {
+			return null;
+		}
+
+		// Format: <https://api.github.com/...&page=2>; rel="next", <...>; rel="last"
+		for (String linkHeader : linkHeaders) {
+			for (String link : linkHeader.split(",")) {
+				if (link.contains("rel=\"next\"")) {
+					String nextPageLink = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+					return UriComponentsBuilder.fromUriString(nextPageLink)
+							.replaceQueryParam("access_token", gitConfig.getBotToken()).build(true).toUri();
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Attempts to instantiate a URI object using the specified API link
 	 * 
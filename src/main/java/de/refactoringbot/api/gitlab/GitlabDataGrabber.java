@@ -8,9 +8,12 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -18,6 +21,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.refactoringbot.api.main.ConditionalRequestCache;
+import de.refactoringbot.api.main.PagedIterator;
 import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
@@ -44,12 +49,21 @@ public class GitlabDataGrabber {
 	ObjectMapper mapper;
 	@Autowired
 	BotConfiguration botConfig;
+	@Autowired
+	RestTemplate rest;
+	@Autowired
+	ConditionalRequestCache requestCache;
+	@Autowired
+	@Qualifier("apiExecutor")
+	AsyncTaskExecutor apiExecutor;
 
 	private static final Logger logger = LoggerFactory.getLogger(GitlabDataGrabber.class);
 
 	private static final String USER_AGENT = "Mozilla/5.0";
 	private static final String GITLAB_DEFAULT_APILINK = "https://gitlab.com/api/v4";
 	private static final String TOKEN_HEADER = "Private-Token";
+	private static final String NEXT_PAGE_HEADER = "X-Next-Page";
+	private static final int PAGE_SIZE = 100;
 
 	/**
 	 * This method tries to get a repository from GitLab.
@@ -72,8 +86,6 @@ public class GitlabDataGrabber {
 			gitlabURI = URI.create(apiLink + "/projects/" + repoOwner + "%2F" + repoName);
 		}
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, botToken);
@@ -108,7 +120,6 @@ public class GitlabDataGrabber {
 			gitlabURI = URI.create(apiLink + "/user");
 		}
 
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, botToken);
@@ -150,7 +161,6 @@ public class GitlabDataGrabber {
 		// Build URI
 		URI uri = createURIFromApiLink(gitConfig.getForkApiLink() + "/repository/branches/" + branchName);
 
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
@@ -184,7 +194,6 @@ public class GitlabDataGrabber {
 		// Build URI
 		URI forkUri = createURIFromApiLink(gitConfig.getRepoApiLink() + "/fork");
 
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
@@ -216,7 +225,6 @@ public class GitlabDataGrabber {
 		// Read URI from configuration
 		URI repoUri = createURIFromApiLink(gitConfig.getForkApiLink());
 
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
@@ -231,19 +239,77 @@ public class GitlabDataGrabber {
 	}
 
 	/**
-	 * This method returns all PullRequest from GitLab.
+	 * This method returns all PullRequest from GitLab. The merge requests are
+	 * fetched page by page while they are iterated.
 	 * 
 	 * @return allRequests
 	 * @throws URISyntaxException
+	 */
+	public PagedIterator<GitLabPullRequests> getAllPullRequests(GitConfiguration gitConfig)
+			throws URISyntaxException {
+		// Build URI
+		URI requestUri = createURIFromApiLink(
+				gitConfig.getRepoApiLink() + "/merge_requests?state=opened&per_page=" + PAGE_SIZE);
+
+		return new PagedIterator<>(requestUri, pageUri -> getPullRequestPage(pageUri, gitConfig), apiExecutor);
+	}
+
+	/**
+	 * This method returns a single page of the merge requests from GitLab.
+	 * 
+	 * @param requestUri
+	 * @param gitConfig
+	 * @return page
 	 * @throws GitLabAPIException
 	 * @throws IOException
 	 */
-	public GitLabPullRequests getAllPullRequests(GitConfiguration gitConfig)
+	private PagedIterator.Page<GitLabPullRequests> getPullRequestPage(URI requestUri, GitConfiguration gitConfig)
+			throws GitLabAPIException, IOException {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("User-Agent", USER_AGENT);
+		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
+		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
+
+		ResponseEntity<String> response = null;
+		try {
+			// Send Request to the GitLab-API
+			response = rest.exchange(requestUri, HttpMethod.GET, entity, String.class);
+		} catch (RestClientException e) {
+			logger.error(e.getMessage(), e);
+			throw new GitLabAPIException("Could not get Pull-Requests from GitLab!", e);
+		}
+
+		try {
+			// Unchanged merge requests are not parsed again
+			GitLabPullRequests requests = requestCache.parse(response, json -> {
+				List<GitLabPullRequest> requestList = mapper.readValue(json,
+						mapper.getTypeFactory().constructCollectionType(List.class, GitLabPullRequest.class));
+				GitLabPullRequests allRequests = new GitLabPullRequests();
+				allRequests.setAllPullRequests(requestList);
+				return allRequests;
+			});
+			return new PagedIterator.Page<>(requests, getNextPageUri(requestUri, response));
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+			throw new IOException("Could not create object from GitLab-Request json!", e);
+		}
+	}
+
+	/**
+	 * This method returns a single merge request of the repository.
+	 * 
+	 * @param gitConfig
+	 * @param requestIid
+	 * @return request
+	 * @throws URISyntaxException
+	 * @throws GitLabAPIException
+	 * @throws IOException
+	 */
+	public GitLabPullRequest getPullRequest(GitConfiguration gitConfig, Integer requestIid)
 			throws URISyntaxException, GitLabAPIException, IOException {
 		// Build URI
-		URI requestUri = createURIFromApiLink(gitConfig.getRepoApiLink() + "/merge_requests?state=opened");
+		URI requestUri = createURIFromApiLink(gitConfig.getRepoApiLink() + "/merge_requests/" + requestIid);
 
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
@@ -255,16 +321,11 @@ public class GitlabDataGrabber {
 			json = rest.exchange(requestUri, HttpMethod.GET, entity, String.class).getBody();
 		} catch (RestClientException e) {
 			logger.error(e.getMessage(), e);
-			throw new GitLabAPIException("Could not get Pull-Requests from GitLab!", e);
+			throw new GitLabAPIException("Could not get Pull-Request from GitLab!", e);
 		}
 
-		GitLabPullRequests allRequests = new GitLabPullRequests();
-
 		try {
-			List<GitLabPullRequest> requestList = mapper.readValue(json,
-					mapper.getTypeFactory().constructCollectionType(List.class, GitLabPullRequest.class));
-			allRequests.setAllPullRequests(requestList);
-			return allRequests;
+			return mapper.readValue(json, GitLabPullRequest.class);
 		} catch (IOException e) {
 			logger.error(e.getMessage(), e);
 			throw new IOException("Could not create object from GitLab-Request json!", e);
@@ -273,6 +334,7 @@ public class GitlabDataGrabber {
 
 	/**
 	 * This method returns all comments of a specific pull request from GitLab.
+	 * All pages of the discussions are fetched.
 	 * 
 	 * @param commentUri
 	 * @param gitConfig
@@ -282,31 +344,42 @@ public class GitlabDataGrabber {
 	 */
 	public GitLabDiscussions getAllPullRequestDiscussions(URI commentUri, GitConfiguration gitConfig)
 			throws GitLabAPIException, IOException {
-		RestTemplate rest = new RestTemplate();
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
 
-		String json = null;
-		try {
-			// Send request to the GitLab-API
-			json = rest.exchange(commentUri, HttpMethod.GET, entity, String.class).getBody();
-		} catch (RestClientException r) {
-			throw new GitLabAPIException("Could not get pull request comments from GitLab!", r);
-		}
+		URI pageUri = UriComponentsBuilder.fromUri(commentUri).replaceQueryParam("per_page", PAGE_SIZE).build(true)
+				.toUri();
+		GitLabDiscussions allDiscussions = new GitLabDiscussions();
+		while (pageUri != null) {
+			ResponseEntity<String> response = null;
+			try {
+				// Send request to the GitLab-API
+				response = rest.exchange(pageUri, HttpMethod.GET, entity, String.class);
+			} catch (RestClientException r) {
+				throw new GitLabAPIException("Could not get pull request comments from GitLab!", r);
+			}
 
-		try {
-			// map json to object
-			GitLabDiscussions allDiscussions = new GitLabDiscussions();
-			List<GitLabDiscussion> discussionList = mapper.readValue(json,
-					mapper.getTypeFactory().constructCollectionType(List.class, GitLabDiscussion.class));
-			allDiscussions.setDiscussions(discussionList);
-			return allDiscussions;
-		} catch (IOException e) {
-			logger.error(e.getMessage(), e);
-			throw new IOException("Could not create object from GitLab-Comment json!", e);
+			try {
+				// map json to object
+				GitLabDiscussions pageDiscussions = requestCache.parse(response, json -> {
+					GitLabDiscussions discussions = new GitLabDiscussions();
+					List<GitLabDiscussion> discussionList = mapper.readValue(json,
+							mapper.getTypeFactory().constructCollectionType(List.class, GitLabDiscussion.class));
+					discussions.setDiscussions(discussionList);
+					return discussions;
+				});
+				allDiscussions.getDiscussions().addAll(pageDiscussions.getDiscussions());
+			} catch (IOException e) {
+				logger.error(e.getMessage(), e);
+				throw new IOException("Could not create object from GitLab-Comment json!", e);
+			}
+
+			pageUri = getNextPageUri(pageUri, response);
 		}
+
+		return allDiscussions;
 	}
 
 	/**
@@ -336,8 +409,6 @@ public class GitlabDataGrabber {
 
 		uri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
@@ -377,8 +448,6 @@ public class GitlabDataGrabber {
 
 		uri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set(TOKEN_HEADER, gitConfig.getBotToken());
@@ -392,6 +461,23 @@ public class GitlabDataGrabber {
 		}
 	}
 
+	/**
+	 * This method builds the URI of the next page from the X-Next-Page header of a
+	 * response.
+	 * 
+	 * @param pageUri
+	 *            URI of the current page
+	 * @param response
+	 * @return nextPageUri or null for the last page
+	 */
+	private URI getNextPageUri(URI pageUri, ResponseEntity<String> response) {
+		String nextPage = response.getHeaders().getFirst(NEXT_PAGE_HEADER);
+		if (nextPage == null || nextPage.trim().isEmpty()) {
+			return null;
+		}
+		return UriComponentsBuilder.fromUri(pageUri).replaceQueryParam("page", nextPage.trim()).build(true).toUri();
+	}
+
 	/**
 	 * Attempts to instantiate a URI object using the specified API link
 	 * 
@@ -3,7 +3,12 @@ package de.refactoringbot.api.main;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.naming.OperationNotSupportedException;
 
@@ -12,17 +17,16 @@ import org.springframework.stereotype.Component;
 
 import de.refactoringbot.api.github.GithubDataGrabber;
 import de.refactoringbot.api.gitlab.GitlabDataGrabber;
+import de.refactoringbot.api.main.ApiRequestExecutor.ApiRequest;
 import de.refactoringbot.api.sonarqube.SonarQubeDataGrabber;
+import de.refactoringbot.model.botissue.AnalysisServiceIssues;
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
-import de.refactoringbot.model.exceptions.GitHubAPIException;
-import de.refactoringbot.model.exceptions.GitLabAPIException;
+import de.refactoringbot.model.exceptions.PaginationException;
 import de.refactoringbot.model.github.pullrequest.GithubCreateRequest;
-import de.refactoringbot.model.github.pullrequest.GithubPullRequests;
 import de.refactoringbot.model.github.repository.GithubRepository;
 import de.refactoringbot.model.gitlab.pullrequest.GitLabCreateRequest;
-import de.refactoringbot.model.gitlab.pullrequest.GitLabPullRequests;
 import de.refactoringbot.model.gitlab.repository.GitLabRepository;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
@@ -32,6 +36,8 @@ import de.refactoringbot.services.github.GithubObjectTranslator;
 import de.refactoringbot.services.gitlab.GitlabObjectTranslator;
 import de.refactoringbot.services.main.BotService;
 import de.refactoringbot.services.sonarqube.SonarQubeObjectTranslator;
+import de.refactoringbot.services.tracing.Span;
+import de.refactoringbot.services.tracing.Tracer;
 
 /**
  * This class transfers all Rest-Requests to correct APIs and returns all
@@ -58,34 +64,89 @@ public class ApiGrabber {
 	@Autowired
 	BotService botController;
 
+	/**
+	 * Last translated requests of every configuration by page index
+	 */
+	private final Map<Long, Map<Integer, TranslatedRequests>> translatedRequests = new ConcurrentHashMap<>();
+
 	/**
 	 * This method gets all requests with all comments from an api translated into a
-	 * bot object.
+	 * bot object. The requests are fetched and translated page by page while they
+	 * are iterated, so that the first page can be processed while the next one is
+	 * still fetched. If a page did not change since the last call, the previously
+	 * translated requests of that page are returned without fetching the comments
+	 * again. Adding a comment to a request also changes the request itself.
 	 * 
 	 * @param gitConfig
-	 * @return botRequests
+	 * @return botRequests pages of the translated requests. The iterator throws a
+	 *         PaginationException if a page could not be fetched or translated.
 	 * @throws URISyntaxException
-	 * @throws GitHubAPIException
-	 * @throws IOException
-	 * @throws GitLabAPIException
 	 */
-	public BotPullRequests getRequestsWithComments(GitConfiguration gitConfig)
-			throws URISyntaxException, GitHubAPIException, IOException, GitLabAPIException {
-
-		BotPullRequests botRequests = null;
+	public Iterator<BotPullRequests> getRequestsWithComments(GitConfiguration gitConfig) throws URISyntaxException {
+		try (Span span = startSpan("api.getRequestsWithComments", gitConfig)) {
+			Map<Integer, TranslatedRequests> lastRequests = translatedRequests
+					.computeIfAbsent(gitConfig.getConfigurationId(), configId -> new ConcurrentHashMap<>());
 
-		// Pick filehoster
-		switch (gitConfig.getRepoService()) {
-		case github:
-			GithubPullRequests githubRequests = githubGrabber.getAllPullRequests(gitConfig);
-			botRequests = githubTranslator.translateRequests(githubRequests, gitConfig);
-			break;
-		case gitlab:
-			GitLabPullRequests gitlabRequests = gitlabGrabber.getAllPullRequests(gitConfig);
-			botRequests = gitlabTranslator.translateRequests(gitlabRequests, gitConfig);
-			break;
+			// Pick filehoster
+			switch (gitConfig.getRepoService()) {
+			case github:
+				return translatePages(githubGrabber.getAllPullRequests(gitConfig), lastRequests,
+						githubRequests -> githubTranslator.translateRequests(githubRequests, gitConfig));
+			case gitlab:
+				return translatePages(gitlabGrabber.getAllPullRequests(gitConfig), lastRequests,
+						gitlabRequests -> gitlabTranslator.translateRequests(gitlabRequests, gitConfig));
+			}
+			return Collections.emptyIterator();
 		}
-		return botRequests;
+	}
+
+	/**
+	 * This method translates the pages of the given iterator while they are
+	 * iterated. Unchanged (not modified) pages are returned as the same object by
+	 * the data grabbers, so their last translation is reused.
+	 * 
+	 * @param pages
+	 * @param lastRequests
+	 *            last translated requests by page index
+	 * @param translator
+	 * @return translatedPages
+	 */
+	private <T> Iterator<BotPullRequests> translatePages(Iterator<T> pages,
+			Map<Integer, TranslatedRequests> lastRequests, ApiRequest<T, BotPullRequests> translator) {
+		return new Iterator<BotPullRequests>() {
+
+			private int pageIndex = 0;
+
+			@Override
+			public boolean hasNext() {
+				if (!pages.hasNext()) {
+					// Discard translations of pages that no longer exist
+					lastRequests.keySet().removeIf(index -> index >= pageIndex);
+					return false;
+				}
+				return true;
+			}
+
+			@Override
+			public BotPullRequests next() {
+				T rawRequests = pages.next();
+				TranslatedRequests lastPage = lastRequests.get(pageIndex);
+				if (lastPage != null && lastPage.rawRequests == rawRequests) {
+					pageIndex++;
+					return lastPage.botRequests;
+				}
+
+				BotPullRequests botRequests;
+				try (Span span = Tracer.startSpan("api.translatePullRequests")) {
+					botRequests = translator.execute(rawRequests);
+					span.setAttribute("pullRequestCount", botRequests.getAllPullRequests().size());
+				} catch (Exception e) {
+					throw new PaginationException(e);
+				}
+				lastRequests.put(pageIndex++, new TranslatedRequests(rawRequests, botRequests));
+				return botRequests;
+			}
+		};
 	}
 
 	/**
@@ -99,16 +160,18 @@ public class ApiGrabber {
 	 */
 	public void replyToUserInsideBotRequest(BotPullRequest request, BotPullRequestComment comment,
 			GitConfiguration gitConfig) throws Exception {
-		// Pick filehoster
-		switch (gitConfig.getRepoService()) {
-		case github:
-			githubGrabber.responseToBotComment(githubTranslator.createReplyComment(comment, null), gitConfig,
-					request.getRequestNumber());
-			break;
-		case gitlab:
-			gitlabGrabber.respondToUser(gitConfig, request.getRequestNumber(), comment.getDiscussionID(),
-					comment.getCommentID(), gitlabTranslator.getReplyComment(null));
-			break;
+		try (Span span = startSpan("api.replyToUserInsideBotRequest", gitConfig)) {
+			// Pick filehoster
+			switch (gitConfig.getRepoService()) {
+			case github:
+				githubGrabber.responseToBotComment(githubTranslator.createReplyComment(comment, null), gitConfig,
+						request.getRequestNumber());
+				break;
+			case gitlab:
+				gitlabGrabber.respondToUser(gitConfig, request.getRequestNumber(), comment.getDiscussionID(),
+						comment.getCommentID(), gitlabTranslator.getReplyComment(null));
+				break;
+			}
 		}
 	}
 
@@ -121,16 +184,18 @@ public class ApiGrabber {
 	 */
 	public void replyToUserForFailedRefactoring(BotPullRequest request, BotPullRequestComment comment,
 			GitConfiguration gitConfig, String errorMessage) throws Exception {
-		// Pick filehoster
-		switch (gitConfig.getRepoService()) {
-		case github:
-			githubGrabber.responseToBotComment(githubTranslator.createFailureReply(comment, errorMessage), gitConfig,
-					request.getRequestNumber());
-			break;
-		case gitlab:
-			gitlabGrabber.respondToUser(gitConfig, request.getRequestNumber(), comment.getDiscussionID(),
-					comment.getCommentID(), errorMessage);
-			break;
+		try (Span span = startSpan("api.replyToUserForFailedRefactoring", gitConfig)) {
+			// Pick filehoster
+			switch (gitConfig.getRepoService()) {
+			case github:
+				githubGrabber.responseToBotComment(githubTranslator.createFailureReply(comment, errorMessage),
+						gitConfig, request.getRequestNumber());
+				break;
+			case gitlab:
+				gitlabGrabber.respondToUser(gitConfig, request.getRequestNumber(), comment.getDiscussionID(),
+						comment.getCommentID(), errorMessage);
+				break;
+			}
 		}
 	}
 
@@ -141,14 +206,16 @@ public class ApiGrabber {
 	 * @throws Exception
 	 */
 	public void checkBranch(GitConfiguration gitConfig, String branchName) throws Exception {
-		// Pick filehoster
-		switch (gitConfig.getRepoService()) {
-		case github:
-			githubGrabber.checkBranch(gitConfig, branchName);
-			break;
-		case gitlab:
-			gitlabGrabber.checkBranch(gitConfig, branchName);
-			break;
+		try (Span span = startSpan("api.checkBranch", gitConfig)) {
+			// Pick filehoster
+			switch (gitConfig.getRepoService()) {
+			case github:
+				githubGrabber.checkBranch(gitConfig, branchName);
+				break;
+			case gitlab:
+				gitlabGrabber.checkBranch(gitConfig, branchName);
+				break;
+			}
 		}
 	}
 
@@ -235,26 +302,33 @@ public class ApiGrabber {
 	}
 
 	/**
-	 * This method gets all issues of a Project from a analysis service.
+	 * This method gets all open issues of a Project from a analysis service.
 	 * 
 	 * @param gitConfig
-	 * @return botIssues
+	 * @param createdAfter
+	 *            if not null, only issues created after this date are returned
+	 * @return issues
 	 * @throws Exception
 	 */
-	public List<BotIssue> getAnalysisServiceIssues(GitConfiguration gitConfig) throws Exception {
-		// Pick service
-		switch (gitConfig.getAnalysisService()) {
-		case sonarqube:
-			// Get issues and translate them
-			List<SonarQubeIssues> issues = sonarQubeGrabber.getIssues(gitConfig);
-			List<BotIssue> botIssues = new ArrayList<>();
-			for (SonarQubeIssues i : issues) {
-				botIssues.addAll(sonarQubeTranslator.translateSonarIssue(i, gitConfig));
+	public AnalysisServiceIssues getAnalysisServiceIssues(GitConfiguration gitConfig, Date createdAfter)
+			throws Exception {
+		try (Span span = startSpan("api.getAnalysisServiceIssues", gitConfig)) {
+			// Pick service
+			switch (gitConfig.getAnalysisService()) {
+			case sonarqube:
+				// Get issues and translate them
+				List<SonarQubeIssues> issues = sonarQubeGrabber.getIssues(gitConfig, createdAfter);
+				List<BotIssue> botIssues = new ArrayList<>();
+				for (SonarQubeIssues i : issues) {
+					botIssues.addAll(sonarQubeTranslator.translateSonarIssue(i, gitConfig));
+				}
+				boolean truncated = sonarQubeGrabber.isTruncated(issues);
+				span.setAttribute("issueCount", botIssues.size()).setAttribute("truncated", truncated);
+				return new AnalysisServiceIssues(botIssues, truncated);
+			default:
+				throw new UnsupportedOperationException(
+						"Analysis-Service '" + gitConfig.getAnalysisService() + "' is not supported!");
 			}
-			return botIssues;
-		default:
-			throw new UnsupportedOperationException(
-					"Analysis-Service '" + gitConfig.getAnalysisService() + "' is not supported!");
 		}
 	}
 
@@ -291,22 +365,24 @@ public class ApiGrabber {
 	 */
 	public void makeCreateRequestWithAnalysisService(BotIssue issue, GitConfiguration gitConfig, String newBranch)
 			throws Exception {
-		// Pick filehoster
-		switch (gitConfig.getRepoService()) {
-		case github:
-			// Create PR object
-			GithubCreateRequest createRequest = githubTranslator.makeCreateRequestWithAnalysisService(issue, gitConfig,
-					newBranch);
-			// Create PR on filehoster
-			githubGrabber.createRequest(createRequest, gitConfig);
-			break;
-		case gitlab:
-			// Create PR Object
-			GitLabCreateRequest gitlabCreateRequest = gitlabTranslator.makeCreateRequestWithAnalysisService(issue,
-					gitConfig, newBranch);
-			// Create PR on filehoster
-			gitlabGrabber.createRequest(gitlabCreateRequest, gitConfig);
-			break;
+		try (Span span = startSpan("api.makeCreateRequestWithAnalysisService", gitConfig)) {
+			// Pick filehoster
+			switch (gitConfig.getRepoService()) {
+			case github:
+				// Create PR object
+				GithubCreateRequest createRequest = githubTranslator.makeCreateRequestWithAnalysisService(issue,
+						gitConfig, newBranch);
+				// Create PR on filehoster
+				githubGrabber.createRequest(createRequest, gitConfig);
+				break;
+			case gitlab:
+				// Create PR Object
+				GitLabCreateRequest gitlabCreateRequest = gitlabTranslator.makeCreateRequestWithAnalysisService(issue,
+						gitConfig, newBranch);
+				// Create PR on filehoster
+				gitlabGrabber.createRequest(gitlabCreateRequest, gitConfig);
+				break;
+			}
 		}
 	}
 
@@ -330,4 +406,40 @@ public class ApiGrabber {
 		}
 
 	}
+
+	/**
+	 * This method starts a span of a request to the API of the filehoster or
+	 * analysis service of the given configuration.
+	 * 
+	 * @param name
+	 * @param gitConfig
+	 * @return span
+	 */
+	private Span startSpan(String name, GitConfiguration gitConfig) {
+		return Tracer.startSpan(name).setAttribute("configuration", gitConfig.getConfigurationId());
+	}
+
+	/**
+	 * This method discards the last translated requests of a configuration.
+	 * 
+	 * @param configurationId
+	 */
+	public void discardTranslatedRequests(Long configurationId) {
+		translatedRequests.remove(configurationId);
+	}
+
+	/**
+	 * Translated requests together with the requests of the filehoster they were
+	 * translated from.
+	 */
+	private static class TranslatedRequests {
+
+		private final Object rawRequests;
+		private final BotPullRequests botRequests;
+
+		TranslatedRequests(Object rawRequests, BotPullRequests botRequests) {
+			this.rawRequests = rawRequests;
+			this.botRequests = botRequests;
+		}
+	}
 }
@@ -0,0 +1,169 @@
+package de.refactoringbot.api.main;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * This class keeps track of the rate limits the filehosters report with their
+ * responses (GitHub: <code>X-RateLimit-*</code>, GitLab:
+ * <code>RateLimit-*</code>). The limits are tracked per host and token, so that
+ * concurrent requests can be throttled before a limit is exceeded.
+ */
+@Component
+public class ApiRateLimitTracker implements ClientHttpRequestInterceptor {
+
+	private static final String[] REMAINING_HEADERS = { "X-RateLimit-Remaining", "RateLimit-Remaining" };
+	private static final String[] RESET_HEADERS = { "X-RateLimit-Reset", "RateLimit-Reset" };
+	private static final String GITHUB_TOKEN_PARAMETER = "access_token";
+	private static final String GITLAB_TOKEN_HEADER = "Private-Token";
+
+	@Value("${http.rateLimitReserve:10}")
+	private int rateLimitReserve;
+	@Value("${http.maxRateLimitWaitInMS:60000}")
+	private long maxRateLimitWaitInMS;
+
+	private final ConcurrentMap<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+
+	private static final Logger logger = LoggerFactory.getLogger(ApiRateLimitTracker.class);
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		ClientHttpResponse response = execution.execute(request, body);
+		recordRateLimit(getKey(request.getURI(), getToken(request)), response.getHeaders());
+		return response;
+	}
+
+	/**
+	 * This method returns how many requests with the given token may be sent
+	 * concurrently to the host of the given URI without exceeding its rate limit.
+	 * 
+	 * @param uri
+	 * @param token
+	 * @param maxConcurrency
+	 * @return allowedConcurrency (at least 1)
+	 */
+	public int getAllowedConcurrency(URI uri, String token, int maxConcurrency) {
+		RateLimit rateLimit = getCurrentRateLimit(uri, token);
+		if (rateLimit == null) {
+			return maxConcurrency;
+		}
+		return (int) Math.max(1, Math.min(maxConcurrency, rateLimit.remaining - rateLimitReserve));
+	}
+
+	/**
+	 * This method checks if the reserve of the rate limit of the given token on
+	 * the host of the given URI is used up.
+	 * 
+	 * @param uri
+	 * @param token
+	 * @return isReserveUsedUp
+	 */
+	public boolean isReserveUsedUp(URI uri, String token) {
+		RateLimit rateLimit = getCurrentRateLimit(uri, token);
+		return rateLimit != null && rateLimit.remaining <= rateLimitReserve;
+	}
+
+	/**
+	 * This method waits until the rate limit of the given token on the host of the
+	 * given URI is reset, if the reserve of the rate limit is used up. It does not
+	 * wait longer than the configured maximum.
+	 * 
+	 * @param uri
+	 * @param token
+	 * @return true if the reserve is available again, false if the rate limit is
+	 *         not reset within the configured maximum
+	 * @throws InterruptedException
+	 */
+	public boolean awaitRateLimit(URI uri, String token) throws InterruptedException {
+		RateLimit rateLimit = getCurrentRateLimit(uri, token);
+		if (rateLimit == null || rateLimit.remaining > rateLimitReserve) {
+			return true;
+		}
+
+		long waitInMS = Math.min(rateLimit.resetEpochSeconds * 1000 - System.currentTimeMillis(),
+				maxRateLimitWaitInMS);
+		if (waitInMS > 0) {
+			logger.warn("Rate limit of " + uri.getHost() + " is almost used up, waiting " + waitInMS + "ms.");
+			Thread.sleep(waitInMS);
+		}
+		return !isReserveUsedUp(uri, token);
+	}
+
+	/**
+	 * @param uri
+	 * @param token
+	 * @return rate limit of the current period or null if it is unknown or expired
+	 */
+	private RateLimit getCurrentRateLimit(URI uri, String token) {
+		RateLimit rateLimit = rateLimits.get(getKey(uri, token));
+		if (rateLimit == null || rateLimit.resetEpochSeconds * 1000 <= System.currentTimeMillis()) {
+			return null;
+		}
+		return rateLimit;
+	}
+
+	private void recordRateLimit(String key, HttpHeaders headers) {
+		String remaining = getFirstHeader(headers, REMAINING_HEADERS);
+		String reset = getFirstHeader(headers, RESET_HEADERS);
+		if (remaining == null || reset == null) {
+			return;
+		}
+
+		try {
+			rateLimits.put(key, new RateLimit(Long.parseLong(remaining.trim()), Long.parseLong(reset.trim())));
+		} catch (NumberFormatException e) {
+			logger.debug("Could not read rate limit headers: " + remaining + ", " + reset);
+		}
+	}
+
+	private String getFirstHeader(HttpHeaders headers, String[] headerNames) {
+		for (String headerName : headerNames) {
+			String value = headers.getFirst(headerName);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	private String getToken(HttpRequest request) {
+		String token = request.getHeaders().getFirst(GITLAB_TOKEN_HEADER);
+		if (token == null) {
+			token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams()
+					.getFirst(GITHUB_TOKEN_PARAMETER);
+		}
+		return token;
+	}
+
+	/**
+	 * The token itself is not kept as key, only its hash.
+	 */
+	private String getKey(URI uri, String token) {
+		return uri.getHost() + "#" + (token != null ? Integer.toHexString(token.hashCode()) : "");
+	}
+
+	private static class RateLimit {
+
+		private final long remaining;
+		private final long resetEpochSeconds;
+
+		RateLimit(long remaining, long resetEpochSeconds) {
+			this.remaining = remaining;
+			this.resetEpochSeconds = resetEpochSeconds;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package de.refactoringbot.api.main;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import de.refactoringbot.model.exceptions.RateLimitExceededException;
+
+/**
+ * This class sends independent API requests concurrently. The amount of
+ * concurrent requests is bounded by the configuration and by the rate limit of
+ * the API.
+ */
+@Component
+public class ApiRequestExecutor {
+
+	@Autowired
+	@Qualifier("apiExecutor")
+	AsyncTaskExecutor apiExecutor;
+	@Autowired
+	ApiRateLimitTracker rateLimitTracker;
+
+	@Value("${http.maxConcurrentRequests:8}")
+	private int maxConcurrentRequests;
+
+	/**
+	 * A request for a single item.
+	 *
+	 * @param <T>
+	 *            type of the items
+	 * @param <R>
+	 *            type of the results
+	 */
+	@FunctionalInterface
+	public interface ApiRequest<T, R> {
+		R execute(T item) throws Exception;
+	}
+
+	/**
+	 * This method executes the given request for all given items concurrently and
+	 * returns the results in the order of the items. If a request fails, the
+	 * remaining requests are cancelled. If the reserve of the rate limit is used
+	 * up, the requests wait once for the reset of the rate limit. If it is still
+	 * used up afterwards, the remaining requests are not sent.
+	 * 
+	 * @param apiUri
+	 *            URI of the API the requests are sent to
+	 * @param token
+	 *            token the requests are sent with
+	 * @param items
+	 * @param request
+	 * @return results
+	 * @throws ExecutionException
+	 *             if a request failed, with the exception of the request as cause,
+	 *             or with a {@link RateLimitExceededException} as cause
+	 */
+	public <T, R> List<R> executeInOrder(URI apiUri, String token, List<T> items, ApiRequest<T, R> request)
+			throws ExecutionException {
+		List<R> results = new ArrayList<>();
+
+		// No need to switch threads for a single request
+		if (items.size() <= 1) {
+			for (T item : items) {
+				try {
+					results.add(request.execute(item));
+				} catch (Exception e) {
+					throw new ExecutionException(e);
+				}
+			}
+			return results;
+		}
+
+		RunningRequests runningRequests = new RunningRequests(apiUri, token);
+		List<Future<R>> futures = new ArrayList<>();
+		boolean hasWaitedForRateLimit = false;
+		boolean isSuccessful = false;
+		try {
+			for (T item : items) {
+				runningRequests.acquire();
+				if (rateLimitTracker.isReserveUsedUp(apiUri, token)) {
+					if (hasWaitedForRateLimit || !rateLimitTracker.awaitRateLimit(apiUri, token)) {
+						runningRequests.release();
+						throw new ExecutionException(new RateLimitExceededException(
+								"Rate limit of " + apiUri.getHost() + " is used up, " + (items.size() - futures.size())
+										+ " requests were not sent!"));
+					}
+					hasWaitedForRateLimit = true;
+				}
+				futures.add(apiExecutor.submit(() -> {
+					try {
+						return request.execute(item);
+					} finally {
+						runningRequests.release();
+					}
+				}));
+			}
+
+			for (Future<R> future : futures) {
+				results.add(future.get());
+			}
+			isSuccessful = true;
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExecutionException(e);
+		} finally {
+			if (!isSuccessful) {
+				for (Future<R> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Bounds the amount of running requests by the concurrency the rate limit
+	 * allows. The allowed concurrency is looked up again for every request, since
+	 * the rate limit is updated with every response.
+	 */
+	private class RunningRequests {
+
+		private final URI apiUri;
+		private final String token;
+		private int amount;
+
+		RunningRequests(URI apiUri, String token) {
+			this.apiUri = apiUri;
+			this.token = token;
+		}
+
+		synchronized void acquire() throws InterruptedException {
+			while (amount >= rateLimitTracker.getAllowedConcurrency(apiUri, token, maxConcurrentRequests)) {
+				wait();
+			}
+			amount++;
+		}
+
+		synchronized void release() {
+			amount--;
+			notifyAll();
+		}
+	}
+}
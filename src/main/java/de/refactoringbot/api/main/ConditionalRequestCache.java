@@ -0,0 +1,265 @@
+package de.refactoringbot.api.main;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * This class caches the responses of GET requests that carry an
+ * <code>ETag</code> or <code>Last-Modified</code> header. Later requests for the
+ * same URL and token are sent as conditional requests. If the server answers
+ * with <code>304 Not Modified</code>, the cached response is returned instead.
+ * GitHub does not count such requests against the rate limit.
+ * 
+ * Additionally, the object parsed from a cached response can be kept with
+ * {@link #parse(ResponseEntity, ResponseParser)}, so that unchanged responses
+ * are neither downloaded nor parsed again.
+ */
+@Component
+public class ConditionalRequestCache implements ClientHttpRequestInterceptor {
+
+	/**
+	 * Internal header that links a response to its cache entry
+	 */
+	private static final String CACHE_KEY_HEADER = "X-Refactoring-Bot-Cache-Key";
+	private static final String GITHUB_TOKEN_PARAMETER = "access_token";
+	private static final String GITLAB_TOKEN_HEADER = "Private-Token";
+
+	@Value("${http.maxCachedResponses:1000}")
+	private int maxCachedResponses;
+	@Value("${http.maxCachedResponseSize:5242880}")
+	private int maxCachedResponseSize;
+
+	private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+			return size() > maxCachedResponses;
+		}
+	};
+
+	/**
+	 * Parses the body of a response.
+	 *
+	 * @param <T>
+	 *            type of the parsed object
+	 */
+	@FunctionalInterface
+	public interface ResponseParser<T> {
+		T parse(String body) throws IOException;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		if (request.getMethod() != HttpMethod.GET) {
+			return execution.execute(request, body);
+		}
+
+		String key = getKey(request);
+		CacheEntry entry = getEntry(key);
+		if (entry != null) {
+			if (entry.eTag != null) {
+				request.getHeaders().setIfNoneMatch(entry.eTag);
+			}
+			if (entry.lastModified != null) {
+				request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+			}
+		}
+
+		ClientHttpResponse response = execution.execute(request, body);
+		if (entry != null && response.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+			response.close();
+			entry.isModified = false;
+			return new CachedResponse(entry, key);
+		}
+
+		String eTag = response.getHeaders().getETag();
+		String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+		if (response.getRawStatusCode() != HttpStatus.OK.value() || (eTag == null && lastModified == null)
+				|| response.getHeaders().getContentLength() > maxCachedResponseSize) {
+			return response;
+		}
+
+		CacheEntry newEntry;
+		try {
+			newEntry = new CacheEntry(eTag, lastModified, response.getHeaders(),
+					StreamUtils.copyToByteArray(response.getBody()));
+		} finally {
+			response.close();
+		}
+		if (newEntry.body.length > maxCachedResponseSize) {
+			// Without the key, the response is not mistaken for the outdated entry
+			removeEntry(key);
+			return new CachedResponse(newEntry, null);
+		}
+		putEntry(key, newEntry);
+		return new CachedResponse(newEntry, key);
+	}
+
+	/**
+	 * This method parses the body of the given response. If the response was
+	 * served from the cache and was already parsed before, the previously parsed
+	 * object is returned instead. Callers can therefore check with
+	 * <code>==</code> whether the response changed.
+	 * 
+	 * @param response
+	 * @param parser
+	 * @return parsedBody
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T parse(ResponseEntity<String> response, ResponseParser<T> parser) throws IOException {
+		String key = response.getHeaders().getFirst(CACHE_KEY_HEADER);
+		CacheEntry entry = key != null ? getEntry(key) : null;
+		if (entry == null) {
+			return parser.parse(response.getBody());
+		}
+
+		synchronized (entry) {
+			if (entry.isModified || entry.parsedBody == null) {
+				entry.parsedBody = parser.parse(response.getBody());
+				entry.isModified = false;
+			}
+			return (T) entry.parsedBody;
+		}
+	}
+
+	/**
+	 * This method removes all cached responses.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	private synchronized CacheEntry getEntry(String key) {
+		return entries.get(key);
+	}
+
+	private synchronized void putEntry(String key, CacheEntry entry) {
+		entries.put(key, entry);
+	}
+
+	private synchronized void removeEntry(String key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * This method returns the cache key of the given request. The GitHub token is
+	 * part of the URL and the GitLab token is sent as header. The key consists of
+	 * the URL without the GitHub token and the SHA-256 digest of the token, so
+	 * that the token itself is neither kept in the cache nor in the internal
+	 * header of the responses.
+	 * 
+	 * @param request
+	 * @return key
+	 */
+	private String getKey(HttpRequest request) {
+		UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUri(request.getURI());
+		String token = request.getHeaders().getFirst(GITLAB_TOKEN_HEADER);
+		if (token == null) {
+			token = uriBuilder.build(true).getQueryParams().getFirst(GITHUB_TOKEN_PARAMETER);
+		}
+		String uri = uriBuilder.replaceQueryParam(GITHUB_TOKEN_PARAMETER).build(true).toUriString();
+		return uri + "#" + (token != null ? digest(token) : "");
+	}
+
+	/**
+	 * @param token
+	 * @return hex encoded SHA-256 digest of the token
+	 */
+	private static String digest(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return String.format("%064x", new BigInteger(1, digest));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported!", e);
+		}
+	}
+
+	private static class CacheEntry {
+
+		private final String eTag;
+		private final String lastModified;
+		private final HttpHeaders headers;
+		private final byte[] body;
+		private volatile boolean isModified = true;
+		private Object parsedBody;
+
+		CacheEntry(String eTag, String lastModified, HttpHeaders headers, byte[] body) {
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.headers = headers;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * Response with the body of a cache entry. It is returned for fresh and for
+	 * not modified responses. Only responses of stored entries carry the key.
+	 */
+	private static class CachedResponse implements ClientHttpResponse {
+
+		private final CacheEntry entry;
+		private final HttpHeaders headers = new HttpHeaders();
+
+		CachedResponse(CacheEntry entry, String key) {
+			this.entry = entry;
+			headers.putAll(entry.headers);
+			if (key != null) {
+				headers.set(CACHE_KEY_HEADER, key);
+			}
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(entry.body);
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public HttpStatus getStatusCode() {
+			return HttpStatus.OK;
+		}
+
+		@Override
+		public int getRawStatusCode() {
+			return HttpStatus.OK.value();
+		}
+
+		@Override
+		public String getStatusText() {
+			return HttpStatus.OK.getReasonPhrase();
+		}
+
+		@Override
+		public void close() {
+			// Nothing to close, the body is kept in memory
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package de.refactoringbot.api.main;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import de.refactoringbot.model.exceptions.PaginationException;
+
+/**
+ * This class iterates the pages of a paginated API response. Pages are only
+ * fetched when they are needed: Whenever a page is returned, the next page is
+ * fetched in the background, so that it can be processed right after the
+ * current one. This way at most two pages are held in memory.
+ *
+ * @param <T>
+ *            type of the content of a page
+ */
+public class PagedIterator<T> implements Iterator<T> {
+
+	private final PageRequest<T> request;
+	private final AsyncTaskExecutor executor;
+
+	private Future<Page<T>> nextPage;
+
+	/**
+	 * A request for a single page.
+	 *
+	 * @param <T>
+	 *            type of the content of a page
+	 */
+	@FunctionalInterface
+	public interface PageRequest<T> {
+		Page<T> fetch(URI pageUri) throws Exception;
+	}
+
+	/**
+	 * Content of a page together with the URI of the next page.
+	 *
+	 * @param <T>
+	 *            type of the content
+	 */
+	public static class Page<T> {
+
+		private final T content;
+		private final URI nextPageUri;
+
+		/**
+		 * @param content
+		 * @param nextPageUri
+		 *            null for the last page
+		 */
+		public Page(T content, URI nextPageUri) {
+			this.content = content;
+			this.nextPageUri = nextPageUri;
+		}
+
+		public T getContent() {
+			return content;
+		}
+
+		public URI getNextPageUri() {
+			return nextPageUri;
+		}
+	}
+
+	/**
+	 * @param firstPageUri
+	 * @param request
+	 * @param executor
+	 *            executor the pages are fetched with or null if they should be
+	 *            fetched in the calling thread
+	 */
+	public PagedIterator(URI firstPageUri, PageRequest<T> request, AsyncTaskExecutor executor) {
+		this.request = request;
+		this.executor = executor;
+		this.nextPage = fetch(firstPageUri);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return nextPage != null;
+	}
+
+	/**
+	 * @return content of the next page
+	 * @throws PaginationException
+	 *             if the page could not be fetched
+	 */
+	@Override
+	public T next() {
+		if (nextPage == null) {
+			throw new NoSuchElementException();
+		}
+
+		Page<T> page;
+		try {
+			page = nextPage.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			nextPage = null;
+			throw new PaginationException(e);
+		} catch (ExecutionException e) {
+			nextPage = null;
+			throw new PaginationException(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+		}
+
+		nextPage = page.getNextPageUri() != null ? fetch(page.getNextPageUri()) : null;
+		return page.getContent();
+	}
+
+	private Future<Page<T>> fetch(URI pageUri) {
+		if (executor != null) {
+			return executor.submit(() -> request.fetch(pageUri));
+		}
+		FutureTask<Page<T>> task = new FutureTask<>(() -> request.fetch(pageUri));
+		task.run();
+		return task;
+	}
+}
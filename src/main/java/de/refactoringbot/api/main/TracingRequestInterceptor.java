@@ -0,0 +1,39 @@
+package de.refactoringbot.api.main;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import de.refactoringbot.services.tracing.Span;
+import de.refactoringbot.services.tracing.Tracer;
+
+/**
+ * This class traces the requests to the APIs of the filehosters and analysis
+ * services. The query of a request is not recorded, since it might contain the
+ * token of the bot.
+ */
+@Component
+public class TracingRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		try (Span span = Tracer.startSpan("http.request")) {
+			span.setAttribute("http.method", request.getMethodValue());
+			span.setAttribute("http.host", request.getURI().getHost());
+			span.setAttribute("http.path", request.getURI().getPath());
+			try {
+				ClientHttpResponse response = execution.execute(request, body);
+				span.setAttribute("http.status", response.getRawStatusCode());
+				return response;
+			} catch (IOException e) {
+				span.setError(e);
+				throw e;
+			}
+		}
+	}
+}
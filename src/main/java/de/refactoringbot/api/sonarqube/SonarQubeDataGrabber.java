@@ -2,11 +2,17 @@ package de.refactoringbot.api.sonarqube;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -14,11 +20,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import de.refactoringbot.api.main.ApiRequestExecutor;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
 import de.refactoringbot.model.exceptions.SonarQubeAPIException;
+import de.refactoringbot.model.sonarqube.Paging;
 import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+import de.refactoringbot.refactoring.RefactoringOperations;
 
 /**
  * This class gets all kinds of data from SonarQube.
@@ -29,56 +39,130 @@ import de.refactoringbot.model.sonarqube.SonarQubeIssues;
 @Component
 public class SonarQubeDataGrabber {
 
+	@Autowired
+	RestTemplate rest;
+	@Autowired
+	ApiRequestExecutor requestExecutor;
+
 	private static final String USER_AGENT = "Mozilla/5.0";
+	private static final int PAGE_SIZE = 500;
+	private static final int MAX_SEARCH_RESULTS = 10000;
 
 	private static final Logger logger = LoggerFactory.getLogger(SonarQubeDataGrabber.class);
 
 	/**
-	 * This method gets all SonarQubeIssues of a Project.
+	 * This method gets all SonarQubeIssues of a Project. Only issues of rules that
+	 * can be refactored are requested. After the first page, the remaining pages
+	 * are requested concurrently.
 	 * 
 	 * @param sonarQubeProjectKey
+	 * @param createdAfter
+	 *            if not null, only issues created after this date are returned
 	 * @return allIssues
 	 * @throws SonarQubeAPIException
 	 */
-	public List<SonarQubeIssues> getIssues(GitConfiguration gitConfig) throws SonarQubeAPIException, URISyntaxException {
-		int page = 1;
+	public List<SonarQubeIssues> getIssues(GitConfiguration gitConfig, Date createdAfter)
+			throws SonarQubeAPIException, URISyntaxException {
+		// Build URI
+		UriComponentsBuilder apiUriBuilder = createUriBuilder(gitConfig.getAnalysisServiceApiLink(), "/issues/search");
 
-		List<SonarQubeIssues> issues = new ArrayList<>();
+		apiUriBuilder.queryParam("componentKeys", gitConfig.getAnalysisServiceProjectKey());
+		apiUriBuilder.queryParam("statuses", "OPEN,REOPENED");
+		apiUriBuilder.queryParam("rules",
+				String.join(",", RefactoringOperations.getSonarQubeRuleToOperationMapping().keySet()));
+		apiUriBuilder.queryParam("ps", PAGE_SIZE);
 
-		while (page < 500) {
-			// Build URI
-			UriComponentsBuilder apiUriBuilder = createUriBuilder(gitConfig.getAnalysisServiceApiLink(), "/issues/search");
+		URI sonarQubeURI = apiUriBuilder.build().encode().toUri();
+		if (createdAfter != null) {
+			// The '+' of the time zone has to be encoded as well
+			sonarQubeURI = UriComponentsBuilder.fromUri(sonarQubeURI)
+					.queryParam("createdAfter", UriUtils.encode(formatDate(createdAfter), StandardCharsets.UTF_8))
+					.build(true).toUri();
+		}
+		URI issuesURI = sonarQubeURI;
 
-			apiUriBuilder.queryParam("componentKeys", gitConfig.getAnalysisServiceProjectKey());
-			apiUriBuilder.queryParam("statuses", "OPEN,REOPENED");
-			apiUriBuilder.queryParam("ps", 500);
-			apiUriBuilder.queryParam("p", page);
+		List<SonarQubeIssues> issues = new ArrayList<>();
+		SonarQubeIssues firstPage = getIssuePage(issuesURI, 1);
+		issues.add(firstPage);
 
-			URI sonarQubeURI = apiUriBuilder.build().encode().toUri();
+		int amountOfPages = getAmountOfPages(firstPage);
+		List<Integer> remainingPages = new ArrayList<>();
+		for (int page = 2; page <= amountOfPages; page++) {
+			remainingPages.add(page);
+		}
 
-			RestTemplate rest = new RestTemplate();
+		try {
+			issues.addAll(requestExecutor.executeInOrder(issuesURI, null, remainingPages,
+					page -> getIssuePage(issuesURI, page)));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof SonarQubeAPIException) {
+				throw (SonarQubeAPIException) e.getCause();
+			}
+			throw new SonarQubeAPIException("Could not access SonarQube API!", e.getCause());
+		}
 
-			HttpHeaders headers = new HttpHeaders();
-			headers.set("User-Agent", USER_AGENT);
-			HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
+		return issues;
+	}
 
-			try {
-				// Send request
-				issues.add(rest.exchange(sonarQubeURI, HttpMethod.GET, entity, SonarQubeIssues.class).getBody());
-				page++;
-			} catch (RestClientException e) {
-				if (page == 1) {
-					logger.error(e.getMessage(), e);
-					throw new SonarQubeAPIException("Could not access SonarQube API!", e);
-				}
+	/**
+	 * This method gets a single page of SonarQubeIssues.
+	 * 
+	 * @param issuesURI
+	 * @param page
+	 * @return issues
+	 * @throws SonarQubeAPIException
+	 */
+	private SonarQubeIssues getIssuePage(URI issuesURI, int page) throws SonarQubeAPIException {
+		URI pageURI = UriComponentsBuilder.fromUri(issuesURI).queryParam("p", page).build(true).toUri();
 
-				break;
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("User-Agent", USER_AGENT);
+		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
 
-			}
+		try {
+			// Send request
+			return rest.exchange(pageURI, HttpMethod.GET, entity, SonarQubeIssues.class).getBody();
+		} catch (RestClientException e) {
+			logger.error(e.getMessage(), e);
+			throw new SonarQubeAPIException("Could not access SonarQube API!", e);
 		}
+	}
 
-		return issues;
+	/**
+	 * This method checks if the given issue pages of a search miss issues, since
+	 * SonarQube does not return more than 10000 issues for a search.
+	 * 
+	 * @param issuePages
+	 * @return isTruncated
+	 */
+	public boolean isTruncated(List<SonarQubeIssues> issuePages) {
+		if (issuePages.isEmpty()) {
+			return false;
+		}
+		Paging paging = issuePages.get(0).getPaging();
+		return paging != null && paging.getTotal() != null && paging.getTotal() > MAX_SEARCH_RESULTS;
+	}
 
+	/**
+	 * This method calculates the amount of pages from the total amount of issues.
+	 * SonarQube does not return more than 10000 issues for a search.
+	 * 
+	 * @param firstPage
+	 * @return amountOfPages
+	 */
+	private int getAmountOfPages(SonarQubeIssues firstPage) {
+		Paging paging = firstPage.getPaging();
+		if (paging == null || paging.getTotal() == null) {
+			return 1;
+		}
+
+		int total = paging.getTotal();
+		if (total > MAX_SEARCH_RESULTS) {
+			logger.warn("SonarQube only returns " + MAX_SEARCH_RESULTS + " of " + total
+					+ " issues, the remaining issues are returned once these are fixed.");
+			total = MAX_SEARCH_RESULTS;
+		}
+		return Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
 	}
 
 	/**
@@ -96,8 +180,6 @@ public class SonarQubeDataGrabber {
 
 		URI sonarQubeURI = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
@@ -111,6 +193,19 @@ public class SonarQubeDataGrabber {
 		}
 	}
 
+	/**
+	 * This method formats a date the way the SonarQube API expects it, e.g.
+	 * 2017-10-19T13:00:00+0000.
+	 * 
+	 * @param date
+	 * @return formattedDate
+	 */
+	private String formatDate(Date date) {
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
+		dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return dateFormat.format(date);
+	}
+
 	/**
 	 * Attempts to instantiate a URI object using the specified API link. If
 	 * successful, it creates an UriComponentsBuilder with the created URI and
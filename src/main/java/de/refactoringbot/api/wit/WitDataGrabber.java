@@ -26,6 +26,8 @@ public class WitDataGrabber {
 
 	@Autowired
 	BotConfiguration botConfig;
+	@Autowired
+	RestTemplate rest;
 
 	private static final String USER_AGENT = "Mozilla/5.0";
 
@@ -48,8 +50,6 @@ public class WitDataGrabber {
 
 		URI witUri = apiUriBuilder.build().encode().toUri();
 
-		RestTemplate rest = new RestTemplate();
-
 		HttpHeaders headers = new HttpHeaders();
 		headers.set("User-Agent", USER_AGENT);
 		headers.set("Authorization", "Bearer " + botConfig.getWitClientToken());
@@ -15,6 +15,7 @@ public class BotConfiguration {
 
 	private String botRefactoringDirectory = "";
 	private String witClientToken = "";
+	private String webhookSecret = "";
 
 	public String getBotRefactoringDirectory() {
 		return botRefactoringDirectory;
@@ -32,4 +33,12 @@ public class BotConfiguration {
 		this.witClientToken = witClientToken;
 	}
 
+	public String getWebhookSecret() {
+		return webhookSecret;
+	}
+
+	public void setWebhookSecret(String webhookSecret) {
+		this.webhookSecret = webhookSecret;
+	}
+
 }
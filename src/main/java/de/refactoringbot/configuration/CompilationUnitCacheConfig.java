@@ -0,0 +1,25 @@
+package de.refactoringbot.configuration;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import de.refactoringbot.refactoring.RefactoringHelper;
+
+/**
+ * This class configures the size of the caches of the parsed files, which every
+ * workspace has for itself.
+ */
+@Configuration
+public class CompilationUnitCacheConfig {
+
+	@Value("${bot.compilationUnitCacheSizeInMB:64}")
+	private long cacheSizeInMB;
+
+	@PostConstruct
+	public void configureCompilationUnitCaches() {
+		RefactoringHelper.setMaximumCachedSourceSize(cacheSizeInMB * 1024 * 1024);
+	}
+
+}
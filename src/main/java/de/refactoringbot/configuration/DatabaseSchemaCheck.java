@@ -0,0 +1,89 @@
+package de.refactoringbot.configuration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class checks the database schema after Hibernate updated it. Hibernate
+ * only logs the constraints it could not add to existing tables, e.g. the unique
+ * constraint on the refactored comments if duplicate comments exist. The bot
+ * does not start without them.
+ */
+@Component
+public class DatabaseSchemaCheck {
+
+	@Autowired
+	DataSource dataSource;
+	/**
+	 * The schema is updated with the creation of the entity manager factory
+	 */
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	private static final String REFACTORED_ISSUES_TABLE = "refactored_issues";
+	private static final String REFACTORED_COMMENT_CONSTRAINT = "UK_REFACTORED_ISSUES_COMMENT";
+	private static final String DUPLICATE_COMMENTS_SCRIPT = "dev/database/remove-duplicate-refactored-comments.sql";
+
+	/**
+	 * This method checks that all unique constraints exist.
+	 * 
+	 * @throws SQLException
+	 * @throws IllegalStateException
+	 *             if a constraint is missing
+	 */
+	@PostConstruct
+	public void checkConstraints() throws SQLException {
+		if (!uniqueIndexExists(REFACTORED_ISSUES_TABLE, REFACTORED_COMMENT_CONSTRAINT)) {
+			throw new IllegalStateException("The unique constraint " + REFACTORED_COMMENT_CONSTRAINT
+					+ " could not be created, probably because comments were refactored more than once. Remove the "
+					+ "duplicates with the script " + DUPLICATE_COMMENTS_SCRIPT + " and restart the bot.");
+		}
+	}
+
+	/**
+	 * This method checks if a unique index exists, regardless of the case of the
+	 * names of the index and its table.
+	 * 
+	 * @param tableName
+	 * @param indexName
+	 * @return indexExists
+	 * @throws SQLException
+	 */
+	private boolean uniqueIndexExists(String tableName, String indexName) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, null,
+					new String[] { "TABLE" })) {
+				while (tables.next()) {
+					String table = tables.getString("TABLE_NAME");
+					if (tableName.equalsIgnoreCase(table)
+							&& indexExists(metaData, connection.getCatalog(), table, indexName)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean indexExists(DatabaseMetaData metaData, String catalog, String table, String indexName)
+			throws SQLException {
+		try (ResultSet indexes = metaData.getIndexInfo(catalog, null, table, true, true)) {
+			while (indexes.next()) {
+				if (indexName.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,140 @@
+package de.refactoringbot.configuration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import de.refactoringbot.api.main.ApiRateLimitTracker;
+import de.refactoringbot.api.main.ConditionalRequestCache;
+import de.refactoringbot.api.main.TracingRequestInterceptor;
+import de.refactoringbot.services.tracing.TracingTaskDecorator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * This class configures the HTTP client that is shared by all API grabbers. It
+ * keeps a pool of keep-alive connections, so that connections and TLS sessions
+ * to the filehosters and analysis services are reused between requests.
+ */
+@Configuration
+public class HttpClientConfig {
+
+	@Value("${http.maxConnections:50}")
+	private int maxConnections;
+	@Value("${http.maxConnectionsPerHost:10}")
+	private int maxConnectionsPerHost;
+	@Value("${http.connectTimeoutInMS:5000}")
+	private int connectTimeoutInMS;
+	@Value("${http.readTimeoutInMS:30000}")
+	private int readTimeoutInMS;
+	@Value("${http.connectionRequestTimeoutInMS:10000}")
+	private int connectionRequestTimeoutInMS;
+	@Value("${http.keepAliveInMS:30000}")
+	private long keepAliveInMS;
+	@Value("${http.maxConcurrentRequests:8}")
+	private int maxConcurrentRequests;
+
+	@Bean
+	public PoolingHttpClientConnectionManager httpConnectionManager() {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+		// Check connections that were idle for a while before reusing them
+		connectionManager.setValidateAfterInactivity(2000);
+		return connectionManager;
+	}
+
+	@Bean
+	public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(connectTimeoutInMS)
+				.setSocketTimeout(readTimeoutInMS).setConnectionRequestTimeout(connectionRequestTimeoutInMS)
+				.build();
+
+		// Content compression (gzip, deflate) is enabled by default
+		return HttpClients.custom().setConnectionManager(httpConnectionManager)
+				.setDefaultRequestConfig(requestConfig).setKeepAliveStrategy(keepAliveStrategy())
+				.evictExpiredConnections().evictIdleConnections(keepAliveInMS, TimeUnit.MILLISECONDS).build();
+	}
+
+	/**
+	 * Exposes the statistics of the connection pool as metrics.
+	 * 
+	 * @param httpConnectionManager
+	 * @return meterBinder
+	 */
+	@Bean
+	public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+		return registry -> {
+			Gauge.builder("http.client.connections.leased", httpConnectionManager,
+					manager -> manager.getTotalStats().getLeased())
+					.description("Connections of the HTTP client that are currently in use").register(registry);
+			Gauge.builder("http.client.connections.available", httpConnectionManager,
+					manager -> manager.getTotalStats().getAvailable())
+					.description("Idle connections of the HTTP client that can be reused").register(registry);
+			Gauge.builder("http.client.connections.pending", httpConnectionManager,
+					manager -> manager.getTotalStats().getPending())
+					.description("Requests of the HTTP client waiting for a connection").register(registry);
+			Gauge.builder("http.client.connections.max", httpConnectionManager,
+					manager -> manager.getTotalStats().getMax())
+					.description("Maximum amount of connections of the HTTP client").register(registry);
+		};
+	}
+
+	@Bean
+	public RestTemplate restTemplate(CloseableHttpClient httpClient, ConditionalRequestCache requestCache,
+			ApiRateLimitTracker rateLimitTracker, TracingRequestInterceptor tracingInterceptor) {
+		// The HttpComponents request factory also supports PATCH requests
+		RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+		// Requests answered from the cache are traced as well
+		restTemplate.getInterceptors().add(tracingInterceptor);
+		// The rate limit tracker also has to see responses that are answered from the cache
+		restTemplate.getInterceptors().add(requestCache);
+		restTemplate.getInterceptors().add(rateLimitTracker);
+		return restTemplate;
+	}
+
+	/**
+	 * Worker pool for API requests that are sent concurrently, e.g. the requests
+	 * for the comments of all pull requests.
+	 * 
+	 * @return apiExecutor
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor apiExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(maxConcurrentRequests);
+		executor.setMaxPoolSize(maxConcurrentRequests);
+		executor.setThreadNamePrefix("api-");
+		executor.setTaskDecorator(new TracingTaskDecorator());
+		return executor;
+	}
+
+	/**
+	 * Keeps connections alive as long as the server allows it, but not longer than
+	 * the configured keep-alive time.
+	 * 
+	 * @return keepAliveStrategy
+	 */
+	private ConnectionKeepAliveStrategy keepAliveStrategy() {
+		return (response, context) -> {
+			long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+					context);
+			if (serverKeepAlive > 0) {
+				return Math.min(serverKeepAlive, keepAliveInMS);
+			}
+			return keepAliveInMS;
+		};
+	}
+
+}
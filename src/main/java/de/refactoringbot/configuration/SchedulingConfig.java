@@ -0,0 +1,74 @@
+package de.refactoringbot.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import de.refactoringbot.services.scheduling.SchedulingService;
+import de.refactoringbot.services.tracing.TracingTaskDecorator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * This class configures the worker pool that processes the configurations of
+ * the scheduled refactorings in parallel, the worker pool that refactors
+ * batches of the same configuration in parallel worktrees and the pool that
+ * sends the events of the refactoring jobs to their subscribers.
+ */
+@Configuration
+public class SchedulingConfig {
+
+	@Value("${scheduling.poolSize:4}")
+	private int poolSize;
+	@Value("${scheduling.queueCapacity:100}")
+	private int queueCapacity;
+	@Value("${scheduling.refactoringPoolSize:2}")
+	private int refactoringPoolSize;
+	@Value("${scheduling.jobEventPoolSize:2}")
+	private int jobEventPoolSize;
+
+	@Bean
+	public ThreadPoolTaskExecutor schedulingExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("scheduling-");
+		executor.setTaskDecorator(new TracingTaskDecorator());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(60);
+		return executor;
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor refactoringExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(refactoringPoolSize);
+		executor.setMaxPoolSize(refactoringPoolSize);
+		executor.setThreadNamePrefix("refactoring-");
+		executor.setTaskDecorator(new TracingTaskDecorator());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(60);
+		return executor;
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor jobEventExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(jobEventPoolSize);
+		executor.setMaxPoolSize(jobEventPoolSize);
+		executor.setThreadNamePrefix("job-events-");
+		return executor;
+	}
+
+	@Bean
+	public MeterBinder schedulingMetrics(SchedulingService schedulingService) {
+		return registry -> {
+			Gauge.builder("scheduling.configurations.pending", schedulingService,
+					SchedulingService::getAmountOfPendingConfigurations)
+					.description("Configurations that are queued or being processed").register(registry);
+		};
+	}
+
+}
@@ -0,0 +1,38 @@
+package de.refactoringbot.configuration;
+
+import java.io.File;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import de.refactoringbot.services.tracing.JsonFileSpanExporter;
+import de.refactoringbot.services.tracing.Tracer;
+
+/**
+ * This class enables the tracing of the refactorings, if configured. The
+ * finished traces are written as JSON files into the configured directory.
+ */
+@Configuration
+public class TracingConfig {
+
+	@Value("${tracing.enable:false}")
+	private boolean enable;
+	@Value("${tracing.directory:traces}")
+	private String directory;
+
+	@PostConstruct
+	public void configureTracing() {
+		if (enable) {
+			Tracer.setExporter(new JsonFileSpanExporter(new File(directory)));
+		}
+	}
+
+	@PreDestroy
+	public void disableTracing() {
+		Tracer.setExporter(null);
+	}
+
+}
@@ -0,0 +1,101 @@
+package de.refactoringbot.model.analysisissue;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Local copy of an issue of an analysis service. Only issues that the bot can
+ * refactor are stored.
+ */
+@Entity
+@Table(name = "ANALYSIS_ISSUES")
+public class AnalysisIssue {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private Long configurationId;
+	private String issueKey;
+	@Enumerated(EnumType.STRING)
+	private AnalysisIssueStatus status;
+	private boolean processed;
+	private String refactoringOperation;
+	private String filePath;
+	private Integer line;
+	private String refactorString;
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getConfigurationId() {
+		return configurationId;
+	}
+
+	public void setConfigurationId(Long configurationId) {
+		this.configurationId = configurationId;
+	}
+
+	public String getIssueKey() {
+		return issueKey;
+	}
+
+	public void setIssueKey(String issueKey) {
+		this.issueKey = issueKey;
+	}
+
+	public AnalysisIssueStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(AnalysisIssueStatus status) {
+		this.status = status;
+	}
+
+	public boolean isProcessed() {
+		return processed;
+	}
+
+	public void setProcessed(boolean processed) {
+		this.processed = processed;
+	}
+
+	public String getRefactoringOperation() {
+		return refactoringOperation;
+	}
+
+	public void setRefactoringOperation(String refactoringOperation) {
+		this.refactoringOperation = refactoringOperation;
+	}
+
+	public String getFilePath() {
+		return filePath;
+	}
+
+	public void setFilePath(String filePath) {
+		this.filePath = filePath;
+	}
+
+	public Integer getLine() {
+		return line;
+	}
+
+	public void setLine(Integer line) {
+		this.line = line;
+	}
+
+	public String getRefactorString() {
+		return refactorString;
+	}
+
+	public void setRefactorString(String refactorString) {
+		this.refactorString = refactorString;
+	}
+
+}
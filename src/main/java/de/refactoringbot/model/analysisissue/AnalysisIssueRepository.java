@@ -0,0 +1,41 @@
+package de.refactoringbot.model.analysisissue;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This interface is used to communicate with the database. It also implements
+ * Springs CrudRepository for direct access to existing CRUD-Methods.
+ */
+@Transactional
+public interface AnalysisIssueRepository extends CrudRepository<AnalysisIssue, Long> {
+
+	@Query("SELECT a FROM AnalysisIssue a WHERE a.configurationId=:configurationId and a.issueKey IN :issueKeys")
+	List<AnalysisIssue> getIssuesByKeys(@Param("configurationId") Long configurationId,
+			@Param("issueKeys") Collection<String> issueKeys);
+
+	@Query("SELECT a FROM AnalysisIssue a WHERE a.configurationId=:configurationId and a.status=:status")
+	List<AnalysisIssue> getIssuesByStatus(@Param("configurationId") Long configurationId,
+			@Param("status") AnalysisIssueStatus status);
+
+	@Query("SELECT a FROM AnalysisIssue a WHERE a.configurationId=:configurationId and a.status=:status "
+			+ "and a.processed=false ORDER BY a.id")
+	List<AnalysisIssue> getUnprocessedIssues(@Param("configurationId") Long configurationId,
+			@Param("status") AnalysisIssueStatus status);
+
+	@Modifying
+	@Query("UPDATE AnalysisIssue a SET a.processed=true WHERE a.configurationId=:configurationId "
+			+ "and a.issueKey=:issueKey")
+	int markAsProcessed(@Param("configurationId") Long configurationId, @Param("issueKey") String issueKey);
+
+	@Modifying
+	@Query("DELETE FROM AnalysisIssue a WHERE a.configurationId=:configurationId")
+	int deleteIssuesOfConfiguration(@Param("configurationId") Long configurationId);
+
+}
@@ -0,0 +1,10 @@
+package de.refactoringbot.model.analysisissue;
+
+/**
+ * Status of a locally stored analysis service issue. Issues are closed if they
+ * were not reported by the analysis service anymore with the last full sync.
+ */
+public enum AnalysisIssueStatus {
+    open,
+    closed
+}
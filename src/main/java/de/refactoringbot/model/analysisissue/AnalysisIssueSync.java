@@ -0,0 +1,52 @@
+package de.refactoringbot.model.analysisissue;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * State of the synchronization of the analysis service issues of a
+ * configuration.
+ */
+@Entity
+@Table(name = "ANALYSIS_ISSUE_SYNCS")
+public class AnalysisIssueSync {
+
+	@Id
+	private Long configurationId;
+
+	/**
+	 * Start of the last successful sync in milliseconds since the epoch
+	 */
+	private Long lastSyncInMS;
+
+	/**
+	 * Start of the last successful full sync in milliseconds since the epoch
+	 */
+	private Long lastFullSyncInMS;
+
+	public Long getConfigurationId() {
+		return configurationId;
+	}
+
+	public void setConfigurationId(Long configurationId) {
+		this.configurationId = configurationId;
+	}
+
+	public Long getLastSyncInMS() {
+		return lastSyncInMS;
+	}
+
+	public void setLastSyncInMS(Long lastSyncInMS) {
+		this.lastSyncInMS = lastSyncInMS;
+	}
+
+	public Long getLastFullSyncInMS() {
+		return lastFullSyncInMS;
+	}
+
+	public void setLastFullSyncInMS(Long lastFullSyncInMS) {
+		this.lastFullSyncInMS = lastFullSyncInMS;
+	}
+
+}
@@ -0,0 +1,13 @@
+package de.refactoringbot.model.analysisissue;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This interface is used to communicate with the database. It also implements
+ * Springs CrudRepository for direct access to existing CRUD-Methods.
+ */
+@Transactional
+public interface AnalysisIssueSyncRepository extends CrudRepository<AnalysisIssueSync, Long> {
+
+}
@@ -0,0 +1,28 @@
+package de.refactoringbot.model.botissue;
+
+import java.util.List;
+
+/**
+ * Open issues of a project returned by an analysis service. The issues are
+ * truncated if the analysis service did not return all issues of the search,
+ * e.g. because it limits the amount of search results.
+ */
+public class AnalysisServiceIssues {
+
+	private final List<BotIssue> issues;
+	private final boolean truncated;
+
+	public AnalysisServiceIssues(List<BotIssue> issues, boolean truncated) {
+		this.issues = issues;
+		this.truncated = truncated;
+	}
+
+	public List<BotIssue> getIssues() {
+		return issues;
+	}
+
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+}
@@ -1,6 +1,12 @@
 package de.refactoringbot.model.botissue;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import de.refactoringbot.refactoring.MethodCallIndex;
+import de.refactoringbot.refactoring.TypeHierarchyIndex;
+import de.refactoringbot.refactoring.WorkspaceSymbolSolver;
 
 public class BotIssue {
 
@@ -13,6 +19,10 @@ public class BotIssue {
 	private String commitMessage;
 	private List<String> allJavaFiles;
 	private List<String> javaRoots;
+	private TypeHierarchyIndex typeHierarchyIndex;
+	private MethodCallIndex methodCallIndex;
+	private WorkspaceSymbolSolver symbolSolver;
+	private Map<String, String> changedFiles = new LinkedHashMap<>();
 
 	/**
 	 * The refactoring operation describes the refactoring that will be performed.
@@ -107,4 +117,61 @@ public class BotIssue {
 		this.javaRoots = javaRoots;
 	}
 
+	/**
+	 * This method returns the type hierarchy index of the workspace. It might be
+	 * null, in which case refactorings build a temporary index from all java files.
+	 * 
+	 * @return typeHierarchyIndex
+	 */
+	public TypeHierarchyIndex getTypeHierarchyIndex() {
+		return typeHierarchyIndex;
+	}
+
+	public void setTypeHierarchyIndex(TypeHierarchyIndex typeHierarchyIndex) {
+		this.typeHierarchyIndex = typeHierarchyIndex;
+	}
+
+	/**
+	 * This method returns the method call index of the workspace. It might be
+	 * null, in which case refactorings build a temporary index from all java files.
+	 * 
+	 * @return methodCallIndex
+	 */
+	public MethodCallIndex getMethodCallIndex() {
+		return methodCallIndex;
+	}
+
+	public void setMethodCallIndex(MethodCallIndex methodCallIndex) {
+		this.methodCallIndex = methodCallIndex;
+	}
+
+	/**
+	 * This method returns the cached symbol solver of the workspace. It might be
+	 * null, in which case refactorings create a new one for the java roots.
+	 * 
+	 * @return symbolSolver
+	 */
+	public WorkspaceSymbolSolver getSymbolSolver() {
+		return symbolSolver;
+	}
+
+	public void setSymbolSolver(WorkspaceSymbolSolver symbolSolver) {
+		this.symbolSolver = symbolSolver;
+	}
+
+	/**
+	 * This method returns the files written by the refactoring of the issue
+	 * (path -> written content), so that they can be committed without scanning
+	 * the working tree.
+	 * 
+	 * @return changedFiles
+	 */
+	public Map<String, String> getChangedFiles() {
+		return changedFiles;
+	}
+
+	public void addChangedFile(String filePath, String content) {
+		this.changedFiles.put(filePath, content);
+	}
+
 }
@@ -2,6 +2,8 @@ package de.refactoringbot.model.configuration;
 
 import javax.persistence.*;
 
+import org.springframework.beans.BeanUtils;
+
 @Entity
 @Table(name = "GIT_CONFIGURATIONS")
 public class GitConfiguration {
@@ -155,4 +157,20 @@ public class GitConfiguration {
 		this.analysisServiceApiLink = analysisServiceApiLink;
 	}
 
+	/**
+	 * This method creates a copy of the configuration that is not managed by the
+	 * database and uses the given folder as its local workspace (e.g. a worktree
+	 * of the configuration).
+	 * 
+	 * @param repoFolder
+	 * @return copy
+	 */
+	public GitConfiguration copyWithRepoFolder(String repoFolder) {
+		GitConfiguration copy = new GitConfiguration();
+		BeanUtils.copyProperties(this, copy);
+		copy.configurationId = configurationId;
+		copy.repoFolder = repoFolder;
+		return copy;
+	}
+
 }
@@ -0,0 +1,23 @@
+package de.refactoringbot.model.exceptions;
+
+/**
+ * Exception if a page of a paginated API response could not be fetched or
+ * processed. It is unchecked, since it is thrown by iterators, and wraps the
+ * exception of the failed request.
+ */
+public class PaginationException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PaginationException(Exception cause) {
+		super(cause);
+	}
+
+	/**
+	 * @return exception of the failed request
+	 */
+	public Exception getRequestException() {
+		return (Exception) getCause();
+	}
+
+}
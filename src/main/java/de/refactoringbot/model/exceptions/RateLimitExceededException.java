@@ -0,0 +1,14 @@
+package de.refactoringbot.model.exceptions;
+
+/**
+ * Exception if the rate limit of an API is used up and is not reset in time.
+ */
+public class RateLimitExceededException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public RateLimitExceededException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,86 @@
+package de.refactoringbot.model.github.webhook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import de.refactoringbot.model.github.pullrequest.GithubPullRequest;
+import de.refactoringbot.model.github.pullrequestcomment.PullRequestComment;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "action",
+    "comment",
+    "pull_request",
+    "repository"
+})
+public class GithubReviewCommentEvent {
+
+    @JsonProperty("action")
+    private String action;
+    @JsonProperty("comment")
+    private PullRequestComment comment;
+    @JsonProperty("pull_request")
+    private GithubPullRequest pullRequest;
+    @JsonProperty("repository")
+    private GithubWebhookRepository repository;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties = new HashMap<>();
+
+    @JsonProperty("action")
+    public String getAction() {
+        return action;
+    }
+
+    @JsonProperty("action")
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    @JsonProperty("comment")
+    public PullRequestComment getComment() {
+        return comment;
+    }
+
+    @JsonProperty("comment")
+    public void setComment(PullRequestComment comment) {
+        this.comment = comment;
+    }
+
+    @JsonProperty("pull_request")
+    public GithubPullRequest getPullRequest() {
+        return pullRequest;
+    }
+
+    @JsonProperty("pull_request")
+    public void setPullRequest(GithubPullRequest pullRequest) {
+        this.pullRequest = pullRequest;
+    }
+
+    @JsonProperty("repository")
+    public GithubWebhookRepository getRepository() {
+        return repository;
+    }
+
+    @JsonProperty("repository")
+    public void setRepository(GithubWebhookRepository repository) {
+        this.repository = repository;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties;
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        this.additionalProperties.put(name, value);
+    }
+
+}
@@ -0,0 +1,99 @@
+package de.refactoringbot.model.gitlab.webhook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import de.refactoringbot.model.gitlab.pullrequest.GitLabPullRequest;
+import de.refactoringbot.model.gitlab.user.GitLabUser;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "object_kind",
+    "user",
+    "object_attributes",
+    "merge_request",
+    "project"
+})
+public class GitLabNoteEvent {
+
+    @JsonProperty("object_kind")
+    private String objectKind;
+    @JsonProperty("user")
+    private GitLabUser user;
+    @JsonProperty("object_attributes")
+    private NoteAttributes objectAttributes;
+    @JsonProperty("merge_request")
+    private GitLabPullRequest mergeRequest;
+    @JsonProperty("project")
+    private GitLabWebhookProject project;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties = new HashMap<>();
+
+    @JsonProperty("object_kind")
+    public String getObjectKind() {
+        return objectKind;
+    }
+
+    @JsonProperty("object_kind")
+    public void setObjectKind(String objectKind) {
+        this.objectKind = objectKind;
+    }
+
+    @JsonProperty("user")
+    public GitLabUser getUser() {
+        return user;
+    }
+
+    @JsonProperty("user")
+    public void setUser(GitLabUser user) {
+        this.user = user;
+    }
+
+    @JsonProperty("object_attributes")
+    public NoteAttributes getObjectAttributes() {
+        return objectAttributes;
+    }
+
+    @JsonProperty("object_attributes")
+    public void setObjectAttributes(NoteAttributes objectAttributes) {
+        this.objectAttributes = objectAttributes;
+    }
+
+    @JsonProperty("merge_request")
+    public GitLabPullRequest getMergeRequest() {
+        return mergeRequest;
+    }
+
+    @JsonProperty("merge_request")
+    public void setMergeRequest(GitLabPullRequest mergeRequest) {
+        this.mergeRequest = mergeRequest;
+    }
+
+    @JsonProperty("project")
+    public GitLabWebhookProject getProject() {
+        return project;
+    }
+
+    @JsonProperty("project")
+    public void setProject(GitLabWebhookProject project) {
+        this.project = project;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties;
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        this.additionalProperties.put(name, value);
+    }
+
+}
@@ -0,0 +1,98 @@
+package de.refactoringbot.model.gitlab.webhook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import de.refactoringbot.model.gitlab.pullrequestdiscussion.Position;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "id",
+    "note",
+    "noteable_type",
+    "discussion_id",
+    "position"
+})
+public class NoteAttributes {
+
+    @JsonProperty("id")
+    private Integer id;
+    @JsonProperty("note")
+    private String note;
+    @JsonProperty("noteable_type")
+    private String noteableType;
+    @JsonProperty("discussion_id")
+    private String discussionId;
+    @JsonProperty("position")
+    private Position position;
+    @JsonIgnore
+    private Map<String, Object> additionalProperties = new HashMap<>();
+
+    @JsonProperty("id")
+    public Integer getId() {
+        return id;
+    }
+
+    @JsonProperty("id")
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    @JsonProperty("note")
+    public String getNote() {
+        return note;
+    }
+
+    @JsonProperty("note")
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    @JsonProperty("noteable_type")
+    public String getNoteableType() {
+        return noteableType;
+    }
+
+    @JsonProperty("noteable_type")
+    public void setNoteableType(String noteableType) {
+        this.noteableType = noteableType;
+    }
+
+    @JsonProperty("discussion_id")
+    public String getDiscussionId() {
+        return discussionId;
+    }
+
+    @JsonProperty("discussion_id")
+    public void setDiscussionId(String discussionId) {
+        this.discussionId = discussionId;
+    }
+
+    @JsonProperty("position")
+    public Position getPosition() {
+        return position;
+    }
+
+    @JsonProperty("position")
+    public void setPosition(Position position) {
+        this.position = position;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return this.additionalProperties;
+    }
+
+    @JsonAnySetter
+    public void setAdditionalProperty(String name, Object value) {
+        this.additionalProperties.put(name, value);
+    }
+
+}
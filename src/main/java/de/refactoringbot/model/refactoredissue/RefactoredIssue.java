@@ -7,10 +7,21 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
+/**
+ * Issue that was refactored by the bot. Every comment or analysis service
+ * issue is refactored at most once per filehoster, which is ensured by a
+ * unique constraint that also serves the duplicate checks of the bot.
+ */
 @Entity
-@Table(name = "REFACTORED_ISSUES")
+@Table(name = "REFACTORED_ISSUES", uniqueConstraints = {
+		@UniqueConstraint(name = "UK_REFACTORED_ISSUES_COMMENT", columnNames = { "repoService",
+				"commentServiceID" }) }, indexes = {
+						@Index(name = "IDX_REFACTORED_ISSUES_COMMENT", columnList = "commentServiceID"),
+						@Index(name = "IDX_REFACTORED_ISSUES_OWNER", columnList = "repoService,repoOwner") })
 public class RefactoredIssue {
 
 	@Id
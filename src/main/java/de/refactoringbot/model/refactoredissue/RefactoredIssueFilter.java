@@ -0,0 +1,59 @@
+package de.refactoringbot.model.refactoredissue;
+
+import de.refactoringbot.model.configuration.FileHoster;
+
+/**
+ * Filter for the refactored issues. All fields are optional. The dates are
+ * compared with the date of refactoring as prefixes of its format (e.g.
+ * '2018-11-01' or '2018-11-01T12:00'). The date 'from' is inclusive, the date
+ * 'to' is exclusive.
+ */
+public class RefactoredIssueFilter {
+
+	private FileHoster repoService;
+	private String ownerName;
+	private String status;
+	private String from;
+	private String to;
+
+	public FileHoster getRepoService() {
+		return repoService;
+	}
+
+	public void setRepoService(FileHoster repoService) {
+		this.repoService = repoService;
+	}
+
+	public String getOwnerName() {
+		return ownerName;
+	}
+
+	public void setOwnerName(String ownerName) {
+		this.ownerName = ownerName;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getFrom() {
+		return from;
+	}
+
+	public void setFrom(String from) {
+		this.from = from;
+	}
+
+	public String getTo() {
+		return to;
+	}
+
+	public void setTo(String to) {
+		this.to = to;
+	}
+
+}
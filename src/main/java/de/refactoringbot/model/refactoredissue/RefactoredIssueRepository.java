@@ -1,11 +1,19 @@
 package de.refactoringbot.model.refactoredissue;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
 import javax.transaction.Transactional;
 
 import de.refactoringbot.model.configuration.FileHoster;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -19,12 +27,32 @@ import org.springframework.data.repository.query.Param;
 @Transactional
 public interface RefactoredIssueRepository extends CrudRepository<RefactoredIssue, Long> {
 
-	@Query("SELECT a FROM RefactoredIssue a WHERE a.repoService=:repoService")
-	Iterable<RefactoredIssue> getAllServiceRefactorings(@Param("repoService") String repoService);
+	/**
+	 * Filters of the refactored issues. Issues are ordered by their ID, which is
+	 * used as the cursor of the pages.
+	 */
+	String FILTERED_ISSUES = "SELECT a FROM RefactoredIssue a WHERE a.issueId > :cursor "
+			+ "and (:repoService IS NULL or a.repoService=:repoService) "
+			+ "and (:repoOwner IS NULL or a.repoOwner=:repoOwner) and (:status IS NULL or a.status=:status) "
+			+ "and (:dateFrom IS NULL or a.dateOfRefactoring >= :dateFrom) "
+			+ "and (:dateTo IS NULL or a.dateOfRefactoring < :dateTo) ORDER BY a.issueId";
+
+	/**
+	 * Fetch size that makes the MySQL driver stream the rows instead of loading
+	 * the whole result into memory.
+	 */
+	String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+	@Query(FILTERED_ISSUES)
+	List<RefactoredIssue> getIssues(@Param("cursor") Long cursor, @Param("repoService") FileHoster repoService,
+			@Param("repoOwner") String repoOwner, @Param("status") String status, @Param("dateFrom") String dateFrom,
+			@Param("dateTo") String dateTo, Pageable pageable);
 
-	@Query("SELECT a FROM RefactoredIssue a WHERE a.repoService=:repoService and a.repoOwner=:repoOwner")
-	Iterable<RefactoredIssue> getAllUserIssues(@Param("repoService") String repoService,
-			@Param("repoOwner") String repoOwner);
+	@Query(FILTERED_ISSUES)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+	Stream<RefactoredIssue> streamIssues(@Param("cursor") Long cursor, @Param("repoService") FileHoster repoService,
+			@Param("repoOwner") String repoOwner, @Param("status") String status, @Param("dateFrom") String dateFrom,
+			@Param("dateTo") String dateTo);
 
 	@Query("SELECT a FROM RefactoredIssue a WHERE a.repoService=:repoService and a.commentServiceID=:commentServiceID")
 	Optional<RefactoredIssue> refactoredComment(@Param("repoService") FileHoster repoService,
@@ -33,4 +61,15 @@ public interface RefactoredIssueRepository extends CrudRepository<RefactoredIssu
 	@Query("SELECT a FROM RefactoredIssue a WHERE a.commentServiceID=:commentServiceID")
 	Optional<RefactoredIssue> refactoredAnalysisIssue(@Param("commentServiceID") String commentServiceID);
 
+	@Query("SELECT a.commentServiceID FROM RefactoredIssue a WHERE a.repoService=:repoService "
+			+ "and a.commentServiceID IN :commentServiceIDs")
+	List<String> refactoredComments(@Param("repoService") FileHoster repoService,
+			@Param("commentServiceIDs") Collection<String> commentServiceIDs);
+
+	@Query("SELECT a.commentServiceID FROM RefactoredIssue a WHERE a.commentServiceID IN :commentServiceIDs")
+	List<String> refactoredAnalysisIssues(@Param("commentServiceIDs") Collection<String> commentServiceIDs);
+
+	@Query("SELECT a.repoService, a.commentServiceID FROM RefactoredIssue a")
+	List<Object[]> getAllCommentServiceIDs();
+
 }
@@ -0,0 +1,114 @@
+package de.refactoringbot.model.refactoringjob;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+/**
+ * Refactoring of a configuration that is performed asynchronously. The IDs of
+ * the refactored issues are stored separately as {@link RefactoringJobIssue}s
+ * and are only added to the job when it is read.
+ */
+@Entity
+@Table(name = "REFACTORING_JOBS")
+public class RefactoringJob {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private Long configurationId;
+	private boolean commentRefactoring;
+	@Enumerated(EnumType.STRING)
+	private RefactoringJobStatus status;
+	@Column(length = 2000)
+	private String errorMessage;
+
+	/**
+	 * Creation, start and end of the job in milliseconds since the epoch
+	 */
+	private Long createdInMS;
+	private Long startedInMS;
+	private Long finishedInMS;
+
+	@Transient
+	private List<Long> refactoredIssueIds = new ArrayList<>();
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getConfigurationId() {
+		return configurationId;
+	}
+
+	public void setConfigurationId(Long configurationId) {
+		this.configurationId = configurationId;
+	}
+
+	public boolean isCommentRefactoring() {
+		return commentRefactoring;
+	}
+
+	public void setCommentRefactoring(boolean commentRefactoring) {
+		this.commentRefactoring = commentRefactoring;
+	}
+
+	public RefactoringJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(RefactoringJobStatus status) {
+		this.status = status;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	public Long getCreatedInMS() {
+		return createdInMS;
+	}
+
+	public void setCreatedInMS(Long createdInMS) {
+		this.createdInMS = createdInMS;
+	}
+
+	public Long getStartedInMS() {
+		return startedInMS;
+	}
+
+	public void setStartedInMS(Long startedInMS) {
+		this.startedInMS = startedInMS;
+	}
+
+	public Long getFinishedInMS() {
+		return finishedInMS;
+	}
+
+	public void setFinishedInMS(Long finishedInMS) {
+		this.finishedInMS = finishedInMS;
+	}
+
+	public List<Long> getRefactoredIssueIds() {
+		return refactoredIssueIds;
+	}
+
+	public void setRefactoredIssueIds(List<Long> refactoredIssueIds) {
+		this.refactoredIssueIds = refactoredIssueIds;
+	}
+
+}
@@ -0,0 +1,46 @@
+package de.refactoringbot.model.refactoringjob;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Issue that was refactored by a refactoring job. The issues of a job are only
+ * inserted, so that a running job does not rewrite its growing list of issues
+ * with every refactored issue.
+ */
+@Entity
+@Table(name = "REFACTORING_JOB_REFACTORED_ISSUES", indexes = { @Index(columnList = "jobId") })
+public class RefactoringJobIssue {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private Long jobId;
+	private Long issueId;
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getJobId() {
+		return jobId;
+	}
+
+	public void setJobId(Long jobId) {
+		this.jobId = jobId;
+	}
+
+	public Long getIssueId() {
+		return issueId;
+	}
+
+	public void setIssueId(Long issueId) {
+		this.issueId = issueId;
+	}
+
+}
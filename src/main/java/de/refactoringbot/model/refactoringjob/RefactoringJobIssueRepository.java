@@ -0,0 +1,20 @@
+package de.refactoringbot.model.refactoringjob;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This interface is used to communicate with the database. It also implements
+ * Springs CrudRepository for direct access to existing CRUD-Methods.
+ */
+@Transactional
+public interface RefactoringJobIssueRepository extends CrudRepository<RefactoringJobIssue, Long> {
+
+	@Query("SELECT i.issueId FROM RefactoringJobIssue i WHERE i.jobId = :jobId ORDER BY i.id")
+	List<Long> getIssueIdsOfJob(@Param("jobId") Long jobId);
+
+}
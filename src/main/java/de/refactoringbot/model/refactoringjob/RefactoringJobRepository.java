@@ -0,0 +1,21 @@
+package de.refactoringbot.model.refactoringjob;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This interface is used to communicate with the database. It also implements
+ * Springs CrudRepository for direct access to existing CRUD-Methods.
+ */
+@Transactional
+public interface RefactoringJobRepository extends CrudRepository<RefactoringJob, Long> {
+
+	@Query("SELECT j FROM RefactoringJob j WHERE j.status IN :statuses ORDER BY j.id")
+	List<RefactoringJob> getJobsByStatus(@Param("statuses") Collection<RefactoringJobStatus> statuses);
+
+}
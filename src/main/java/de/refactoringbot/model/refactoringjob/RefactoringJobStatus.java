@@ -0,0 +1,12 @@
+package de.refactoringbot.model.refactoringjob;
+
+/**
+ * Status of a refactoring job. Jobs are queued until a thread of the scheduling
+ * executor performs them.
+ */
+public enum RefactoringJobStatus {
+    queued,
+    running,
+    finished,
+    failed
+}
@@ -0,0 +1,213 @@
+package de.refactoringbot.refactoring;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.DigestUtils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import com.github.javaparser.resolution.SymbolResolver;
+
+import de.refactoringbot.services.tracing.Tracer;
+
+/**
+ * This class caches parsed compilation units, so that the files of a workspace
+ * are not parsed again for every step of a refactoring. Entries are keyed by
+ * the absolute path of a file and are only reused as long as the content hash
+ * of the file did not change. The cache is bounded by the total size of the
+ * cached source files and additionally holds the parsed units softly, so that
+ * the garbage collector can reclaim them under memory pressure.
+ */
+public class CompilationUnitCache {
+
+	/**
+	 * Default upper bound for the summed up size (in bytes) of all cached source
+	 * files. The parsed units with lexical preservation data are considerably
+	 * larger than their sources.
+	 */
+	public static final long DEFAULT_MAXIMUM_SOURCE_SIZE = 16L * 1024 * 1024;
+
+	private final long maximumSourceSize;
+	private long currentSourceSize = 0;
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	public CompilationUnitCache() {
+		this(DEFAULT_MAXIMUM_SOURCE_SIZE);
+	}
+
+	public CompilationUnitCache(long maximumSourceSize) {
+		this.maximumSourceSize = maximumSourceSize;
+	}
+
+	/**
+	 * Returns the parsed compilation unit of the given file. The file is only
+	 * parsed if it is not cached yet or if its content changed since it was
+	 * cached. The returned unit is set up for lexical preservation.
+	 *
+	 * @param filePath
+	 * @return compilationUnit
+	 * @throws FileNotFoundException
+	 */
+	public CompilationUnit getCompilationUnit(String filePath) throws FileNotFoundException {
+		return getCompilationUnit(filePath, null);
+	}
+
+	/**
+	 * Returns the parsed compilation unit of the given file with the given symbol
+	 * resolver attached to it, so that its nodes can be resolved.
+	 *
+	 * @param filePath
+	 * @param symbolResolver
+	 *            might be null, if the unit does not need to be resolved
+	 * @return compilationUnit
+	 * @throws FileNotFoundException
+	 */
+	public CompilationUnit getCompilationUnit(String filePath, SymbolResolver symbolResolver)
+			throws FileNotFoundException {
+		String key = getKey(filePath);
+		byte[] content = readFile(filePath);
+		String contentHash = DigestUtils.md5DigestAsHex(content);
+
+		CompilationUnit compilationUnit = getCachedUnit(key, contentHash);
+		Tracer.currentSpan().setAttribute("bytes", content.length).setAttribute("cached", compilationUnit != null);
+		if (compilationUnit == null) {
+			ParseResult<CompilationUnit> parseResult = new JavaParser().parse(new ByteArrayInputStream(content));
+			if (!parseResult.isSuccessful() || !parseResult.getResult().isPresent()) {
+				throw new ParseProblemException(parseResult.getProblems());
+			}
+			compilationUnit = LexicalPreservingPrinter.setup(parseResult.getResult().get());
+			putCachedUnit(key, new CacheEntry(contentHash, content.length, compilationUnit));
+		}
+
+		// Units might have been resolved with the symbol resolver of a previous
+		// refactoring
+		if (symbolResolver != null) {
+			compilationUnit.setData(Node.SYMBOL_RESOLVER_KEY, symbolResolver);
+		}
+		return compilationUnit;
+	}
+
+	/**
+	 * Removes the cached compilation unit of the given file. This needs to be
+	 * called whenever a cached unit was modified or its file was written.
+	 *
+	 * @param filePath
+	 */
+	public synchronized void invalidate(String filePath) {
+		removeEntry(getKey(filePath));
+	}
+
+	/**
+	 * Removes all cached compilation units of files inside the given directory,
+	 * e.g. the local workspace of a configuration.
+	 *
+	 * @param directoryPath
+	 */
+	public synchronized void invalidateDirectory(String directoryPath) {
+		Path directory = Paths.get(getKey(directoryPath));
+		Iterator<Map.Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, CacheEntry> entry = it.next();
+			if (Paths.get(entry.getKey()).startsWith(directory)) {
+				currentSourceSize -= entry.getValue().sourceSize;
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached compilation units.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		currentSourceSize = 0;
+	}
+
+	/**
+	 * @return amount of cached compilation units
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private synchronized CompilationUnit getCachedUnit(String key, String contentHash) {
+		CacheEntry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		CompilationUnit compilationUnit = entry.compilationUnit.get();
+		if (compilationUnit == null || !entry.contentHash.equals(contentHash)) {
+			// Unit was reclaimed by the garbage collector or file changed
+			removeEntry(key);
+			return null;
+		}
+		return compilationUnit;
+	}
+
+	private synchronized void putCachedUnit(String key, CacheEntry entry) {
+		removeEntry(key);
+		entries.put(key, entry);
+		currentSourceSize += entry.sourceSize;
+
+		// Evict least recently used units
+		Iterator<CacheEntry> it = entries.values().iterator();
+		while (currentSourceSize > maximumSourceSize && it.hasNext()) {
+			CacheEntry eldest = it.next();
+			if (eldest == entry) {
+				break;
+			}
+			currentSourceSize -= eldest.sourceSize;
+			it.remove();
+		}
+	}
+
+	private void removeEntry(String key) {
+		CacheEntry removed = entries.remove(key);
+		if (removed != null) {
+			currentSourceSize -= removed.sourceSize;
+		}
+	}
+
+	private String getKey(String filePath) {
+		return Paths.get(filePath).toAbsolutePath().normalize().toString();
+	}
+
+	private byte[] readFile(String filePath) throws FileNotFoundException {
+		try {
+			return Files.readAllBytes(Paths.get(filePath));
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(filePath + " (No such file or directory)");
+		} catch (IOException e) {
+			FileNotFoundException notReadable = new FileNotFoundException("Could not read file " + filePath);
+			notReadable.initCause(e);
+			throw notReadable;
+		}
+	}
+
+	private static class CacheEntry {
+
+		private final String contentHash;
+		private final long sourceSize;
+		private final SoftReference<CompilationUnit> compilationUnit;
+
+		CacheEntry(String contentHash, long sourceSize, CompilationUnit compilationUnit) {
+			this.contentHash = contentHash;
+			this.sourceSize = sourceSize;
+			this.compilationUnit = new SoftReference<>(compilationUnit);
+		}
+	}
+}
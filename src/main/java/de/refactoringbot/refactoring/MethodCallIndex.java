@@ -0,0 +1,119 @@
+package de.refactoringbot.refactoring;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.SymbolResolver;
+
+/**
+ * This class indexes the method calls of a workspace by the simple name of the
+ * called method and the number of arguments. The calls are collected without
+ * resolving any symbols, so the index can only be used to narrow down the files
+ * that might call a certain method. Whether a call really refers to that method
+ * still has to be checked by resolving it.
+ */
+public class MethodCallIndex extends WorkspaceIndex<Map<String, Map<Integer, List<Integer>>>> {
+
+	/**
+	 * Method name -> number of arguments -> files containing such a call
+	 */
+	private Map<String, Map<Integer, Set<String>>> filesByMethodNameAndArgumentCount;
+
+	/**
+	 * @param methodName
+	 * @param minimumNumberOfArguments
+	 * @param maximumNumberOfArguments
+	 * @return all indexed files that contain a call of a method with the given
+	 *         name and a number of arguments within the given (inclusive) range
+	 */
+	public synchronized Set<String> getFilesCallingMethod(String methodName, int minimumNumberOfArguments,
+			int maximumNumberOfArguments) {
+		buildLookupTablesIfNecessary();
+		Map<Integer, Set<String>> filesByArgumentCount = filesByMethodNameAndArgumentCount.get(methodName);
+		if (filesByArgumentCount == null) {
+			return Collections.emptySet();
+		}
+
+		Set<String> result = new HashSet<>();
+		for (Map.Entry<Integer, Set<String>> entry : filesByArgumentCount.entrySet()) {
+			if (entry.getKey() >= minimumNumberOfArguments && entry.getKey() <= maximumNumberOfArguments) {
+				result.addAll(entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param javaFile
+	 * @param methodName
+	 * @param numberOfArguments
+	 * @return lines of the given file in which a method with the given name is
+	 *         called with the given number of arguments
+	 */
+	public synchronized List<Integer> getLinesOfMethodCalls(String javaFile, String methodName,
+			int numberOfArguments) {
+		Map<String, Map<Integer, List<Integer>>> methodCallsOfFile = getEntriesByFile().get(javaFile);
+		if (methodCallsOfFile == null || !methodCallsOfFile.containsKey(methodName)) {
+			return Collections.emptyList();
+		}
+		List<Integer> lines = methodCallsOfFile.get(methodName).get(numberOfArguments);
+		if (lines == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(lines);
+	}
+
+	/**
+	 * @param javaFile
+	 * @param symbolResolver
+	 *            not used, since method calls are indexed without resolving them
+	 * @return lines of the method calls in the given file by method name and number
+	 *         of arguments
+	 * @throws FileNotFoundException
+	 */
+	@Override
+	protected Map<String, Map<Integer, List<Integer>>> createEntry(String javaFile, SymbolResolver symbolResolver)
+			throws FileNotFoundException {
+		Map<String, Map<Integer, List<Integer>>> linesByMethodNameAndArgumentCount = new HashMap<>();
+
+		for (MethodCallExpr methodCall : RefactoringHelper.getCompilationUnitFromFile(javaFile)
+				.findAll(MethodCallExpr.class)) {
+			Optional<Position> beginOfName = methodCall.getName().getBegin();
+			linesByMethodNameAndArgumentCount.computeIfAbsent(methodCall.getNameAsString(), name -> new HashMap<>())
+					.computeIfAbsent(methodCall.getArguments().size(), count -> new ArrayList<>())
+					.add(beginOfName.isPresent() ? beginOfName.get().line : -1);
+		}
+
+		return linesByMethodNameAndArgumentCount;
+	}
+
+	@Override
+	protected void resetLookupTables() {
+		filesByMethodNameAndArgumentCount = null;
+	}
+
+	private void buildLookupTablesIfNecessary() {
+		if (filesByMethodNameAndArgumentCount != null) {
+			return;
+		}
+
+		filesByMethodNameAndArgumentCount = new HashMap<>();
+		for (Map.Entry<String, Map<String, Map<Integer, List<Integer>>>> fileEntry : getEntriesByFile().entrySet()) {
+			for (Map.Entry<String, Map<Integer, List<Integer>>> methodEntry : fileEntry.getValue().entrySet()) {
+				for (Integer numberOfArguments : methodEntry.getValue().keySet()) {
+					filesByMethodNameAndArgumentCount.computeIfAbsent(methodEntry.getKey(), name -> new HashMap<>())
+							.computeIfAbsent(numberOfArguments, count -> new HashSet<>()).add(fileEntry.getKey());
+				}
+			}
+		}
+	}
+}
@@ -1,10 +1,11 @@
 package de.refactoringbot.refactoring;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.PrintWriter;
 import java.nio.file.InvalidPathException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -14,19 +15,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.javaparser.Position;
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+import com.github.javaparser.resolution.SymbolResolver;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 
+import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
+import de.refactoringbot.services.tracing.Span;
+import de.refactoringbot.services.tracing.Tracer;
 
 /**
  * Utility methods for use in performing refactorings
@@ -35,9 +39,24 @@ public class RefactoringHelper {
 
 	private static final Logger logger = LoggerFactory.getLogger(RefactoringHelper.class);
 
+	/**
+	 * Parsed files shared by all refactorings, with a separate cache per workspace
+	 */
+	private static final WorkspaceCompilationUnitCaches compilationUnitCaches = new WorkspaceCompilationUnitCaches();
+
 	private RefactoringHelper() {
 	}
 
+	/**
+	 * Sets the upper bound for the summed up size (in bytes) of the cached source
+	 * files of every workspace.
+	 * 
+	 * @param maximumSourceSizePerWorkspace
+	 */
+	public static void setMaximumCachedSourceSize(long maximumSourceSizePerWorkspace) {
+		compilationUnitCaches.setMaximumSourceSizePerWorkspace(maximumSourceSizePerWorkspace);
+	}
+
 	/**
 	 * @param classOrInterface
 	 * @param localMethodSignature
@@ -162,11 +181,113 @@ public class RefactoringHelper {
 	 */
 	public static List<ClassOrInterfaceDeclaration> getAllClassesAndInterfacesFromFile(String filePath)
 			throws FileNotFoundException {
-		FileInputStream is = new FileInputStream(filePath);
-		CompilationUnit cu = LexicalPreservingPrinter.setup(StaticJavaParser.parse(is));
+		CompilationUnit cu = getCompilationUnitFromFile(filePath);
+		return cu.findAll(ClassOrInterfaceDeclaration.class);
+	}
+
+	/**
+	 * @param filePath
+	 * @param symbolResolver
+	 * @return all <code>ClassOrInterfaceDeclaration</code> in the given file, which
+	 *         can be resolved with the given symbol resolver
+	 * @throws FileNotFoundException
+	 */
+	public static List<ClassOrInterfaceDeclaration> getAllClassesAndInterfacesFromFile(String filePath,
+			SymbolResolver symbolResolver) throws FileNotFoundException {
+		CompilationUnit cu = getCompilationUnitFromFile(filePath, symbolResolver);
 		return cu.findAll(ClassOrInterfaceDeclaration.class);
 	}
 
+	/**
+	 * Returns the parsed (and for lexical preservation set up) compilation unit of
+	 * the given file. Units are cached as long as the file content does not change,
+	 * so callers that modify the returned unit have to save it with
+	 * {@link #saveCompilationUnitToFile(CompilationUnit, String)} or discard it
+	 * with {@link #discardCachedCompilationUnits(String)}.
+	 * 
+	 * @param filePath
+	 * @return compilationUnit
+	 * @throws FileNotFoundException
+	 */
+	public static CompilationUnit getCompilationUnitFromFile(String filePath) throws FileNotFoundException {
+		return getCompilationUnitFromFile(filePath, null);
+	}
+
+	/**
+	 * Returns the parsed compilation unit of the given file like
+	 * {@link #getCompilationUnitFromFile(String)} and attaches the given symbol
+	 * resolver to it.
+	 * 
+	 * @param filePath
+	 * @param symbolResolver
+	 * @return compilationUnit
+	 * @throws FileNotFoundException
+	 */
+	public static CompilationUnit getCompilationUnitFromFile(String filePath, SymbolResolver symbolResolver)
+			throws FileNotFoundException {
+		try (Span span = Tracer.startSpan("refactoring.parseFile")) {
+			span.setAttribute("file", filePath);
+			return compilationUnitCaches.getCompilationUnit(filePath, symbolResolver);
+		}
+	}
+
+	/**
+	 * Creates a symbol resolver for a refactoring of the given issue. The cached
+	 * symbol solver of the workspace is used if the issue provides one, otherwise
+	 * a new one is created for the java roots of the issue.
+	 * 
+	 * @param issue
+	 * @return symbolResolver
+	 */
+	public static SymbolResolver createSymbolResolver(BotIssue issue) {
+		WorkspaceSymbolSolver symbolSolver = issue.getSymbolSolver();
+		if (symbolSolver == null) {
+			symbolSolver = new WorkspaceSymbolSolver(issue.getJavaRoots());
+		}
+		return symbolSolver.createSymbolResolver();
+	}
+
+	/**
+	 * Writes the given compilation unit to the given file and removes the now
+	 * outdated unit from the cache. The written content is returned, so that it
+	 * can be committed without reading the file again.
+	 * 
+	 * @param cu
+	 * @param filePath
+	 * @return content
+	 * @throws FileNotFoundException
+	 */
+	public static String saveCompilationUnitToFile(CompilationUnit cu, String filePath) throws FileNotFoundException {
+		String content = LexicalPreservingPrinter.print(cu) + System.lineSeparator();
+		try (Span span = Tracer.startSpan("refactoring.writeFile"); PrintWriter out = new PrintWriter(filePath)) {
+			span.setAttribute("file", filePath).setAttribute("characters", content.length());
+			out.print(content);
+			return content;
+		} finally {
+			compilationUnitCaches.invalidate(filePath);
+		}
+	}
+
+	/**
+	 * Removes the cached compilation unit of the given file (e.g. after a failed
+	 * refactoring that might have modified the cached unit).
+	 * 
+	 * @param filePath
+	 */
+	public static void discardCachedCompilationUnit(String filePath) {
+		compilationUnitCaches.invalidate(filePath);
+	}
+
+	/**
+	 * Removes all cached compilation units of files inside the given directory
+	 * (e.g. after a failed refactoring that might have modified cached units).
+	 * 
+	 * @param directoryPath
+	 */
+	public static void discardCachedCompilationUnits(String directoryPath) {
+		compilationUnitCaches.invalidateDirectory(directoryPath);
+	}
+
 	/**
 	 * @param allJavaFiles
 	 * @param targetClass
@@ -180,45 +301,168 @@ public class RefactoringHelper {
 	public static Set<String> findRelatedClassesAndInterfaces(List<String> allJavaFiles,
 			ClassOrInterfaceDeclaration targetClass, MethodDeclaration targetMethod)
 			throws BotRefactoringException, FileNotFoundException {
-		Set<ResolvedReferenceTypeDeclaration> relatedClassesAndInterfaces = new HashSet<>();
-		relatedClassesAndInterfaces.add(targetClass.resolve());
+		return findRelatedClassesAndInterfaces(new TypeHierarchyIndex(), allJavaFiles, targetClass, targetMethod);
+	}
 
-		addQualifiedNamesToRelatedClassesAndInterfacesRecursively(relatedClassesAndInterfaces, allJavaFiles,
-				targetClass, targetMethod);
+	/**
+	 * Finds the related classes and interfaces by walking the given type hierarchy
+	 * index. The index is updated with the given java files first, so that only
+	 * new or changed files have to be resolved.
+	 * 
+	 * @param typeHierarchyIndex
+	 * @param allJavaFiles
+	 * @param targetClass
+	 * @param targetMethod
+	 * @return list of qualified class or interface names which are reachable via
+	 *         the inheritance hierarchy of the given class (ancestors, descendants,
+	 *         siblings, ...) and contain the given target method
+	 * @throws BotRefactoringException
+	 * @throws FileNotFoundException
+	 */
+	public static Set<String> findRelatedClassesAndInterfaces(TypeHierarchyIndex typeHierarchyIndex,
+			List<String> allJavaFiles, ClassOrInterfaceDeclaration targetClass, MethodDeclaration targetMethod)
+			throws BotRefactoringException, FileNotFoundException {
+		SymbolResolver symbolResolver = getSymbolResolver(targetClass);
+		typeHierarchyIndex.update(allJavaFiles, symbolResolver);
+
+		Set<String> relatedClassesAndInterfaces = new HashSet<>();
+		Deque<String> typesToVisit = new ArrayDeque<>();
+		addRelatedClassOrInterface(relatedClassesAndInterfaces, typesToVisit, targetClass.resolve());
+		for (ResolvedReferenceTypeDeclaration ancestor : findAllAncestors(targetClass, targetMethod)) {
+			addRelatedClassOrInterface(relatedClassesAndInterfaces, typesToVisit, ancestor);
+		}
 
-		Set<String> result = new HashSet<>();
-		for (ResolvedReferenceTypeDeclaration declaration : relatedClassesAndInterfaces) {
-			result.add(declaration.getQualifiedName());
+		// Every descendant of a related type inherits the target method and is
+		// therefore related as well. The ancestors of a descendant that contain the
+		// target method lead to siblings.
+		while (!typesToVisit.isEmpty()) {
+			for (String descendant : typeHierarchyIndex.getDirectSubtypes(typesToVisit.poll())) {
+				if (!relatedClassesAndInterfaces.add(descendant)) {
+					continue;
+				}
+				typesToVisit.add(descendant);
+
+				ClassOrInterfaceDeclaration descendantDeclaration = findIndexedClassOrInterface(typeHierarchyIndex,
+						descendant, symbolResolver);
+				if (descendantDeclaration != null) {
+					for (ResolvedReferenceTypeDeclaration ancestor : findAllAncestors(descendantDeclaration,
+							targetMethod)) {
+						addRelatedClassOrInterface(relatedClassesAndInterfaces, typesToVisit, ancestor);
+					}
+				}
+			}
 		}
 
-		return result;
+		return relatedClassesAndInterfaces;
 	}
 
-	private static void addQualifiedNamesToRelatedClassesAndInterfacesRecursively(
-			Set<ResolvedReferenceTypeDeclaration> relatedClassesAndInterfaces, List<String> allJavaFiles,
-			ClassOrInterfaceDeclaration targetClass, MethodDeclaration targetMethod)
-			throws FileNotFoundException, BotRefactoringException {
-		Set<ResolvedReferenceTypeDeclaration> ancestorsOfTargetClass = findAllAncestors(targetClass, targetMethod);
-		relatedClassesAndInterfaces.addAll(ancestorsOfTargetClass);
+	/**
+	 * Finds the files that declare the given classes and interfaces with the help
+	 * of the given type hierarchy index, so that only these files have to be
+	 * searched for related method declarations. Types that are not declared in the
+	 * workspace (e.g. of libraries) are skipped. The index has to be up to date
+	 * with the given java files, which it is once the related classes and
+	 * interfaces were found with it.
+	 * 
+	 * @param typeHierarchyIndex
+	 * @param allJavaFiles
+	 * @param qualifiedNamesOfClassesAndInterfaces
+	 * @return declaring files in the order of the given java files
+	 */
+	public static List<String> findDeclaringFiles(TypeHierarchyIndex typeHierarchyIndex, List<String> allJavaFiles,
+			Set<String> qualifiedNamesOfClassesAndInterfaces) {
+		Set<String> declaringFiles = new HashSet<>();
+		for (String qualifiedName : qualifiedNamesOfClassesAndInterfaces) {
+			String declaringFile = typeHierarchyIndex.getDeclaringFile(qualifiedName);
+			if (declaringFile != null) {
+				declaringFiles.add(declaringFile);
+			}
+		}
+
+		List<String> orderedDeclaringFiles = new ArrayList<>();
+		for (String javaFile : allJavaFiles) {
+			if (declaringFiles.contains(javaFile)) {
+				orderedDeclaringFiles.add(javaFile);
+			}
+		}
+		return orderedDeclaringFiles;
+	}
 
-		for (String file : allJavaFiles) {
-			List<ClassOrInterfaceDeclaration> classesOrInterfaces = RefactoringHelper
-					.getAllClassesAndInterfacesFromFile(file);
+	/**
+	 * Finds the files that might contain calls of the given method with the help
+	 * of the given method call index. The index is updated with the given java
+	 * files first. The calls inside the returned files still have to be resolved,
+	 * since the index only compares method names and numbers of arguments.
+	 * 
+	 * @param methodCallIndex
+	 * @param allJavaFiles
+	 * @param methodDeclaration
+	 * @return candidate files for calls of the given method
+	 * @throws FileNotFoundException
+	 */
+	public static Set<String> findFilesWithPossibleMethodCalls(MethodCallIndex methodCallIndex,
+			List<String> allJavaFiles, MethodDeclaration methodDeclaration) throws FileNotFoundException {
+		methodCallIndex.update(allJavaFiles);
+
+		int numberOfParameters = methodDeclaration.getParameters().size();
+		boolean hasVarArgs = numberOfParameters > 0
+				&& methodDeclaration.getParameter(numberOfParameters - 1).isVarArgs();
+		if (hasVarArgs) {
+			return methodCallIndex.getFilesCallingMethod(methodDeclaration.getNameAsString(), numberOfParameters - 1,
+					Integer.MAX_VALUE);
+		}
+		return methodCallIndex.getFilesCallingMethod(methodDeclaration.getNameAsString(), numberOfParameters,
+				numberOfParameters);
+	}
 
-			for (ClassOrInterfaceDeclaration currentClassOrInterface : classesOrInterfaces) {
-				if (relatedClassesAndInterfaces.contains(currentClassOrInterface.resolve())) {
-					continue;
-				}
-				Set<ResolvedReferenceTypeDeclaration> ancestorsOfCurrentClassOrInterface = findAllAncestors(
-						currentClassOrInterface, targetMethod);
-				if (!Collections.disjoint(relatedClassesAndInterfaces, ancestorsOfCurrentClassOrInterface)) {
-					// descendant found
-					relatedClassesAndInterfaces.add(currentClassOrInterface.resolve());
-					addQualifiedNamesToRelatedClassesAndInterfacesRecursively(relatedClassesAndInterfaces, allJavaFiles,
-							currentClassOrInterface, targetMethod);
+	/**
+	 * @param node
+	 * @return symbol resolver attached to the compilation unit of the given node
+	 * @throws IllegalStateException
+	 *             if no symbol resolver is attached
+	 */
+	private static SymbolResolver getSymbolResolver(Node node) {
+		Optional<CompilationUnit> compilationUnit = node.findCompilationUnit();
+		if (compilationUnit.isPresent() && compilationUnit.get().containsData(Node.SYMBOL_RESOLVER_KEY)) {
+			return compilationUnit.get().getData(Node.SYMBOL_RESOLVER_KEY);
+		}
+		throw new IllegalStateException("Node is expected to be part of a resolvable compilation unit.");
+	}
+
+	private static void addRelatedClassOrInterface(Set<String> relatedClassesAndInterfaces,
+			Deque<String> typesToVisit, ResolvedReferenceTypeDeclaration classOrInterface) {
+		if (relatedClassesAndInterfaces.add(classOrInterface.getQualifiedName())) {
+			typesToVisit.add(classOrInterface.getQualifiedName());
+		}
+	}
+
+	/**
+	 * @param typeHierarchyIndex
+	 * @param qualifiedName
+	 * @param symbolResolver
+	 * @return declaration of the class or interface with the given qualified name
+	 *         or null if it is not declared in an indexed file
+	 * @throws FileNotFoundException
+	 */
+	private static ClassOrInterfaceDeclaration findIndexedClassOrInterface(TypeHierarchyIndex typeHierarchyIndex,
+			String qualifiedName, SymbolResolver symbolResolver) throws FileNotFoundException {
+		String declaringFile = typeHierarchyIndex.getDeclaringFile(qualifiedName);
+		if (declaringFile == null) {
+			return null;
+		}
+
+		for (ClassOrInterfaceDeclaration classOrInterface : getAllClassesAndInterfacesFromFile(declaringFile,
+				symbolResolver)) {
+			try {
+				if (qualifiedName.equals(classOrInterface.resolve().getQualifiedName())) {
+					return classOrInterface;
 				}
+			} catch (Exception e) {
+				logger.warn("Could not resolve '" + classOrInterface.getNameAsString() + "': " + e.getMessage());
 			}
 		}
+
+		return null;
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package de.refactoringbot.refactoring;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.springframework.stereotype.Component;
@@ -45,4 +46,20 @@ public class RefactoringOperations {
 		return ruleToClassMapping;
 	}
 
+	/**
+	 * This method maps the keys of the SonarQube rules whose issues can be
+	 * refactored to the refactoring operation that fixes them.
+	 * 
+	 * @return sonarQubeRuleToOperationMapping
+	 */
+	public static Map<String, String> getSonarQubeRuleToOperationMapping() {
+		Map<String, String> sonarQubeRuleToOperationMapping = new LinkedHashMap<>();
+		sonarQubeRuleToOperationMapping.put("squid:S1161", ADD_OVERRIDE_ANNOTATION);
+		sonarQubeRuleToOperationMapping.put("squid:ModifiersOrderCheck", REORDER_MODIFIER);
+		sonarQubeRuleToOperationMapping.put("squid:CommentedOutCodeLine", REMOVE_COMMENTED_OUT_CODE);
+		sonarQubeRuleToOperationMapping.put("squid:S1172", REMOVE_PARAMETER);
+
+		return sonarQubeRuleToOperationMapping;
+	}
+
 }
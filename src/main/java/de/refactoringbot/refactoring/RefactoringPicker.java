@@ -1,6 +1,11 @@
 package de.refactoringbot.refactoring;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -8,9 +13,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.github.javaparser.ast.CompilationUnit;
+
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
+import de.refactoringbot.services.tracing.Span;
+import de.refactoringbot.services.tracing.Tracer;
 
 /**
  * This class checks which refactoring needs to be performed.
@@ -36,30 +45,182 @@ public class RefactoringPicker {
 	 * @throws BotRefactoringException
 	 */
 	public String pickAndRefactor(BotIssue issue, GitConfiguration gitConfig) throws BotRefactoringException {
+		try (Span span = Tracer.startSpan("refactoring.pickAndRefactor")) {
+			span.setAttribute("operation", issue.getRefactoringOperation());
+			if (issue.getAllJavaFiles() != null) {
+				span.setAttribute("fileCount", issue.getAllJavaFiles().size());
+			}
+
+			try {
+				// Get rule to class mapping
+				Map<String, Class<? extends RefactoringImpl>> ruleToClassMapping = operations
+						.getRuleToClassMapping();
+				// Get class of the mapping
+				Class<? extends RefactoringImpl> refactoringClass = ruleToClassMapping
+						.get(issue.getRefactoringOperation());
+
+				// If class for refactoring exists
+				if (refactoringClass != null) {
+					Constructor<? extends RefactoringImpl> constructor = refactoringClass.getConstructor();
+					RefactoringImpl refactoring = constructor.newInstance();
+					return refactoring.performRefactoring(issue, gitConfig);
+				} else {
+					throw new BotRefactoringException("Bot does not support specified refactoring yet!");
+				}
+			} catch (Exception e) {
+				span.setError(e);
+				// A failed refactoring might have left modified compilation units in the cache
+				if (gitConfig.getRepoFolder() != null) {
+					RefactoringHelper.discardCachedCompilationUnits(gitConfig.getRepoFolder());
+				}
+
+				if (e.getCause() != null) {
+					logger.error(e.getCause().getMessage(), e.getCause());
+					throw new BotRefactoringException(e.getCause().getMessage());
+				} else {
+					logger.error(e.getMessage(), e);
+					throw new BotRefactoringException(e.getMessage());
+				}
 
-		try {
-			// Get rule to class mapping
-			Map<String, Class<? extends RefactoringImpl>> ruleToClassMapping = operations.getRuleToClassMapping();
-			// Get class of the mapping
-			Class<? extends RefactoringImpl> refactoringClass = ruleToClassMapping.get(issue.getRefactoringOperation());
-
-			// If class for refactoring exists
-			if (refactoringClass != null) {
-				Constructor<? extends RefactoringImpl> constructor = refactoringClass.getConstructor();
-				RefactoringImpl refactoring = constructor.newInstance();
-				return refactoring.performRefactoring(issue, gitConfig);
-			} else {
-				throw new BotRefactoringException("Bot does not support specified refactoring yet!");
 			}
-		} catch (Exception e) {
-			if (e.getCause() != null) {
-				logger.error(e.getCause().getMessage(), e.getCause());
-				throw new BotRefactoringException(e.getCause().getMessage());
-			} else {
-				logger.error(e.getMessage(), e);
-				throw new BotRefactoringException(e.getMessage());
+		}
+	}
+
+	/**
+	 * This method checks if the issues of the given refactoring operation can be
+	 * refactored together with other issues, e.g. if the refactoring only changes
+	 * the file of its issue.
+	 * 
+	 * @param refactoringOperation
+	 * @return isBatchRefactoring
+	 */
+	public boolean isBatchRefactoring(String refactoringOperation) {
+		Class<? extends RefactoringImpl> refactoringClass = operations.getRuleToClassMapping()
+				.get(refactoringOperation);
+		return refactoringClass != null && SingleFileRefactoringImpl.class.isAssignableFrom(refactoringClass);
+	}
+
+	/**
+	 * This method refactors the given issues together. The issues are grouped by
+	 * their file, so that every file is parsed and written only once. Every issue
+	 * gets the commit message of its refactoring or an error message if its
+	 * refactoring failed.
+	 * 
+	 * @param issues
+	 * @param gitConfig
+	 * @return amount of refactored issues
+	 */
+	public int pickAndRefactorBatch(List<BotIssue> issues, GitConfiguration gitConfig) {
+		Map<String, List<BotIssue>> issuesByFile = new LinkedHashMap<>();
+		for (BotIssue issue : issues) {
+			issuesByFile.computeIfAbsent(issue.getFilePath(), path -> new ArrayList<>()).add(issue);
+		}
+
+		int amountOfRefactoredIssues = 0;
+		try (Span span = Tracer.startSpan("refactoring.pickAndRefactorBatch")) {
+			span.setAttribute("issueCount", issues.size()).setAttribute("fileCount", issuesByFile.size());
+			for (Map.Entry<String, List<BotIssue>> fileIssues : issuesByFile.entrySet()) {
+				amountOfRefactoredIssues += refactorFile(
+						gitConfig.getRepoFolder() + File.separator + fileIssues.getKey(), fileIssues.getValue());
 			}
+			span.setAttribute("refactoredIssueCount", amountOfRefactoredIssues);
+		}
+		return amountOfRefactoredIssues;
+	}
+
+	/**
+	 * This method refactors all given issues of a file on the same compilation
+	 * unit and saves the file once afterwards. If a refactoring fails, the file is
+	 * parsed again and the previous refactorings are reapplied, since the failed
+	 * refactoring might have modified the unit partially.
+	 * 
+	 * @param filePath
+	 * @param issues
+	 * @return amount of refactored issues
+	 */
+	private int refactorFile(String filePath, List<BotIssue> issues) {
+		List<BotIssue> refactoredIssues = new ArrayList<>();
+		CompilationUnit compilationUnit = null;
+
+		for (BotIssue issue : issues) {
+			try {
+				if (compilationUnit == null) {
+					compilationUnit = RefactoringHelper.getCompilationUnitFromFile(filePath);
+				}
+				issue.setCommitMessage(createSingleFileRefactoring(issue).performRefactoring(issue, compilationUnit));
+				refactoredIssues.add(issue);
+			} catch (Exception e) {
+				logger.error(getErrorMessage(e), e);
+				issue.setErrorMessage(getErrorMessage(e));
+				RefactoringHelper.discardCachedCompilationUnit(filePath);
+				compilationUnit = null;
+				if (!refactoredIssues.isEmpty()) {
+					try {
+						compilationUnit = reapplyRefactorings(filePath, refactoredIssues);
+					} catch (Exception r) {
+						logger.error(getErrorMessage(r), r);
+						RefactoringHelper.discardCachedCompilationUnit(filePath);
+						markAsFailed(refactoredIssues, getErrorMessage(r));
+					}
+				}
+			}
+		}
+
+		if (refactoredIssues.isEmpty()) {
+			return 0;
+		}
+
+		try {
+			String content = RefactoringHelper.saveCompilationUnitToFile(compilationUnit, filePath);
+			for (BotIssue refactoredIssue : refactoredIssues) {
+				refactoredIssue.addChangedFile(filePath, content);
+			}
+			return refactoredIssues.size();
+		} catch (FileNotFoundException e) {
+			logger.error(e.getMessage(), e);
+			markAsFailed(refactoredIssues, e.getMessage());
+			return 0;
+		}
+	}
+
+	/**
+	 * This method parses the given file again and reapplies the refactorings of
+	 * the given issues.
+	 * 
+	 * @param filePath
+	 * @param refactoredIssues
+	 * @return compilationUnit
+	 * @throws Exception
+	 */
+	private CompilationUnit reapplyRefactorings(String filePath, List<BotIssue> refactoredIssues) throws Exception {
+		CompilationUnit compilationUnit = RefactoringHelper.getCompilationUnitFromFile(filePath);
+		for (BotIssue refactoredIssue : refactoredIssues) {
+			createSingleFileRefactoring(refactoredIssue).performRefactoring(refactoredIssue, compilationUnit);
+		}
+		return compilationUnit;
+	}
+
+	private SingleFileRefactoringImpl createSingleFileRefactoring(BotIssue issue) throws Exception {
+		Class<? extends RefactoringImpl> refactoringClass = operations.getRuleToClassMapping()
+				.get(issue.getRefactoringOperation());
+		if (refactoringClass == null || !SingleFileRefactoringImpl.class.isAssignableFrom(refactoringClass)) {
+			throw new BotRefactoringException("Refactoring can not be performed together with other refactorings!");
+		}
+		return (SingleFileRefactoringImpl) refactoringClass.getConstructor().newInstance();
+	}
+
+	private void markAsFailed(List<BotIssue> refactoredIssues, String errorMessage) {
+		for (BotIssue refactoredIssue : refactoredIssues) {
+			refactoredIssue.setCommitMessage(null);
+			refactoredIssue.setErrorMessage(errorMessage);
+		}
+		refactoredIssues.clear();
+	}
 
+	private String getErrorMessage(Exception e) {
+		if (e.getCause() != null) {
+			return e.getCause().getMessage();
 		}
+		return e.getMessage();
 	}
 }
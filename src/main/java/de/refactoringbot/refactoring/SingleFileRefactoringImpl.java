@@ -0,0 +1,27 @@
+package de.refactoringbot.refactoring;
+
+import com.github.javaparser.ast.CompilationUnit;
+
+import de.refactoringbot.model.botissue.BotIssue;
+
+/**
+ * This interface describes refactorings that only change the file of their
+ * issue. Such refactorings can be applied to an already parsed compilation unit,
+ * so that several issues of the same file are refactored with a single parse
+ * and write of the file.
+ */
+public interface SingleFileRefactoringImpl extends RefactoringImpl {
+
+	/**
+	 * This method should perform the refactoring of the given issue on the given
+	 * compilation unit of the issue's file without saving it and return a commit
+	 * message. The lines of the issue refer to the file as it was parsed, even if
+	 * other issues of the same file were already refactored on the unit.
+	 * 
+	 * @param issue
+	 * @param compilationUnit
+	 * @return commitMessage
+	 * @throws Exception
+	 */
+	String performRefactoring(BotIssue issue, CompilationUnit compilationUnit) throws Exception;
+}
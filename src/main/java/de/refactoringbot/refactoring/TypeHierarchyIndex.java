@@ -0,0 +1,118 @@
+package de.refactoringbot.refactoring;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedReferenceType;
+
+/**
+ * This class indexes the type hierarchy of a workspace. For every java file it
+ * stores the qualified names of the declared classes and interfaces together
+ * with the qualified names of their direct supertypes. From this, the direct
+ * subtypes of a type and the file declaring a type can be looked up without
+ * scanning and resolving all files of the workspace again.
+ *
+ * The index has to be updated with the symbol resolver of the workspace.
+ */
+public class TypeHierarchyIndex extends WorkspaceIndex<Map<String, List<String>>> {
+
+	private static final Logger logger = LoggerFactory.getLogger(TypeHierarchyIndex.class);
+
+	private static final String JAVA_LANG_OBJECT = "java.lang.Object";
+
+	private Map<String, Set<String>> directSubtypesByType;
+	private Map<String, String> declaringFileByType;
+
+	/**
+	 * @param qualifiedTypeName
+	 * @return qualified names of all indexed classes and interfaces that directly
+	 *         extend or implement the given type
+	 */
+	public synchronized Set<String> getDirectSubtypes(String qualifiedTypeName) {
+		buildLookupTablesIfNecessary();
+		Set<String> directSubtypes = directSubtypesByType.get(qualifiedTypeName);
+		if (directSubtypes == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(directSubtypes);
+	}
+
+	/**
+	 * @param qualifiedTypeName
+	 * @return path of the file declaring the given type or null if the type is not
+	 *         indexed
+	 */
+	public synchronized String getDeclaringFile(String qualifiedTypeName) {
+		buildLookupTablesIfNecessary();
+		return declaringFileByType.get(qualifiedTypeName);
+	}
+
+	/**
+	 * @param javaFile
+	 * @param symbolResolver
+	 * @return qualified names of the classes and interfaces declared in the given
+	 *         file mapped to the qualified names of their direct supertypes
+	 * @throws FileNotFoundException
+	 */
+	@Override
+	protected Map<String, List<String>> createEntry(String javaFile, SymbolResolver symbolResolver)
+			throws FileNotFoundException {
+		Map<String, List<String>> directSupertypesByType = new HashMap<>();
+
+		for (ClassOrInterfaceDeclaration classOrInterface : RefactoringHelper
+				.getAllClassesAndInterfacesFromFile(javaFile, symbolResolver)) {
+			try {
+				ResolvedReferenceTypeDeclaration resolvedType = classOrInterface.resolve();
+				List<String> directSupertypes = new ArrayList<>();
+				// Ancestors from external dependencies can not be resolved and are skipped
+				for (ResolvedReferenceType ancestor : resolvedType.getAncestors(true)) {
+					if (!JAVA_LANG_OBJECT.equals(ancestor.getQualifiedName())) {
+						directSupertypes.add(ancestor.getQualifiedName());
+					}
+				}
+				directSupertypesByType.put(resolvedType.getQualifiedName(), directSupertypes);
+			} catch (Exception e) {
+				logger.warn("Could not index supertypes of '" + classOrInterface.getNameAsString() + "' in file "
+						+ javaFile + ": " + e.getMessage());
+			}
+		}
+
+		return directSupertypesByType;
+	}
+
+	@Override
+	protected void resetLookupTables() {
+		directSubtypesByType = null;
+		declaringFileByType = null;
+	}
+
+	private void buildLookupTablesIfNecessary() {
+		if (directSubtypesByType != null) {
+			return;
+		}
+
+		directSubtypesByType = new HashMap<>();
+		declaringFileByType = new HashMap<>();
+		for (Map.Entry<String, Map<String, List<String>>> fileEntry : getEntriesByFile().entrySet()) {
+			for (Map.Entry<String, List<String>> typeEntry : fileEntry.getValue().entrySet()) {
+				declaringFileByType.put(typeEntry.getKey(), fileEntry.getKey());
+				for (String directSupertype : typeEntry.getValue()) {
+					directSubtypesByType.computeIfAbsent(directSupertype, type -> new HashSet<>())
+							.add(typeEntry.getKey());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package de.refactoringbot.refactoring;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.SymbolResolver;
+
+/**
+ * This class keeps a separate compilation unit cache for every workspace, so
+ * that the refactorings of one configuration can not evict the parsed files of
+ * another. The workspace of a file is the git working tree (repository or
+ * worktree) that contains it. Files outside of any working tree share one
+ * cache. Every cache is bounded by the configured size of its source files.
+ */
+public class WorkspaceCompilationUnitCaches {
+
+	/**
+	 * Default upper bound for the summed up size (in bytes) of the cached source
+	 * files of a single workspace
+	 */
+	public static final long DEFAULT_MAXIMUM_SOURCE_SIZE_PER_WORKSPACE = 64L * 1024 * 1024;
+
+	private static final Path NO_WORKSPACE = Paths.get("");
+
+	private volatile long maximumSourceSizePerWorkspace;
+	private final ConcurrentMap<Path, CompilationUnitCache> caches = new ConcurrentHashMap<>();
+	/**
+	 * Working trees of the already looked up directories
+	 */
+	private final ConcurrentMap<Path, Path> workspaceRoots = new ConcurrentHashMap<>();
+
+	public WorkspaceCompilationUnitCaches() {
+		this(DEFAULT_MAXIMUM_SOURCE_SIZE_PER_WORKSPACE);
+	}
+
+	public WorkspaceCompilationUnitCaches(long maximumSourceSizePerWorkspace) {
+		this.maximumSourceSizePerWorkspace = maximumSourceSizePerWorkspace;
+	}
+
+	/**
+	 * This method sets the upper bound of the cached source files of every
+	 * workspace. All cached units are dropped, so that the bound applies to all
+	 * workspaces.
+	 *
+	 * @param maximumSourceSizePerWorkspace
+	 */
+	public void setMaximumSourceSizePerWorkspace(long maximumSourceSizePerWorkspace) {
+		this.maximumSourceSizePerWorkspace = maximumSourceSizePerWorkspace;
+		caches.clear();
+	}
+
+	/**
+	 * Returns the parsed compilation unit of the given file from the cache of its
+	 * workspace.
+	 *
+	 * @param filePath
+	 * @param symbolResolver
+	 *            might be null, if the unit does not need to be resolved
+	 * @return compilationUnit
+	 * @throws FileNotFoundException
+	 * @see CompilationUnitCache#getCompilationUnit(String, SymbolResolver)
+	 */
+	public CompilationUnit getCompilationUnit(String filePath, SymbolResolver symbolResolver)
+			throws FileNotFoundException {
+		return getCache(getWorkspaceRoot(filePath)).getCompilationUnit(filePath, symbolResolver);
+	}
+
+	/**
+	 * Removes the cached compilation unit of the given file.
+	 *
+	 * @param filePath
+	 */
+	public void invalidate(String filePath) {
+		CompilationUnitCache cache = caches.get(getWorkspaceRoot(filePath));
+		if (cache != null) {
+			cache.invalidate(filePath);
+		}
+	}
+
+	/**
+	 * Removes all cached compilation units of files inside the given directory.
+	 * The caches of the workspaces inside the directory are removed entirely, e.g.
+	 * when the directory of a configuration is deleted.
+	 *
+	 * @param directoryPath
+	 */
+	public void invalidateDirectory(String directoryPath) {
+		Path directory = normalize(directoryPath);
+		workspaceRoots.keySet().removeIf(path -> path.startsWith(directory));
+		for (Map.Entry<Path, CompilationUnitCache> entry : caches.entrySet()) {
+			Path root = entry.getKey();
+			if (root != NO_WORKSPACE && root.startsWith(directory)) {
+				caches.remove(root);
+			} else if (root == NO_WORKSPACE || directory.startsWith(root)) {
+				entry.getValue().invalidateDirectory(directoryPath);
+			}
+		}
+	}
+
+	/**
+	 * @return amount of cached compilation units of all workspaces
+	 */
+	public int size() {
+		return caches.values().stream().mapToInt(CompilationUnitCache::size).sum();
+	}
+
+	private CompilationUnitCache getCache(Path workspaceRoot) {
+		return caches.computeIfAbsent(workspaceRoot, root -> new CompilationUnitCache(maximumSourceSizePerWorkspace));
+	}
+
+	/**
+	 * This method returns the working tree that contains the given file. Only
+	 * found working trees are remembered, since a directory might become part of
+	 * a working tree later on, e.g. by cloning into it.
+	 *
+	 * @param filePath
+	 * @return workspaceRoot
+	 */
+	private Path getWorkspaceRoot(String filePath) {
+		Path directory = normalize(filePath).getParent();
+		if (directory == null) {
+			return NO_WORKSPACE;
+		}
+
+		Path knownRoot = workspaceRoots.get(directory);
+		if (knownRoot != null) {
+			return knownRoot;
+		}
+		for (Path current = directory; current != null; current = current.getParent()) {
+			// '.git' is a directory in repositories and a file in worktrees
+			if (Files.exists(current.resolve(".git"))) {
+				workspaceRoots.put(directory, current);
+				return current;
+			}
+		}
+		return NO_WORKSPACE;
+	}
+
+	private Path normalize(String path) {
+		return Paths.get(path).toAbsolutePath().normalize();
+	}
+}
@@ -0,0 +1,140 @@
+package de.refactoringbot.refactoring;
+
+import java.io.FileNotFoundException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.javaparser.resolution.SymbolResolver;
+
+/**
+ * Base class of indexes over the java files of a workspace. The index stores
+ * one entry per file, which is only created again for files that are new or
+ * were marked as changed. This way an index can be persisted and reused for
+ * later revisions of the same workspace.
+ *
+ * @param <T>
+ *            type of the indexed data of a single file
+ */
+public abstract class WorkspaceIndex<T> {
+
+	/**
+	 * Commit ID of the workspace revision the index belongs to
+	 */
+	private String revision;
+
+	/**
+	 * Files that differed from the indexed revision when the index was updated
+	 */
+	private Set<String> uncommittedFiles = new HashSet<>();
+
+	private Map<String, T> entriesByFile = new HashMap<>();
+	private Set<String> changedFiles = new HashSet<>();
+
+	public synchronized String getRevision() {
+		return revision;
+	}
+
+	public synchronized void setRevision(String revision) {
+		this.revision = revision;
+	}
+
+	public synchronized Set<String> getUncommittedFiles() {
+		return uncommittedFiles;
+	}
+
+	public synchronized void setUncommittedFiles(Set<String> uncommittedFiles) {
+		this.uncommittedFiles = uncommittedFiles;
+	}
+
+	public synchronized Map<String, T> getEntriesByFile() {
+		return entriesByFile;
+	}
+
+	public synchronized void setEntriesByFile(Map<String, T> entriesByFile) {
+		this.entriesByFile = entriesByFile;
+		resetLookupTables();
+	}
+
+	/**
+	 * Marks the given files as changed, so that they are indexed again with the
+	 * next update.
+	 *
+	 * @param filePaths
+	 */
+	public synchronized void markFilesAsChanged(Collection<String> filePaths) {
+		changedFiles.addAll(filePaths);
+	}
+
+	/**
+	 * @return true if files were marked as changed since the last update, false
+	 *         otherwise
+	 */
+	@JsonIgnore
+	public synchronized boolean hasChangedFiles() {
+		return !changedFiles.isEmpty();
+	}
+
+	/**
+	 * This method updates the index with the given java files of the workspace.
+	 * Files that are not indexed yet or were marked as changed are indexed, files
+	 * that no longer exist are removed from the index. Only for indexes that do
+	 * not resolve any symbols.
+	 *
+	 * @param allJavaFiles
+	 * @throws FileNotFoundException
+	 */
+	public void update(List<String> allJavaFiles) throws FileNotFoundException {
+		update(allJavaFiles, null);
+	}
+
+	/**
+	 * This method updates the index with the given java files of the workspace
+	 * like {@link #update(List)} and resolves the indexed files with the given
+	 * symbol resolver of the workspace.
+	 *
+	 * @param allJavaFiles
+	 * @param symbolResolver
+	 * @throws FileNotFoundException
+	 */
+	public synchronized void update(List<String> allJavaFiles, SymbolResolver symbolResolver)
+			throws FileNotFoundException {
+		Set<String> existingFiles = new HashSet<>(allJavaFiles);
+		Iterator<String> it = entriesByFile.keySet().iterator();
+		while (it.hasNext()) {
+			if (!existingFiles.contains(it.next())) {
+				it.remove();
+				resetLookupTables();
+			}
+		}
+
+		for (String javaFile : allJavaFiles) {
+			if (!entriesByFile.containsKey(javaFile) || changedFiles.contains(javaFile)) {
+				entriesByFile.put(javaFile, createEntry(javaFile, symbolResolver));
+				resetLookupTables();
+			}
+		}
+
+		changedFiles.clear();
+	}
+
+	/**
+	 * @param javaFile
+	 * @param symbolResolver
+	 *            might be null, if the index does not resolve any symbols
+	 * @return indexed data of the given file
+	 * @throws FileNotFoundException
+	 */
+	protected abstract T createEntry(String javaFile, SymbolResolver symbolResolver) throws FileNotFoundException;
+
+	/**
+	 * Called whenever the indexed entries change, so that lookup tables derived
+	 * from them can be discarded.
+	 */
+	protected abstract void resetLookupTables();
+}
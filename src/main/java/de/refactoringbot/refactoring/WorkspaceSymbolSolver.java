@@ -0,0 +1,89 @@
+package de.refactoringbot.refactoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+
+/**
+ * This class holds the type solvers of a workspace, so that their caches can be
+ * reused by all refactorings of that workspace. It does not touch the global
+ * configuration of the <code>StaticJavaParser</code>, so different workspaces
+ * can be resolved at the same time.
+ */
+public class WorkspaceSymbolSolver {
+
+	private final List<String> javaRoots;
+	private final List<WorkspaceTypeSolver> workspaceTypeSolvers = new ArrayList<>();
+
+	/**
+	 * Commit ID of the workspace revision the caches belong to
+	 */
+	private String revision;
+
+	/**
+	 * Files that differed from the revision when the caches were last updated
+	 */
+	private Set<String> uncommittedFiles = new HashSet<>();
+
+	public WorkspaceSymbolSolver(List<String> javaRoots) {
+		this.javaRoots = new ArrayList<>(javaRoots);
+		for (String javaRoot : javaRoots) {
+			workspaceTypeSolvers.add(new WorkspaceTypeSolver(javaRoot));
+		}
+	}
+
+	/**
+	 * Creates a new symbol resolver on top of the cached type solvers of the
+	 * workspace. Every refactoring should use its own symbol resolver, since the
+	 * resolver keeps the types of all nodes it resolved until it is discarded.
+	 *
+	 * @return symbolResolver
+	 */
+	public SymbolResolver createSymbolResolver() {
+		CombinedTypeSolver typeSolver = new CombinedTypeSolver();
+		for (WorkspaceTypeSolver workspaceTypeSolver : workspaceTypeSolvers) {
+			typeSolver.add(workspaceTypeSolver);
+		}
+		typeSolver.add(new ReflectionTypeSolver());
+		return new JavaSymbolSolver(typeSolver);
+	}
+
+	/**
+	 * Removes the given files from the caches of the type solvers.
+	 *
+	 * @param filePaths
+	 */
+	public void invalidateFiles(Collection<String> filePaths) {
+		for (WorkspaceTypeSolver workspaceTypeSolver : workspaceTypeSolvers) {
+			workspaceTypeSolver.invalidateFiles(filePaths);
+		}
+	}
+
+	public List<String> getJavaRoots() {
+		return Collections.unmodifiableList(javaRoots);
+	}
+
+	public synchronized String getRevision() {
+		return revision;
+	}
+
+	public synchronized void setRevision(String revision) {
+		this.revision = revision;
+	}
+
+	public synchronized Set<String> getUncommittedFiles() {
+		return uncommittedFiles;
+	}
+
+	public synchronized void setUncommittedFiles(Set<String> uncommittedFiles) {
+		this.uncommittedFiles = uncommittedFiles;
+	}
+}
@@ -0,0 +1,203 @@
+package de.refactoringbot.refactoring;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.javaparser.Navigator;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+/**
+ * Type solver for the sources below a java root of a workspace. It looks up
+ * types the same way as the <code>JavaParserTypeSolver</code>, but its caches
+ * can be invalidated for single files. This way the parsed files and solved
+ * types stay valid for all files of the workspace that did not change between
+ * two refactorings.
+ */
+public class WorkspaceTypeSolver implements TypeSolver {
+
+	private final Path srcDir;
+	private volatile TypeSolver parent;
+
+	private final Map<Path, Optional<CompilationUnit>> parsedFiles = new HashMap<>();
+	private final Map<Path, List<Path>> javaFilesByDirectory = new HashMap<>();
+	private final Map<String, SymbolReference<ResolvedReferenceTypeDeclaration>> foundTypes = new HashMap<>();
+	private final Map<String, Path> declaringFilesOfFoundTypes = new HashMap<>();
+
+	public WorkspaceTypeSolver(String srcDir) {
+		this.srcDir = normalize(srcDir);
+	}
+
+	@Override
+	public TypeSolver getParent() {
+		return parent;
+	}
+
+	/**
+	 * The parent changes with every symbol resolver created on top of this type
+	 * solver. All of them consist of the same type solvers, so it does not matter
+	 * which one is used to solve types from other java roots.
+	 */
+	@Override
+	public void setParent(TypeSolver parent) {
+		this.parent = parent;
+	}
+
+	@Override
+	public synchronized SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+		SymbolReference<ResolvedReferenceTypeDeclaration> result = foundTypes.get(name);
+		if (result == null) {
+			result = tryToSolveTypeUncached(name);
+			foundTypes.put(name, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the given files from the caches. Types that were solved from other
+	 * files remain cached, types that could not be solved are looked up again
+	 * because they might be declared in one of the given files now.
+	 *
+	 * @param filePaths
+	 */
+	public synchronized void invalidateFiles(Collection<String> filePaths) {
+		Set<Path> changedFiles = new HashSet<>();
+		for (String filePath : filePaths) {
+			Path changedFile = normalize(filePath);
+			if (changedFile.startsWith(srcDir)) {
+				changedFiles.add(changedFile);
+				parsedFiles.remove(changedFile);
+				// Directory listing might have changed, if file was added or deleted
+				javaFilesByDirectory.remove(changedFile.getParent());
+			}
+		}
+		if (changedFiles.isEmpty()) {
+			return;
+		}
+
+		Iterator<Map.Entry<String, SymbolReference<ResolvedReferenceTypeDeclaration>>> it = foundTypes.entrySet()
+				.iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, SymbolReference<ResolvedReferenceTypeDeclaration>> foundType = it.next();
+			if (!foundType.getValue().isSolved()
+					|| changedFiles.contains(declaringFilesOfFoundTypes.get(foundType.getKey()))) {
+				declaringFilesOfFoundTypes.remove(foundType.getKey());
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return amount of cached parsed files
+	 */
+	public synchronized int getAmountOfParsedFiles() {
+		return parsedFiles.size();
+	}
+
+	private SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeUncached(String name) {
+		String[] nameElements = name.split("\\.");
+
+		for (int i = nameElements.length; i > 0; i--) {
+			// The first i name elements might be the path of the file, the remaining ones
+			// the name of the type (and its enclosing types) inside of that file
+			Path srcFile = srcDir;
+			for (int j = 0; j < i - 1; j++) {
+				srcFile = srcFile.resolve(nameElements[j]);
+			}
+			srcFile = srcFile.resolve(nameElements[i - 1] + ".java");
+			String typeName = String.join(".", Arrays.copyOfRange(nameElements, i - 1, nameElements.length));
+
+			// As an optimization we first look in the file where we expect the type
+			Optional<CompilationUnit> compilationUnit = parse(srcFile);
+			if (compilationUnit.isPresent()) {
+				SymbolReference<ResolvedReferenceTypeDeclaration> result = findType(compilationUnit.get(), typeName,
+						name, srcFile);
+				if (result.isSolved()) {
+					return result;
+				}
+			}
+
+			// Types might also be declared in a file of the same package that is not named
+			// like the type itself
+			for (Path javaFile : getJavaFilesOfDirectory(srcFile.getParent())) {
+				Optional<CompilationUnit> unitInSamePackage = parse(javaFile);
+				if (unitInSamePackage.isPresent()) {
+					SymbolReference<ResolvedReferenceTypeDeclaration> result = findType(unitInSamePackage.get(),
+							typeName, name, javaFile);
+					if (result.isSolved()) {
+						return result;
+					}
+				}
+			}
+		}
+
+		return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+	}
+
+	private SymbolReference<ResolvedReferenceTypeDeclaration> findType(CompilationUnit compilationUnit,
+			String typeName, String qualifiedName, Path javaFile) {
+		Optional<TypeDeclaration<?>> astTypeDeclaration = Navigator.findType(compilationUnit, typeName);
+		if (!astTypeDeclaration.isPresent()) {
+			return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+		}
+		declaringFilesOfFoundTypes.put(qualifiedName, javaFile);
+		return SymbolReference.solved(JavaParserFacade.get(this).getTypeDeclaration(astTypeDeclaration.get()));
+	}
+
+	private Optional<CompilationUnit> parse(Path javaFile) {
+		Optional<CompilationUnit> compilationUnit = parsedFiles.get(javaFile);
+		if (compilationUnit == null) {
+			compilationUnit = Optional.empty();
+			if (Files.isRegularFile(javaFile)) {
+				try {
+					compilationUnit = new JavaParser().parse(javaFile).getResult();
+				} catch (IOException e) {
+					throw new UncheckedIOException("Issue while parsing while type solving: " + javaFile, e);
+				}
+			}
+			parsedFiles.put(javaFile, compilationUnit);
+		}
+		return compilationUnit;
+	}
+
+	private List<Path> getJavaFilesOfDirectory(Path directory) {
+		List<Path> javaFiles = javaFilesByDirectory.get(directory);
+		if (javaFiles == null) {
+			javaFiles = new ArrayList<>();
+			if (Files.isDirectory(directory)) {
+				try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.java")) {
+					for (Path javaFile : stream) {
+						javaFiles.add(javaFile.toAbsolutePath().normalize());
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not list java files of " + directory, e);
+				}
+			}
+			javaFilesByDirectory.put(directory, javaFiles);
+		}
+		return javaFiles;
+	}
+
+	private static Path normalize(String path) {
+		return Paths.get(path).toAbsolutePath().normalize();
+	}
+}
@@ -1,28 +1,24 @@
 package de.refactoringbot.refactoring.supportedrefactorings;
 
-import java.io.FileInputStream;
-import java.io.PrintWriter;
 import java.util.List;
 
 import org.springframework.stereotype.Component;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
-import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
 
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.refactoring.RefactoringHelper;
-import de.refactoringbot.refactoring.RefactoringImpl;
+import de.refactoringbot.refactoring.SingleFileRefactoringImpl;
 
 /**
  * This class is used for executing the 'add override annotation' refactoring
  */
 @Component
-public class AddOverrideAnnotation implements RefactoringImpl {
+public class AddOverrideAnnotation implements SingleFileRefactoringImpl {
 
 	private static final String OVERRIDE_ANNOTATION_NAME = "Override";
 
@@ -30,9 +26,20 @@ public class AddOverrideAnnotation implements RefactoringImpl {
 	public String performRefactoring(BotIssue issue, GitConfiguration gitConfig) throws Exception {
 		String path = issue.getFilePath();
 
-		FileInputStream in = new FileInputStream(gitConfig.getRepoFolder() + "/" + path);
-		CompilationUnit compilationUnit = LexicalPreservingPrinter.setup(StaticJavaParser.parse(in));
+		CompilationUnit compilationUnit = RefactoringHelper
+				.getCompilationUnitFromFile(gitConfig.getRepoFolder() + "/" + path);
 
+		String commitMessage = performRefactoring(issue, compilationUnit);
+
+		// Save changes to file
+		issue.addChangedFile(gitConfig.getRepoFolder() + "/" + path,
+				RefactoringHelper.saveCompilationUnitToFile(compilationUnit, gitConfig.getRepoFolder() + "/" + path));
+
+		return commitMessage;
+	}
+
+	@Override
+	public String performRefactoring(BotIssue issue, CompilationUnit compilationUnit) throws Exception {
 		MethodDeclaration methodDeclarationToModify = RefactoringHelper
 				.getMethodDeclarationByLineNumber(issue.getLine(), compilationUnit);
 		if (methodDeclarationToModify == null) {
@@ -44,11 +51,6 @@ public class AddOverrideAnnotation implements RefactoringImpl {
 
 		methodDeclarationToModify.addMarkerAnnotation(OVERRIDE_ANNOTATION_NAME);
 
-		// Save changes to file
-		PrintWriter out = new PrintWriter(gitConfig.getRepoFolder() + "/" + path);
-		out.println(LexicalPreservingPrinter.print(compilationUnit));
-		out.close();
-
 		// Return commit message
 		return "Added override annotation to method '" + methodDeclarationToModify.getNameAsString() + "'";
 	}
@@ -1,23 +1,20 @@
 package de.refactoringbot.refactoring.supportedrefactorings;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.List;
 
 import org.springframework.stereotype.Component;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.comments.Comment;
-import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
 
 import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
-import de.refactoringbot.refactoring.RefactoringImpl;
+import de.refactoringbot.refactoring.RefactoringHelper;
+import de.refactoringbot.refactoring.SingleFileRefactoringImpl;
 
 /**
  * This class is used for executing the removal of commented out code
@@ -25,7 +22,7 @@ import de.refactoringbot.refactoring.RefactoringImpl;
  * @author Justin Kissling
  */
 @Component
-public class RemoveCommentedOutCode implements RefactoringImpl {
+public class RemoveCommentedOutCode implements SingleFileRefactoringImpl {
 
 	Integer line;
 	BotConfiguration botConfig;
@@ -47,11 +44,30 @@ public class RemoveCommentedOutCode implements RefactoringImpl {
 		// Prepare data
 		String path = gitConfig.getRepoFolder() + "/" + issue.getFilePath();
 
-		line = issue.getLine();
-
 		// Read file
-		FileInputStream in = new FileInputStream(path);
-		CompilationUnit compilationUnit = LexicalPreservingPrinter.setup(StaticJavaParser.parse(in));
+		CompilationUnit compilationUnit = RefactoringHelper.getCompilationUnitFromFile(path);
+
+		String commitMessage = performRefactoring(issue, compilationUnit);
+
+		// Printing the output file with JavaParser
+		issue.addChangedFile(path, RefactoringHelper.saveCompilationUnitToFile(compilationUnit, path));
+
+		return commitMessage;
+	}
+
+	/**
+	 * This method removes the commented out code of the issue from the given
+	 * compilation unit and returns a commit message.
+	 *
+	 * @param issue
+	 * @param compilationUnit
+	 * @return commitMessage
+	 * @throws BotRefactoringException
+	 */
+	@Override
+	public String performRefactoring(BotIssue issue, CompilationUnit compilationUnit)
+			throws BotRefactoringException {
+		line = issue.getLine();
 
 		List<Comment> comments = compilationUnit.getAllContainedComments();
 
@@ -90,11 +106,6 @@ public class RemoveCommentedOutCode implements RefactoringImpl {
 					+ "SonarQube analysis are on the same branch and version?");
 		}
 
-		// Printing the output file with JavaParser
-		PrintWriter out = new PrintWriter(path);
-		out.println(LexicalPreservingPrinter.print(compilationUnit));
-		out.close();
-
 		// Return commit message
 		return ("Removed " + (endLine - startLine + 1) + " line(s) of commented out code (line " + startLine + "-"
 				+ endLine + ")");
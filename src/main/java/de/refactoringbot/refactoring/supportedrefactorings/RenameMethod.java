@@ -1,34 +1,31 @@
 package de.refactoringbot.refactoring.supportedrefactorings;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.MethodCallExpr;
-import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.github.javaparser.resolution.SymbolResolver;
 
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
+import de.refactoringbot.refactoring.MethodCallIndex;
 import de.refactoringbot.refactoring.RefactoringHelper;
 import de.refactoringbot.refactoring.RefactoringImpl;
+import de.refactoringbot.services.tracing.Tracer;
 
 /**
  * Refactoring to rename a method
@@ -45,28 +42,100 @@ public class RenameMethod implements RefactoringImpl {
 	 */
 	private List<MethodDeclaration> allRefactoringRelevantMethodDeclarations = new ArrayList<>();
 
+	/**
+	 * Symbol resolver of the workspace, used to resolve all files of this
+	 * refactoring
+	 */
+	private SymbolResolver symbolResolver;
+
+	/**
+	 * Amount of method calls that were resolved to find the target method calls
+	 */
+	private int amountOfResolvedMethodCalls = 0;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public String performRefactoring(BotIssue issue, GitConfiguration gitConfig) throws Exception {
-		configureJavaParserForProject(issue);
+		symbolResolver = RefactoringHelper.createSymbolResolver(issue);
 
 		String newMethodName = issue.getRefactorString();
 		String issueFilePath = gitConfig.getRepoFolder() + File.separator + issue.getFilePath();
 		MethodDeclaration targetMethod = findAndValidateTargetMethod(issue, issueFilePath, newMethodName);
+		String oldMethodName = targetMethod.getNameAsString();
 		ClassOrInterfaceDeclaration targetClass = RefactoringHelper.getClassOrInterfaceOfMethod(targetMethod);
-		Set<String> qualifiedNamesOfRelatedClassesAndInterfaces = RefactoringHelper
-				.findRelatedClassesAndInterfaces(issue.getAllJavaFiles(), targetClass, targetMethod);
+		Set<String> qualifiedNamesOfRelatedClassesAndInterfaces = findRelatedClassesAndInterfaces(issue, targetClass,
+				targetMethod);
 
 		HashSet<String> javaFilesRelevantForRefactoring = findRelevantJavaFiles(issue, newMethodName, targetMethod,
 				qualifiedNamesOfRelatedClassesAndInterfaces);
-		renameRelatedMethodDeclarationsAndMethodCalls(javaFilesRelevantForRefactoring, newMethodName);
+		renameRelatedMethodDeclarationsAndMethodCalls(issue, javaFilesRelevantForRefactoring, newMethodName);
+
+		Tracer.currentSpan().setAttribute("relevantFileCount", javaFilesRelevantForRefactoring.size())
+				.setAttribute("resolvedSymbolCount", amountOfResolvedMethodCalls);
 
-		String oldMethodName = targetMethod.getNameAsString();
 		return "Renamed method '" + oldMethodName + "' to '" + newMethodName + "'";
 	}
 
+	/**
+	 * Finds the related classes and interfaces with the type hierarchy index of the
+	 * workspace, if the issue provides one.
+	 * 
+	 * @param issue
+	 * @param targetClass
+	 * @param targetMethod
+	 * @return qualified names of related classes and interfaces
+	 * @throws BotRefactoringException
+	 * @throws FileNotFoundException
+	 */
+	private Set<String> findRelatedClassesAndInterfaces(BotIssue issue, ClassOrInterfaceDeclaration targetClass,
+			MethodDeclaration targetMethod) throws BotRefactoringException, FileNotFoundException {
+		if (issue.getTypeHierarchyIndex() == null) {
+			return RefactoringHelper.findRelatedClassesAndInterfaces(issue.getAllJavaFiles(), targetClass,
+					targetMethod);
+		}
+		return RefactoringHelper.findRelatedClassesAndInterfaces(issue.getTypeHierarchyIndex(),
+				issue.getAllJavaFiles(), targetClass, targetMethod);
+	}
+
+	/**
+	 * Finds the files that might contain related method declarations. Only the
+	 * files declaring the related classes and interfaces are searched, if the
+	 * issue provides a type hierarchy index.
+	 * 
+	 * @param issue
+	 * @param qualifiedNamesOfRelatedClassesAndInterfaces
+	 * @return candidate files for related method declarations
+	 */
+	private List<String> findFilesWithPossibleRelatedMethodDeclarations(BotIssue issue,
+			Set<String> qualifiedNamesOfRelatedClassesAndInterfaces) {
+		if (issue.getTypeHierarchyIndex() == null) {
+			return issue.getAllJavaFiles();
+		}
+		return RefactoringHelper.findDeclaringFiles(issue.getTypeHierarchyIndex(), issue.getAllJavaFiles(),
+				qualifiedNamesOfRelatedClassesAndInterfaces);
+	}
+
+	/**
+	 * Finds the files that might call the target method with the method call index
+	 * of the workspace, if the issue provides one.
+	 * 
+	 * @param issue
+	 * @param targetMethod
+	 * @return candidate files for calls of the target method
+	 * @throws FileNotFoundException
+	 */
+	private Set<String> findFilesWithPossibleTargetMethodCalls(BotIssue issue, MethodDeclaration targetMethod)
+			throws FileNotFoundException {
+		MethodCallIndex methodCallIndex = issue.getMethodCallIndex();
+		if (methodCallIndex == null) {
+			methodCallIndex = new MethodCallIndex();
+		}
+		return RefactoringHelper.findFilesWithPossibleMethodCalls(methodCallIndex, issue.getAllJavaFiles(),
+				targetMethod);
+	}
+
 	/**
 	 * Tries to find the target method in the given class or interface. Checks if
 	 * the found method itself could be refactored, without yet checking other code
@@ -82,7 +151,7 @@ public class RenameMethod implements RefactoringImpl {
 	private MethodDeclaration findAndValidateTargetMethod(BotIssue issue, String filePath, String newMethodName)
 			throws BotRefactoringException, FileNotFoundException {
 		List<ClassOrInterfaceDeclaration> classesAndInterfaces = RefactoringHelper
-				.getAllClassesAndInterfacesFromFile(filePath);
+				.getAllClassesAndInterfacesFromFile(filePath, symbolResolver);
 
 		MethodDeclaration targetMethod = null;
 		for (ClassOrInterfaceDeclaration classOrInterface : classesAndInterfaces) {
@@ -128,9 +197,10 @@ public class RenameMethod implements RefactoringImpl {
 		HashSet<String> javaFilesRelevantForRefactoring = new HashSet<>();
 		String postRefactoringSignature = getPostRefactoringSignature(targetMethod, newMethodName);
 
-		for (String currentFilePath : issue.getAllJavaFiles()) {
+		for (String currentFilePath : findFilesWithPossibleRelatedMethodDeclarations(issue,
+				qualifiedNamesOfRelatedClassesAndInterfaces)) {
 			List<ClassOrInterfaceDeclaration> classesAndInterfacesInCurrentFile = RefactoringHelper
-					.getAllClassesAndInterfacesFromFile(currentFilePath);
+					.getAllClassesAndInterfacesFromFile(currentFilePath, symbolResolver);
 
 			// search for files containing relevant method declarations
 			for (ClassOrInterfaceDeclaration currentClassOrInterface : classesAndInterfacesInCurrentFile) {
@@ -155,14 +225,14 @@ public class RenameMethod implements RefactoringImpl {
 
 		// search for files containing relevant method calls
 		// we had to first find all relevant target methods in order to find all method
-		// calls that need to be refactored. This is why we need to iterate a second
-		// time through all files
-		for (String currentFilePath : issue.getAllJavaFiles()) {
+		// calls that need to be refactored. Only files that contain calls with the name
+		// and number of arguments of the target method need to be resolved.
+		for (String currentFilePath : findFilesWithPossibleTargetMethodCalls(issue, targetMethod)) {
 			if (javaFilesRelevantForRefactoring.contains(currentFilePath)) {
 				continue;
 			}
 			List<ClassOrInterfaceDeclaration> classesAndInterfacesInCurrentFile = RefactoringHelper
-					.getAllClassesAndInterfacesFromFile(currentFilePath);
+					.getAllClassesAndInterfacesFromFile(currentFilePath, symbolResolver);
 			if (containsTargetMethodCall(classesAndInterfacesInCurrentFile)) {
 				javaFilesRelevantForRefactoring.add(currentFilePath);
 			}
@@ -224,10 +294,15 @@ public class RenameMethod implements RefactoringImpl {
 	 */
 	private boolean isTargetMethodCall(MethodCallExpr methodCall) {
 		for (MethodDeclaration targetMethod : allRefactoringRelevantMethodDeclarations) {
+			if (!methodCall.getNameAsString().equals(targetMethod.getNameAsString())) {
+				// no need to resolve calls of methods with other names
+				continue;
+			}
 			String qualifiedMethodSignatureOfResolvedMethodCall = null;
 			String qualifiedMethodSignatureOfTargetMethod = null;
 			try {
 				qualifiedMethodSignatureOfResolvedMethodCall = methodCall.resolve().getQualifiedSignature();
+				amountOfResolvedMethodCalls++;
 				qualifiedMethodSignatureOfTargetMethod = RefactoringHelper
 						.getQualifiedMethodSignatureAsString(targetMethod);
 			} catch (Exception e) {
@@ -263,36 +338,46 @@ public class RenameMethod implements RefactoringImpl {
 	 * Rename all relevant method declarations and method calls in the given java
 	 * files
 	 * 
+	 * @param issue
 	 * @param javaFilesRelevantForRefactoring
 	 * @param newMethodName
 	 * @throws FileNotFoundException
 	 */
-	private void renameRelatedMethodDeclarationsAndMethodCalls(HashSet<String> javaFilesRelevantForRefactoring,
-			String newMethodName) throws FileNotFoundException {
+	private void renameRelatedMethodDeclarationsAndMethodCalls(BotIssue issue,
+			HashSet<String> javaFilesRelevantForRefactoring, String newMethodName) throws FileNotFoundException {
+		// Resolve all target method calls before anything is renamed. The parsed files
+		// are shared, so renamed declarations would no longer match the calls of the
+		// remaining files.
+		Map<String, CompilationUnit> compilationUnitsByFile = new HashMap<>();
+		Map<String, List<MethodCallExpr>> targetMethodCallsByFile = new HashMap<>();
 		for (String currentFilePath : javaFilesRelevantForRefactoring) {
-			FileInputStream is = new FileInputStream(currentFilePath);
-			CompilationUnit cu = LexicalPreservingPrinter.setup(StaticJavaParser.parse(is));
+			CompilationUnit cu = RefactoringHelper.getCompilationUnitFromFile(currentFilePath, symbolResolver);
+			List<MethodCallExpr> targetMethodCalls = new ArrayList<>();
+			for (MethodCallExpr fileMethodCall : cu.findAll(MethodCallExpr.class)) {
+				if (isTargetMethodCall(fileMethodCall)) {
+					targetMethodCalls.add(fileMethodCall);
+				}
+			}
+			compilationUnitsByFile.put(currentFilePath, cu);
+			targetMethodCallsByFile.put(currentFilePath, targetMethodCalls);
+		}
 
-			List<MethodDeclaration> methodDeclarationsInCurrentFile = cu.findAll(MethodDeclaration.class);
-			List<MethodCallExpr> methodCallsInCurrentFile = cu.findAll(MethodCallExpr.class);
+		for (String currentFilePath : javaFilesRelevantForRefactoring) {
+			CompilationUnit cu = compilationUnitsByFile.get(currentFilePath);
 
 			// rename all target method calls
-			for (MethodCallExpr fileMethodCall : methodCallsInCurrentFile) {
-				if (isTargetMethodCall(fileMethodCall)) {
-					renameMethodCall(fileMethodCall, newMethodName);
-				}
+			for (MethodCallExpr fileMethodCall : targetMethodCallsByFile.get(currentFilePath)) {
+				renameMethodCall(fileMethodCall, newMethodName);
 			}
 
 			// rename all relevant method declarations
-			for (MethodDeclaration fileMethod : methodDeclarationsInCurrentFile) {
+			for (MethodDeclaration fileMethod : cu.findAll(MethodDeclaration.class)) {
 				if (allRefactoringRelevantMethodDeclarations.contains(fileMethod)) {
 					renameMethod(fileMethod, newMethodName);
 				}
 			}
 
-			PrintWriter out = new PrintWriter(currentFilePath);
-			out.println(LexicalPreservingPrinter.print(cu));
-			out.close();
+			issue.addChangedFile(currentFilePath, RefactoringHelper.saveCompilationUnitToFile(cu, currentFilePath));
 		}
 	}
 
@@ -316,14 +401,4 @@ public class RenameMethod implements RefactoringImpl {
 		methodCall.setName(newMethodName);
 	}
 
-	private void configureJavaParserForProject(BotIssue issue) {
-		CombinedTypeSolver typeSolver = new CombinedTypeSolver();
-		for (String javaRoot : issue.getJavaRoots()) {
-			typeSolver.add(new JavaParserTypeSolver(javaRoot));
-		}
-		typeSolver.add(new ReflectionTypeSolver());
-		JavaSymbolSolver javaSymbolSolver = new JavaSymbolSolver(typeSolver);
-		StaticJavaParser.getConfiguration().setSymbolResolver(javaSymbolSolver);
-	}
-
 }
@@ -1,33 +1,29 @@
 package de.refactoringbot.refactoring.supportedrefactorings;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.PrintWriter;
 import java.util.EnumSet;
 
 import org.springframework.stereotype.Component;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.Modifier.Keyword;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
 
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.refactoring.RefactoringHelper;
-import de.refactoringbot.refactoring.RefactoringImpl;
+import de.refactoringbot.refactoring.SingleFileRefactoringImpl;
 
 /**
  * This class is used to bring method and field modifiers into the correct
  * order, following the Java Language Specification (JLS)
  */
 @Component
-public class ReorderModifier implements RefactoringImpl {
+public class ReorderModifier implements SingleFileRefactoringImpl {
 
 	/**
 	 * Reorder modifiers of a given field or method to comply with the JLS
@@ -35,41 +31,57 @@ public class ReorderModifier implements RefactoringImpl {
 	@Override
 	public String performRefactoring(BotIssue issue, GitConfiguration gitConfig) throws Exception {
 		String filepath = gitConfig.getRepoFolder() + File.separator + issue.getFilePath();
-		FileInputStream in = new FileInputStream(filepath);
-		CompilationUnit compilationUnit = LexicalPreservingPrinter.setup(StaticJavaParser.parse(in));
+		CompilationUnit compilationUnit = RefactoringHelper.getCompilationUnitFromFile(filepath);
 
+		String commitMessage = performRefactoring(issue, compilationUnit);
+
+		// Save changes to file
+		issue.addChangedFile(filepath, RefactoringHelper.saveCompilationUnitToFile(compilationUnit, filepath));
+
+		return commitMessage;
+	}
+
+	/**
+	 * Reorder modifiers of a given field or method of the given compilation unit
+	 */
+	@Override
+	public String performRefactoring(BotIssue issue, CompilationUnit compilationUnit) throws Exception {
 		FieldDeclaration field = RefactoringHelper.getFieldDeclarationByLineNumber(issue.getLine(), compilationUnit);
 		MethodDeclaration method = RefactoringHelper.getMethodDeclarationByLineNumber(issue.getLine(),
 				compilationUnit);
-		boolean isModifierListUnchanged = false;
 		NodeList<Modifier> modifiersInCorrectOrder;
 		if (field != null) {
 			modifiersInCorrectOrder = getModifiersInCorrectOrder(field.getModifiers());
-			isModifierListUnchanged = field.getModifiers().equals(modifiersInCorrectOrder);
+			validateModifierListChanged(field.getModifiers(), modifiersInCorrectOrder);
 			field.setModifiers(new NodeList<Modifier>());
 			field.setModifiers(modifiersInCorrectOrder);
 		} else if (method != null) {
 			modifiersInCorrectOrder = getModifiersInCorrectOrder(method.getModifiers());
-			isModifierListUnchanged = method.getModifiers().equals(modifiersInCorrectOrder);
+			validateModifierListChanged(method.getModifiers(), modifiersInCorrectOrder);
 			method.setModifiers(new NodeList<Modifier>());
 			method.setModifiers(modifiersInCorrectOrder);
 		} else {
 			throw new BotRefactoringException("Could not find method or field declaration at the given line!");
 		}
 
-		if (isModifierListUnchanged) {
-			throw new BotRefactoringException("All modifiers are in correct order! Nothing to refactor.");
-		}
-
-		// Save changes to file
-		PrintWriter out = new PrintWriter(filepath);
-		out.println(LexicalPreservingPrinter.print(compilationUnit));
-		out.close();
-
 		// Return commit message
 		return "Reordered modifiers to comply with the Java Language Specification";
 	}
 
+	/**
+	 * Checks the modifiers before the (cached) declaration gets modified
+	 * 
+	 * @param modifiers
+	 * @param modifiersInCorrectOrder
+	 * @throws BotRefactoringException
+	 */
+	private void validateModifierListChanged(NodeList<Modifier> modifiers, NodeList<Modifier> modifiersInCorrectOrder)
+			throws BotRefactoringException {
+		if (modifiers.equals(modifiersInCorrectOrder)) {
+			throw new BotRefactoringException("All modifiers are in correct order! Nothing to refactor.");
+		}
+	}
+
 	private NodeList<Modifier> getModifiersInCorrectOrder(NodeList<Modifier> modifiers) {
 		NodeList<Modifier> reorderedModifiers = new NodeList<>();
 
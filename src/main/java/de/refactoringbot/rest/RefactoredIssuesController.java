@@ -1,18 +1,28 @@
 package de.refactoringbot.rest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
 import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+import de.refactoringbot.model.refactoredissue.RefactoredIssueFilter;
 import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
 import de.refactoringbot.services.main.RefactoredIssuesService;
 import io.swagger.annotations.ApiOperation;
@@ -31,23 +41,44 @@ public class RefactoredIssuesController {
 	RefactoredIssueRepository repo;
 	@Autowired
 	RefactoredIssuesService issuesService;
+	@Autowired
+	ObjectMapper mapper;
 
 	private static final Logger logger = LoggerFactory.getLogger(RefactoredIssuesController.class);
 
+	private static final String NDJSON = "application/x-ndjson";
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	private static final int DEFAULT_PAGE_SIZE = 100;
+	private static final int MAX_PAGE_SIZE = 1000;
+
 	/**
-	 * This method returns all refactored issues of a specific user from a specific
-	 * filehoster.
+	 * This method returns a page of the refactored issues, filtered by the
+	 * filehoster, the repository owner, the status and the date of refactoring.
+	 * The cursor of the next page is returned in the header 'X-Next-Cursor' as
+	 * long as more issues might exist.
 	 * 
-	 * @return allIssues
+	 * @param filter
+	 * @param cursor
+	 * @param limit
+	 * @return issues
 	 */
-
 	@GetMapping(produces = "application/json")
-	@ApiOperation(value = "Get all refactored issues. Can filter for filehoster and repository owner")
-	public ResponseEntity<?> getAllIssues(@RequestParam(value = "repoService", required = false) String repoService,
-			@RequestParam(value = "ownerName", required = false) String repoOwner) {
+	@ApiOperation(value = "Get a page of the refactored issues. Can filter for filehoster, repository owner, status "
+			+ "and date of refactoring")
+	public ResponseEntity<?> getAllIssues(RefactoredIssueFilter filter,
+			@RequestParam(value = "cursor", required = false) Long cursor,
+			@RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			return new ResponseEntity<>("The limit has to be between 1 and " + MAX_PAGE_SIZE + "!",
+					HttpStatus.BAD_REQUEST);
+		}
 		try {
-			Iterable<RefactoredIssue> allIssues = issuesService.getAllIssues(repoService, repoOwner);
-			return new ResponseEntity<>(allIssues, HttpStatus.OK);
+			List<RefactoredIssue> issues = issuesService.getIssues(filter, cursor, limit);
+			HttpHeaders headers = new HttpHeaders();
+			if (issues.size() == limit) {
+				headers.set(NEXT_CURSOR_HEADER, issues.get(issues.size() - 1).getIssueId().toString());
+			}
+			return new ResponseEntity<>(issues, headers, HttpStatus.OK);
 		} catch (DatabaseConnectionException e) {
 			// Print exception and abort if database error occurs
 			logger.error(e.getMessage(), e);
@@ -55,6 +86,34 @@ public class RefactoredIssuesController {
 		}
 	}
 
+	/**
+	 * This method streams all filtered refactored issues as newline delimited
+	 * JSON. The issues are written while they are read from the database.
+	 * 
+	 * @param filter
+	 * @return issues
+	 */
+	@GetMapping(produces = NDJSON)
+	@ApiOperation(value = "Stream all refactored issues as newline delimited JSON. Can filter for filehoster, "
+			+ "repository owner, status and date of refactoring")
+	public ResponseEntity<StreamingResponseBody> streamAllIssues(RefactoredIssueFilter filter) {
+		StreamingResponseBody body = outputStream -> {
+			try {
+				issuesService.streamIssues(filter, issue -> {
+					try {
+						outputStream.write(mapper.writeValueAsBytes(issue));
+						outputStream.write('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+	}
+
 	/**
 	 * This method deletes all refactored issues from the database.
 	 * 
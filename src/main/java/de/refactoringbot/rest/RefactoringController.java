@@ -1,18 +1,22 @@
 package de.refactoringbot.rest;
 
+import java.net.URI;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
-import de.refactoringbot.services.main.RefactoringService;
+import de.refactoringbot.services.main.RefactoringJobService;
 import io.swagger.annotations.ApiOperation;
 import javassist.NotFoundException;
 
@@ -28,23 +32,23 @@ import javassist.NotFoundException;
 public class RefactoringController {
 
 	@Autowired
-	RefactoringService refactoringService;
+	RefactoringJobService jobService;
 	
 	private static final Logger logger = LoggerFactory.getLogger(RefactoringController.class);
 
 	/**
-	 * This method performs refactorings with comments within Pull-Requests of a
-	 * Filehoster like GitHub.
+	 * This method starts a job that performs refactorings with comments within
+	 * Pull-Requests of a Filehoster like GitHub.
 	 * 
 	 * @param configID
-	 * @return allRequests
+	 * @return jobID
 	 */
 	@PostMapping(value = "/{configID}/refactorWithComments", produces = "application/json")
-	@ApiOperation(value = "Perform refactorings with Pull-Request-Comments.")
+	@ApiOperation(value = "Start a job that performs refactorings with Pull-Request-Comments.")
 	public ResponseEntity<?> refactorWithComments(@PathVariable Long configID) {
-		// Refactor with comments and respond with result
+		// Queue refactoring with comments and respond with job
 		try {
-			return refactoringService.performRefactoring(configID, true);
+			return createJobResponse(jobService.createJob(configID, true));
 		} catch (DatabaseConnectionException d) {
 			logger.error(d.getMessage(), d);
 			return new ResponseEntity<>(d.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -52,25 +56,25 @@ public class RefactoringController {
 			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
 		} catch (BotRefactoringException b) {
 			return new ResponseEntity<>(b.getMessage(), HttpStatus.BAD_REQUEST);
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
-			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (TaskRejectedException t) {
+			logger.warn("Could not queue refactoring of configuration with the ID " + configID);
+			return new ResponseEntity<>("Too many queued refactorings!", HttpStatus.SERVICE_UNAVAILABLE);
 		}
 	}
 
 	/**
-	 * This method performs refactorings according to findings with an analysis
-	 * service like SonarQube.
+	 * This method starts a job that performs refactorings according to findings
+	 * with an analysis service like SonarQube.
 	 * 
 	 * @param configID
-	 * @return allRefactoredIssues
+	 * @return jobID
 	 */
 	@PostMapping(value = "/{configID}/refactorWithAnalysisService", produces = "application/json")
-	@ApiOperation(value = "Perform refactorings with analysis service.")
+	@ApiOperation(value = "Start a job that performs refactorings with analysis service.")
 	public ResponseEntity<?> refactorWithSonarQube(@PathVariable Long configID) {
-		// Refactor with analysis service and respond with result
+		// Queue refactoring with analysis service and respond with job
 		try {
-			return refactoringService.performRefactoring(configID, false);
+			return createJobResponse(jobService.createJob(configID, false));
 		} catch (DatabaseConnectionException d) {
 			logger.error(d.getMessage(), d);
 			return new ResponseEntity<>(d.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -78,9 +82,22 @@ public class RefactoringController {
 			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
 		} catch (BotRefactoringException b) {
 			return new ResponseEntity<>(b.getMessage(), HttpStatus.BAD_REQUEST);
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
-			return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (TaskRejectedException t) {
+			logger.warn("Could not queue refactoring of configuration with the ID " + configID);
+			return new ResponseEntity<>("Too many queued refactorings!", HttpStatus.SERVICE_UNAVAILABLE);
 		}
 	}
+
+	/**
+	 * This method creates the response of a queued job, which links to the state
+	 * of the job.
+	 * 
+	 * @param jobID
+	 * @return response
+	 */
+	private ResponseEntity<?> createJobResponse(Long jobID) {
+		URI jobLocation = ServletUriComponentsBuilder.fromCurrentContextPath().path("/jobs/{jobID}")
+				.buildAndExpand(jobID).toUri();
+		return ResponseEntity.accepted().location(jobLocation).body(jobID);
+	}
 }
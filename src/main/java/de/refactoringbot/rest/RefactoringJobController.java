@@ -0,0 +1,75 @@
+package de.refactoringbot.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import de.refactoringbot.model.exceptions.DatabaseConnectionException;
+import de.refactoringbot.services.main.RefactoringJobService;
+import io.swagger.annotations.ApiOperation;
+import javassist.NotFoundException;
+
+/**
+ * This REST-Controller reports the state and the progress of the refactoring
+ * jobs, which were started with the REST-API.
+ */
+@RestController
+@RequestMapping(path = "/jobs")
+public class RefactoringJobController {
+
+	@Autowired
+	RefactoringJobService jobService;
+
+	private static final Logger logger = LoggerFactory.getLogger(RefactoringJobController.class);
+
+	/**
+	 * This method returns the state of a refactoring job with the IDs of the
+	 * issues it refactored so far.
+	 *
+	 * @param jobID
+	 * @return job
+	 */
+	@GetMapping(value = "/{jobID}", produces = "application/json")
+	@ApiOperation(value = "Get the state of a refactoring job.")
+	public ResponseEntity<?> getJob(@PathVariable Long jobID) {
+		try {
+			return new ResponseEntity<>(jobService.getJob(jobID), HttpStatus.OK);
+		} catch (DatabaseConnectionException d) {
+			logger.error(d.getMessage(), d);
+			return new ResponseEntity<>(d.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
+		}
+	}
+
+	/**
+	 * This method streams the progress of a refactoring job as server-sent events.
+	 * Every refactored or failed issue is sent as 'issue' event and every change
+	 * of the job state as 'status' event. The stream ends with the job. Errors are
+	 * only reported with the status code, since the body has to be an event
+	 * stream.
+	 *
+	 * @param jobID
+	 * @return events
+	 */
+	@GetMapping(value = "/{jobID}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ApiOperation(value = "Stream the refactored issues and the state of a refactoring job.")
+	public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable Long jobID) {
+		try {
+			return new ResponseEntity<>(jobService.subscribe(jobID), HttpStatus.OK);
+		} catch (DatabaseConnectionException d) {
+			logger.error(d.getMessage(), d);
+			return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		}
+	}
+}
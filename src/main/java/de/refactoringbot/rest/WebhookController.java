@@ -0,0 +1,120 @@
+package de.refactoringbot.rest;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.exceptions.ValidationException;
+import de.refactoringbot.model.github.webhook.GithubReviewCommentEvent;
+import de.refactoringbot.model.gitlab.webhook.GitLabNoteEvent;
+import de.refactoringbot.services.main.WebhookService;
+import io.swagger.annotations.ApiOperation;
+import javassist.NotFoundException;
+
+/**
+ * This REST-Controller receives the webhook events of the filehosters, so that
+ * review comments can be refactored without polling the filehosters.
+ */
+@RestController
+@RequestMapping(path = "/configurations")
+public class WebhookController {
+
+	@Autowired
+	WebhookService webhookService;
+	@Autowired
+	ObjectMapper mapper;
+
+	private static final String GITHUB_REVIEW_COMMENT_EVENT = "pull_request_review_comment";
+
+	private static final Logger logger = LoggerFactory.getLogger(WebhookController.class);
+
+	/**
+	 * This method receives review comment events of a GitHub webhook and queues the
+	 * comment for refactoring.
+	 * 
+	 * @param configID
+	 * @param eventType
+	 * @param signature
+	 * @param payload
+	 * @return response
+	 */
+	@PostMapping(value = "/{configID}/webhooks/github", produces = "application/json")
+	@ApiOperation(value = "Receive Pull-Request-Comments with a GitHub webhook.")
+	public ResponseEntity<?> receiveGithubEvent(@PathVariable Long configID,
+			@RequestHeader(value = "X-GitHub-Event", required = false) String eventType,
+			@RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+			@RequestBody byte[] payload) {
+		if (!webhookService.isValidGithubSignature(payload, signature)) {
+			return new ResponseEntity<>("Invalid webhook signature!", HttpStatus.UNAUTHORIZED);
+		}
+		if (!GITHUB_REVIEW_COMMENT_EVENT.equals(eventType)) {
+			return new ResponseEntity<>("Event ignored.", HttpStatus.OK);
+		}
+
+		try {
+			GithubReviewCommentEvent event = mapper.readValue(payload, GithubReviewCommentEvent.class);
+			return createResponse(webhookService.queueGithubReviewComment(configID, event));
+		} catch (IOException i) {
+			return new ResponseEntity<>("Could not read webhook payload!", HttpStatus.BAD_REQUEST);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
+		} catch (ValidationException v) {
+			return new ResponseEntity<>(v.getMessage(), HttpStatus.BAD_REQUEST);
+		} catch (TaskRejectedException t) {
+			logger.warn("Could not queue webhook event of configuration with the ID " + configID);
+			return new ResponseEntity<>("Too many queued refactorings!", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+
+	/**
+	 * This method receives note events of a GitLab webhook and queues the note for
+	 * refactoring.
+	 * 
+	 * @param configID
+	 * @param token
+	 * @param payload
+	 * @return response
+	 */
+	@PostMapping(value = "/{configID}/webhooks/gitlab", produces = "application/json")
+	@ApiOperation(value = "Receive Merge-Request-Comments with a GitLab webhook.")
+	public ResponseEntity<?> receiveGitlabEvent(@PathVariable Long configID,
+			@RequestHeader(value = "X-Gitlab-Token", required = false) String token, @RequestBody byte[] payload) {
+		if (!webhookService.isValidGitlabToken(token)) {
+			return new ResponseEntity<>("Invalid webhook token!", HttpStatus.UNAUTHORIZED);
+		}
+
+		try {
+			GitLabNoteEvent event = mapper.readValue(payload, GitLabNoteEvent.class);
+			return createResponse(webhookService.queueGitlabNote(configID, event));
+		} catch (IOException i) {
+			return new ResponseEntity<>("Could not read webhook payload!", HttpStatus.BAD_REQUEST);
+		} catch (NotFoundException n) {
+			return new ResponseEntity<>(n.getMessage(), HttpStatus.NOT_FOUND);
+		} catch (ValidationException v) {
+			return new ResponseEntity<>(v.getMessage(), HttpStatus.BAD_REQUEST);
+		} catch (TaskRejectedException t) {
+			logger.warn("Could not queue webhook event of configuration with the ID " + configID);
+			return new ResponseEntity<>("Too many queued refactorings!", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+
+	private ResponseEntity<?> createResponse(boolean isQueued) {
+		if (isQueued) {
+			return new ResponseEntity<>("Comment queued for refactoring.", HttpStatus.ACCEPTED);
+		}
+		return new ResponseEntity<>("Event ignored.", HttpStatus.OK);
+	}
+}
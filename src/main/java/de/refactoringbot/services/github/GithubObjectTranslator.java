@@ -3,6 +3,9 @@ package de.refactoringbot.services.github;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
@@ -11,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import de.refactoringbot.api.github.GithubDataGrabber;
+import de.refactoringbot.api.main.ApiRequestExecutor;
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
@@ -21,6 +25,7 @@ import de.refactoringbot.model.github.pullrequest.GithubPullRequests;
 import de.refactoringbot.model.github.pullrequestcomment.GitHubPullRequestComments;
 import de.refactoringbot.model.github.pullrequestcomment.PullRequestComment;
 import de.refactoringbot.model.github.pullrequestcomment.ReplyComment;
+import de.refactoringbot.model.github.webhook.GithubReviewCommentEvent;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
@@ -41,13 +46,16 @@ public class GithubObjectTranslator {
 	private final GithubDataGrabber grabber;
 	private final ModelMapper modelMapper;
 	private final GitService gitService;
+	private final ApiRequestExecutor requestExecutor;
 	private static final String PULL_REQUEST_DESCRIPTION = "Hi, I'm a refactoring bot. I found and fixed some code smells for you. \n\n You can instruct me to perform changes on this pull request by creating line specific comments inside the 'Files changed' tab of this pull request. Use the english language to give me instructions and do not forget to tag me (using @) inside the comment to let me know that you are talking to me.";
 
 	@Autowired
-	public GithubObjectTranslator(GithubDataGrabber grabber, ModelMapper modelMapper, GitService gitService) {
+	public GithubObjectTranslator(GithubDataGrabber grabber, ModelMapper modelMapper, GitService gitService,
+			ApiRequestExecutor requestExecutor) {
 		this.grabber = grabber;
 		this.modelMapper = modelMapper;
 		this.gitService = gitService;
+		this.requestExecutor = requestExecutor;
 	}
 
 	/**
@@ -90,7 +98,8 @@ public class GithubObjectTranslator {
 	}
 
 	/**
-	 * This method translates GitHub Pull-Requests to BotPullRequests
+	 * This method translates GitHub Pull-Requests to BotPullRequests. The comments
+	 * of all Pull-Requests are fetched concurrently.
 	 * 
 	 * @param githubRequests
 	 * @return translatedRequests
@@ -102,40 +111,42 @@ public class GithubObjectTranslator {
 			throws URISyntaxException, GitHubAPIException, IOException {
 
 		BotPullRequests translatedRequests = new BotPullRequests();
+		List<URI> commentUris = new ArrayList<>();
 
 		for (GithubPullRequest githubRequest : githubRequests.getAllPullRequests()) {
+			translatedRequests.addPullRequest(translateRequest(githubRequest));
 
-			BotPullRequest pullRequest = new BotPullRequest();
-
-			// Fill request with data
-			pullRequest.setRequestName(githubRequest.getTitle());
-			pullRequest.setRequestDescription(githubRequest.getBody());
-			pullRequest.setRequestNumber(githubRequest.getNumber());
-			pullRequest.setRequestLink(githubRequest.getHtmlUrl());
-			pullRequest.setRequestStatus(githubRequest.getState());
-			pullRequest.setCreatorName(githubRequest.getUser().getLogin());
-			pullRequest.setDateCreated(githubRequest.getCreatedAt());
-			pullRequest.setDateUpdated(githubRequest.getUpdatedAt());
-			pullRequest.setBranchName(githubRequest.getHead().getRef());
-			pullRequest.setBranchCreator(githubRequest.getHead().getUser().getLogin());
-			pullRequest.setMergeBranchName(githubRequest.getBase().getRef());
-			pullRequest.setRepoName(githubRequest.getBase().getRepo().getFullName());
-
-			URI commentUri = null;
 			try {
 				// Read comments URI
-				commentUri = new URI(githubRequest.getReviewCommentsUrl());
+				commentUris.add(new URI(githubRequest.getReviewCommentsUrl()));
 			} catch (URISyntaxException e) {
 				logger.error(e.getMessage(), e);
 				throw new URISyntaxException("Could not build comment URI!", e.getMessage());
 			}
+		}
 
-			// Get and translate comments from github
-			GitHubPullRequestComments githubComments = grabber.getAllPullRequestComments(commentUri, gitConfig);
-			BotPullRequestComments comments = translatePullRequestComments(githubComments);
-			pullRequest.setAllComments(comments.getComments());
+		if (commentUris.isEmpty()) {
+			return translatedRequests;
+		}
 
-			translatedRequests.addPullRequest(pullRequest);
+		// Get and translate comments from github
+		List<BotPullRequestComments> allComments;
+		try {
+			allComments = requestExecutor.executeInOrder(commentUris.get(0), gitConfig.getBotToken(), commentUris,
+					commentUri -> translatePullRequestComments(
+							grabber.getAllPullRequestComments(commentUri, gitConfig)));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof GitHubAPIException) {
+				throw (GitHubAPIException) e.getCause();
+			}
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new GitHubAPIException("Could not get pull request comments from Github!", e.getCause());
+		}
+
+		for (int i = 0; i < allComments.size(); i++) {
+			translatedRequests.getAllPullRequests().get(i).setAllComments(allComments.get(i).getComments());
 		}
 
 		return translatedRequests;
@@ -151,21 +162,71 @@ public class GithubObjectTranslator {
 		BotPullRequestComments translatedComments = new BotPullRequestComments();
 
 		for (PullRequestComment githubComment : githubComments.getComments()) {
-			BotPullRequestComment translatedComment = new BotPullRequestComment();
-
-			// Fill comment with data
-			translatedComment.setCommentID(githubComment.getId());
-			translatedComment.setFilepath(githubComment.getPath());
-			translatedComment.setUsername(githubComment.getUser().getLogin());
-			translatedComment.setCommentBody(githubComment.getBody());
-			translatedComment.setPosition(gitService.getLineNumberOfLastLineInDiffHunk(githubComment.getDiffHunk()));
-
-			translatedComments.addComment(translatedComment);
+			translatedComments.addComment(translatePullRequestComment(githubComment));
 		}
 
 		return translatedComments;
 	}
 
+	/**
+	 * This method translates the pull request and the comment of a review comment
+	 * webhook event to a bot request that only contains that comment.
+	 * 
+	 * @param event
+	 * @return translatedRequest
+	 */
+	public BotPullRequest translateReviewCommentEvent(GithubReviewCommentEvent event) {
+		BotPullRequest pullRequest = translateRequest(event.getPullRequest());
+		pullRequest.getAllComments().add(translatePullRequestComment(event.getComment()));
+		return pullRequest;
+	}
+
+	/**
+	 * This method translates a github pull request without its comments to a bot
+	 * request.
+	 * 
+	 * @param githubRequest
+	 * @return translatedRequest
+	 */
+	private BotPullRequest translateRequest(GithubPullRequest githubRequest) {
+		BotPullRequest pullRequest = new BotPullRequest();
+
+		// Fill request with data
+		pullRequest.setRequestName(githubRequest.getTitle());
+		pullRequest.setRequestDescription(githubRequest.getBody());
+		pullRequest.setRequestNumber(githubRequest.getNumber());
+		pullRequest.setRequestLink(githubRequest.getHtmlUrl());
+		pullRequest.setRequestStatus(githubRequest.getState());
+		pullRequest.setCreatorName(githubRequest.getUser().getLogin());
+		pullRequest.setDateCreated(githubRequest.getCreatedAt());
+		pullRequest.setDateUpdated(githubRequest.getUpdatedAt());
+		pullRequest.setBranchName(githubRequest.getHead().getRef());
+		pullRequest.setBranchCreator(githubRequest.getHead().getUser().getLogin());
+		pullRequest.setMergeBranchName(githubRequest.getBase().getRef());
+		pullRequest.setRepoName(githubRequest.getBase().getRepo().getFullName());
+
+		return pullRequest;
+	}
+
+	/**
+	 * This method translates a github comment to a bot comment.
+	 * 
+	 * @param githubComment
+	 * @return translatedComment
+	 */
+	private BotPullRequestComment translatePullRequestComment(PullRequestComment githubComment) {
+		BotPullRequestComment translatedComment = new BotPullRequestComment();
+
+		// Fill comment with data
+		translatedComment.setCommentID(githubComment.getId());
+		translatedComment.setFilepath(githubComment.getPath());
+		translatedComment.setUsername(githubComment.getUser().getLogin());
+		translatedComment.setCommentBody(githubComment.getBody());
+		translatedComment.setPosition(gitService.getLineNumberOfLastLineInDiffHunk(githubComment.getDiffHunk()));
+
+		return translatedComment;
+	}
+
 	/**
 	 * This method creates an object that can be used to create a Pull-Request on
 	 * GitHub after a analysis service refactoring.
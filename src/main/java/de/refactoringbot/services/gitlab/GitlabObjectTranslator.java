@@ -4,6 +4,9 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
@@ -12,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import de.refactoringbot.api.gitlab.GitlabDataGrabber;
+import de.refactoringbot.api.main.ApiRequestExecutor;
 import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
@@ -22,6 +26,8 @@ import de.refactoringbot.model.gitlab.pullrequest.GitLabPullRequests;
 import de.refactoringbot.model.gitlab.pullrequestdiscussion.GitLabDiscussion;
 import de.refactoringbot.model.gitlab.pullrequestdiscussion.GitLabDiscussions;
 import de.refactoringbot.model.gitlab.pullrequestdiscussion.Note;
+import de.refactoringbot.model.gitlab.webhook.GitLabNoteEvent;
+import de.refactoringbot.model.gitlab.webhook.NoteAttributes;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
@@ -40,12 +46,15 @@ public class GitlabObjectTranslator {
 
 	private final GitlabDataGrabber grabber;
 	private final ModelMapper modelMapper;
+	private final ApiRequestExecutor requestExecutor;
 	private static final String PULL_REQUEST_DESCRIPTION = "Hi, I'm a refactoring bot. I found and fixed some code smells for you. \n\n You can instruct me to perform changes on this merge request by creating line specific comments inside the 'Changes' tab of this merge request. Use the english language to give me instructions and do not forget to tag me (using @) inside the comment to let me know that you are talking to me.";
 
 	@Autowired
-	public GitlabObjectTranslator(GitlabDataGrabber grabber, ModelMapper modelMapper) {
+	public GitlabObjectTranslator(GitlabDataGrabber grabber, ModelMapper modelMapper,
+			ApiRequestExecutor requestExecutor) {
 		this.grabber = grabber;
 		this.modelMapper = modelMapper;
+		this.requestExecutor = requestExecutor;
 	}
 
 	/**
@@ -99,45 +108,104 @@ public class GitlabObjectTranslator {
 	public BotPullRequests translateRequests(GitLabPullRequests gitlabRequests, GitConfiguration gitConfig)
 			throws URISyntaxException, GitLabAPIException, IOException {
 		BotPullRequests translatedRequests = new BotPullRequests();
+		List<URI> discussionsUris = new ArrayList<>();
 
 		for (GitLabPullRequest gitlabRequest : gitlabRequests.getAllPullRequests()) {
+			translatedRequests.addPullRequest(translateRequest(gitlabRequest));
 
-			BotPullRequest pullRequest = new BotPullRequest();
-
-			// Fill request with data
-			pullRequest.setRequestName(gitlabRequest.getTitle());
-			pullRequest.setRequestDescription(gitlabRequest.getDescription());
-			pullRequest.setRequestNumber(gitlabRequest.getIid());
-			pullRequest.setRequestLink(gitlabRequest.getWebUrl());
-			pullRequest.setRequestStatus(gitlabRequest.getState());
-			pullRequest.setCreatorName(gitlabRequest.getAuthor().getUsername());
-			pullRequest.setDateCreated(gitlabRequest.getCreatedAt());
-			pullRequest.setDateUpdated(gitlabRequest.getUpdatedAt());
-			pullRequest.setBranchName(gitlabRequest.getSourceBranch());
-			pullRequest.setMergeBranchName(gitlabRequest.getTargetBranch());
-
-			URI discussionsUri = null;
 			try {
 				// Read comments URI
-				discussionsUri = new URI("https://gitlab.com/api/v4/projects/" + gitlabRequest.getProjectId()
-						+ "/merge_requests/" + gitlabRequest.getIid() + "/discussions");
+				discussionsUris.add(new URI("https://gitlab.com/api/v4/projects/" + gitlabRequest.getProjectId()
+						+ "/merge_requests/" + gitlabRequest.getIid() + "/discussions"));
 			} catch (URISyntaxException e) {
 				logger.error(e.getMessage(), e);
 				throw new URISyntaxException("Could not build discussions URI!", e.getMessage());
 			}
+		}
 
-			// Get and translate comments from GitLab
-			GitLabDiscussions gitlabDiscussions = grabber.getAllPullRequestDiscussions(discussionsUri, gitConfig);
-			BotPullRequestComments comments = translatePullRequestComments(gitlabDiscussions);
-			pullRequest.setAllComments(comments.getComments());
+		if (discussionsUris.isEmpty()) {
+			return translatedRequests;
+		}
 
-			translatedRequests.addPullRequest(pullRequest);
+		// Get and translate comments from GitLab
+		List<BotPullRequestComments> allComments;
+		try {
+			allComments = requestExecutor.executeInOrder(discussionsUris.get(0), gitConfig.getBotToken(),
+					discussionsUris, discussionsUri -> translatePullRequestComments(
+							grabber.getAllPullRequestDiscussions(discussionsUri, gitConfig)));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof GitLabAPIException) {
+				throw (GitLabAPIException) e.getCause();
+			}
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new GitLabAPIException("Could not get discussions from GitLab!", e.getCause());
+		}
+
+		for (int i = 0; i < allComments.size(); i++) {
+			translatedRequests.getAllPullRequests().get(i).setAllComments(allComments.get(i).getComments());
 		}
 
-		// Fill request with data
 		return translatedRequests;
 	}
 
+	/**
+	 * This method translates a note webhook event to a bot request that only
+	 * contains the note of the event. The merge request is passed separately,
+	 * since the event does not contain its author.
+	 * 
+	 * @param event
+	 * @param gitlabRequest
+	 * @return translatedRequest
+	 */
+	public BotPullRequest translateNoteEvent(GitLabNoteEvent event, GitLabPullRequest gitlabRequest) {
+		BotPullRequest pullRequest = translateRequest(gitlabRequest);
+
+		NoteAttributes note = event.getObjectAttributes();
+		// Work only on line comments
+		if (note.getPosition() != null) {
+			BotPullRequestComment translatedComment = new BotPullRequestComment();
+
+			// Fill comment with data
+			translatedComment.setDiscussionID(note.getDiscussionId());
+			translatedComment.setCommentID(note.getId());
+			translatedComment.setFilepath(note.getPosition().getNewPath());
+			translatedComment.setUsername(event.getUser().getUsername());
+			translatedComment.setCommentBody(note.getNote());
+			translatedComment.setPosition(note.getPosition().getNewLine());
+
+			pullRequest.getAllComments().add(translatedComment);
+		}
+
+		return pullRequest;
+	}
+
+	/**
+	 * This method translates a GitLab merge request without its comments to a bot
+	 * request.
+	 * 
+	 * @param gitlabRequest
+	 * @return translatedRequest
+	 */
+	private BotPullRequest translateRequest(GitLabPullRequest gitlabRequest) {
+		BotPullRequest pullRequest = new BotPullRequest();
+
+		// Fill request with data
+		pullRequest.setRequestName(gitlabRequest.getTitle());
+		pullRequest.setRequestDescription(gitlabRequest.getDescription());
+		pullRequest.setRequestNumber(gitlabRequest.getIid());
+		pullRequest.setRequestLink(gitlabRequest.getWebUrl());
+		pullRequest.setRequestStatus(gitlabRequest.getState());
+		pullRequest.setCreatorName(gitlabRequest.getAuthor().getUsername());
+		pullRequest.setDateCreated(gitlabRequest.getCreatedAt());
+		pullRequest.setDateUpdated(gitlabRequest.getUpdatedAt());
+		pullRequest.setBranchName(gitlabRequest.getSourceBranch());
+		pullRequest.setMergeBranchName(gitlabRequest.getTargetBranch());
+
+		return pullRequest;
+	}
+
 	/**
 	 * This method translates GitLab comments to bot comments.
 	 * 
@@ -0,0 +1,215 @@
+package de.refactoringbot.services.main;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.api.main.ApiGrabber;
+import de.refactoringbot.model.analysisissue.AnalysisIssue;
+import de.refactoringbot.model.analysisissue.AnalysisIssueRepository;
+import de.refactoringbot.model.analysisissue.AnalysisIssueStatus;
+import de.refactoringbot.model.analysisissue.AnalysisIssueSync;
+import de.refactoringbot.model.analysisissue.AnalysisIssueSyncRepository;
+import de.refactoringbot.model.botissue.AnalysisServiceIssues;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+/**
+ * This class keeps a local copy of the issues of the analysis service of every
+ * configuration. Usually only the issues created since the last sync are
+ * requested from the analysis service. Since issues that were closed or
+ * reopened can not be requested that way, all open issues are requested again
+ * in a longer interval (full sync).
+ */
+@Service
+public class AnalysisIssueService {
+
+	@Autowired
+	AnalysisIssueRepository issueRepo;
+	@Autowired
+	AnalysisIssueSyncRepository syncRepo;
+	@Autowired
+	ApiGrabber apiGrabber;
+
+	@Value("${analysis.fullSyncIntervalInMS:86400000}")
+	private long fullSyncIntervalInMS;
+	/**
+	 * Issues get the date of the analysis as creation date, which might be before
+	 * the analysis was processed by the analysis service. Therefore, the issues
+	 * created shortly before the last sync are requested again.
+	 */
+	@Value("${analysis.syncOverlapInMS:3600000}")
+	private long syncOverlapInMS;
+
+	private static final int MAX_KEYS_PER_QUERY = 500;
+
+	private static final Logger logger = LoggerFactory.getLogger(AnalysisIssueService.class);
+
+	/**
+	 * This method syncs the issues of the given configuration with the analysis
+	 * service and returns all open issues that were not processed yet.
+	 * 
+	 * @param gitConfig
+	 * @return botIssues
+	 * @throws Exception
+	 */
+	public List<BotIssue> getUnprocessedIssues(GitConfiguration gitConfig) throws Exception {
+		syncIssues(gitConfig);
+
+		List<BotIssue> botIssues = new ArrayList<>();
+		for (AnalysisIssue issue : issueRepo.getUnprocessedIssues(gitConfig.getConfigurationId(),
+				AnalysisIssueStatus.open)) {
+			botIssues.add(createBotIssue(issue));
+		}
+		return botIssues;
+	}
+
+	/**
+	 * This method marks an issue as processed, so that it is not returned by
+	 * {@link #getUnprocessedIssues(GitConfiguration)} anymore.
+	 * 
+	 * @param gitConfig
+	 * @param botIssue
+	 */
+	public void markAsProcessed(GitConfiguration gitConfig, BotIssue botIssue) {
+		issueRepo.markAsProcessed(gitConfig.getConfigurationId(), botIssue.getCommentServiceID());
+	}
+
+	/**
+	 * This method deletes the local issues and the sync state of a configuration.
+	 * 
+	 * @param configurationId
+	 */
+	public void deleteIssues(Long configurationId) {
+		issueRepo.deleteIssuesOfConfiguration(configurationId);
+		if (syncRepo.existsById(configurationId)) {
+			syncRepo.deleteById(configurationId);
+		}
+	}
+
+	/**
+	 * This method requests the new issues or, if the full sync interval passed,
+	 * all open issues of the given configuration from the analysis service and
+	 * stores them locally.
+	 * 
+	 * @param gitConfig
+	 * @throws Exception
+	 */
+	void syncIssues(GitConfiguration gitConfig) throws Exception {
+		long syncStart = System.currentTimeMillis();
+		AnalysisIssueSync sync = syncRepo.findById(gitConfig.getConfigurationId()).orElseGet(() -> {
+			AnalysisIssueSync newSync = new AnalysisIssueSync();
+			newSync.setConfigurationId(gitConfig.getConfigurationId());
+			return newSync;
+		});
+
+		boolean isFullSync = sync.getLastFullSyncInMS() == null || sync.getLastSyncInMS() == null
+				|| syncStart - sync.getLastFullSyncInMS() >= fullSyncIntervalInMS;
+		Date createdAfter = isFullSync ? null : new Date(sync.getLastSyncInMS() - syncOverlapInMS);
+
+		AnalysisServiceIssues issues = apiGrabber.getAnalysisServiceIssues(gitConfig, createdAfter);
+		List<BotIssue> botIssues = issues.getIssues();
+		saveIssues(gitConfig.getConfigurationId(), botIssues);
+		if (isFullSync) {
+			// Issues beyond the truncated search results are still open
+			if (issues.isTruncated()) {
+				logger.warn("Full sync of configuration " + gitConfig.getConfigurationId()
+						+ " was truncated, no issues are closed.");
+			} else {
+				closeMissingIssues(gitConfig.getConfigurationId(), botIssues);
+			}
+			sync.setLastFullSyncInMS(syncStart);
+		}
+		sync.setLastSyncInMS(syncStart);
+		syncRepo.save(sync);
+
+		logger.info("Synced " + botIssues.size() + " issues of configuration " + gitConfig.getConfigurationId()
+				+ (isFullSync ? " (full sync)." : " created after " + createdAfter + "."));
+	}
+
+	/**
+	 * This method creates or updates the local copies of the given issues.
+	 * 
+	 * @param configurationId
+	 * @param botIssues
+	 */
+	private void saveIssues(Long configurationId, List<BotIssue> botIssues) {
+		Map<String, BotIssue> botIssuesByKey = new LinkedHashMap<>();
+		for (BotIssue botIssue : botIssues) {
+			botIssuesByKey.put(botIssue.getCommentServiceID(), botIssue);
+		}
+
+		List<String> issueKeys = new ArrayList<>(botIssuesByKey.keySet());
+		for (int i = 0; i < issueKeys.size(); i += MAX_KEYS_PER_QUERY) {
+			List<String> keysOfBatch = issueKeys.subList(i, Math.min(i + MAX_KEYS_PER_QUERY, issueKeys.size()));
+
+			Map<String, AnalysisIssue> existingIssues = new HashMap<>();
+			for (AnalysisIssue issue : issueRepo.getIssuesByKeys(configurationId, keysOfBatch)) {
+				existingIssues.put(issue.getIssueKey(), issue);
+			}
+
+			List<AnalysisIssue> issuesOfBatch = new ArrayList<>();
+			for (String issueKey : keysOfBatch) {
+				AnalysisIssue issue = existingIssues.get(issueKey);
+				if (issue == null) {
+					issue = new AnalysisIssue();
+					issue.setConfigurationId(configurationId);
+					issue.setIssueKey(issueKey);
+				}
+
+				BotIssue botIssue = botIssuesByKey.get(issueKey);
+				issue.setStatus(AnalysisIssueStatus.open);
+				issue.setRefactoringOperation(botIssue.getRefactoringOperation());
+				issue.setFilePath(botIssue.getFilePath());
+				issue.setLine(botIssue.getLine());
+				issue.setRefactorString(botIssue.getRefactorString());
+				issuesOfBatch.add(issue);
+			}
+			issueRepo.saveAll(issuesOfBatch);
+		}
+	}
+
+	/**
+	 * This method closes all open local issues that are not part of the given
+	 * issues of a full sync.
+	 * 
+	 * @param configurationId
+	 * @param botIssues
+	 */
+	private void closeMissingIssues(Long configurationId, List<BotIssue> botIssues) {
+		Set<String> openIssueKeys = new HashSet<>();
+		for (BotIssue botIssue : botIssues) {
+			openIssueKeys.add(botIssue.getCommentServiceID());
+		}
+
+		List<AnalysisIssue> closedIssues = new ArrayList<>();
+		for (AnalysisIssue issue : issueRepo.getIssuesByStatus(configurationId, AnalysisIssueStatus.open)) {
+			if (!openIssueKeys.contains(issue.getIssueKey())) {
+				issue.setStatus(AnalysisIssueStatus.closed);
+				closedIssues.add(issue);
+			}
+		}
+		issueRepo.saveAll(closedIssues);
+	}
+
+	private BotIssue createBotIssue(AnalysisIssue issue) {
+		BotIssue botIssue = new BotIssue();
+		botIssue.setCommentServiceID(issue.getIssueKey());
+		botIssue.setRefactoringOperation(issue.getRefactoringOperation());
+		botIssue.setFilePath(issue.getFilePath());
+		botIssue.setLine(issue.getLine());
+		botIssue.setRefactorString(issue.getRefactorString());
+		return botIssue;
+	}
+}
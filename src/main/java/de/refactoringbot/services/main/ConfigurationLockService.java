@@ -0,0 +1,31 @@
+package de.refactoringbot.services.main;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides one lock per configuration. All work on the local
+ * workspace of a configuration (e.g. checking out branches and refactoring) has
+ * to hold its lock, so that scheduled and requested refactorings of the same
+ * configuration do not interfere with each other.
+ */
+@Service
+public class ConfigurationLockService {
+
+	private final ConcurrentMap<Long, Lock> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * This method returns the lock of the configuration with the given ID.
+	 * 
+	 * @param configurationId
+	 * @return lock
+	 */
+	public Lock getLock(Long configurationId) {
+		return locks.computeIfAbsent(configurationId, id -> new ReentrantLock());
+	}
+
+}
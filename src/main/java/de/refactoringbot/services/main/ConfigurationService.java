@@ -19,6 +19,7 @@ import de.refactoringbot.model.configuration.ConfigurationRepository;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.configuration.GitConfigurationDTO;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
+import de.refactoringbot.refactoring.RefactoringHelper;
 import de.refactoringbot.services.github.GithubObjectTranslator;
 import javassist.NotFoundException;
 
@@ -43,6 +44,14 @@ public class ConfigurationService {
 	GitService gitService;
 	@Autowired
 	BotService botService;
+	@Autowired
+	SymbolSolverService symbolSolverService;
+	@Autowired
+	AnalysisIssueService analysisIssueService;
+	@Autowired
+	WorktreeService worktreeService;
+	@Autowired
+	RepositoryCacheService repositoryCache;
 
 	private static final Logger logger = LoggerFactory.getLogger(ConfigurationService.class);
 
@@ -134,6 +143,7 @@ public class ConfigurationService {
 			repo.delete(createdConfig);
 			// Try to delete local folder
 			File forkFolder = new File(botConfig.getBotRefactoringDirectory() + createdConfig.getConfigurationId());
+			repositoryCache.evictRepositories(forkFolder);
 			FileUtils.deleteDirectory(forkFolder);
 
 			// Try to delete Repo
@@ -155,8 +165,15 @@ public class ConfigurationService {
 	public GitConfiguration finalizeGitConfiguration(GitConfiguration config) throws Exception {
 		// Delete local folder for config if exists (if database was resetted)
 		if (new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId()).exists()) {
+			repositoryCache.evictRepositories(
+					new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId()));
 			FileUtils.deleteDirectory(new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId()));
+			RefactoringHelper.discardCachedCompilationUnits(
+					botConfig.getBotRefactoringDirectory() + config.getConfigurationId());
+			symbolSolverService.evictSymbolSolver(config.getConfigurationId());
 		}
+		// Worktrees of a previous workspace can not use the objects of the new one
+		worktreeService.deleteWorktrees(config.getConfigurationId());
 
 		// Create new local folder for the fork
 		File dir = new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId());
@@ -191,6 +208,7 @@ public class ConfigurationService {
 		// Delete configuration from the database
 		try {
 			repo.delete(config);
+			analysisIssueService.deleteIssues(config.getConfigurationId());
 			userFeedback = "Configuration deleted from database!";
 		} catch (Exception d) {
 			logger.error(d.getMessage(), d);
@@ -241,7 +259,12 @@ public class ConfigurationService {
 	public void deleteConfigurationFolder(GitConfiguration config) throws IOException {
 		try {
 			File forkFolder = new File(botConfig.getBotRefactoringDirectory() + config.getConfigurationId());
+			repositoryCache.evictRepositories(forkFolder);
 			FileUtils.deleteDirectory(forkFolder);
+			RefactoringHelper.discardCachedCompilationUnits(forkFolder.getPath());
+			symbolSolverService.evictSymbolSolver(config.getConfigurationId());
+			grabber.discardTranslatedRequests(config.getConfigurationId());
+			worktreeService.deleteWorktrees(config.getConfigurationId());
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 			throw new IOException(
@@ -1,10 +1,10 @@
 package de.refactoringbot.services.main;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -16,10 +16,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.PackageDeclaration;
-import com.github.javaparser.printer.lexicalpreservation.LexicalPreservingPrinter;
+
+import de.refactoringbot.refactoring.RefactoringHelper;
+
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -70,12 +71,13 @@ public class FileService {
 		Set<String> javaRoots = new HashSet<>();
 
 		for (String javaFile : allJavaFiles) {
-			FileInputStream filepath = new FileInputStream(javaFile);
-
 			CompilationUnit compilationUnit;
-                        
+
 			try {
-				compilationUnit = LexicalPreservingPrinter.setup(StaticJavaParser.parse(filepath));
+				// Parsed files are cached, so that the following refactoring can reuse them
+				compilationUnit = RefactoringHelper.getCompilationUnitFromFile(javaFile);
+			} catch (FileNotFoundException f) {
+				throw f;
 			} catch (Exception e) {
 				logger.error(e.getMessage(), e);
 				continue;
@@ -98,4 +100,29 @@ public class FileService {
 		}
 		return new ArrayList<>(javaRoots);
 	}
+
+	/**
+	 * This method converts the given file paths, relative to the given repository
+	 * folder, to canonical paths like the ones of {@link #getAllJavaFiles(String)}.
+	 * Only java files are returned.
+	 * 
+	 * @param repoFolderPath
+	 * @param relativeFilePaths
+	 * @return javaFilePaths
+	 */
+	public Set<String> getCanonicalJavaFilePaths(String repoFolderPath, Collection<String> relativeFilePaths) {
+		Set<String> javaFilePaths = new HashSet<>();
+		for (String relativeFilePath : relativeFilePaths) {
+			if (!relativeFilePath.endsWith(".java")) {
+				continue;
+			}
+			File file = new File(repoFolderPath, relativeFilePath);
+			try {
+				javaFilePaths.add(file.getCanonicalPath());
+			} catch (IOException e) {
+				javaFilePaths.add(file.getAbsolutePath());
+			}
+		}
+		return javaFilePaths;
+	}
 }
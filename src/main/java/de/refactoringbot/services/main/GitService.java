@@ -1,24 +1,52 @@
 package de.refactoringbot.services.main;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.CreateBranchCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.RemoteAddCommand;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.RefAlreadyExistsException;
 import org.eclipse.jgit.api.errors.RefNotFoundException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.lib.ConfigConstants;
-import org.eclipse.jgit.lib.CoreConfig.AutoCRLF;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEditor.PathEdit;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import de.refactoringbot.configuration.BotConfiguration;
@@ -26,6 +54,8 @@ import de.refactoringbot.model.configuration.FileHoster;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.model.exceptions.BotRefactoringException;
 import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.services.tracing.Span;
+import de.refactoringbot.services.tracing.Tracer;
 
 /**
  * This class uses git programmatically with JGIT.
@@ -38,9 +68,21 @@ public class GitService {
 
 	@Autowired
 	BotConfiguration botConfig;
+	@Autowired
+	RepositoryCacheService repositoryCache;
+
+	/**
+	 * If enabled, the workspaces only contain the master branches of the fork and
+	 * of the upstream repository without tags. Other branches are fetched when
+	 * they are needed.
+	 */
+	@Value("${bot.singleBranchWorkspaces:false}")
+	private boolean singleBranchWorkspaces;
 
 	private static final Logger logger = LoggerFactory.getLogger(GitService.class);
 
+	private static final String DEFAULT_BRANCH = "master";
+
 	/**
 	 * This method initialises the workspace.
 	 * 
@@ -61,7 +103,9 @@ public class GitService {
 	 * @throws GitWorkflowException
 	 */
 	public void addRemote(GitConfiguration gitConfig) throws GitWorkflowException {
-		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+		try (Span span = startSpan("git.addRemote", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
 			// Add Remote as 'upstream'
 			RemoteAddCommand remoteAddCommand = git.remoteAdd();
 			remoteAddCommand.setName("upstream");
@@ -81,17 +125,15 @@ public class GitService {
 	 * @throws GitWorkflowException
 	 */
 	public void fetchRemote(GitConfiguration gitConfig) throws GitWorkflowException {
-		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+		try (Span span = startSpan("git.fetch", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
 			// Fetch data
-			if (gitConfig.getRepoService().equals(FileHoster.github)) {
-				git.fetch().setRemote("upstream")
-						.setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""))
-						.call();
-			} else {
-				git.fetch().setRemote("upstream").setCredentialsProvider(
-						new UsernamePasswordCredentialsProvider(gitConfig.getBotName(), gitConfig.getBotToken()))
-						.call();
+			FetchCommand fetch = git.fetch().setRemote("upstream").setCredentialsProvider(getCredentials(gitConfig));
+			if (singleBranchWorkspaces) {
+				fetch.setRefSpecs(getBranchRefSpec("upstream", DEFAULT_BRANCH)).setTagOpt(TagOpt.NO_TAGS);
 			}
+			fetch.call();
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 			throw new GitWorkflowException("Could not fetch data from 'upstream'!");
@@ -105,7 +147,9 @@ public class GitService {
 	 * @throws GitWorkflowException
 	 */
 	public void stashChanges(GitConfiguration gitConfig) throws GitWorkflowException {
-		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+		try (Span span = startSpan("git.stash", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
 			// Open git folder
 			// Stash changes
 			git.stashApply().call();
@@ -123,19 +167,15 @@ public class GitService {
 	 */
 	public void cloneRepository(GitConfiguration gitConfig) throws GitWorkflowException {
 		Git git = null;
-		try {
-			if (gitConfig.getRepoService().equals(FileHoster.github)) {
-				git = Git.cloneRepository().setURI(gitConfig.getForkGitLink())
-						.setDirectory(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))
-						.setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""))
-						.call();
-			} else {
-				git = Git.cloneRepository().setURI(gitConfig.getForkGitLink())
-						.setDirectory(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))
-						.setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotName(),
-								gitConfig.getBotToken()))
-						.call();
+		try (Span span = startSpan("git.clone", gitConfig)) {
+			CloneCommand clone = Git.cloneRepository().setURI(gitConfig.getForkGitLink())
+					.setDirectory(getRepoDirectory(gitConfig)).setCredentialsProvider(getCredentials(gitConfig));
+			if (singleBranchWorkspaces) {
+				clone.setCloneAllBranches(false)
+						.setBranchesToClone(Collections.singletonList(Constants.R_HEADS + DEFAULT_BRANCH))
+						.setBranch(DEFAULT_BRANCH);
 			}
+			git = clone.call();
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 			throw new GitWorkflowException("Faild to clone " + "'" + gitConfig.getForkGitLink() + "' successfully!");
@@ -158,7 +198,9 @@ public class GitService {
 	 */
 	public void createBranch(GitConfiguration gitConfig, String branchName, String newBranch, String origin)
 			throws BotRefactoringException, GitWorkflowException {
-		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+		try (Span span = startSpan("git.createBranch", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
 			// Try to create new branch
 			@SuppressWarnings("unused")
 			Ref ref = git.checkout().setCreateBranch(true).setName(newBranch)
@@ -186,12 +228,18 @@ public class GitService {
 	 */
 	public void switchBranch(GitConfiguration gitConfig, String branchName)
 			throws GitWorkflowException, BotRefactoringException {
-		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
+		try (Span span = startSpan("git.switchBranch", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
 			// Switch branch
 			@SuppressWarnings("unused")
 			Ref ref = git.checkout().setName(branchName).call();
 			// If branch does not exist locally anymore
 		} catch (RefNotFoundException r) {
+			if (singleBranchWorkspaces) {
+				// Branch was not fetched with the workspace
+				fetchBranch(gitConfig, "origin", branchName);
+			}
 			// Recreate branch with current branch data from remote origin
 			createBranch(gitConfig, branchName, branchName, "origin");
 		} catch (Exception e) {
@@ -201,44 +249,47 @@ public class GitService {
 	}
 
 	/**
-	 * This method performs 'git push' programmically
+	 * This method fetches a single branch from the given remote.
 	 * 
+	 * @param gitConfig
+	 * @param remote
+	 * @param branchName
 	 * @throws GitWorkflowException
 	 */
-	public void commitAndPushChanges(GitConfiguration gitConfig, String commitMessage) throws GitWorkflowException {
-		try (Git git = Git.open(new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId()))) {
-			StoredConfig storedRepoConfig = git.getRepository().getConfig();
-			// set autocrlf to true to handle line endings of different operating systems
-			// correctly. Otherwise the bot will most likely change the line endings of all
-			// files to the default of its operating system.
-			// Corresponds to 'git config --global core.autocrlf true'
-			storedRepoConfig.setEnum(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_KEY_AUTOCRLF,
-					AutoCRLF.TRUE);
-			// set filemode explicitly to false
-			storedRepoConfig.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_KEY_FILEMODE,
-					false);
-			storedRepoConfig.save();
-
-			// We only add those files to the staging area that have actually been changed.
-			// 'git add .' in this JGit config would sometimes cause files to be added
-			// without content changes (e.g. due to unpredictable whitespace changes).
-			List<DiffEntry> diffEntries = git.diff().call();
-			for (DiffEntry diffEntry : diffEntries) {
-				git.add().addFilepattern(diffEntry.getOldPath()).call();
-			}
+	public void fetchBranch(GitConfiguration gitConfig, String remote, String branchName)
+			throws GitWorkflowException {
+		try (Span span = startSpan("git.fetchBranch", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
+			git.fetch().setRemote(remote).setCredentialsProvider(getCredentials(gitConfig))
+					.setRefSpecs(getBranchRefSpec(remote, branchName)).setTagOpt(TagOpt.NO_TAGS).call();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not fetch branch '" + branchName + "' from '" + remote + "'!");
+		}
+	}
 
-			// 'git commit -m'
-			git.commit().setMessage(commitMessage).setCommitter(gitConfig.getBotName(), gitConfig.getBotEmail()).call();
-
-			// push with bot credentials
-			if (gitConfig.getRepoService().equals(FileHoster.github)) {
-				git.push().setCredentialsProvider(new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), ""))
-						.call();
-			} else {
-				git.push().setCredentialsProvider(
-						new UsernamePasswordCredentialsProvider(gitConfig.getBotName(), gitConfig.getBotToken()))
-						.call();
-			}
+	/**
+	 * This method commits the given files, which were already written to the
+	 * working tree, and pushes the commit. Instead of scanning the working tree
+	 * for changes, the given contents are inserted directly into the object
+	 * database. The index is updated with the new blobs and the stats of the
+	 * written files, so that the working tree stays clean.
+	 * 
+	 * @param gitConfig
+	 * @param commitMessage
+	 * @param changedFiles
+	 *            absolute path -> content of the changed files
+	 * @throws GitWorkflowException
+	 */
+	public void commitAndPushChanges(GitConfiguration gitConfig, String commitMessage,
+			Map<String, String> changedFiles) throws GitWorkflowException {
+		try (Span span = startSpan("git.commitAndPush", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
+			span.setAttribute("fileCount", changedFiles.size());
+			commitChangedFiles(repository, gitConfig, commitMessage, changedFiles);
+			push(git, gitConfig);
 		} catch (TransportException t) {
 			logger.error(t.getMessage(), t);
 			throw new GitWorkflowException("Wrong bot token!");
@@ -248,6 +299,254 @@ public class GitService {
 		}
 	}
 
+	/**
+	 * This method writes the blobs of the given files, the tree and the commit
+	 * into the object database and moves the current branch to the new commit.
+	 * Line endings are normalized like with 'core.autocrlf=true'.
+	 * 
+	 * @param repository
+	 * @param gitConfig
+	 * @param commitMessage
+	 * @param changedFiles
+	 * @throws IOException
+	 * @throws GitWorkflowException
+	 */
+	void commitChangedFiles(Repository repository, GitConfiguration gitConfig, String commitMessage,
+			Map<String, String> changedFiles) throws IOException, GitWorkflowException {
+		ObjectId headId = repository.resolve(Constants.HEAD);
+		// Canonical paths, since the given paths might resolve symbolic links (e.g. of
+		// the refactoring directory) that the path of the working tree contains
+		Path workTree = repository.getWorkTree().getCanonicalFile().toPath();
+
+		DirCache index = repository.lockDirCache();
+		try (ObjectInserter inserter = repository.newObjectInserter()) {
+			DirCacheEditor editor = index.editor();
+			for (Map.Entry<String, String> changedFile : changedFiles.entrySet()) {
+				Path filePath = new File(changedFile.getKey()).getCanonicalFile().toPath();
+				if (!filePath.startsWith(workTree)) {
+					throw new GitWorkflowException("File '" + filePath + "' is not inside of the repository!");
+				}
+				String repoPath = workTree.relativize(filePath).toString().replace(File.separatorChar, '/');
+				byte[] content = changedFile.getValue().replace("\r\n", "\n").getBytes(Charset.defaultCharset());
+				ObjectId blobId = inserter.insert(Constants.OBJ_BLOB, content);
+				File file = filePath.toFile();
+
+				editor.add(new PathEdit(repoPath) {
+					@Override
+					public void apply(DirCacheEntry entry) {
+						if (entry.getRawMode() == 0) {
+							entry.setFileMode(FileMode.REGULAR_FILE);
+						}
+						entry.setObjectId(blobId);
+						// Stats of the written file mark it as unchanged in the working tree
+						entry.setLength(file.length());
+						entry.setLastModified(file.lastModified());
+					}
+				});
+			}
+			editor.finish();
+
+			PersonIdent botIdent = new PersonIdent(gitConfig.getBotName(), gitConfig.getBotEmail());
+			CommitBuilder commit = new CommitBuilder();
+			commit.setTreeId(index.writeTree(inserter));
+			if (headId != null) {
+				commit.setParentId(headId);
+			}
+			commit.setAuthor(botIdent);
+			commit.setCommitter(botIdent);
+			commit.setMessage(commitMessage);
+			ObjectId commitId = inserter.insert(commit);
+			inserter.flush();
+
+			RefUpdate refUpdate = repository.updateRef(Constants.HEAD);
+			refUpdate.setNewObjectId(commitId);
+			refUpdate.setExpectedOldObjectId(headId != null ? headId : ObjectId.zeroId());
+			refUpdate.setRefLogMessage("commit: " + commitMessage.split("\n", 2)[0], false);
+			RefUpdate.Result result = refUpdate.update();
+			if (result != RefUpdate.Result.NEW && result != RefUpdate.Result.FAST_FORWARD) {
+				throw new GitWorkflowException("Could not update the current branch: " + result);
+			}
+
+			index.write();
+			index.commit();
+		} finally {
+			index.unlock();
+		}
+	}
+
+	/**
+	 * This method pushes the current branch with the bot credentials.
+	 * 
+	 * @param git
+	 * @param gitConfig
+	 * @throws GitAPIException
+	 */
+	private void push(Git git, GitConfiguration gitConfig) throws GitAPIException {
+		git.push().setCredentialsProvider(getCredentials(gitConfig)).call();
+	}
+
+	/**
+	 * This method returns the ID of the commit that is currently checked out.
+	 * 
+	 * @param gitConfig
+	 * @return headCommitId
+	 * @throws GitWorkflowException
+	 */
+	public String getHeadCommitId(GitConfiguration gitConfig) throws GitWorkflowException {
+		ObjectId head = null;
+		try (Repository repository = openRepository(gitConfig)) {
+			head = repository.resolve(Constants.HEAD);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not resolve the current commit!");
+		}
+
+		if (head == null) {
+			throw new GitWorkflowException("Repository does not contain any commits!");
+		}
+		return head.getName();
+	}
+
+	/**
+	 * This method returns the paths (relative to the repository) of all files that
+	 * were added, modified, deleted or renamed between the two given commits.
+	 * 
+	 * @param gitConfig
+	 * @param oldCommitId
+	 * @param newCommitId
+	 * @return changedFiles
+	 * @throws GitWorkflowException
+	 */
+	public List<String> getChangedFiles(GitConfiguration gitConfig, String oldCommitId, String newCommitId)
+			throws GitWorkflowException {
+		List<String> changedFiles = new ArrayList<>();
+
+		try (Span span = startSpan("git.diff", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository);
+				ObjectReader reader = repository.newObjectReader();
+				RevWalk revWalk = new RevWalk(reader)) {
+			CanonicalTreeParser oldTree = new CanonicalTreeParser();
+			oldTree.reset(reader, revWalk.parseCommit(ObjectId.fromString(oldCommitId)).getTree());
+			CanonicalTreeParser newTree = new CanonicalTreeParser();
+			newTree.reset(reader, revWalk.parseCommit(ObjectId.fromString(newCommitId)).getTree());
+
+			List<DiffEntry> diffEntries = git.diff().setOldTree(oldTree).setNewTree(newTree)
+					.setShowNameAndStatusOnly(true).call();
+			for (DiffEntry diffEntry : diffEntries) {
+				if (!DiffEntry.DEV_NULL.equals(diffEntry.getOldPath())) {
+					changedFiles.add(diffEntry.getOldPath());
+				}
+				if (!DiffEntry.DEV_NULL.equals(diffEntry.getNewPath())
+						&& !diffEntry.getNewPath().equals(diffEntry.getOldPath())) {
+					changedFiles.add(diffEntry.getNewPath());
+				}
+			}
+			span.setAttribute("fileCount", changedFiles.size());
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException(
+					"Could not compare commit '" + oldCommitId + "' with commit '" + newCommitId + "'!");
+		}
+
+		return changedFiles;
+	}
+
+	/**
+	 * This method returns the paths (relative to the repository) of all files in
+	 * the working tree that differ from the currently checked out commit,
+	 * including untracked files.
+	 * 
+	 * @param gitConfig
+	 * @return uncommittedFiles
+	 * @throws GitWorkflowException
+	 */
+	public Set<String> getUncommittedFiles(GitConfiguration gitConfig) throws GitWorkflowException {
+		try (Span span = startSpan("git.status", gitConfig);
+				Repository repository = openRepository(gitConfig);
+				Git git = Git.wrap(repository)) {
+			Status status = git.status().call();
+			Set<String> uncommittedFiles = new HashSet<>();
+			uncommittedFiles.addAll(status.getAdded());
+			uncommittedFiles.addAll(status.getChanged());
+			uncommittedFiles.addAll(status.getModified());
+			uncommittedFiles.addAll(status.getRemoved());
+			uncommittedFiles.addAll(status.getMissing());
+			uncommittedFiles.addAll(status.getUntracked());
+			span.setAttribute("fileCount", uncommittedFiles.size());
+			return uncommittedFiles;
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new GitWorkflowException("Could not determine the status of the working tree!");
+		}
+	}
+
+	/**
+	 * This method returns the credentials of the bot for the filehoster of the
+	 * given configuration.
+	 * 
+	 * @param gitConfig
+	 * @return credentialsProvider
+	 */
+	private CredentialsProvider getCredentials(GitConfiguration gitConfig) {
+		if (gitConfig.getRepoService().equals(FileHoster.github)) {
+			return new UsernamePasswordCredentialsProvider(gitConfig.getBotToken(), "");
+		}
+		return new UsernamePasswordCredentialsProvider(gitConfig.getBotName(), gitConfig.getBotToken());
+	}
+
+	/**
+	 * This method returns the refspec that fetches the given branch of the given
+	 * remote into its remote tracking branch.
+	 * 
+	 * @param remote
+	 * @param branchName
+	 * @return refSpec
+	 */
+	private RefSpec getBranchRefSpec(String remote, String branchName) {
+		return new RefSpec("+" + Constants.R_HEADS + branchName + ":" + Constants.R_REMOTES + remote + "/"
+				+ branchName);
+	}
+
+	/**
+	 * This method starts a span of a git operation on the local workspace of the
+	 * given configuration.
+	 * 
+	 * @param name
+	 * @param gitConfig
+	 * @return span
+	 */
+	private Span startSpan(String name, GitConfiguration gitConfig) {
+		return Tracer.startSpan(name).setAttribute("configuration", gitConfig.getConfigurationId());
+	}
+
+	/**
+	 * This method returns the cached repository of the local workspace of the
+	 * given configuration. The repository has to be closed after using it.
+	 * 
+	 * @param gitConfig
+	 * @return repository
+	 * @throws IOException
+	 */
+	private Repository openRepository(GitConfiguration gitConfig) throws IOException {
+		return repositoryCache.openRepository(getRepoDirectory(gitConfig));
+	}
+
+	/**
+	 * This method returns the local workspace of the given configuration. Jobs
+	 * that run in a worktree of the workspace use a copy of the configuration with
+	 * the folder of the worktree.
+	 * 
+	 * @param gitConfig
+	 * @return repoDirectory
+	 */
+	private File getRepoDirectory(GitConfiguration gitConfig) {
+		if (gitConfig.getRepoFolder() != null) {
+			return new File(gitConfig.getRepoFolder());
+		}
+		return new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId());
+	}
+
 	/**
 	 * Calculates the absolute line number of the last line in a given diffhunk (the
 	 * *new* line number after changes have been applied). This can be used, for
@@ -1,18 +1,45 @@
 package de.refactoringbot.services.main;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import de.refactoringbot.model.configuration.FileHoster;
 import de.refactoringbot.model.exceptions.DatabaseConnectionException;
 import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+import de.refactoringbot.model.refactoredissue.RefactoredIssueFilter;
 import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
 
 /**
  * This class contains functions regarding the issues that were already
  * refactored by a bot.
  * 
+ * The IDs of all refactored issues are kept in memory, so that checking whether
+ * comments or analysis service issues were already refactored does not need
+ * any database queries. The IDs are loaded when the application is started.
+ * Until then, the checks are answered with batched database queries. Refactored
+ * issues have to be saved with {@link #save(RefactoredIssue)} to keep the IDs
+ * up to date.
+ * 
  * @author Stefan Basaric
  *
  */
@@ -21,30 +48,98 @@ public class RefactoredIssuesService {
 
 	@Autowired
 	RefactoredIssueRepository repo;
+	@PersistenceContext
+	EntityManager entityManager;
 
 	private static final Logger logger = LoggerFactory.getLogger(RefactoredIssuesService.class);
 
+	private static final int MAX_IDS_PER_QUERY = 500;
+
+	/**
+	 * IDs of the refactored comments by filehoster
+	 */
+	private final Map<FileHoster, Set<String>> refactoredCommentIDs = new ConcurrentHashMap<>();
+	/**
+	 * IDs of all refactored comments and analysis service issues
+	 */
+	private final Set<String> refactoredIssueIDs = ConcurrentHashMap.newKeySet();
+	private volatile boolean isLoaded = false;
+
 	/**
-	 * This method returns all issues filtered by the filehosting service, the
-	 * service user or both.
+	 * This method loads the IDs of all refactored issues from the database.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadRefactoredIssueIDs() {
+		try {
+			for (Object[] issue : repo.getAllCommentServiceIDs()) {
+				addRefactoredIssueID((FileHoster) issue[0], (String) issue[1]);
+			}
+			isLoaded = true;
+			logger.info("Loaded " + refactoredIssueIDs.size() + " IDs of refactored issues.");
+		} catch (Exception e) {
+			// Checks fall back to the database
+			logger.error("Could not load IDs of refactored issues: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * This method saves a refactored issue to the database.
+	 * 
+	 * @param refactoredIssue
+	 * @return savedIssue
+	 */
+	public RefactoredIssue save(RefactoredIssue refactoredIssue) {
+		RefactoredIssue savedIssue = repo.save(refactoredIssue);
+		addRefactoredIssueID(savedIssue.getRepoService(), savedIssue.getCommentServiceID());
+		return savedIssue;
+	}
+
+	/**
+	 * This method returns the IDs of the given comments that were already
+	 * refactored.
 	 * 
 	 * @param repoService
-	 * @param repoOwner
-	 * @return allIssues
+	 * @param commentIDs
+	 * @return refactoredCommentIDs
+	 */
+	public Set<String> getRefactoredComments(FileHoster repoService, Collection<String> commentIDs) {
+		if (isLoaded) {
+			return filterIDs(commentIDs, refactoredCommentIDs.getOrDefault(repoService, new HashSet<>()));
+		}
+		return queryIDs(commentIDs, ids -> repo.refactoredComments(repoService, ids));
+	}
+
+	/**
+	 * This method returns the IDs of the given analysis service issues that were
+	 * already refactored.
+	 * 
+	 * @param issueIDs
+	 * @return refactoredIssueIDs
+	 */
+	public Set<String> getRefactoredAnalysisIssues(Collection<String> issueIDs) {
+		if (isLoaded) {
+			return filterIDs(issueIDs, refactoredIssueIDs);
+		}
+		return queryIDs(issueIDs, ids -> repo.refactoredAnalysisIssues(ids));
+	}
+
+	/**
+	 * This method returns a page of the filtered refactored issues. The issues are
+	 * ordered by their ID and start after the given cursor.
+	 * 
+	 * @param filter
+	 * @param cursor
+	 *            ID of the last issue of the previous page or null for the first
+	 *            page
+	 * @param pageSize
+	 * @return issues
 	 * @throws DatabaseConnectionException
 	 */
-	public Iterable<RefactoredIssue> getAllIssues(String repoService, String repoOwner)
+	public List<RefactoredIssue> getIssues(RefactoredIssueFilter filter, Long cursor, int pageSize)
 			throws DatabaseConnectionException {
-		Iterable<RefactoredIssue> allIssues;
 		try {
-			if (repoService == null) {
-				allIssues = repo.findAll();
-			} else if (repoOwner == null) {
-				allIssues = repo.getAllServiceRefactorings(repoService);
-			} else {
-				allIssues = repo.getAllUserIssues(repoService, repoOwner);
-			}
-			return allIssues;
+			return repo.getIssues(cursor == null ? 0L : cursor, filter.getRepoService(), filter.getOwnerName(),
+					filter.getStatus(), filter.getFrom(), filter.getTo(), PageRequest.of(0, pageSize));
 		} catch (Exception e) {
 			// Print exception and abort if database error occurs
 			logger.error(e.getMessage(), e);
@@ -52,6 +147,26 @@ public class RefactoredIssuesService {
 		}
 	}
 
+	/**
+	 * This method passes all filtered refactored issues to the given consumer
+	 * while they are read from the database. The issues are detached after they
+	 * were consumed, so that the memory used does not grow with the number of
+	 * issues.
+	 * 
+	 * @param filter
+	 * @param consumer
+	 */
+	@Transactional(readOnly = true)
+	public void streamIssues(RefactoredIssueFilter filter, Consumer<RefactoredIssue> consumer) {
+		try (Stream<RefactoredIssue> issues = repo.streamIssues(0L, filter.getRepoService(), filter.getOwnerName(),
+				filter.getStatus(), filter.getFrom(), filter.getTo())) {
+			issues.forEach(issue -> {
+				consumer.accept(issue);
+				entityManager.detach(issue);
+			});
+		}
+	}
+
 	/**
 	 * This method deletes all refactored issues from the database.
 	 * 
@@ -60,10 +175,46 @@ public class RefactoredIssuesService {
 	public void deleteAllIssues() throws DatabaseConnectionException {
 		try {
 			repo.deleteAll();
+			refactoredCommentIDs.clear();
+			refactoredIssueIDs.clear();
 		} catch (Exception e) {
 			// Print exception and abort if database error occurs
 			logger.error(e.getMessage(), e);
 			throw new DatabaseConnectionException("Connection with database failed!");
 		}
 	}
+
+	private void addRefactoredIssueID(FileHoster repoService, String commentServiceID) {
+		if (commentServiceID == null) {
+			return;
+		}
+		if (repoService != null) {
+			refactoredCommentIDs.computeIfAbsent(repoService, service -> ConcurrentHashMap.newKeySet())
+					.add(commentServiceID);
+		}
+		refactoredIssueIDs.add(commentServiceID);
+	}
+
+	private Set<String> filterIDs(Collection<String> ids, Set<String> refactoredIDs) {
+		Set<String> result = new HashSet<>();
+		for (String id : ids) {
+			if (refactoredIDs.contains(id)) {
+				result.add(id);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Queries the given IDs in batches, so that the IN clause does not get too
+	 * long.
+	 */
+	private Set<String> queryIDs(Collection<String> ids, Function<List<String>, List<String>> query) {
+		List<String> allIDs = new ArrayList<>(new HashSet<>(ids));
+		Set<String> result = new HashSet<>();
+		for (int i = 0; i < allIDs.size(); i += MAX_IDS_PER_QUERY) {
+			result.addAll(query.apply(allIDs.subList(i, Math.min(i + MAX_IDS_PER_QUERY, allIDs.size()))));
+		}
+		return result;
+	}
 }
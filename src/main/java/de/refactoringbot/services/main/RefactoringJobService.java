@@ -0,0 +1,516 @@
+package de.refactoringbot.services.main;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.BotRefactoringException;
+import de.refactoringbot.model.exceptions.DatabaseConnectionException;
+import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
+import de.refactoringbot.model.refactoringjob.RefactoringJob;
+import de.refactoringbot.model.refactoringjob.RefactoringJobIssue;
+import de.refactoringbot.model.refactoringjob.RefactoringJobIssueRepository;
+import de.refactoringbot.model.refactoringjob.RefactoringJobRepository;
+import de.refactoringbot.model.refactoringjob.RefactoringJobStatus;
+import javassist.NotFoundException;
+
+/**
+ * This class performs the refactorings of the REST-API as jobs in the
+ * background. The state of the jobs is stored in the database and the progress
+ * of a job is sent as server-sent events to its subscribers. The events are
+ * sent asynchronously, so that the refactoring does not wait for the
+ * subscribers.
+ */
+@Service
+public class RefactoringJobService {
+
+	@Autowired
+	RefactoringJobRepository jobRepo;
+	@Autowired
+	ConfigurationRepository configRepo;
+	@Autowired
+	RefactoredIssueRepository issueRepo;
+	@Autowired
+	RefactoringService refactoringService;
+	@Autowired
+	@Qualifier("schedulingExecutor")
+	TaskExecutor schedulingExecutor;
+	@Autowired
+	@Qualifier("jobEventExecutor")
+	TaskExecutor eventExecutor;
+	@Autowired
+	ObjectMapper mapper;
+	@Autowired
+	RefactoringJobIssueRepository jobIssueRepo;
+
+	/**
+	 * Name of the event with the state of a job
+	 */
+	public static final String STATUS_EVENT = "status";
+	/**
+	 * Name of the event with a refactored or failed issue of a job
+	 */
+	public static final String ISSUE_EVENT = "issue";
+
+	private static final int MAX_ERROR_MESSAGE_LENGTH = 2000;
+	/**
+	 * Maximum amount of events that are queued for a single subscriber
+	 */
+	private static final int MAX_QUEUED_EVENTS = 10000;
+
+	/**
+	 * Progress of the jobs, which are queued or running, by their ID
+	 */
+	private final ConcurrentMap<Long, JobProgress> activeJobs = new ConcurrentHashMap<>();
+
+	private static final Logger logger = LoggerFactory.getLogger(RefactoringJobService.class);
+
+	/**
+	 * This method marks the jobs as failed, which were queued or running when the
+	 * bot was stopped, since they will never be finished.
+	 */
+	@PostConstruct
+	public void failInterruptedJobs() {
+		try {
+			for (RefactoringJob job : jobRepo
+					.getJobsByStatus(Arrays.asList(RefactoringJobStatus.queued, RefactoringJobStatus.running))) {
+				job.setStatus(RefactoringJobStatus.failed);
+				job.setErrorMessage("The bot was stopped before the job was finished!");
+				job.setFinishedInMS(System.currentTimeMillis());
+				jobRepo.save(job);
+			}
+		} catch (Exception e) {
+			logger.error("Could not update interrupted refactoring jobs: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * This method creates a job that performs the refactorings of a configuration
+	 * and queues it. The job fails right away if the refactoring can not be queued.
+	 *
+	 * @param configID
+	 * @param isCommentRefactoring
+	 * @return jobID
+	 * @throws DatabaseConnectionException
+	 * @throws NotFoundException
+	 * @throws BotRefactoringException
+	 * @throws TaskRejectedException
+	 *             if too many refactorings are queued
+	 */
+	public Long createJob(Long configID, boolean isCommentRefactoring)
+			throws DatabaseConnectionException, NotFoundException, BotRefactoringException {
+		GitConfiguration config = getConfiguration(configID);
+
+		// If analysis service data is missing
+		if (!isCommentRefactoring
+				&& (config.getAnalysisService() == null || config.getAnalysisServiceProjectKey() == null)) {
+			throw new BotRefactoringException("Configuration is missing analysis service data!");
+		}
+
+		RefactoringJob job = new RefactoringJob();
+		job.setConfigurationId(configID);
+		job.setCommentRefactoring(isCommentRefactoring);
+		job.setStatus(RefactoringJobStatus.queued);
+		job.setCreatedInMS(System.currentTimeMillis());
+		RefactoringJob savedJob = saveJob(job);
+		Long jobID = savedJob.getId();
+
+		JobProgress progress = new JobProgress(savedJob);
+		activeJobs.put(jobID, progress);
+		try {
+			schedulingExecutor.execute(() -> performJob(progress));
+		} catch (TaskRejectedException t) {
+			finishJob(progress, RefactoringJobStatus.failed, "Too many queued refactorings!");
+			throw t;
+		}
+		return jobID;
+	}
+
+	/**
+	 * This method returns the job with the given ID and the IDs of the issues it
+	 * refactored so far.
+	 *
+	 * @param jobID
+	 * @return job
+	 * @throws DatabaseConnectionException
+	 * @throws NotFoundException
+	 */
+	public RefactoringJob getJob(Long jobID) throws DatabaseConnectionException, NotFoundException {
+		Optional<RefactoringJob> job;
+		try {
+			job = jobRepo.findById(jobID);
+			if (job.isPresent()) {
+				job.get().setRefactoredIssueIds(jobIssueRepo.getIssueIdsOfJob(jobID));
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new DatabaseConnectionException("Connection with database failed!");
+		}
+		if (!job.isPresent()) {
+			throw new NotFoundException("Refactoring job with given ID does not exist in the database!");
+		}
+		return job.get();
+	}
+
+	/**
+	 * This method subscribes to the events of the job with the given ID. The
+	 * issues, which were already refactored by the job, and its current state are
+	 * sent right away. The emitter is completed once the job is finished.
+	 *
+	 * @param jobID
+	 * @return emitter
+	 * @throws DatabaseConnectionException
+	 * @throws NotFoundException
+	 */
+	public SseEmitter subscribe(Long jobID) throws DatabaseConnectionException, NotFoundException {
+		SseEmitter emitter = new SseEmitter();
+		JobProgress progress = activeJobs.get(jobID);
+		if (progress == null) {
+			try {
+				for (SseEmitter.SseEventBuilder event : createPastEvents(getJob(jobID))) {
+					emitter.send(event);
+				}
+				emitter.complete();
+			} catch (IOException e) {
+				emitter.completeWithError(e);
+			}
+			return emitter;
+		}
+
+		Subscriber subscriber = new Subscriber(emitter);
+		synchronized (progress) {
+			try {
+				for (SseEmitter.SseEventBuilder event : createPastEvents(progress.job)) {
+					subscriber.send(event);
+				}
+			} catch (IOException e) {
+				emitter.completeWithError(e);
+				return emitter;
+			}
+			if (progress.finished) {
+				subscriber.complete();
+			} else {
+				progress.subscribers.add(subscriber);
+				emitter.onCompletion(() -> removeSubscriber(progress, emitter));
+				emitter.onTimeout(() -> removeSubscriber(progress, emitter));
+			}
+		}
+		return emitter;
+	}
+
+	/**
+	 * This method performs the refactorings of the given job and reports every
+	 * saved issue to the subscribers of the job.
+	 *
+	 * @param progress
+	 */
+	private void performJob(JobProgress progress) {
+		RefactoringJob job = progress.job;
+		synchronized (progress) {
+			job.setStatus(RefactoringJobStatus.running);
+			job.setStartedInMS(System.currentTimeMillis());
+			updateJob(progress);
+			sendEvent(progress, STATUS_EVENT, null, job);
+		}
+
+		try {
+			ResponseEntity<?> response = refactoringService.performRefactoring(job.getConfigurationId(),
+					job.isCommentRefactoring(), issue -> reportIssue(progress, issue));
+			if (response.getStatusCode().is2xxSuccessful()) {
+				finishJob(progress, RefactoringJobStatus.finished, null);
+			} else {
+				finishJob(progress, RefactoringJobStatus.failed, String.valueOf(response.getBody()));
+			}
+		} catch (Exception e) {
+			logger.error("Refactoring job " + job.getId() + " failed: " + e.getMessage(), e);
+			finishJob(progress, RefactoringJobStatus.failed, e.getMessage());
+		}
+	}
+
+	/**
+	 * This method adds a refactored or failed issue to the job and queues it for
+	 * the subscribers of the job. Only the issue is inserted into the database,
+	 * the job itself is not updated.
+	 *
+	 * @param progress
+	 * @param issue
+	 */
+	private void reportIssue(JobProgress progress, RefactoredIssue issue) {
+		RefactoringJobIssue jobIssue = new RefactoringJobIssue();
+		jobIssue.setJobId(progress.job.getId());
+		jobIssue.setIssueId(issue.getIssueId());
+		try {
+			jobIssueRepo.save(jobIssue);
+		} catch (Exception e) {
+			logger.error("Could not add issue " + issue.getIssueId() + " to refactoring job " + progress.job.getId(),
+					e);
+		}
+
+		synchronized (progress) {
+			progress.job.getRefactoredIssueIds().add(issue.getIssueId());
+			sendEvent(progress, ISSUE_EVENT, issue.getIssueId(), issue);
+		}
+	}
+
+	/**
+	 * This method stores the final state of the job and completes the emitters of
+	 * its subscribers, once they received all events.
+	 *
+	 * @param progress
+	 * @param status
+	 * @param errorMessage
+	 */
+	private void finishJob(JobProgress progress, RefactoringJobStatus status, String errorMessage) {
+		synchronized (progress) {
+			RefactoringJob job = progress.job;
+			job.setStatus(status);
+			job.setErrorMessage(StringUtils.abbreviate(errorMessage, MAX_ERROR_MESSAGE_LENGTH));
+			job.setFinishedInMS(System.currentTimeMillis());
+			updateJob(progress);
+			sendEvent(progress, STATUS_EVENT, null, job);
+
+			progress.finished = true;
+			for (Subscriber subscriber : progress.subscribers) {
+				subscriber.complete();
+			}
+			progress.subscribers.clear();
+			activeJobs.remove(job.getId());
+		}
+	}
+
+	/**
+	 * This method creates the events of the already refactored issues and of the
+	 * current state of the given job for a new subscriber.
+	 *
+	 * @param job
+	 * @return events
+	 * @throws DatabaseConnectionException
+	 * @throws IOException
+	 */
+	private List<SseEmitter.SseEventBuilder> createPastEvents(RefactoringJob job)
+			throws DatabaseConnectionException, IOException {
+		List<RefactoredIssue> issues = new ArrayList<>();
+		try {
+			issueRepo.findAllById(job.getRefactoredIssueIds()).forEach(issues::add);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new DatabaseConnectionException("Connection with database failed!");
+		}
+
+		List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+		for (RefactoredIssue issue : issues) {
+			events.add(createEvent(ISSUE_EVENT, issue.getIssueId(), mapper.writeValueAsString(issue)));
+		}
+		events.add(createEvent(STATUS_EVENT, null, mapper.writeValueAsString(job)));
+		return events;
+	}
+
+	/**
+	 * This method queues an event for all subscribers of a job. Subscribers that
+	 * can not receive the event anymore are removed.
+	 *
+	 * @param progress
+	 * @param name
+	 * @param id
+	 * @param data
+	 */
+	private void sendEvent(JobProgress progress, String name, Long id, Object data) {
+		if (progress.subscribers.isEmpty()) {
+			return;
+		}
+
+		String json;
+		try {
+			json = mapper.writeValueAsString(data);
+		} catch (IOException e) {
+			logger.error("Could not serialize '" + name + "' event of refactoring job " + progress.job.getId(), e);
+			return;
+		}
+		progress.subscribers.removeIf(subscriber -> !subscriber.send(createEvent(name, id, json)));
+	}
+
+	/**
+	 * This method creates an event with the given JSON data. The data is
+	 * serialized before, since the event is sent later on, while the job is still
+	 * modified.
+	 *
+	 * @param name
+	 * @param id
+	 * @param json
+	 * @return event
+	 */
+	private SseEmitter.SseEventBuilder createEvent(String name, Long id, String json) {
+		SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON);
+		if (id != null) {
+			event.id(id.toString());
+		}
+		return event;
+	}
+
+	private void removeSubscriber(JobProgress progress, SseEmitter emitter) {
+		synchronized (progress) {
+			progress.subscribers.removeIf(subscriber -> subscriber.emitter == emitter);
+		}
+	}
+
+	/**
+	 * This method stores the current state of a job. A failed update does not
+	 * abort the refactoring, the job is updated again with its next state.
+	 *
+	 * @param progress
+	 */
+	private void updateJob(JobProgress progress) {
+		try {
+			saveJob(progress.job);
+		} catch (DatabaseConnectionException e) {
+			logger.error("Could not update refactoring job " + progress.job.getId());
+		}
+	}
+
+	private RefactoringJob saveJob(RefactoringJob job) throws DatabaseConnectionException {
+		try {
+			return jobRepo.save(job);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new DatabaseConnectionException("Connection with database failed!");
+		}
+	}
+
+	private GitConfiguration getConfiguration(Long configID) throws DatabaseConnectionException, NotFoundException {
+		Optional<GitConfiguration> config;
+		try {
+			config = configRepo.getByID(configID);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			throw new DatabaseConnectionException("Connection with database failed!");
+		}
+		if (!config.isPresent()) {
+			throw new NotFoundException("Configuration with given ID does not exist in the database!");
+		}
+		return config.get();
+	}
+
+	/**
+	 * State of a queued or running job and its subscribers. Access is
+	 * synchronized on the progress itself.
+	 */
+	private static class JobProgress {
+
+		private final RefactoringJob job;
+		private final List<Subscriber> subscribers = new ArrayList<>();
+		private boolean finished;
+
+		private JobProgress(RefactoringJob job) {
+			this.job = job;
+		}
+	}
+
+	/**
+	 * Subscriber of a job. Its events are queued and sent one after another on
+	 * the event executor, so that a slow subscriber can not block the job, which
+	 * holds the lock of its configuration. Subscribers that do not keep up with
+	 * the events are disconnected.
+	 */
+	private class Subscriber {
+
+		private final SseEmitter emitter;
+		private final BlockingQueue<SseEmitter.SseEventBuilder> events = new LinkedBlockingQueue<>(
+				MAX_QUEUED_EVENTS);
+		private final AtomicBoolean isSending = new AtomicBoolean();
+		private final AtomicBoolean isClosed = new AtomicBoolean();
+		private volatile boolean isCompleted;
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		/**
+		 * This method queues the given event.
+		 *
+		 * @param event
+		 * @return false if the subscriber does not receive events anymore
+		 */
+		private boolean send(SseEmitter.SseEventBuilder event) {
+			if (isClosed.get()) {
+				return false;
+			}
+			if (!events.offer(event)) {
+				close(new IllegalStateException("Subscriber does not keep up with the events of the job!"));
+				return false;
+			}
+			dispatch();
+			return true;
+		}
+
+		/**
+		 * This method completes the emitter once the queued events were sent.
+		 */
+		private void complete() {
+			isCompleted = true;
+			dispatch();
+		}
+
+		private void dispatch() {
+			if (!isSending.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				eventExecutor.execute(this::sendEvents);
+			} catch (TaskRejectedException e) {
+				isSending.set(false);
+				close(e);
+			}
+		}
+
+		private void sendEvents() {
+			do {
+				SseEmitter.SseEventBuilder event;
+				while (!isClosed.get() && (event = events.poll()) != null) {
+					try {
+						emitter.send(event);
+					} catch (IOException | IllegalStateException e) {
+						close(e);
+					}
+				}
+				if (isCompleted && isClosed.compareAndSet(false, true)) {
+					emitter.complete();
+				}
+				isSending.set(false);
+				// Events might have been queued after the last poll, but before the reset
+			} while (!isClosed.get() && (!events.isEmpty() || isCompleted) && isSending.compareAndSet(false, true));
+		}
+
+		private void close(Exception e) {
+			if (isClosed.compareAndSet(false, true)) {
+				events.clear();
+				emitter.completeWithError(e);
+			}
+		}
+	}
+}
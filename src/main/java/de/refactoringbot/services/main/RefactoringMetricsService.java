@@ -0,0 +1,154 @@
+package de.refactoringbot.services.main;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.model.configuration.GitConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * This class records the metrics of the stages of a refactoring, like fetching
+ * the pull requests, translating the comments, refactoring the code and
+ * pushing the changes. All metrics are tagged with the configuration, the
+ * refactoring operation and the outcome, so that the latency of every stage
+ * can be watched per configuration and operation.
+ */
+@Service
+public class RefactoringMetricsService {
+
+	public static final String STAGE_GIT_FETCH = "git.fetch";
+	public static final String STAGE_API_FETCH = "api.fetch";
+	public static final String STAGE_COMMENT_PARSE = "comment.parse";
+	public static final String STAGE_COMMENT_TRANSLATION = "comment.translation";
+	public static final String STAGE_REFACTORING = "refactoring";
+	public static final String STAGE_GIT_PUSH = "git.push";
+	public static final String STAGE_PULL_REQUEST = "pull.request";
+	public static final String STAGE_DB_SAVE = "db.save";
+
+	public static final String OUTCOME_SUCCESS = "success";
+	public static final String OUTCOME_FAILURE = "failure";
+
+	private static final String NO_OPERATION = "none";
+
+	@Autowired
+	MeterRegistry registry;
+
+	/**
+	 * This interface represents a stage of a refactoring that is timed.
+	 *
+	 * @param <T>
+	 *            result of the stage
+	 * @param <E>
+	 *            exception of the stage
+	 */
+	@FunctionalInterface
+	public interface Stage<T, E extends Exception> {
+		T perform() throws E;
+	}
+
+	/**
+	 * This method performs the given stage and records its duration. The outcome
+	 * of the stage is a failure, if it threw an exception.
+	 *
+	 * @param stageName
+	 * @param config
+	 * @param refactoringOperation
+	 *            operation of the refactored issue or null
+	 * @param stage
+	 * @return result of the stage
+	 * @throws E
+	 */
+	public <T, E extends Exception> T recordStage(String stageName, GitConfiguration config,
+			String refactoringOperation, Stage<T, E> stage) throws E {
+		Timer.Sample sample = startStage();
+		String outcome = OUTCOME_FAILURE;
+		try {
+			T result = stage.perform();
+			outcome = OUTCOME_SUCCESS;
+			return result;
+		} finally {
+			stopStage(sample, stageName, config, refactoringOperation, outcome);
+		}
+	}
+
+	/**
+	 * This method starts the timing of a stage, whose outcome is decided by the
+	 * caller.
+	 *
+	 * @return sample
+	 */
+	public Timer.Sample startStage() {
+		return Timer.start(registry);
+	}
+
+	/**
+	 * This method stops the timing of a stage and records its duration.
+	 *
+	 * @param sample
+	 * @param stageName
+	 * @param config
+	 * @param refactoringOperation
+	 *            operation of the refactored issue or null
+	 * @param outcome
+	 */
+	public void stopStage(Timer.Sample sample, String stageName, GitConfiguration config,
+			String refactoringOperation, String outcome) {
+		sample.stop(Timer.builder("refactoring.stage").description("Duration of the stages of the refactorings")
+				.tag("stage", stageName).tag("configuration", getConfigurationTag(config))
+				.tag("operation", getOperationTag(refactoringOperation)).tag("outcome", outcome)
+				.publishPercentileHistogram().register(registry));
+	}
+
+	/**
+	 * This method counts a refactored or failed issue.
+	 *
+	 * @param config
+	 * @param refactoringOperation
+	 * @param outcome
+	 */
+	public void recordIssue(GitConfiguration config, String refactoringOperation, String outcome) {
+		Counter.builder("refactoring.issues").description("Issues that were refactored or failed to refactor")
+				.tag("configuration", getConfigurationTag(config))
+				.tag("operation", getOperationTag(refactoringOperation)).tag("outcome", outcome).register(registry)
+				.increment();
+	}
+
+	/**
+	 * This method records the amount of files that were changed by the
+	 * refactoring of an issue or a batch.
+	 *
+	 * @param config
+	 * @param refactoringOperation
+	 * @param amountOfFiles
+	 */
+	public void recordChangedFiles(GitConfiguration config, String refactoringOperation, int amountOfFiles) {
+		DistributionSummary.builder("refactoring.changed.files")
+				.description("Files that were changed by the refactoring of an issue or batch").baseUnit("files")
+				.tag("configuration", getConfigurationTag(config))
+				.tag("operation", getOperationTag(refactoringOperation)).register(registry).record(amountOfFiles);
+	}
+
+	/**
+	 * This method records the size of a batch of analysis service issues.
+	 *
+	 * @param config
+	 * @param refactoringOperation
+	 * @param batchSize
+	 */
+	public void recordBatchSize(GitConfiguration config, String refactoringOperation, int batchSize) {
+		DistributionSummary.builder("refactoring.batch.size").description("Issues of the refactored batches")
+				.baseUnit("issues").tag("configuration", getConfigurationTag(config))
+				.tag("operation", getOperationTag(refactoringOperation)).register(registry).record(batchSize);
+	}
+
+	private String getConfigurationTag(GitConfiguration config) {
+		return String.valueOf(config.getConfigurationId());
+	}
+
+	private String getOperationTag(String refactoringOperation) {
+		return refactoringOperation != null ? refactoringOperation : NO_OPERATION;
+	}
+}
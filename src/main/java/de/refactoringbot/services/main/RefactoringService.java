@@ -1,16 +1,40 @@
 package de.refactoringbot.services.main;
 
+import static de.refactoringbot.services.main.RefactoringMetricsService.OUTCOME_FAILURE;
+import static de.refactoringbot.services.main.RefactoringMetricsService.OUTCOME_SUCCESS;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_API_FETCH;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_COMMENT_PARSE;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_COMMENT_TRANSLATION;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_DB_SAVE;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_GIT_FETCH;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_GIT_PUSH;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_PULL_REQUEST;
+import static de.refactoringbot.services.main.RefactoringMetricsService.STAGE_REFACTORING;
+
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import de.refactoringbot.api.main.ApiGrabber;
@@ -24,11 +48,13 @@ import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
 import de.refactoringbot.model.output.botpullrequest.BotPullRequests;
 import de.refactoringbot.model.output.botpullrequestcomment.BotPullRequestComment;
 import de.refactoringbot.model.refactoredissue.RefactoredIssue;
-import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
 import de.refactoringbot.refactoring.RefactoringOperations;
 import de.refactoringbot.refactoring.RefactoringPicker;
 import de.refactoringbot.services.sonarqube.SonarQubeObjectTranslator;
+import de.refactoringbot.services.tracing.Span;
+import de.refactoringbot.services.tracing.Tracer;
 import de.refactoringbot.services.wit.WitService;
+import io.micrometer.core.instrument.Timer;
 import javassist.NotFoundException;
 
 /**
@@ -49,7 +75,7 @@ public class RefactoringService {
 	@Autowired
 	ConfigurationRepository configRepo;
 	@Autowired
-	RefactoredIssueRepository issueRepo;
+	RefactoredIssuesService refactoredIssuesService;
 	@Autowired
 	BotConfiguration botConfig;
 	@Autowired
@@ -66,12 +92,43 @@ public class RefactoringService {
 	WitService witService;
 	@Autowired
 	FileService fileService;
+	@Autowired
+	WorkspaceIndexService workspaceIndexService;
+	@Autowired
+	SymbolSolverService symbolSolverService;
+	@Autowired
+	ConfigurationLockService lockService;
+	@Autowired
+	AnalysisIssueService analysisIssueService;
+	@Autowired
+	WorktreeService worktreeService;
+	@Autowired
+	RefactoringMetricsService metrics;
+	@Autowired
+	@Qualifier("refactoringExecutor")
+	AsyncTaskExecutor refactoringExecutor;
+
+	/**
+	 * If enabled, the analysis service issues are refactored in batches with one
+	 * commit and pull request per batch instead of one per issue.
+	 */
+	@Value("${analysis.batchRefactoring:false}")
+	private boolean batchRefactoring;
+	@Value("${analysis.maxBatchSize:200}")
+	private int maxBatchSize;
+
+	/**
+	 * Listeners of the refactorings, which are currently performed, by the ID of
+	 * their configuration. They are notified about every saved issue.
+	 */
+	private final ConcurrentMap<Long, Consumer<RefactoredIssue>> issueListeners = new ConcurrentHashMap<>();
 
 	private static final Logger logger = LoggerFactory.getLogger(RefactoringService.class);
 
 	/**
 	 * This method performs a refactoring from a comment or an analysis service
-	 * issue.
+	 * issue. Refactorings of the same configuration are performed one after
+	 * another.
 	 * 
 	 * @param configID
 	 * @param isCommentRefactoring
@@ -79,6 +136,81 @@ public class RefactoringService {
 	 * @throws Exception
 	 */
 	public ResponseEntity<?> performRefactoring(Long configID, boolean isCommentRefactoring) throws Exception {
+		return performRefactoring(configID, isCommentRefactoring, null);
+	}
+
+	/**
+	 * This method performs a refactoring from a comment or an analysis service
+	 * issue and notifies the given listener about every refactored or failed issue
+	 * as soon as it is saved.
+	 * 
+	 * @param configID
+	 * @param isCommentRefactoring
+	 * @param issueListener
+	 *            listener of the saved issues or null
+	 * @return response
+	 * @throws Exception
+	 */
+	public ResponseEntity<?> performRefactoring(Long configID, boolean isCommentRefactoring,
+			Consumer<RefactoredIssue> issueListener) throws Exception {
+		Lock lock = lockService.getLock(configID);
+		lock.lock();
+		try (Span span = Tracer.startSpan("refactoring.run")) {
+			span.setAttribute("configuration", configID).setAttribute("commentRefactoring", isCommentRefactoring);
+			// Refactorings of a configuration are performed one after another
+			if (issueListener != null) {
+				issueListeners.put(configID, issueListener);
+			}
+			ResponseEntity<?> response = performLockedRefactoring(configID, isCommentRefactoring);
+			span.setAttribute("status", response.getStatusCodeValue());
+			return response;
+		} finally {
+			issueListeners.remove(configID);
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method performs the refactorings of the comments of a single pull
+	 * request, e.g. of a comment received with a webhook. Unlike
+	 * {@link #performRefactoring(Long, boolean)}, it does not fetch the pull
+	 * requests and comments from the filehoster.
+	 * 
+	 * @param configID
+	 * @param request
+	 * @return response
+	 * @throws Exception
+	 */
+	public ResponseEntity<?> performCommentRefactoring(Long configID, BotPullRequest request) throws Exception {
+		Lock lock = lockService.getLock(configID);
+		lock.lock();
+		try (Span span = Tracer.startSpan("refactoring.run")) {
+			span.setAttribute("configuration", configID).setAttribute("commentRefactoring", true);
+			GitConfiguration config = checkConfigurationExistance(configID);
+			metrics.recordStage(STAGE_GIT_FETCH, config, null, () -> {
+				gitService.fetchRemote(config);
+				return null;
+			});
+
+			BotPullRequests requests = new BotPullRequests();
+			requests.addPullRequest(request);
+			return processComments(config, Collections.singletonList(requests).iterator());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method performs a refactoring from a comment or an analysis service
+	 * issue while holding the lock of the configuration.
+	 * 
+	 * @param configID
+	 * @param isCommentRefactoring
+	 * @return response
+	 * @throws Exception
+	 */
+	private ResponseEntity<?> performLockedRefactoring(Long configID, boolean isCommentRefactoring)
+			throws Exception {
 
 		// Check and create configuration
 		GitConfiguration config = checkConfigurationExistance(configID);
@@ -90,15 +222,22 @@ public class RefactoringService {
 		}
 
 		// Get all pull requests
-		BotPullRequests allRequests = getPullRequests(config);
-		// Count all open pull requests created by bot
-		int amountOfBotRequests = botService.getAmountOfBotRequests(allRequests, config);
+		Iterator<BotPullRequests> requestPages = getPullRequests(config);
 
-		// Return all refactored issues
-		if (isCommentRefactoring) {
-			return processComments(config, allRequests);
-		} else {
+		try {
+			// Return all refactored issues
+			if (isCommentRefactoring) {
+				return processComments(config, requestPages);
+			}
+
+			// Count all open pull requests created by bot
+			int amountOfBotRequests = 0;
+			while (requestPages.hasNext()) {
+				amountOfBotRequests += botService.getAmountOfBotRequests(requestPages.next(), config);
+			}
 			return processAnalysisIssues(config, amountOfBotRequests);
+		} catch (PaginationException e) {
+			throw e.getRequestException();
 		}
 	}
 
@@ -121,8 +260,13 @@ public class RefactoringService {
 		List<RefactoredIssue> allRefactoredIssues = new ArrayList<>();
 
 		try {
-			// Get issues from analysis service API
-			List<BotIssue> botIssues = apiGrabber.getAnalysisServiceIssues(config);
+			// Sync issues with analysis service API and get the new ones
+			List<BotIssue> botIssues = analysisIssueService.getUnprocessedIssues(config);
+			Set<String> refactoredIssueIDs = getRefactoredAnalysisIssues(botIssues);
+
+			if (batchRefactoring) {
+				return processAnalysisIssuesInBatches(config, amountBotRequests, botIssues, refactoredIssueIDs);
+			}
 
 			// Iterate all issues
 			for (BotIssue botIssue : botIssues) {
@@ -134,7 +278,7 @@ public class RefactoringService {
 
 				try {
 					// If issue was not already refactored
-					if (isAnalysisIssueValid(botIssue)) {
+					if (!refactoredIssueIDs.contains(botIssue.getCommentServiceID())) {
 						// Perform refactoring
 						allRefactoredIssues.add(refactorIssue(false, config, null, null, botIssue));
 						amountBotRequests++;
@@ -145,6 +289,8 @@ public class RefactoringService {
 					allRefactoredIssues.add(processFailedRefactoring(config, null, null, botIssue, false));
 					logger.error(e.getMessage(), e);
 				}
+				// Refactored, failed and already refactored issues are not picked up again
+				analysisIssueService.markAsProcessed(config, botIssue);
 			}
 
 			return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
@@ -155,64 +301,270 @@ public class RefactoringService {
 	}
 
 	/**
-	 * This method processes the comment driven refactoring.
+	 * This method processes the refactoring of issues detected by an analysis
+	 * service in batches. Every batch contains issues of the same refactoring
+	 * operation and is refactored with one commit and pull request. Batches that
+	 * only change the files of their issues are refactored in parallel, each in a
+	 * worktree of its own. All other batches are refactored one after another in
+	 * the workspace.
 	 * 
 	 * @param config
-	 * @param allRequests
+	 * @param amountBotRequests
+	 * @param botIssues
+	 * @param refactoredIssueIDs
 	 * @return response
 	 */
-	private ResponseEntity<?> processComments(GitConfiguration config, BotPullRequests allRequests) {
+	private ResponseEntity<?> processAnalysisIssuesInBatches(GitConfiguration config, int amountBotRequests,
+			List<BotIssue> botIssues, Set<String> refactoredIssueIDs) {
+		List<List<BotIssue>> batches = new ArrayList<>();
+		// Results of the batches that are refactored in parallel, null for all others
+		List<Future<List<RefactoredIssue>>> parallelResults = new ArrayList<>();
+
+		for (List<BotIssue> batch : createBatches(config, botIssues, refactoredIssueIDs)) {
+			// When Bot-Pull-Request-Limit reached -> stop
+			if (amountBotRequests >= config.getMaxAmountRequests()) {
+				break;
+			}
+			batches.add(batch);
+			metrics.recordBatchSize(config, batch.get(0).getRefactoringOperation(), batch.size());
+			if (refactoring.isBatchRefactoring(batch.get(0).getRefactoringOperation())) {
+				parallelResults.add(refactoringExecutor.submit(() -> refactorBatchInWorktree(config, batch)));
+			} else {
+				parallelResults.add(null);
+			}
+			amountBotRequests++;
+		}
+
 		List<RefactoredIssue> allRefactoredIssues = new ArrayList<>();
+		for (int i = 0; i < batches.size(); i++) {
+			List<BotIssue> batch = batches.get(i);
+			try {
+				if (parallelResults.get(i) != null) {
+					allRefactoredIssues.addAll(parallelResults.get(i).get());
+				} else {
+					allRefactoredIssues.add(refactorIssue(false, config, null, null, batch.get(0)));
+				}
+			} catch (Exception e) {
+				logger.error(e.getMessage(), e);
+				for (BotIssue botIssue : batch) {
+					// Create failed Refactored-Object
+					botIssue.setErrorMessage("Bot could not refactor this issue! Internal server error!");
+					allRefactoredIssues.add(processFailedRefactoring(config, null, null, botIssue, false));
+				}
+			}
+			for (BotIssue botIssue : batch) {
+				analysisIssueService.markAsProcessed(config, botIssue);
+			}
+		}
 
-		for (BotPullRequest request : allRequests.getAllPullRequests()) {
-			// Check only PR's of the Bot
-			if (request.getCreatorName().equals(config.getBotName())) {
-				for (BotPullRequestComment comment : request.getAllComments()) {
-					if (isAlreadyRefactored(config, comment)) {
-						continue;
-					}
+		return new ResponseEntity<>(allRefactoredIssues, HttpStatus.OK);
+	}
 
-					BotIssue botIssue;
-
-					if (grammarService.isBotMentionedInComment(comment.getCommentBody(), config)
-							&& !grammarService.isCommentByBot(comment.getUsername(), config)) {
-						// If can NOT parse comment with ANTLR
-						if (!grammarService.checkComment(comment.getCommentBody(), config)) {
-							// Try to parse with wit.ai
-							try {
-								botIssue = witService.createBotIssue(config, comment);
-								logger.info("Comment translated with 'wit.ai': " + comment.getCommentBody());
-							} catch (IOException e) {
-								logger.error(e.getMessage(), e);
-								botIssue = createBotIssueFromInvalidComment(comment, e.getMessage());
-								allRefactoredIssues
-										.add(processFailedRefactoring(config, comment, request, botIssue, true));
-								return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-							} catch (ReviewCommentUnclearException e) {
-								logger.warn("Comment translation with 'wit.ai' failed! Comment: "
-										+ comment.getCommentBody());
-								botIssue = createBotIssueFromInvalidComment(comment, e.getMessage());
-								allRefactoredIssues
-										.add(processFailedRefactoring(config, comment, request, botIssue, true));
-								continue;
-							}
-						} else {
-							// Try to refactor with ANTRL4
-							try {
-								// If ANTLR can parse -> create Issue
-								botIssue = grammarService.createIssueFromComment(comment, config);
-								logger.info("Comment translated with 'ANTLR': " + comment.getCommentBody());
-							} catch (Exception g) {
-								logger.error(g.getMessage(), g);
-								// If refactoring failed
-								botIssue = createBotIssueFromInvalidComment(comment, g.getMessage());
-								allRefactoredIssues
-										.add(processFailedRefactoring(config, comment, request, botIssue, true));
-								continue;
+	/**
+	 * This method refactors a batch in a worktree of the workspace, so that it does
+	 * not interfere with other batches of the same configuration.
+	 * 
+	 * @param config
+	 * @param batch
+	 * @return refactoredIssues
+	 * @throws Exception
+	 */
+	private List<RefactoredIssue> refactorBatchInWorktree(GitConfiguration config, List<BotIssue> batch)
+			throws Exception {
+		GitConfiguration worktreeConfig = worktreeService.acquireWorktree(config);
+		try (Span span = Tracer.startSpan("refactoring.batch")) {
+			span.setAttribute("operation", batch.get(0).getRefactoringOperation()).setAttribute("issueCount",
+					batch.size());
+			return refactorBatch(worktreeConfig, batch);
+		} finally {
+			worktreeService.releaseWorktree(worktreeConfig);
+		}
+	}
+
+	/**
+	 * This method groups the issues that were not refactored yet by their
+	 * refactoring operation. Issues of operations that can not be refactored
+	 * together form a batch of their own. Already refactored issues are marked as
+	 * processed.
+	 * 
+	 * @param config
+	 * @param botIssues
+	 * @param refactoredIssueIDs
+	 * @return batches
+	 */
+	private List<List<BotIssue>> createBatches(GitConfiguration config, List<BotIssue> botIssues,
+			Set<String> refactoredIssueIDs) {
+		Map<String, List<BotIssue>> issuesByOperation = new LinkedHashMap<>();
+		for (BotIssue botIssue : botIssues) {
+			if (refactoredIssueIDs.contains(botIssue.getCommentServiceID())) {
+				analysisIssueService.markAsProcessed(config, botIssue);
+			} else {
+				issuesByOperation.computeIfAbsent(botIssue.getRefactoringOperation(), operation -> new ArrayList<>())
+						.add(botIssue);
+			}
+		}
+
+		List<List<BotIssue>> batches = new ArrayList<>();
+		for (Map.Entry<String, List<BotIssue>> operationIssues : issuesByOperation.entrySet()) {
+			List<BotIssue> issues = operationIssues.getValue();
+			int batchSize = refactoring.isBatchRefactoring(operationIssues.getKey()) ? Math.max(1, maxBatchSize) : 1;
+			for (int i = 0; i < issues.size(); i += batchSize) {
+				batches.add(issues.subList(i, Math.min(i + batchSize, issues.size())));
+			}
+		}
+		return batches;
+	}
+
+	/**
+	 * This method refactors a batch of analysis service issues on a new branch,
+	 * pushes all changes with a single commit and creates one PR for them.
+	 * 
+	 * @param config
+	 * @param batch
+	 * @return refactoredIssues
+	 * @throws Exception
+	 */
+	private List<RefactoredIssue> refactorBatch(GitConfiguration config, List<BotIssue> batch) throws Exception {
+		// Create new branch for refactoring
+		String newBranch = "sonarQube_Refactoring_" + batch.get(0).getCommentServiceID();
+		// Check if branch already exists (throws exception if it does)
+		apiGrabber.checkBranch(config, newBranch);
+		gitService.createBranch(config, "master", newBranch, "upstream");
+
+		// Add current filepaths to issues. The refactorings of a batch only change
+		// the file of their issue and need no indexes or symbol solver.
+		for (BotIssue botIssue : batch) {
+			botIssue.setFilePath(apiGrabber.getAnalysisServiceAbsoluteIssuePath(config, botIssue.getFilePath()));
+		}
+
+		String refactoringOperation = batch.get(0).getRefactoringOperation();
+		int amountOfRefactoredIssues = metrics.recordStage(STAGE_REFACTORING, config, refactoringOperation,
+				() -> refactoring.pickAndRefactorBatch(batch, config));
+
+		if (amountOfRefactoredIssues > 0) {
+			String title = refactoringOperation + ": Refactored " + amountOfRefactoredIssues + " issue(s)";
+			// Push changes + create Pull-Request
+			Map<String, String> changedFiles = new LinkedHashMap<>();
+			for (BotIssue botIssue : batch) {
+				changedFiles.putAll(botIssue.getChangedFiles());
+			}
+			pushChanges(config, refactoringOperation, createBatchCommitMessage(title, batch), changedFiles);
+			BotIssue batchIssue = new BotIssue();
+			batchIssue.setRefactoringOperation(refactoringOperation);
+			batchIssue.setCommitMessage(title);
+			metrics.recordStage(STAGE_PULL_REQUEST, config, refactoringOperation, () -> {
+				apiGrabber.makeCreateRequestWithAnalysisService(batchIssue, config, newBranch);
+				return null;
+			});
+		}
+
+		List<RefactoredIssue> refactoredIssues = new ArrayList<>();
+		for (BotIssue botIssue : batch) {
+			if (botIssue.getCommitMessage() != null && botIssue.getErrorMessage() == null) {
+				// Save refactored issue
+				RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
+				refactoredIssues.add(saveRefactoredIssue(config, refactoredIssue, OUTCOME_SUCCESS));
+			} else {
+				refactoredIssues.add(processFailedRefactoring(config, null, null, botIssue, false));
+			}
+		}
+		return refactoredIssues;
+	}
+
+	/**
+	 * This method creates the commit message of a batch, which lists the commit
+	 * messages of all refactored issues.
+	 * 
+	 * @param title
+	 * @param batch
+	 * @return commitMessage
+	 */
+	private String createBatchCommitMessage(String title, List<BotIssue> batch) {
+		StringBuilder commitMessage = new StringBuilder(title).append("\n");
+		for (BotIssue botIssue : batch) {
+			if (botIssue.getCommitMessage() != null && botIssue.getErrorMessage() == null) {
+				commitMessage.append("\n- ").append(botIssue.getFilePath()).append(":").append(botIssue.getLine())
+						.append(": ").append(botIssue.getCommitMessage());
+			}
+		}
+		return commitMessage.toString();
+	}
+
+	/**
+	 * This method processes the comment driven refactoring. The pages of the pull
+	 * requests are processed one after another, while the next page is fetched.
+	 * 
+	 * @param config
+	 * @param requestPages
+	 * @return response
+	 */
+	private ResponseEntity<?> processComments(GitConfiguration config, Iterator<BotPullRequests> requestPages) {
+		List<RefactoredIssue> allRefactoredIssues = new ArrayList<>();
+
+		while (requestPages.hasNext()) {
+			BotPullRequests requests = requestPages.next();
+			// Check all comments of the page at once
+			Set<String> refactoredCommentIDs = getRefactoredComments(config, requests);
+
+			for (BotPullRequest request : requests.getAllPullRequests()) {
+				// Check only PR's of the Bot
+				if (request.getCreatorName().equals(config.getBotName())) {
+					for (BotPullRequestComment comment : request.getAllComments()) {
+						if (refactoredCommentIDs.contains(comment.getCommentID().toString())) {
+							continue;
+						}
+
+						BotIssue botIssue;
+
+						if (grammarService.isBotMentionedInComment(comment.getCommentBody(), config)
+								&& !grammarService.isCommentByBot(comment.getUsername(), config)) {
+							// If can NOT parse comment with ANTLR
+							if (!metrics.recordStage(STAGE_COMMENT_PARSE, config, null,
+									() -> grammarService.checkComment(comment.getCommentBody(), config))) {
+								// Try to parse with wit.ai
+								Timer.Sample translation = metrics.startStage();
+								try {
+									botIssue = witService.createBotIssue(config, comment);
+									metrics.stopStage(translation, STAGE_COMMENT_TRANSLATION, config, null,
+											OUTCOME_SUCCESS);
+									logger.info("Comment translated with 'wit.ai': " + comment.getCommentBody());
+								} catch (IOException e) {
+									metrics.stopStage(translation, STAGE_COMMENT_TRANSLATION, config, null,
+											OUTCOME_FAILURE);
+									logger.error(e.getMessage(), e);
+									botIssue = createBotIssueFromInvalidComment(comment, e.getMessage());
+									allRefactoredIssues
+											.add(processFailedRefactoring(config, comment, request, botIssue, true));
+									return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+								} catch (ReviewCommentUnclearException e) {
+									metrics.stopStage(translation, STAGE_COMMENT_TRANSLATION, config, null,
+											OUTCOME_FAILURE);
+									logger.warn("Comment translation with 'wit.ai' failed! Comment: "
+											+ comment.getCommentBody());
+									botIssue = createBotIssueFromInvalidComment(comment, e.getMessage());
+									allRefactoredIssues
+											.add(processFailedRefactoring(config, comment, request, botIssue, true));
+									continue;
+								}
+							} else {
+								// Try to refactor with ANTRL4
+								try {
+									// If ANTLR can parse -> create Issue
+									botIssue = metrics.recordStage(STAGE_COMMENT_TRANSLATION, config, null,
+											() -> grammarService.createIssueFromComment(comment, config));
+									logger.info("Comment translated with 'ANTLR': " + comment.getCommentBody());
+								} catch (Exception g) {
+									logger.error(g.getMessage(), g);
+									// If refactoring failed
+									botIssue = createBotIssueFromInvalidComment(comment, g.getMessage());
+									allRefactoredIssues
+											.add(processFailedRefactoring(config, comment, request, botIssue, true));
+									continue;
+								}
 							}
+							// Refactor the created BotIssue
+							allRefactoredIssues.add(refactorComment(config, botIssue, request, comment));
 						}
-						// Refactor the created BotIssue
-						allRefactoredIssues.add(refactorComment(config, botIssue, request, comment));
 					}
 				}
 			}
@@ -278,7 +630,7 @@ public class RefactoringService {
 			botIssue = addUpToDateFilePaths(botIssue, isCommentRefactoring, config);
 
 			// Try to refactor
-			botIssue.setCommitMessage(refactoring.pickAndRefactor(botIssue, config));
+			botIssue.setCommitMessage(pickAndRefactor(botIssue, config));
 
 			// If successful
 			if (botIssue.getCommitMessage() != null) {
@@ -286,12 +638,16 @@ public class RefactoringService {
 				RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
 
 				// Push changes
-				gitService.commitAndPushChanges(config, botIssue.getCommitMessage());
+				pushChanges(config, refactoredIssue.getRefactoringOperation(), botIssue.getCommitMessage(),
+						botIssue.getChangedFiles());
 				// Reply to User
-				apiGrabber.replyToUserInsideBotRequest(request, comment, config);
+				metrics.recordStage(STAGE_PULL_REQUEST, config, refactoredIssue.getRefactoringOperation(), () -> {
+					apiGrabber.replyToUserInsideBotRequest(request, comment, config);
+					return null;
+				});
 
 				// Save and return refactored issue
-				return issueRepo.save(refactoredIssue);
+				return saveRefactoredIssue(config, refactoredIssue, OUTCOME_SUCCESS);
 			}
 
 			// If analysis service refactoring
@@ -304,7 +660,7 @@ public class RefactoringService {
 			// Add current filepaths to Issue
 			botIssue = addUpToDateFilePaths(botIssue, isCommentRefactoring, config);
 			// Try to refactor
-			botIssue.setCommitMessage(refactoring.pickAndRefactor(botIssue, config));
+			botIssue.setCommitMessage(pickAndRefactor(botIssue, config));
 
 			// If successful
 			if (botIssue.getCommitMessage() != null) {
@@ -312,11 +668,16 @@ public class RefactoringService {
 				RefactoredIssue refactoredIssue = botController.buildRefactoredIssue(botIssue, config);
 
 				// Push changes + create Pull-Request
-				gitService.commitAndPushChanges(config, botIssue.getCommitMessage());
-				apiGrabber.makeCreateRequestWithAnalysisService(botIssue, config, newBranch);
+				pushChanges(config, refactoredIssue.getRefactoringOperation(), botIssue.getCommitMessage(),
+						botIssue.getChangedFiles());
+				BotIssue refactoredBotIssue = botIssue;
+				metrics.recordStage(STAGE_PULL_REQUEST, config, refactoredIssue.getRefactoringOperation(), () -> {
+					apiGrabber.makeCreateRequestWithAnalysisService(refactoredBotIssue, config, newBranch);
+					return null;
+				});
 
 				// Save and return refactored issue
-				return issueRepo.save(refactoredIssue);
+				return saveRefactoredIssue(config, refactoredIssue, OUTCOME_SUCCESS);
 			}
 		}
 
@@ -324,6 +685,26 @@ public class RefactoringService {
 		return processFailedRefactoring(config, comment, request, botIssue, isCommentRefactoring);
 	}
 
+	/**
+	 * This method refactors the given issue and persists the indexes of the
+	 * workspace afterwards, even if the refactoring failed. Files written by the
+	 * refactoring are removed from the caches of the symbol solver.
+	 * 
+	 * @param botIssue
+	 * @param config
+	 * @return commitMessage
+	 * @throws BotRefactoringException
+	 */
+	private String pickAndRefactor(BotIssue botIssue, GitConfiguration config) throws BotRefactoringException {
+		try {
+			return metrics.recordStage(STAGE_REFACTORING, config, botIssue.getRefactoringOperation(),
+					() -> refactoring.pickAndRefactor(botIssue, config));
+		} finally {
+			workspaceIndexService.saveIndexesOfIssue(botIssue, config);
+			symbolSolverService.invalidateUncommittedFiles(config);
+		}
+	}
+
 	/**
 	 * This method checks if the database contains a configuration with given id and
 	 * returns it if it exists.
@@ -358,43 +739,71 @@ public class RefactoringService {
 	}
 
 	/**
-	 * This method returns all pull requests from a filehosting service.
+	 * This method returns all pull requests from a filehosting service. The pull
+	 * requests are fetched page by page while they are iterated.
 	 * 
 	 * @param config
-	 * @return
+	 * @return pages of the pull requests
 	 * @throws URISyntaxException
-	 * @throws GitHubAPIException
-	 * @throws IOException
 	 * @throws GitWorkflowException
-	 * @throws GitLabAPIException
 	 */
-	public BotPullRequests getPullRequests(GitConfiguration config)
-			throws URISyntaxException, GitHubAPIException, IOException, GitWorkflowException, GitLabAPIException {
-		gitService.fetchRemote(config);
-		return apiGrabber.getRequestsWithComments(config);
+	public Iterator<BotPullRequests> getPullRequests(GitConfiguration config)
+			throws URISyntaxException, GitWorkflowException {
+		metrics.recordStage(STAGE_GIT_FETCH, config, null, () -> {
+			gitService.fetchRemote(config);
+			return null;
+		});
+		Iterator<BotPullRequests> requestPages = metrics.recordStage(STAGE_API_FETCH, config, null,
+				() -> apiGrabber.getRequestsWithComments(config));
+
+		// Waiting for a page is recorded as part of fetching the pull requests
+		return new Iterator<BotPullRequests>() {
+
+			@Override
+			public boolean hasNext() {
+				return requestPages.hasNext();
+			}
+
+			@Override
+			public BotPullRequests next() {
+				return metrics.recordStage(STAGE_API_FETCH, config, null, requestPages::next);
+			}
+		};
 	}
 
 	/**
-	 * This method checks if a comment was already refactored in the past.
+	 * This method returns the IDs of the comments of the bot's pull requests that
+	 * were already refactored in the past.
 	 * 
 	 * @param config
-	 * @param comment
-	 * @return isAlreadyRefactored
+	 * @param requests
+	 * @return refactoredCommentIDs
 	 */
-	public boolean isAlreadyRefactored(GitConfiguration config, BotPullRequestComment comment) {
-		return issueRepo.refactoredComment(config.getRepoService(), comment.getCommentID().toString()).isPresent();
+	private Set<String> getRefactoredComments(GitConfiguration config, BotPullRequests requests) {
+		List<String> commentIDs = new ArrayList<>();
+		for (BotPullRequest request : requests.getAllPullRequests()) {
+			if (request.getCreatorName().equals(config.getBotName())) {
+				for (BotPullRequestComment comment : request.getAllComments()) {
+					commentIDs.add(comment.getCommentID().toString());
+				}
+			}
+		}
+		return refactoredIssuesService.getRefactoredComments(config.getRepoService(), commentIDs);
 	}
 
 	/**
-	 * This method checks if a from a AnalysisServiceIssue translated BotIssue is
-	 * valid, e.g. not already refactored.
+	 * This method returns the IDs of the from AnalysisServiceIssues translated
+	 * BotIssues that were already refactored in the past.
 	 * 
-	 * @param config
-	 * @param issue
-	 * @return
+	 * @param issues
+	 * @return refactoredIssueIDs
 	 */
-	public boolean isAnalysisIssueValid(BotIssue issue) {
-		return (!issueRepo.refactoredAnalysisIssue(issue.getCommentServiceID()).isPresent());
+	private Set<String> getRefactoredAnalysisIssues(List<BotIssue> issues) {
+		List<String> issueIDs = new ArrayList<>();
+		for (BotIssue issue : issues) {
+			issueIDs.add(issue.getCommentServiceID());
+		}
+		return refactoredIssuesService.getRefactoredAnalysisIssues(issueIDs);
 	}
 
 	/**
@@ -426,7 +835,53 @@ public class RefactoringService {
 		}
 
 		// Save failed refactoring and return it
-		return issueRepo.save(failedIssue);
+		return saveRefactoredIssue(config, failedIssue, OUTCOME_FAILURE);
+	}
+
+	/**
+	 * This method commits and pushes the changes of a refactoring and records the
+	 * amount of changed files.
+	 * 
+	 * @param config
+	 * @param refactoringOperation
+	 * @param commitMessage
+	 * @param changedFiles
+	 * @throws GitWorkflowException
+	 */
+	private void pushChanges(GitConfiguration config, String refactoringOperation, String commitMessage,
+			Map<String, String> changedFiles) throws GitWorkflowException {
+		metrics.recordStage(STAGE_GIT_PUSH, config, refactoringOperation, () -> {
+			gitService.commitAndPushChanges(config, commitMessage, changedFiles);
+			return null;
+		});
+		metrics.recordChangedFiles(config, refactoringOperation, changedFiles.size());
+	}
+
+	/**
+	 * This method saves a refactored or failed issue, counts it with the given
+	 * outcome and notifies the listener of the refactoring.
+	 * 
+	 * @param config
+	 * @param refactoredIssue
+	 * @param outcome
+	 * @return savedIssue
+	 */
+	private RefactoredIssue saveRefactoredIssue(GitConfiguration config, RefactoredIssue refactoredIssue,
+			String outcome) {
+		metrics.recordIssue(config, refactoredIssue.getRefactoringOperation(), outcome);
+		RefactoredIssue savedIssue = metrics.recordStage(STAGE_DB_SAVE, config,
+				refactoredIssue.getRefactoringOperation(), () -> refactoredIssuesService.save(refactoredIssue));
+
+		Consumer<RefactoredIssue> issueListener = issueListeners.get(config.getConfigurationId());
+		if (issueListener != null) {
+			try {
+				issueListener.accept(savedIssue);
+			} catch (Exception e) {
+				// Progress reports must not abort the refactoring
+				logger.error("Could not report refactored issue: " + e.getMessage(), e);
+			}
+		}
+		return savedIssue;
 	}
 
 	/**
@@ -470,11 +925,14 @@ public class RefactoringService {
 	 * @param config
 	 * @return botIssue
 	 * @throws IOException
+	 * @throws GitWorkflowException
 	 */
 	private BotIssue addUpToDateFilePaths(BotIssue botIssue, Boolean isCommentRefactoring, GitConfiguration config)
-			throws IOException {
+			throws IOException, GitWorkflowException {
 		botIssue.setAllJavaFiles(fileService.getAllJavaFiles(config.getRepoFolder()));
 		botIssue.setJavaRoots(fileService.findJavaRoots(botIssue.getAllJavaFiles()));
+		workspaceIndexService.addIndexesToIssue(botIssue, config);
+		botIssue.setSymbolSolver(symbolSolverService.getSymbolSolver(config, botIssue.getJavaRoots()));
 
 		if (!isCommentRefactoring) {
 			botIssue.setFilePath(apiGrabber.getAnalysisServiceAbsoluteIssuePath(config, botIssue.getFilePath()));
@@ -0,0 +1,112 @@
+package de.refactoringbot.services.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.annotation.PostConstruct;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.lib.RepositoryCache.FileKey;
+import org.eclipse.jgit.lib.RepositoryCacheConfig;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.SystemReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class keeps the repositories of the local workspaces open, so that
+ * their configuration, refs and pack indexes are not read again by every git
+ * operation. The repositories are held by the repository cache of JGit, which
+ * counts the users of a repository and closes it once it was not used for the
+ * configured time. A repository returned by this class is shared between
+ * threads and has to be closed by the caller after using it, which only
+ * releases it to the cache.
+ */
+@Service
+public class RepositoryCacheService {
+
+	@Value("${bot.repositoryIdleTimeoutInMS:600000}")
+	private long repositoryIdleTimeout;
+	/**
+	 * Memory mapping of the pack files, enabled by default except on Windows
+	 */
+	@Value("${bot.packedGitMMAP:#{null}}")
+	private Boolean packedGitMMAP;
+
+	private static final Logger logger = LoggerFactory.getLogger(RepositoryCacheService.class);
+
+	/**
+	 * This method configures the repository cache and the pack file cache of
+	 * JGit. Pack files are memory mapped if enabled, so that they stay warm
+	 * between the refactorings of a configuration. The settings apply to the whole
+	 * JVM.
+	 */
+	@PostConstruct
+	public void configureCaches() {
+		RepositoryCacheConfig repositoryCacheConfig = new RepositoryCacheConfig();
+		repositoryCacheConfig.setExpireAfter(repositoryIdleTimeout);
+		repositoryCacheConfig.install();
+
+		WindowCacheConfig windowCacheConfig = new WindowCacheConfig();
+		windowCacheConfig.setPackedGitMMAP(isPackedGitMMAP());
+		windowCacheConfig.install();
+	}
+
+	/**
+	 * On Windows, memory mapped pack files can not be deleted until the mappings
+	 * are garbage collected. Evicting a repository does not unmap its pack files,
+	 * so deleting a workspace would fail. Memory mapping is therefore disabled on
+	 * Windows, unless it is enabled explicitly.
+	 * 
+	 * @return isPackedGitMMAP
+	 */
+	boolean isPackedGitMMAP() {
+		boolean isWindows = SystemReader.getInstance().isWindows();
+		if (packedGitMMAP == null) {
+			return !isWindows;
+		}
+		if (packedGitMMAP && isWindows) {
+			logger.warn("Pack files are memory mapped on Windows, deleting workspaces might fail.");
+		}
+		return packedGitMMAP;
+	}
+
+	/**
+	 * This method returns the cached repository of the given working tree or git
+	 * directory and opens it, if it is not cached yet.
+	 *
+	 * @param directory
+	 * @return repository
+	 * @throws IOException
+	 */
+	public Repository openRepository(File directory) throws IOException {
+		return RepositoryCache.open(FileKey.lenient(directory, FS.DETECTED));
+	}
+
+	/**
+	 * This method closes and removes all cached repositories inside of the given
+	 * directory. This has to be done before the directory is deleted, since the
+	 * pack files of the repositories might still be opened.
+	 *
+	 * @param directory
+	 */
+	public void evictRepositories(File directory) {
+		Path directoryPath = directory.toPath().toAbsolutePath().normalize();
+		for (RepositoryCache.Key key : RepositoryCache.getRegisteredKeys()) {
+			if (key instanceof FileKey
+					&& ((FileKey) key).getFile().toPath().toAbsolutePath().normalize().startsWith(directoryPath)) {
+				try {
+					// Only closing a repository also removes it from the cache
+					RepositoryCache.close(RepositoryCache.open(key, false));
+				} catch (IOException e) {
+					RepositoryCache.unregister(key);
+				}
+			}
+		}
+	}
+}
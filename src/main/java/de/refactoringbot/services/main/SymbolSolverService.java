@@ -0,0 +1,142 @@
+package de.refactoringbot.services.main;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.refactoring.WorkspaceSymbolSolver;
+
+/**
+ * This class keeps the symbol solvers of the local workspaces, so that parsed
+ * files and solved types can be reused by all refactorings of a configuration.
+ * Files that changed since a symbol solver was last used are removed from its
+ * caches.
+ */
+@Service
+public class SymbolSolverService {
+
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	GitService gitService;
+	@Autowired
+	FileService fileService;
+
+	@Value("${bot.cachedSymbolSolvers:10}")
+	private int maxCachedSymbolSolvers;
+
+	/**
+	 * Symbol solvers by configuration ID. Only the access to the map is
+	 * synchronized, the symbol solver of a configuration is only used while the
+	 * lock of the configuration is held.
+	 */
+	private final Map<Long, WorkspaceSymbolSolver> symbolSolvers = Collections
+			.synchronizedMap(new LinkedHashMap<Long, WorkspaceSymbolSolver>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, WorkspaceSymbolSolver> eldest) {
+					return size() > maxCachedSymbolSolvers;
+				}
+			});
+
+	private static final Logger logger = LoggerFactory.getLogger(SymbolSolverService.class);
+
+	/**
+	 * This method returns the symbol solver of the workspace of the given
+	 * configuration. All files that changed since the symbol solver was last
+	 * returned are removed from its caches. If the java roots of the workspace
+	 * changed, a new symbol solver is created. The caller has to hold the lock of
+	 * the configuration (see {@link ConfigurationLockService}), so that symbol
+	 * solvers of different configurations can be prepared at the same time.
+	 * 
+	 * @param gitConfig
+	 * @param javaRoots
+	 * @return symbolSolver
+	 * @throws GitWorkflowException
+	 */
+	public WorkspaceSymbolSolver getSymbolSolver(GitConfiguration gitConfig, List<String> javaRoots)
+			throws GitWorkflowException {
+		String repoFolderPath = botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId();
+		String headCommitId = gitService.getHeadCommitId(gitConfig);
+		Set<String> uncommittedFiles = fileService.getCanonicalJavaFilePaths(repoFolderPath,
+				gitService.getUncommittedFiles(gitConfig));
+
+		WorkspaceSymbolSolver symbolSolver = symbolSolvers.get(gitConfig.getConfigurationId());
+		if (symbolSolver != null && !symbolSolver.getJavaRoots().equals(javaRoots)) {
+			symbolSolver = null;
+		}
+
+		if (symbolSolver != null && !headCommitId.equals(symbolSolver.getRevision())) {
+			try {
+				symbolSolver.invalidateFiles(fileService.getCanonicalJavaFilePaths(repoFolderPath,
+						gitService.getChangedFiles(gitConfig, symbolSolver.getRevision(), headCommitId)));
+			} catch (GitWorkflowException e) {
+				// Cached commit might not exist anymore (e.g. after a force push)
+				logger.warn("Could not update symbol solver of configuration " + gitConfig.getConfigurationId()
+						+ " incrementally, creating a new one.");
+				symbolSolver = null;
+			}
+		}
+
+		if (symbolSolver == null) {
+			symbolSolver = new WorkspaceSymbolSolver(javaRoots);
+			symbolSolvers.put(gitConfig.getConfigurationId(), symbolSolver);
+		} else {
+			symbolSolver.invalidateFiles(symbolSolver.getUncommittedFiles());
+			symbolSolver.invalidateFiles(uncommittedFiles);
+		}
+		symbolSolver.setRevision(headCommitId);
+		symbolSolver.setUncommittedFiles(uncommittedFiles);
+
+		return symbolSolver;
+	}
+
+	/**
+	 * This method removes all files of the workspace of the given configuration
+	 * that are currently modified from the caches of its symbol solver. This has to
+	 * be done after each refactoring, since the files written by a refactoring
+	 * might be reverted without a commit. The caller has to hold the lock of the
+	 * configuration.
+	 * 
+	 * @param gitConfig
+	 */
+	public void invalidateUncommittedFiles(GitConfiguration gitConfig) {
+		WorkspaceSymbolSolver symbolSolver = symbolSolvers.get(gitConfig.getConfigurationId());
+		if (symbolSolver == null) {
+			return;
+		}
+
+		try {
+			symbolSolver.invalidateFiles(fileService.getCanonicalJavaFilePaths(
+					botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId(),
+					gitService.getUncommittedFiles(gitConfig)));
+		} catch (GitWorkflowException e) {
+			logger.warn("Could not determine modified files of configuration " + gitConfig.getConfigurationId()
+					+ ", discarding its symbol solver.");
+			symbolSolvers.remove(gitConfig.getConfigurationId(), symbolSolver);
+		}
+	}
+
+	/**
+	 * This method removes the symbol solver of the given configuration, e.g. when
+	 * its workspace is deleted.
+	 * 
+	 * @param configurationId
+	 */
+	public void evictSymbolSolver(Long configurationId) {
+		symbolSolvers.remove(configurationId);
+	}
+}
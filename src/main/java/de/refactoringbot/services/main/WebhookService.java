@@ -0,0 +1,293 @@
+package de.refactoringbot.services.main;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.api.gitlab.GitlabDataGrabber;
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.FileHoster;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.ValidationException;
+import de.refactoringbot.model.github.webhook.GithubReviewCommentEvent;
+import de.refactoringbot.model.gitlab.pullrequest.GitLabPullRequest;
+import de.refactoringbot.model.gitlab.webhook.GitLabNoteEvent;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.services.github.GithubObjectTranslator;
+import de.refactoringbot.services.gitlab.GitlabObjectTranslator;
+import javassist.NotFoundException;
+
+/**
+ * This class processes the webhook events of the filehosters. Instead of
+ * polling all pull requests and comments of a configuration, only the comment
+ * of the event is queued for refactoring. The queued comments of a
+ * configuration are refactored one after another by a single worker, so that a
+ * burst of comments can not occupy the worker pool while waiting for the lock
+ * of the configuration.
+ */
+@Service
+public class WebhookService {
+
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	ConfigurationRepository configRepo;
+	@Autowired
+	RefactoringService refactoringService;
+	@Autowired
+	GithubObjectTranslator githubTranslator;
+	@Autowired
+	GitlabObjectTranslator gitlabTranslator;
+	@Autowired
+	GitlabDataGrabber gitlabGrabber;
+	@Autowired
+	@Qualifier("schedulingExecutor")
+	TaskExecutor schedulingExecutor;
+
+	private static final String GITHUB_SIGNATURE_PREFIX = "sha256=";
+	private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+	/**
+	 * Comments of the configurations that wait for their refactoring
+	 */
+	private final ConcurrentMap<Long, Queue<Callable<BotPullRequest>>> queuedComments = new ConcurrentHashMap<>();
+	/**
+	 * IDs of the configurations whose comments are queued or being processed by a
+	 * worker
+	 */
+	private final Set<Long> pendingConfigurations = ConcurrentHashMap.newKeySet();
+
+	private static final Logger logger = LoggerFactory.getLogger(WebhookService.class);
+
+	/**
+	 * This method checks if the given GitHub signature (header
+	 * <code>X-Hub-Signature-256</code>) was created for the given payload with the
+	 * webhook secret of the bot.
+	 * 
+	 * @param payload
+	 * @param signature
+	 * @return isValid
+	 */
+	public boolean isValidGithubSignature(byte[] payload, String signature) {
+		if (!isWebhookSecretConfigured() || signature == null || !signature.startsWith(GITHUB_SIGNATURE_PREFIX)) {
+			return false;
+		}
+
+		try {
+			Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+			mac.init(new SecretKeySpec(botConfig.getWebhookSecret().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+			String expectedSignature = GITHUB_SIGNATURE_PREFIX + toHex(mac.doFinal(payload));
+			return MessageDigest.isEqual(expectedSignature.getBytes(StandardCharsets.UTF_8),
+					signature.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException | InvalidKeyException e) {
+			logger.error(e.getMessage(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * This method checks if the given GitLab token (header
+	 * <code>X-Gitlab-Token</code>) equals the webhook secret of the bot.
+	 * 
+	 * @param token
+	 * @return isValid
+	 */
+	public boolean isValidGitlabToken(String token) {
+		if (!isWebhookSecretConfigured() || token == null) {
+			return false;
+		}
+		return MessageDigest.isEqual(botConfig.getWebhookSecret().getBytes(StandardCharsets.UTF_8),
+				token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * This method queues the comment of a GitHub review comment event for
+	 * refactoring. Only newly created comments are queued.
+	 * 
+	 * @param configID
+	 * @param event
+	 * @return true if the comment was queued, false if the event was ignored
+	 * @throws NotFoundException
+	 * @throws ValidationException
+	 */
+	public boolean queueGithubReviewComment(Long configID, GithubReviewCommentEvent event)
+			throws NotFoundException, ValidationException {
+		GitConfiguration config = getConfiguration(configID, FileHoster.github);
+		checkRepository(config, event.getRepository() != null ? event.getRepository().getFullName() : null);
+		if (!"created".equals(event.getAction()) || event.getComment() == null || event.getPullRequest() == null) {
+			return false;
+		}
+
+		BotPullRequest request = githubTranslator.translateReviewCommentEvent(event);
+		queueCommentRefactoring(config, () -> request);
+		return true;
+	}
+
+	/**
+	 * This method queues the note of a GitLab note event for refactoring. Only
+	 * line comments of merge requests are queued.
+	 * 
+	 * @param configID
+	 * @param event
+	 * @return true if the note was queued, false if the event was ignored
+	 * @throws NotFoundException
+	 * @throws ValidationException
+	 */
+	public boolean queueGitlabNote(Long configID, GitLabNoteEvent event) throws NotFoundException, ValidationException {
+		GitConfiguration config = getConfiguration(configID, FileHoster.gitlab);
+		checkRepository(config, event.getProject() != null ? event.getProject().getPathWithNamespace() : null);
+		if (!"note".equals(event.getObjectKind()) || event.getObjectAttributes() == null
+				|| !"MergeRequest".equals(event.getObjectAttributes().getNoteableType())
+				|| event.getObjectAttributes().getPosition() == null || event.getMergeRequest() == null) {
+			return false;
+		}
+
+		queueCommentRefactoring(config, () -> {
+			// The event does not contain the author of the merge request
+			GitLabPullRequest gitlabRequest = gitlabGrabber.getPullRequest(config, event.getMergeRequest().getIid());
+			return gitlabTranslator.translateNoteEvent(event, gitlabRequest);
+		});
+		return true;
+	}
+
+	/**
+	 * This method queues the comment of the given request for refactoring. A
+	 * worker is only started if no worker processes the comments of the
+	 * configuration yet.
+	 * 
+	 * @param config
+	 * @param request
+	 *            creates the request with the comment on the worker thread
+	 * @throws TaskRejectedException
+	 *             if the worker could not be queued
+	 */
+	private void queueCommentRefactoring(GitConfiguration config, Callable<BotPullRequest> request) {
+		Long configID = config.getConfigurationId();
+		Queue<Callable<BotPullRequest>> comments = queuedComments.computeIfAbsent(configID,
+				id -> new ConcurrentLinkedQueue<>());
+		comments.add(request);
+		if (!pendingConfigurations.add(configID)) {
+			logger.debug("Comment of configuration with the ID " + configID + " is refactored by the running worker.");
+			return;
+		}
+
+		try {
+			schedulingExecutor.execute(() -> performCommentRefactorings(config, comments));
+		} catch (TaskRejectedException e) {
+			comments.remove(request);
+			pendingConfigurations.remove(configID);
+			throw e;
+		}
+	}
+
+	/**
+	 * This method refactors the queued comments of the given configuration one
+	 * after another on a worker thread.
+	 * 
+	 * @param config
+	 * @param comments
+	 */
+	private void performCommentRefactorings(GitConfiguration config, Queue<Callable<BotPullRequest>> comments) {
+		Long configID = config.getConfigurationId();
+		do {
+			Callable<BotPullRequest> request;
+			while ((request = comments.poll()) != null) {
+				performCommentRefactoring(config, request);
+			}
+			pendingConfigurations.remove(configID);
+			// A comment might have been queued after the last poll, but before the removal
+		} while (!comments.isEmpty() && pendingConfigurations.add(configID));
+	}
+
+	/**
+	 * This method refactors the comment of the given request.
+	 * 
+	 * @param config
+	 * @param request
+	 */
+	private void performCommentRefactoring(GitConfiguration config, Callable<BotPullRequest> request) {
+		try {
+			logger.info("Starting webhook comment refactoring with configuration with the ID: "
+					+ config.getConfigurationId());
+			refactoringService.performCommentRefactoring(config.getConfigurationId(), request.call());
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * This method checks that the repository of a webhook event is the repository
+	 * of the configuration. Otherwise, a webhook with a wrong configuration ID
+	 * would refactor the comments of one repository in another one.
+	 * 
+	 * @param config
+	 * @param repositoryPath
+	 *            'owner/name' of the repository of the event
+	 * @throws ValidationException
+	 */
+	private void checkRepository(GitConfiguration config, String repositoryPath) throws ValidationException {
+		String configuredPath = config.getRepoOwner() + "/" + config.getRepoName();
+		if (!configuredPath.equalsIgnoreCase(repositoryPath)) {
+			throw new ValidationException(
+					"Repository '" + repositoryPath + "' of the event does not belong to the configuration!");
+		}
+	}
+
+	/**
+	 * This method returns the configuration with the given ID and checks that it
+	 * belongs to the given filehoster.
+	 * 
+	 * @param configID
+	 * @param repoService
+	 * @return config
+	 * @throws NotFoundException
+	 * @throws ValidationException
+	 */
+	private GitConfiguration getConfiguration(Long configID, FileHoster repoService)
+			throws NotFoundException, ValidationException {
+		Optional<GitConfiguration> config = configRepo.getByID(configID);
+		if (!config.isPresent()) {
+			throw new NotFoundException("Configuration with given ID does not exist in the database!");
+		}
+		if (config.get().getRepoService() != repoService) {
+			throw new ValidationException("Configuration does not belong to a " + repoService + " repository!");
+		}
+		return config.get();
+	}
+
+	private boolean isWebhookSecretConfigured() {
+		if (botConfig.getWebhookSecret() == null || botConfig.getWebhookSecret().isEmpty()) {
+			logger.warn("Received webhook event, but no webhook secret is configured!");
+			return false;
+		}
+		return true;
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : bytes) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+}
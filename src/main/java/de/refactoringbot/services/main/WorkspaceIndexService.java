@@ -0,0 +1,150 @@
+package de.refactoringbot.services.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.refactoring.MethodCallIndex;
+import de.refactoringbot.refactoring.TypeHierarchyIndex;
+import de.refactoringbot.refactoring.WorkspaceIndex;
+
+/**
+ * This class loads and persists the indexes of the local workspaces (e.g. the
+ * type hierarchy and method call indexes). The indexes are stored inside the
+ * git directory of their workspace, so that they are removed together with the
+ * workspace and never committed by the bot.
+ */
+@Service
+public class WorkspaceIndexService {
+
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	GitService gitService;
+	@Autowired
+	ObjectMapper mapper;
+	@Autowired
+	FileService fileService;
+
+	private static final String INDEX_FOLDER_PATH = ".git" + File.separator + "refactoring-bot";
+
+	private static final Logger logger = LoggerFactory.getLogger(WorkspaceIndexService.class);
+
+	/**
+	 * This method adds the up-to-date indexes of the workspace of the given
+	 * configuration to the given issue. Files that changed since an index was
+	 * persisted are marked as changed and indexed again with the next update of
+	 * the index.
+	 *
+	 * @param botIssue
+	 * @param gitConfig
+	 * @throws GitWorkflowException
+	 */
+	public void addIndexesToIssue(BotIssue botIssue, GitConfiguration gitConfig) throws GitWorkflowException {
+		String headCommitId = gitService.getHeadCommitId(gitConfig);
+		Set<String> uncommittedFiles = fileService.getCanonicalJavaFilePaths(getRepoFolderPath(gitConfig),
+				gitService.getUncommittedFiles(gitConfig));
+
+		botIssue.setTypeHierarchyIndex(
+				loadIndex(gitConfig, TypeHierarchyIndex.class, headCommitId, uncommittedFiles));
+		botIssue.setMethodCallIndex(loadIndex(gitConfig, MethodCallIndex.class, headCommitId, uncommittedFiles));
+	}
+
+	/**
+	 * This method persists the indexes of the given issue.
+	 *
+	 * @param botIssue
+	 * @param gitConfig
+	 */
+	public void saveIndexesOfIssue(BotIssue botIssue, GitConfiguration gitConfig) {
+		saveIndex(gitConfig, botIssue.getTypeHierarchyIndex());
+		saveIndex(gitConfig, botIssue.getMethodCallIndex());
+	}
+
+	/**
+	 * This method loads the persisted index of the given type and marks all files
+	 * as changed that differ between the indexed commit and the currently checked
+	 * out commit or that were uncommitted at the time of indexing or now. If no
+	 * usable index exists, an empty index is returned which is built with its
+	 * first update.
+	 *
+	 * @param gitConfig
+	 * @param indexClass
+	 * @param headCommitId
+	 * @param uncommittedFiles
+	 * @return index
+	 */
+	private <T extends WorkspaceIndex<?>> T loadIndex(GitConfiguration gitConfig, Class<T> indexClass,
+			String headCommitId, Set<String> uncommittedFiles) {
+		File indexFile = getIndexFile(gitConfig, indexClass);
+
+		T index = BeanUtils.instantiateClass(indexClass);
+		if (indexFile.exists()) {
+			try {
+				index = mapper.readValue(indexFile, indexClass);
+			} catch (IOException e) {
+				logger.warn("Could not read index " + indexFile + ", rebuilding it: " + e.getMessage());
+				index = BeanUtils.instantiateClass(indexClass);
+			}
+		}
+
+		if (index.getRevision() != null && !index.getRevision().equals(headCommitId)) {
+			try {
+				index.markFilesAsChanged(fileService.getCanonicalJavaFilePaths(getRepoFolderPath(gitConfig),
+						gitService.getChangedFiles(gitConfig, index.getRevision(), headCommitId)));
+			} catch (GitWorkflowException e) {
+				// Indexed commit might not exist anymore (e.g. after a force push)
+				logger.warn("Could not update index " + indexFile + " incrementally, rebuilding it.");
+				index = BeanUtils.instantiateClass(indexClass);
+			}
+		}
+		index.markFilesAsChanged(index.getUncommittedFiles());
+		index.markFilesAsChanged(uncommittedFiles);
+		index.setUncommittedFiles(uncommittedFiles);
+		index.setRevision(headCommitId);
+
+		return index;
+	}
+
+	/**
+	 * This method persists the given index. Indexes that were not updated since
+	 * changed files were marked are not saved, so that those changes are not lost.
+	 *
+	 * @param gitConfig
+	 * @param index
+	 */
+	private void saveIndex(GitConfiguration gitConfig, WorkspaceIndex<?> index) {
+		if (index == null || index.hasChangedFiles()) {
+			return;
+		}
+
+		File indexFile = getIndexFile(gitConfig, index.getClass());
+		try {
+			indexFile.getParentFile().mkdirs();
+			mapper.writeValue(indexFile, index);
+		} catch (IOException e) {
+			logger.error("Could not save index " + indexFile + ": " + e.getMessage(), e);
+		}
+	}
+
+	private File getIndexFile(GitConfiguration gitConfig, Class<?> indexClass) {
+		return new File(getRepoFolderPath(gitConfig),
+				INDEX_FOLDER_PATH + File.separator + indexClass.getSimpleName() + ".json");
+	}
+
+	private String getRepoFolderPath(GitConfiguration gitConfig) {
+		return botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId();
+	}
+}
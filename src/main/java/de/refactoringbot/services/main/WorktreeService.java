@@ -0,0 +1,198 @@
+package de.refactoringbot.services.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.refactoring.RefactoringHelper;
+
+/**
+ * This class manages a pool of worktrees per configuration, so that several
+ * refactoring jobs of the same repository can run at the same time without
+ * checking out branches in the shared workspace. A worktree is a lightweight
+ * checkout that shares the object store of the workspace and has the same
+ * remotes. Worktrees are reused by later jobs and reset whenever they are
+ * acquired, so that a crashed job does not leave changes behind.
+ */
+@Service
+public class WorktreeService {
+
+	@Autowired
+	BotConfiguration botConfig;
+	@Autowired
+	RepositoryCacheService repositoryCache;
+
+	private static final Logger logger = LoggerFactory.getLogger(WorktreeService.class);
+
+	private static final String WORKTREE_FOLDER_SUFFIX = "_worktrees";
+	private static final String REMOTE_REFS_PREFIX = Constants.R_REMOTES;
+
+	private final ConcurrentMap<Long, BlockingQueue<File>> idleWorktrees = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, AtomicInteger> worktreeCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * This method returns a worktree of the workspace of the given configuration
+	 * that is not used by any other job. The remote branches of the worktree are
+	 * updated to those of the workspace, so that new branches can be created from
+	 * them. The worktree has to be released after the job is done.
+	 *
+	 * @param gitConfig
+	 * @return configuration of the worktree
+	 * @throws GitWorkflowException
+	 */
+	public GitConfiguration acquireWorktree(GitConfiguration gitConfig) throws GitWorkflowException {
+		File worktree = getIdleWorktrees(gitConfig.getConfigurationId()).poll();
+		try {
+			if (worktree == null || !new File(worktree, Constants.DOT_GIT).exists()) {
+				worktree = createWorktree(gitConfig);
+			}
+			syncWorktree(gitConfig, worktree);
+			return gitConfig.copyWithRepoFolder(worktree.getPath());
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			// A worktree that could not be prepared is not reused
+			if (worktree != null) {
+				RefactoringHelper.discardCachedCompilationUnits(worktree.getPath());
+				repositoryCache.evictRepositories(worktree);
+				FileUtils.deleteQuietly(worktree);
+			}
+			throw new GitWorkflowException("Could not prepare a worktree of configuration with the ID '"
+					+ gitConfig.getConfigurationId() + "'!");
+		}
+	}
+
+	/**
+	 * This method returns the worktree of the given configuration to the pool.
+	 *
+	 * @param worktreeConfig
+	 *            configuration returned by {@link #acquireWorktree(GitConfiguration)}
+	 */
+	public void releaseWorktree(GitConfiguration worktreeConfig) {
+		releaseWorktree(worktreeConfig.getConfigurationId(), new File(worktreeConfig.getRepoFolder()));
+	}
+
+	/**
+	 * This method deletes all worktrees of the configuration with the given ID,
+	 * e.g. when its workspace is deleted.
+	 *
+	 * @param configurationId
+	 * @throws IOException
+	 */
+	public void deleteWorktrees(Long configurationId) throws IOException {
+		idleWorktrees.remove(configurationId);
+		worktreeCounts.remove(configurationId);
+		File worktreeFolder = getWorktreeFolder(configurationId);
+		repositoryCache.evictRepositories(worktreeFolder);
+		FileUtils.deleteDirectory(worktreeFolder);
+		RefactoringHelper.discardCachedCompilationUnits(worktreeFolder.getPath());
+	}
+
+	private void releaseWorktree(Long configurationId, File worktree) {
+		// Files of the job must not be taken from the cache by the next job
+		RefactoringHelper.discardCachedCompilationUnits(worktree.getPath());
+		getIdleWorktrees(configurationId).offer(worktree);
+	}
+
+	/**
+	 * This method creates a new repository which uses the object store of the
+	 * workspace as an alternate object database and copies the remotes of the
+	 * workspace.
+	 *
+	 * @param gitConfig
+	 * @return worktree
+	 * @throws Exception
+	 */
+	private File createWorktree(GitConfiguration gitConfig) throws Exception {
+		int worktreeNumber = worktreeCounts.computeIfAbsent(gitConfig.getConfigurationId(), id -> new AtomicInteger())
+				.incrementAndGet();
+		File worktree = new File(getWorktreeFolder(gitConfig.getConfigurationId()), Integer.toString(worktreeNumber));
+		repositoryCache.evictRepositories(worktree);
+		FileUtils.deleteDirectory(worktree);
+
+		try (Repository workspace = repositoryCache.openRepository(getWorkspace(gitConfig));
+				Git git = Git.init().setDirectory(worktree).call()) {
+			File objects = new File(workspace.getDirectory(), Constants.OBJECTS);
+			FileUtils.writeStringToFile(new File(git.getRepository().getDirectory(),
+					Constants.OBJECTS + File.separator + Constants.INFO_ALTERNATES), objects.getAbsolutePath() + "\n",
+					StandardCharsets.UTF_8);
+
+			StoredConfig workspaceConfig = workspace.getConfig();
+			StoredConfig worktreeConfig = git.getRepository().getConfig();
+			for (String remote : workspaceConfig.getSubsections(ConfigConstants.CONFIG_REMOTE_SECTION)) {
+				for (String name : workspaceConfig.getNames(ConfigConstants.CONFIG_REMOTE_SECTION, remote)) {
+					worktreeConfig.setStringList(ConfigConstants.CONFIG_REMOTE_SECTION, remote, name, workspaceConfig
+							.getStringList(ConfigConstants.CONFIG_REMOTE_SECTION, remote, name));
+				}
+			}
+			worktreeConfig.save();
+		}
+
+		logger.info("Created worktree " + worktree + " of configuration " + gitConfig.getConfigurationId() + ".");
+		return worktree;
+	}
+
+	/**
+	 * This method discards all changes of a previous job and sets the remote
+	 * branches of the worktree to those of the workspace.
+	 *
+	 * @param gitConfig
+	 * @param worktree
+	 * @throws Exception
+	 */
+	private void syncWorktree(GitConfiguration gitConfig, File worktree) throws Exception {
+		try (Repository workspace = repositoryCache.openRepository(getWorkspace(gitConfig));
+				Repository repository = repositoryCache.openRepository(worktree);
+				Git git = Git.wrap(repository)) {
+			if (repository.resolve(Constants.HEAD) != null) {
+				git.reset().setMode(ResetType.HARD).call();
+				git.clean().setCleanDirectories(true).setForce(true).call();
+			}
+
+			Map<String, Ref> remoteRefs = workspace.getRefDatabase().getRefs(REMOTE_REFS_PREFIX);
+			for (Ref remoteRef : remoteRefs.values()) {
+				if (remoteRef.isSymbolic() || remoteRef.getObjectId() == null) {
+					continue;
+				}
+				RefUpdate refUpdate = repository.updateRef(remoteRef.getName());
+				refUpdate.setNewObjectId(remoteRef.getObjectId());
+				refUpdate.setForceUpdate(true);
+				refUpdate.update();
+			}
+		}
+	}
+
+	private BlockingQueue<File> getIdleWorktrees(Long configurationId) {
+		return idleWorktrees.computeIfAbsent(configurationId, id -> new LinkedBlockingQueue<>());
+	}
+
+	private File getWorkspace(GitConfiguration gitConfig) {
+		return new File(botConfig.getBotRefactoringDirectory() + gitConfig.getConfigurationId());
+	}
+
+	private File getWorktreeFolder(Long configurationId) {
+		return new File(botConfig.getBotRefactoringDirectory() + configurationId + WORKTREE_FOLDER_SUFFIX);
+	}
+}
@@ -1,16 +1,25 @@
 package de.refactoringbot.services.scheduling;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import de.refactoringbot.configuration.BotConfiguration;
 import de.refactoringbot.model.configuration.ConfigurationRepository;
 import de.refactoringbot.model.configuration.GitConfiguration;
 import de.refactoringbot.services.main.RefactoringService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * This class performs scheduled tasks.
@@ -27,15 +36,29 @@ public class SchedulingService {
 	BotConfiguration botConfig;
 	@Autowired
 	ConfigurationRepository repo;
+	@Autowired
+	@Qualifier("schedulingExecutor")
+	ThreadPoolTaskExecutor schedulingExecutor;
+	@Autowired
+	MeterRegistry registry;
 	
 	@Value("${scheduling.enable:false}")
 	private boolean isSchedulingEnabled;
-	
+	@Value("${scheduling.delayInMS:10000}")
+	private long delayInMS;
+
+	/**
+	 * IDs of the configurations that are queued or being processed
+	 */
+	private final Set<Long> pendingConfigurations = ConcurrentHashMap.newKeySet();
+
 	private static final Logger logger = LoggerFactory.getLogger(SchedulingService.class);
 
 	/**
 	 * This method performs a scheduled refactoring on all configurations with a
-	 * delay of 1 minute. It only performs refactorings with comments.
+	 * delay of 1 minute. It only performs refactorings with comments. The
+	 * configurations are processed in parallel by the worker pool. A configuration
+	 * is not queued again while it is still queued or being processed.
 	 */
 	@Scheduled(fixedDelayString = "${scheduling.delayInMS:10000}")
 	public void performCommentRefactorings() {
@@ -47,16 +70,65 @@ public class SchedulingService {
 		Iterable<GitConfiguration> allConfigs = repo.findAll();
 		
 		for (GitConfiguration config: allConfigs) {
+			if (!pendingConfigurations.add(config.getConfigurationId())) {
+				logger.debug("Skipping configuration with the ID " + config.getConfigurationId()
+						+ " because it is still being processed.");
+				continue;
+			}
+
+			long queueTime = System.currentTimeMillis();
 			try {
-				logger.info("Starting scheduled comment refactoring with configuration with the ID: " + config.getConfigurationId());
-				refactoring.performRefactoring(config.getConfigurationId(), true);
-				logger.info("Successfully finished comment refactoring with configuration with the ID: " + config.getConfigurationId());
-			} catch (Exception e) {
-				logger.error(e.getMessage(), e);
+				schedulingExecutor.execute(() -> performCommentRefactoring(config, queueTime));
+			} catch (TaskRejectedException e) {
+				pendingConfigurations.remove(config.getConfigurationId());
+				logger.warn("Could not queue configuration with the ID " + config.getConfigurationId()
+						+ " because the scheduling queue is full.");
 			}
 		}
 		
-		
+	}
+
+	/**
+	 * This method performs the comment refactoring of a single configuration on a
+	 * worker thread.
+	 * 
+	 * @param config
+	 * @param queueTime
+	 */
+	private void performCommentRefactoring(GitConfiguration config, long queueTime) {
+		try {
+			recordQueueLag(System.currentTimeMillis() - queueTime);
+			logger.info("Starting scheduled comment refactoring with configuration with the ID: " + config.getConfigurationId());
+			refactoring.performRefactoring(config.getConfigurationId(), true);
+			logger.info("Successfully finished comment refactoring with configuration with the ID: " + config.getConfigurationId());
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		} finally {
+			pendingConfigurations.remove(config.getConfigurationId());
+		}
+	}
+
+	/**
+	 * This method records the time between queueing and processing of a
+	 * configuration.
+	 * 
+	 * @param queueLagInMS
+	 */
+	private void recordQueueLag(long queueLagInMS) {
+		Timer.builder("scheduling.queue.lag").description("Time the configurations waited in the queue")
+				.publishPercentiles(0.5, 0.95, 0.99).publishPercentileHistogram().register(registry)
+				.record(queueLagInMS, TimeUnit.MILLISECONDS);
+		if (queueLagInMS > delayInMS) {
+			logger.warn("Scheduled refactorings are lagging behind: configuration waited " + queueLagInMS
+					+ "ms in the queue.");
+		}
+	}
+
+	/**
+	 * @return amount of configurations that are queued or being processed
+	 */
+	public int getAmountOfPendingConfigurations() {
+		return pendingConfigurations.size();
 	}
 
 }
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,7 @@ public class SonarQubeObjectTranslator {
 	 */
 	public List<BotIssue> translateSonarIssue(SonarQubeIssues issues, GitConfiguration gitConfig) throws IOException {
 		List<BotIssue> botIssues = new ArrayList<>();
+		Map<String, String> ruleToOperationMapping = RefactoringOperations.getSonarQubeRuleToOperationMapping();
 
 		for (SonarIssue issue : issues.getIssues()) {
 			BotIssue botIssue = new BotIssue();
@@ -45,29 +47,16 @@ public class SonarQubeObjectTranslator {
 			botIssue.setLine(issue.getLine());
 			botIssue.setCommentServiceID(issue.getKey());
 
-			// Translate SonarQube rule
-			switch (issue.getRule()) {
-			case "squid:S1161":
-				botIssue.setRefactoringOperation(RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
-				botIssues.add(botIssue);
-				break;
-			case "squid:ModifiersOrderCheck":
-				botIssue.setRefactoringOperation(RefactoringOperations.REORDER_MODIFIER);
-				botIssues.add(botIssue);
-				break;
-			case "squid:CommentedOutCodeLine":
-				botIssue.setRefactoringOperation(RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
-				botIssues.add(botIssue);
-				break;
-			case "squid:S1172":
-				botIssue.setRefactoringOperation(RefactoringOperations.REMOVE_PARAMETER);
+			// Translate SonarQube rule, issues of other rules can not be refactored
+			String refactoringOperation = ruleToOperationMapping.get(issue.getRule());
+			if (refactoringOperation == null) {
+				continue;
+			}
+			botIssue.setRefactoringOperation(refactoringOperation);
+			if (RefactoringOperations.REMOVE_PARAMETER.equals(refactoringOperation)) {
 				botIssue.setRefactorString(getNameOfFirstUnusedParameterInIssue(issue));
-				botIssues.add(botIssue);
-				break;
-			default:
-				botIssue.setRefactoringOperation(RefactoringOperations.UNKNOWN);
-				break;
 			}
+			botIssues.add(botIssue);
 		}
 
 		return botIssues;
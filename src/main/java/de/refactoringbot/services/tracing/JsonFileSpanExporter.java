@@ -0,0 +1,51 @@
+package de.refactoringbot.services.tracing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This class writes the finished traces into the given directory. Every trace
+ * is written to a file of its own in the JSON Lines format, i.e. one span as
+ * JSON object per line, so that spans exported later are appended to the file
+ * of their trace.
+ */
+public class JsonFileSpanExporter implements SpanExporter {
+
+	private final File directory;
+	private final ObjectMapper mapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	public JsonFileSpanExporter(File directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public synchronized void export(List<Span> spans) throws IOException {
+		if (spans.isEmpty()) {
+			return;
+		}
+
+		Files.createDirectories(directory.toPath());
+		try (OutputStream out = Files.newOutputStream(getTraceFile(spans.get(0).getTraceId()).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			for (Span span : spans) {
+				mapper.writeValue(out, span);
+				out.write('\n');
+			}
+		}
+	}
+
+	/**
+	 * @param traceId
+	 * @return file of the given trace
+	 */
+	public File getTraceFile(String traceId) {
+		return new File(directory, "trace-" + traceId + ".json");
+	}
+}
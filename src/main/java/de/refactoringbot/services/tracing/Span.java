@@ -0,0 +1,136 @@
+package de.refactoringbot.services.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * This class represents a timed operation of a trace, e.g. a git fetch or the
+ * parse of a file. A span is started with {@link Tracer#startSpan(String)} and
+ * is the current span of its thread until it is closed, so that spans started
+ * in the meantime become its children.
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({ "traceId", "spanId", "parentSpanId", "name", "thread", "startTimeInMicros",
+		"durationInMicros", "attributes", "error" })
+public class Span implements AutoCloseable {
+
+	/**
+	 * Span that is returned while tracing is disabled. It records nothing.
+	 */
+	static final Span NOOP = new Span(null, null, null, null);
+
+	private final String traceId;
+	private final String spanId;
+	private final Span parent;
+	private final String name;
+	private final String thread;
+	private final long startTimeInMicros;
+	private final long startNanos;
+	private final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+	private volatile long durationInMicros = -1;
+	private volatile String error;
+
+	Span(String traceId, String spanId, Span parent, String name) {
+		this.traceId = traceId;
+		this.spanId = spanId;
+		this.parent = parent;
+		this.name = name;
+		this.thread = Thread.currentThread().getName();
+		this.startTimeInMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * This method adds an attribute to the span, e.g. the amount of parsed files
+	 * or the status of a HTTP response.
+	 *
+	 * @param key
+	 * @param value
+	 * @return span
+	 */
+	public Span setAttribute(String key, Object value) {
+		if (isRecording()) {
+			attributes.put(key, value);
+		}
+		return this;
+	}
+
+	/**
+	 * This method marks the span as failed with the given exception.
+	 *
+	 * @param exception
+	 * @return span
+	 */
+	public Span setError(Throwable exception) {
+		if (isRecording()) {
+			error = exception.getClass().getName() + ": " + exception.getMessage();
+		}
+		return this;
+	}
+
+	/**
+	 * This method ends the span and restores its parent as the current span.
+	 */
+	@Override
+	public void close() {
+		if (isRecording() && durationInMicros < 0) {
+			durationInMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+			Tracer.endSpan(this);
+		}
+	}
+
+	@JsonIgnore
+	public boolean isRecording() {
+		return traceId != null;
+	}
+
+	@JsonIgnore
+	Span getParent() {
+		return parent;
+	}
+
+	public String getTraceId() {
+		return traceId;
+	}
+
+	public String getSpanId() {
+		return spanId;
+	}
+
+	public String getParentSpanId() {
+		return parent != null ? parent.spanId : null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getThread() {
+		return thread;
+	}
+
+	public long getStartTimeInMicros() {
+		return startTimeInMicros;
+	}
+
+	public long getDurationInMicros() {
+		return durationInMicros;
+	}
+
+	public Map<String, Object> getAttributes() {
+		synchronized (attributes) {
+			return new LinkedHashMap<>(attributes);
+		}
+	}
+
+	public String getError() {
+		return error;
+	}
+}
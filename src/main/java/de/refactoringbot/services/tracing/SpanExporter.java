@@ -0,0 +1,19 @@
+package de.refactoringbot.services.tracing;
+
+import java.util.List;
+
+/**
+ * This interface describes the export of finished traces.
+ */
+public interface SpanExporter {
+
+	/**
+	 * This method exports the ended spans of a trace. Spans that are started after
+	 * all other spans of their trace were ended, e.g. by a task that was still
+	 * queued in an executor, are exported separately.
+	 *
+	 * @param spans
+	 * @throws Exception
+	 */
+	void export(List<Span> spans) throws Exception;
+}
@@ -0,0 +1,163 @@
+package de.refactoringbot.services.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class creates the spans of the traces and keeps track of the current
+ * span of every thread. It is static, so that also the refactorings, which are
+ * not managed by Spring, can trace their work. The spans of a trace are
+ * exported together once all of them are ended. Tracing is disabled as long as
+ * no exporter is set.
+ */
+public final class Tracer {
+
+	private static final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+	private static final ConcurrentMap<String, OpenTrace> openTraces = new ConcurrentHashMap<>();
+	private static volatile SpanExporter exporter;
+
+	private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+	private Tracer() {
+	}
+
+	/**
+	 * This method sets the exporter of the finished traces. Tracing is disabled if
+	 * the exporter is null.
+	 *
+	 * @param spanExporter
+	 */
+	public static void setExporter(SpanExporter spanExporter) {
+		exporter = spanExporter;
+		if (spanExporter == null) {
+			openTraces.clear();
+		}
+	}
+
+	/**
+	 * This method starts a new span, which becomes the current span of the calling
+	 * thread until it is closed. The span is a child of the current span or the
+	 * root of a new trace, if there is no current span.
+	 *
+	 * @param name
+	 * @return span
+	 */
+	public static Span startSpan(String name) {
+		if (exporter == null) {
+			return Span.NOOP;
+		}
+
+		Span parent = currentSpan.get();
+		String traceId = parent != null ? parent.getTraceId() : createId() + createId();
+		Span span = new Span(traceId, createId(), parent, name);
+		openTraces.compute(traceId, (id, trace) -> (trace != null ? trace : new OpenTrace()).startSpan());
+		currentSpan.set(span);
+		return span;
+	}
+
+	/**
+	 * This method returns the current span of the calling thread. If there is
+	 * none, a span that records nothing is returned.
+	 *
+	 * @return currentSpan
+	 */
+	public static Span currentSpan() {
+		Span span = currentSpan.get();
+		return span != null ? span : Span.NOOP;
+	}
+
+	/**
+	 * This method wraps the given task, so that it runs with the current span of
+	 * the calling thread as its current span, e.g. in the thread of an executor.
+	 *
+	 * @param task
+	 * @return wrappedTask
+	 */
+	public static Runnable wrap(Runnable task) {
+		Span parent = currentSpan.get();
+		if (parent == null) {
+			return task;
+		}
+		return () -> {
+			Span previous = currentSpan.get();
+			currentSpan.set(parent);
+			try {
+				task.run();
+			} finally {
+				restoreCurrentSpan(previous);
+			}
+		};
+	}
+
+	/**
+	 * This method ends the given span. Once all spans of its trace are ended, they
+	 * are exported.
+	 *
+	 * @param span
+	 */
+	static void endSpan(Span span) {
+		if (currentSpan.get() == span) {
+			restoreCurrentSpan(span.getParent());
+		}
+
+		List<Span> finishedTrace = new ArrayList<>();
+		openTraces.computeIfPresent(span.getTraceId(), (id, trace) -> trace.endSpan(span, finishedTrace));
+
+		SpanExporter spanExporter = exporter;
+		if (!finishedTrace.isEmpty() && spanExporter != null) {
+			try {
+				spanExporter.export(finishedTrace);
+			} catch (Exception e) {
+				logger.error("Could not export trace " + span.getTraceId() + ": " + e.getMessage(), e);
+			}
+		}
+	}
+
+	private static void restoreCurrentSpan(Span span) {
+		if (span != null) {
+			currentSpan.set(span);
+		} else {
+			currentSpan.remove();
+		}
+	}
+
+	private static String createId() {
+		return String.format("%016x", ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Ended spans of a trace, which still has open spans.
+	 */
+	private static class OpenTrace {
+
+		private final List<Span> endedSpans = new ArrayList<>();
+		private int amountOfOpenSpans;
+
+		private OpenTrace startSpan() {
+			amountOfOpenSpans++;
+			return this;
+		}
+
+		/**
+		 * @param span
+		 * @param finishedTrace
+		 *            receives all spans of the trace, if the given span was the last
+		 *            open one
+		 * @return trace or null if it is finished
+		 */
+		private OpenTrace endSpan(Span span, List<Span> finishedTrace) {
+			endedSpans.add(span);
+			if (--amountOfOpenSpans > 0) {
+				return this;
+			}
+			finishedTrace.addAll(endedSpans);
+			return null;
+		}
+	}
+}
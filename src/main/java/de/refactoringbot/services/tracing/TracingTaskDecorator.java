@@ -0,0 +1,15 @@
+package de.refactoringbot.services.tracing;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * This class propagates the current span into the tasks of an executor, so that
+ * the spans of a task belong to the trace it was submitted from.
+ */
+public class TracingTaskDecorator implements TaskDecorator {
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		return Tracer.wrap(runnable);
+	}
+}
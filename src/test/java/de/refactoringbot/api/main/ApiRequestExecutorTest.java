@@ -0,0 +1,134 @@
+package de.refactoringbot.api.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.model.exceptions.RateLimitExceededException;
+
+public class ApiRequestExecutorTest {
+
+	private static final URI API_URI = URI.create("https://api.github.com/repos/owner/repo/pulls");
+
+	private ApiRequestExecutor requestExecutor;
+	private ApiRateLimitTracker rateLimitTracker;
+	private ThreadPoolTaskExecutor executor;
+
+	@Before
+	public void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.setMaxPoolSize(4);
+		executor.initialize();
+
+		rateLimitTracker = new ApiRateLimitTracker();
+		ReflectionTestUtils.setField(rateLimitTracker, "rateLimitReserve", 10);
+		ReflectionTestUtils.setField(rateLimitTracker, "maxRateLimitWaitInMS", 100L);
+
+		requestExecutor = new ApiRequestExecutor();
+		requestExecutor.apiExecutor = executor;
+		requestExecutor.rateLimitTracker = rateLimitTracker;
+		ReflectionTestUtils.setField(requestExecutor, "maxConcurrentRequests", 4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testResultsAreInOrderOfItems() throws Exception {
+		// act
+		List<String> results = requestExecutor.executeInOrder(API_URI, "token", Arrays.asList(30, 0, 20, 10),
+				delay -> {
+					Thread.sleep(delay);
+					return "result" + delay;
+				});
+
+		// assert
+		assertThat(results).containsExactly("result30", "result0", "result20", "result10");
+	}
+
+	@Test
+	public void testRequestsAreExecutedConcurrently() throws Exception {
+		// arrange
+		CountDownLatch runningRequests = new CountDownLatch(3);
+
+		// act
+		List<Boolean> results = requestExecutor.executeInOrder(API_URI, "token", Arrays.asList(1, 2, 3), item -> {
+			runningRequests.countDown();
+			// Only succeeds if all requests run at the same time
+			return runningRequests.await(10, TimeUnit.SECONDS);
+		});
+
+		// assert
+		assertThat(results).containsExactly(true, true, true);
+	}
+
+	@Test
+	public void testExceptionOfRequestIsCause() throws Exception {
+		try {
+			// act
+			requestExecutor.executeInOrder(API_URI, "token", Arrays.asList(1, 2, 3), item -> {
+				if (item == 2) {
+					throw new IOException("Request failed");
+				}
+				return item;
+			});
+			fail("ExecutionException expected");
+		} catch (ExecutionException e) {
+			// assert
+			assertThat(e.getCause()).isInstanceOf(IOException.class).hasMessage("Request failed");
+		}
+	}
+
+	@Test
+	public void testRequestsFailFastIfRateLimitIsUsedUp() throws Exception {
+		// arrange
+		recordRateLimit(5, System.currentTimeMillis() / 1000 + 3600);
+		AtomicInteger sentRequests = new AtomicInteger();
+		List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+		long start = System.currentTimeMillis();
+
+		try {
+			// act
+			requestExecutor.executeInOrder(API_URI, "token", items, item -> sentRequests.incrementAndGet());
+			fail("ExecutionException expected");
+		} catch (ExecutionException e) {
+			// assert
+			assertThat(e.getCause()).isInstanceOf(RateLimitExceededException.class);
+		}
+		assertThat(sentRequests.get()).isZero();
+		// Waited only once for the reset of the rate limit
+		assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+	}
+
+	private void recordRateLimit(long remaining, long resetEpochSeconds) throws IOException {
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+				URI.create(API_URI + "?access_token=token"));
+		MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+		response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(remaining));
+		response.getHeaders().set("X-RateLimit-Reset", String.valueOf(resetEpochSeconds));
+		rateLimitTracker.intercept(request, new byte[0], (sentRequest, body) -> response);
+	}
+}
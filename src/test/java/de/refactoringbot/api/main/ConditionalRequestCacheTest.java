@@ -0,0 +1,160 @@
+package de.refactoringbot.api.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.net.URI;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class ConditionalRequestCacheTest {
+
+	private static final URI PULLS_URI = URI.create("https://api.github.com/repos/owner/repo/pulls");
+	private static final String ETAG = "\"abc\"";
+
+	private ConditionalRequestCache requestCache;
+	private RestTemplate rest;
+	private MockRestServiceServer server;
+
+	@Before
+	public void setUp() {
+		requestCache = new ConditionalRequestCache();
+		ReflectionTestUtils.setField(requestCache, "maxCachedResponses", 10);
+		ReflectionTestUtils.setField(requestCache, "maxCachedResponseSize", 1024);
+
+		rest = new RestTemplate();
+		server = MockRestServiceServer.bindTo(rest).build();
+		rest.getInterceptors().add(requestCache);
+	}
+
+	@Test
+	public void testNotModifiedResponseReusesParsedBody() throws Exception {
+		// arrange
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+		server.expect(requestTo(PULLS_URI)).andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON).headers(headers));
+		server.expect(requestTo(PULLS_URI)).andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		// act
+		ResponseEntity<String> firstResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		Object firstResult = requestCache.parse(firstResponse, json -> new StringBuilder(json));
+		ResponseEntity<String> secondResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		Object secondResult = requestCache.parse(secondResponse, json -> new StringBuilder(json));
+
+		// assert
+		server.verify();
+		assertThat(secondResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(secondResponse.getBody()).isEqualTo("[1]");
+		assertThat(secondResult).isSameAs(firstResult);
+	}
+
+	@Test
+	public void testModifiedResponseIsParsedAgain() throws Exception {
+		// arrange
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+		HttpHeaders newHeaders = new HttpHeaders();
+		newHeaders.setETag("\"def\"");
+		server.expect(requestTo(PULLS_URI)).andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON).headers(headers));
+		server.expect(requestTo(PULLS_URI)).andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andRespond(withSuccess("[1,2]", MediaType.APPLICATION_JSON).headers(newHeaders));
+
+		// act
+		ResponseEntity<String> firstResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		Object firstResult = requestCache.parse(firstResponse, json -> new StringBuilder(json));
+		ResponseEntity<String> secondResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		Object secondResult = requestCache.parse(secondResponse, json -> new StringBuilder(json));
+
+		// assert
+		server.verify();
+		assertThat(secondResult).isNotSameAs(firstResult);
+		assertThat(secondResult.toString()).isEqualTo("[1,2]");
+	}
+
+	@Test
+	public void testResponsesWithoutValidatorAreNotCached() throws Exception {
+		// arrange
+		server.expect(requestTo(PULLS_URI)).andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON));
+		server.expect(requestTo(PULLS_URI))
+				.andExpect(request -> assertThat(request.getHeaders().getIfNoneMatch()).isEmpty())
+				.andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON));
+
+		// act
+		ResponseEntity<String> firstResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		Object firstResult = requestCache.parse(firstResponse, json -> new StringBuilder(json));
+		ResponseEntity<String> secondResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		Object secondResult = requestCache.parse(secondResponse, json -> new StringBuilder(json));
+
+		// assert
+		server.verify();
+		assertThat(secondResult).isNotSameAs(firstResult);
+	}
+
+	@Test
+	public void testOversizedResponseIsNotMistakenForCachedResponse() throws Exception {
+		// arrange
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+		HttpHeaders newHeaders = new HttpHeaders();
+		newHeaders.setETag("\"def\"");
+		String oversizedBody = "[" + String.join(",", Collections.nCopies(1024, "2")) + "]";
+		server.expect(requestTo(PULLS_URI)).andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON).headers(headers));
+		server.expect(requestTo(PULLS_URI)).andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+		server.expect(requestTo(PULLS_URI)).andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andRespond(withSuccess(oversizedBody, MediaType.APPLICATION_JSON).headers(newHeaders));
+		server.expect(requestTo(PULLS_URI))
+				.andExpect(request -> assertThat(request.getHeaders().getIfNoneMatch()).isEmpty())
+				.andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON));
+		requestCache.parse(rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class), json -> json);
+		requestCache.parse(rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class), json -> json);
+
+		// act
+		ResponseEntity<String> oversizedResponse = rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+		String result = requestCache.parse(oversizedResponse, json -> json);
+		rest.exchange(PULLS_URI, HttpMethod.GET, null, String.class);
+
+		// assert
+		server.verify();
+		assertThat(oversizedResponse.getHeaders().getContentLength()).isEqualTo(-1);
+		assertThat(result).isEqualTo(oversizedBody);
+	}
+
+	@Test
+	public void testResponsesAreCachedPerTokenWithoutToken() throws Exception {
+		// arrange
+		URI firstTokenUri = URI.create(PULLS_URI + "?state=open&access_token=first");
+		URI secondTokenUri = URI.create(PULLS_URI + "?state=open&access_token=second");
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+		server.expect(requestTo(firstTokenUri))
+				.andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON).headers(headers));
+		server.expect(requestTo(secondTokenUri))
+				.andExpect(request -> assertThat(request.getHeaders().getIfNoneMatch()).isEmpty())
+				.andRespond(withSuccess("[1]", MediaType.APPLICATION_JSON).headers(headers));
+
+		// act
+		ResponseEntity<String> firstResponse = rest.exchange(firstTokenUri, HttpMethod.GET, null, String.class);
+		ResponseEntity<String> secondResponse = rest.exchange(secondTokenUri, HttpMethod.GET, null, String.class);
+
+		// assert
+		server.verify();
+		String firstKey = firstResponse.getHeaders().getFirst("X-Refactoring-Bot-Cache-Key");
+		String secondKey = secondResponse.getHeaders().getFirst("X-Refactoring-Bot-Cache-Key");
+		assertThat(firstKey).startsWith(PULLS_URI + "?state=open#").doesNotContain("first");
+		assertThat(secondKey).isNotEqualTo(firstKey).doesNotContain("second");
+	}
+}
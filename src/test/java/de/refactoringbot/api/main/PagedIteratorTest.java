@@ -0,0 +1,122 @@
+package de.refactoringbot.api.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import de.refactoringbot.model.exceptions.PaginationException;
+
+public class PagedIteratorTest {
+
+	private static final String PULLS_URI = "https://api.github.com/repos/owner/repo/pulls";
+	private static final URI FIRST_PAGE_URI = URI.create(PULLS_URI + "?page=1");
+
+	private ThreadPoolTaskExecutor executor;
+
+	@Before
+	public void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.initialize();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testAllPagesAreReturnedInOrder() {
+		// act
+		PagedIterator<String> pages = new PagedIterator<>(FIRST_PAGE_URI, this::getPage, executor);
+		List<String> contents = new ArrayList<>();
+		while (pages.hasNext()) {
+			contents.add(pages.next());
+		}
+
+		// assert
+		assertThat(contents).containsExactly("page1", "page2", "page3");
+	}
+
+	@Test
+	public void testPagesAreFetchedInCallingThreadWithoutExecutor() {
+		// act
+		PagedIterator<String> pages = new PagedIterator<>(FIRST_PAGE_URI, this::getPage, null);
+		List<String> contents = new ArrayList<>();
+		pages.forEachRemaining(contents::add);
+
+		// assert
+		assertThat(contents).containsExactly("page1", "page2", "page3");
+	}
+
+	@Test
+	public void testOnlyNextPageIsFetchedInAdvance() throws Exception {
+		// arrange
+		AtomicInteger fetchedPages = new AtomicInteger();
+
+		// act
+		PagedIterator<String> pages = new PagedIterator<>(FIRST_PAGE_URI, pageUri -> {
+			fetchedPages.incrementAndGet();
+			return getPage(pageUri);
+		}, null);
+		pages.next();
+
+		// assert
+		assertThat(fetchedPages.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void testFailedPageIsThrownAsPaginationException() {
+		// arrange
+		IOException requestException = new IOException("Page 2 not available");
+		PagedIterator<String> pages = new PagedIterator<>(FIRST_PAGE_URI, pageUri -> {
+			if (pageUri.getQuery().equals("page=2")) {
+				throw requestException;
+			}
+			return getPage(pageUri);
+		}, executor);
+		pages.next();
+
+		// act
+		try {
+			pages.next();
+			fail("Expected PaginationException");
+		} catch (PaginationException e) {
+			// assert
+			assertThat(e.getRequestException()).isSameAs(requestException);
+		}
+		assertThat(pages.hasNext()).isFalse();
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNextAfterLastPageFails() {
+		// arrange
+		PagedIterator<String> pages = new PagedIterator<>(FIRST_PAGE_URI, this::getPage, null);
+		pages.forEachRemaining(page -> {
+		});
+
+		// act
+		pages.next();
+	}
+
+	/**
+	 * Returns three pages with the page number as content.
+	 */
+	private PagedIterator.Page<String> getPage(URI pageUri) {
+		int pageNumber = Integer.parseInt(pageUri.getQuery().substring("page=".length()));
+		URI nextPageUri = pageNumber < 3 ? URI.create(PULLS_URI + "?page=" + (pageNumber + 1)) : null;
+		return new PagedIterator.Page<>("page" + pageNumber, nextPageUri);
+	}
+}
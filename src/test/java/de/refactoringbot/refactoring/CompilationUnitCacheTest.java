@@ -0,0 +1,116 @@
+package de.refactoringbot.refactoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.javaparser.ast.CompilationUnit;
+
+public class CompilationUnitCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Rule
+	public final ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void testUnchangedFileIsParsedOnce() throws IOException {
+		// arrange
+		CompilationUnitCache cache = new CompilationUnitCache();
+		File file = createJavaFile("TestClass.java", "public class TestClass {}");
+
+		// act
+		CompilationUnit first = cache.getCompilationUnit(file.getAbsolutePath());
+		CompilationUnit second = cache.getCompilationUnit(file.getAbsolutePath());
+
+		// assert
+		assertThat(second).isSameAs(first);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testChangedFileIsParsedAgain() throws IOException {
+		// arrange
+		CompilationUnitCache cache = new CompilationUnitCache();
+		File file = createJavaFile("TestClass.java", "public class TestClass {}");
+		CompilationUnit original = cache.getCompilationUnit(file.getAbsolutePath());
+
+		// act
+		FileUtils.writeStringToFile(file, "public class TestClass { void method() {} }", StandardCharsets.UTF_8);
+		CompilationUnit changed = cache.getCompilationUnit(file.getAbsolutePath());
+
+		// assert
+		assertThat(changed).isNotSameAs(original);
+		assertThat(changed.getClassByName("TestClass").get().getMethods()).hasSize(1);
+	}
+
+	@Test
+	public void testInvalidate() throws IOException {
+		// arrange
+		CompilationUnitCache cache = new CompilationUnitCache();
+		File file = createJavaFile("TestClass.java", "public class TestClass {}");
+		CompilationUnit original = cache.getCompilationUnit(file.getAbsolutePath());
+
+		// act
+		cache.invalidate(file.getAbsolutePath());
+
+		// assert
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.getCompilationUnit(file.getAbsolutePath())).isNotSameAs(original);
+	}
+
+	@Test
+	public void testInvalidateDirectory() throws IOException {
+		// arrange
+		CompilationUnitCache cache = new CompilationUnitCache();
+		File file1 = createJavaFile("TestClass1.java", "public class TestClass1 {}");
+		File file2 = createJavaFile("TestClass2.java", "public class TestClass2 {}");
+		cache.getCompilationUnit(file1.getAbsolutePath());
+		cache.getCompilationUnit(file2.getAbsolutePath());
+
+		// act
+		cache.invalidateDirectory(folder.getRoot().getAbsolutePath());
+
+		// assert
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedUnitIsEvicted() throws IOException {
+		// arrange
+		String content = "public class TestClass {}";
+		CompilationUnitCache cache = new CompilationUnitCache(content.length() + 2);
+		File file1 = createJavaFile("TestClass1.java", content);
+		File file2 = createJavaFile("TestClass2.java", content);
+
+		// act
+		CompilationUnit first = cache.getCompilationUnit(file1.getAbsolutePath());
+		cache.getCompilationUnit(file2.getAbsolutePath());
+
+		// assert
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.getCompilationUnit(file1.getAbsolutePath())).isNotSameAs(first);
+	}
+
+	@Test
+	public void testMissingFile() throws FileNotFoundException {
+		exception.expect(FileNotFoundException.class);
+		new CompilationUnitCache().getCompilationUnit(new File(folder.getRoot(), "Missing.java").getAbsolutePath());
+	}
+
+	private File createJavaFile(String name, String content) throws IOException {
+		File file = folder.newFile(name);
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+}
@@ -0,0 +1,85 @@
+package de.refactoringbot.refactoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.ClassUtils;
+
+import de.refactoringbot.resources.renamemethod.TestDataClassRenameMethod;
+import de.refactoringbot.resources.renamemethod.TestDataClassWithCallOfTargetMethod;
+import de.refactoringbot.resources.renamemethod.TestDataSuperClassRenameMethod;
+import de.refactoringbot.testutils.TestUtils;
+
+public class MethodCallIndexTest {
+
+	private static final String TARGET_METHOD_NAME = "getLineOfMethodToBeRenamed";
+
+	private List<String> allJavaFiles;
+
+	@Before
+	public void setUp() throws IOException {
+		allJavaFiles = new ArrayList<>();
+		allJavaFiles.add(getCanonicalPath(TestDataClassRenameMethod.class));
+		allJavaFiles.add(getCanonicalPath(TestDataClassWithCallOfTargetMethod.class));
+		allJavaFiles.add(getCanonicalPath(TestDataSuperClassRenameMethod.class));
+	}
+
+	@Test
+	public void testGetFilesCallingMethod() throws IOException {
+		// arrange
+		MethodCallIndex index = new MethodCallIndex();
+
+		// act
+		index.update(allJavaFiles);
+
+		// assert
+		assertThat(index.getFilesCallingMethod(TARGET_METHOD_NAME, 1, 1)).containsExactlyInAnyOrder(
+				getCanonicalPath(TestDataClassRenameMethod.class),
+				getCanonicalPath(TestDataClassWithCallOfTargetMethod.class));
+		assertThat(index.getFilesCallingMethod(TARGET_METHOD_NAME, 0, 0))
+				.containsExactly(getCanonicalPath(TestDataClassRenameMethod.class));
+		assertThat(index.getFilesCallingMethod(TARGET_METHOD_NAME, 2, Integer.MAX_VALUE)).isEmpty();
+		assertThat(index.getFilesCallingMethod("notCalledAnywhere", 0, Integer.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	public void testGetLinesOfMethodCalls() throws IOException {
+		// arrange
+		MethodCallIndex index = new MethodCallIndex();
+
+		// act
+		index.update(allJavaFiles);
+
+		// assert
+		assertThat(index.getLinesOfMethodCalls(getCanonicalPath(TestDataClassWithCallOfTargetMethod.class),
+				TARGET_METHOD_NAME, 1)).containsExactly(6);
+		assertThat(index.getLinesOfMethodCalls(getCanonicalPath(TestDataSuperClassRenameMethod.class),
+				TARGET_METHOD_NAME, 1)).isEmpty();
+	}
+
+	@Test
+	public void testUpdateRemovesDeletedFiles() throws IOException {
+		// arrange
+		MethodCallIndex index = new MethodCallIndex();
+		index.update(allJavaFiles);
+		allJavaFiles.remove(getCanonicalPath(TestDataClassWithCallOfTargetMethod.class));
+
+		// act
+		index.update(allJavaFiles);
+
+		// assert
+		assertThat(index.getFilesCallingMethod(TARGET_METHOD_NAME, 1, 1))
+				.containsExactly(getCanonicalPath(TestDataClassRenameMethod.class));
+	}
+
+	private String getCanonicalPath(Class<?> clazz) throws IOException {
+		return new File(TestUtils.TEST_FOLDER_PATH + ClassUtils.convertClassNameToResourcePath(clazz.getName())
+				+ ".java").getCanonicalPath();
+	}
+}
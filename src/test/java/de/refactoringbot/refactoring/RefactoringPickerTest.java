@@ -0,0 +1,98 @@
+package de.refactoringbot.refactoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+public class RefactoringPickerTest {
+
+	private static final String TEST_CLASS = "public class TestClass {\n" //
+			+ "\tstatic public void first() {}\n" //
+			+ "\tfinal public void second() {}\n" //
+			+ "\tpublic void third() {}\n" //
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private RefactoringPicker picker;
+	private GitConfiguration gitConfig;
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		picker = new RefactoringPicker();
+		picker.operations = new RefactoringOperations();
+
+		gitConfig = new GitConfiguration();
+		gitConfig.setRepoFolder(folder.getRoot().getAbsolutePath());
+
+		file = folder.newFile("TestClass.java");
+		FileUtils.writeStringToFile(file, TEST_CLASS, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testIssuesOfFileAreRefactoredTogether() throws IOException {
+		// arrange
+		BotIssue first = createIssue(RefactoringOperations.REORDER_MODIFIER, 2);
+		BotIssue second = createIssue(RefactoringOperations.REORDER_MODIFIER, 3);
+
+		// act
+		int amountOfRefactoredIssues = picker.pickAndRefactorBatch(Arrays.asList(first, second), gitConfig);
+
+		// assert
+		assertThat(amountOfRefactoredIssues).isEqualTo(2);
+		assertThat(first.getCommitMessage()).isNotNull();
+		assertThat(second.getCommitMessage()).isNotNull();
+		String content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+		assertThat(content).contains("public static void first()").contains("public final void second()");
+	}
+
+	@Test
+	public void testFailedIssueDoesNotAffectOtherIssuesOfFile() throws IOException {
+		// arrange
+		BotIssue first = createIssue(RefactoringOperations.REORDER_MODIFIER, 2);
+		BotIssue failing = createIssue(RefactoringOperations.REORDER_MODIFIER, 4);
+		BotIssue third = createIssue(RefactoringOperations.ADD_OVERRIDE_ANNOTATION, 3);
+
+		// act
+		int amountOfRefactoredIssues = picker.pickAndRefactorBatch(Arrays.asList(first, failing, third), gitConfig);
+
+		// assert
+		assertThat(amountOfRefactoredIssues).isEqualTo(2);
+		assertThat(failing.getCommitMessage()).isNull();
+		assertThat(failing.getErrorMessage()).isNotNull();
+		String content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+		assertThat(content).contains("public static void first()").contains("@Override")
+				.contains("public void third()");
+	}
+
+	@Test
+	public void testOnlySingleFileRefactoringsAreBatchRefactorings() {
+		assertThat(picker.isBatchRefactoring(RefactoringOperations.REORDER_MODIFIER)).isTrue();
+		assertThat(picker.isBatchRefactoring(RefactoringOperations.ADD_OVERRIDE_ANNOTATION)).isTrue();
+		assertThat(picker.isBatchRefactoring(RefactoringOperations.REMOVE_COMMENTED_OUT_CODE)).isTrue();
+		assertThat(picker.isBatchRefactoring(RefactoringOperations.RENAME_METHOD)).isFalse();
+		assertThat(picker.isBatchRefactoring(RefactoringOperations.REMOVE_PARAMETER)).isFalse();
+	}
+
+	private BotIssue createIssue(String refactoringOperation, int line) {
+		BotIssue issue = new BotIssue();
+		issue.setRefactoringOperation(refactoringOperation);
+		issue.setFilePath("TestClass.java");
+		issue.setLine(line);
+		return issue;
+	}
+}
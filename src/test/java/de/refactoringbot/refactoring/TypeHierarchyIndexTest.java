@@ -0,0 +1,131 @@
+package de.refactoringbot.refactoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.ClassUtils;
+
+import com.github.javaparser.resolution.SymbolResolver;
+
+import de.refactoringbot.resources.renamemethod.TestDataClassRenameMethod;
+import de.refactoringbot.resources.renamemethod.TestDataInterfaceRenameMethod;
+import de.refactoringbot.resources.renamemethod.TestDataSiblingClassRenameMethod;
+import de.refactoringbot.resources.renamemethod.TestDataSubClassRenameMethod;
+import de.refactoringbot.resources.renamemethod.TestDataSuperClassRenameMethod;
+import de.refactoringbot.testutils.TestUtils;
+
+public class TypeHierarchyIndexTest {
+
+	private static final String INNER_CLASS_NAME = TestDataClassRenameMethod.class.getName()
+			+ ".TestDataInnerClassWithInterfaceImpl";
+
+	private List<String> allJavaFiles;
+	private SymbolResolver symbolResolver;
+
+	@Before
+	public void setUp() throws IOException {
+		symbolResolver = new WorkspaceSymbolSolver(
+				Collections.singletonList(TestUtils.getAbsolutePathOfTestsFolder())).createSymbolResolver();
+
+		allJavaFiles = new ArrayList<>();
+		allJavaFiles.add(getCanonicalPath(TestDataClassRenameMethod.class));
+		allJavaFiles.add(getCanonicalPath(TestDataInterfaceRenameMethod.class));
+		allJavaFiles.add(getCanonicalPath(TestDataSiblingClassRenameMethod.class));
+		allJavaFiles.add(getCanonicalPath(TestDataSubClassRenameMethod.class));
+		allJavaFiles.add(getCanonicalPath(TestDataSuperClassRenameMethod.class));
+	}
+
+	@Test
+	public void testGetDirectSubtypes() throws IOException {
+		// arrange
+		TypeHierarchyIndex index = new TypeHierarchyIndex();
+
+		// act
+		index.update(allJavaFiles, symbolResolver);
+
+		// assert
+		assertThat(index.getDirectSubtypes(TestDataSuperClassRenameMethod.class.getName())).containsExactlyInAnyOrder(
+				TestDataClassRenameMethod.class.getName(), TestDataSiblingClassRenameMethod.class.getName());
+		assertThat(index.getDirectSubtypes(TestDataInterfaceRenameMethod.class.getName()))
+				.containsExactlyInAnyOrder(TestDataClassRenameMethod.class.getName(), INNER_CLASS_NAME);
+		assertThat(index.getDirectSubtypes(TestDataSubClassRenameMethod.class.getName())).isEmpty();
+		assertThat(index.getDirectSubtypes(Object.class.getName())).isEmpty();
+	}
+
+	@Test
+	public void testGetDeclaringFile() throws IOException {
+		// arrange
+		TypeHierarchyIndex index = new TypeHierarchyIndex();
+
+		// act
+		index.update(allJavaFiles, symbolResolver);
+
+		// assert
+		assertThat(index.getDeclaringFile(INNER_CLASS_NAME))
+				.isEqualTo(getCanonicalPath(TestDataClassRenameMethod.class));
+		assertThat(index.getDeclaringFile("not.indexed.Type")).isNull();
+	}
+
+	@Test
+	public void testFindDeclaringFiles() throws IOException {
+		// arrange
+		TypeHierarchyIndex index = new TypeHierarchyIndex();
+		index.update(allJavaFiles, symbolResolver);
+		Set<String> relatedTypes = new HashSet<>(Arrays.asList(TestDataSubClassRenameMethod.class.getName(),
+				INNER_CLASS_NAME, Object.class.getName()));
+
+		// act
+		List<String> declaringFiles = RefactoringHelper.findDeclaringFiles(index, allJavaFiles, relatedTypes);
+
+		// assert
+		assertThat(declaringFiles).containsExactly(getCanonicalPath(TestDataClassRenameMethod.class),
+				getCanonicalPath(TestDataSubClassRenameMethod.class));
+	}
+
+	@Test
+	public void testUpdateRemovesDeletedFiles() throws IOException {
+		// arrange
+		TypeHierarchyIndex index = new TypeHierarchyIndex();
+		index.update(allJavaFiles, symbolResolver);
+		allJavaFiles.remove(getCanonicalPath(TestDataSubClassRenameMethod.class));
+
+		// act
+		index.update(allJavaFiles, symbolResolver);
+
+		// assert
+		assertThat(index.getDirectSubtypes(TestDataClassRenameMethod.class.getName())).isEmpty();
+		assertThat(index.getDeclaringFile(TestDataSubClassRenameMethod.class.getName())).isNull();
+	}
+
+	@Test
+	public void testUpdateIndexesChangedFiles() throws IOException {
+		// arrange
+		TypeHierarchyIndex index = new TypeHierarchyIndex();
+		index.update(allJavaFiles, symbolResolver);
+		index.markFilesAsChanged(Collections.singletonList(getCanonicalPath(TestDataSubClassRenameMethod.class)));
+		assertThat(index.hasChangedFiles()).isTrue();
+
+		// act
+		index.update(allJavaFiles, symbolResolver);
+
+		// assert
+		assertThat(index.hasChangedFiles()).isFalse();
+		assertThat(index.getDirectSubtypes(TestDataClassRenameMethod.class.getName()))
+				.containsExactly(TestDataSubClassRenameMethod.class.getName());
+	}
+
+	private String getCanonicalPath(Class<?> clazz) throws IOException {
+		return new File(TestUtils.TEST_FOLDER_PATH + ClassUtils.convertClassNameToResourcePath(clazz.getName())
+				+ ".java").getCanonicalPath();
+	}
+}
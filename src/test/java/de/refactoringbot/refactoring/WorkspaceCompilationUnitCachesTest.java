@@ -0,0 +1,69 @@
+package de.refactoringbot.refactoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.javaparser.ast.CompilationUnit;
+
+public class WorkspaceCompilationUnitCachesTest {
+
+	private static final String CONTENT = "public class TestClass {}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWorkspacesDoNotEvictEachOther() throws IOException {
+		// arrange
+		WorkspaceCompilationUnitCaches caches = new WorkspaceCompilationUnitCaches(CONTENT.length() + 2);
+		File file1 = createJavaFile(createWorkspace("workspace1"), "TestClass.java");
+		File file2 = createJavaFile(createWorkspace("workspace2"), "TestClass.java");
+
+		// act
+		CompilationUnit first = caches.getCompilationUnit(file1.getAbsolutePath(), null);
+		CompilationUnit second = caches.getCompilationUnit(file2.getAbsolutePath(), null);
+
+		// assert
+		assertThat(caches.size()).isEqualTo(2);
+		assertThat(caches.getCompilationUnit(file1.getAbsolutePath(), null)).isSameAs(first);
+		assertThat(caches.getCompilationUnit(file2.getAbsolutePath(), null)).isSameAs(second);
+	}
+
+	@Test
+	public void testInvalidateDirectoryOfWorkspace() throws IOException {
+		// arrange
+		WorkspaceCompilationUnitCaches caches = new WorkspaceCompilationUnitCaches();
+		File workspace1 = createWorkspace("workspace1");
+		File file1 = createJavaFile(workspace1, "TestClass.java");
+		File file2 = createJavaFile(createWorkspace("workspace2"), "TestClass.java");
+		caches.getCompilationUnit(file1.getAbsolutePath(), null);
+		CompilationUnit second = caches.getCompilationUnit(file2.getAbsolutePath(), null);
+
+		// act
+		caches.invalidateDirectory(workspace1.getAbsolutePath());
+
+		// assert
+		assertThat(caches.size()).isEqualTo(1);
+		assertThat(caches.getCompilationUnit(file2.getAbsolutePath(), null)).isSameAs(second);
+	}
+
+	private File createWorkspace(String name) throws IOException {
+		File workspace = folder.newFolder(name);
+		new File(workspace, ".git").mkdir();
+		return workspace;
+	}
+
+	private File createJavaFile(File workspace, String name) throws IOException {
+		File file = new File(workspace, "src/" + name);
+		FileUtils.writeStringToFile(file, CONTENT, StandardCharsets.UTF_8);
+		return file;
+	}
+}
@@ -0,0 +1,82 @@
+package de.refactoringbot.refactoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.ClassUtils;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+
+import de.refactoringbot.resources.renamemethod.TestDataClassRenameMethod;
+import de.refactoringbot.resources.renamemethod.TestDataSubClassRenameMethod;
+import de.refactoringbot.testutils.TestUtils;
+
+public class WorkspaceTypeSolverTest {
+
+	private WorkspaceTypeSolver typeSolver;
+
+	@Before
+	public void setUp() {
+		typeSolver = new WorkspaceTypeSolver(TestUtils.getAbsolutePathOfTestsFolder());
+	}
+
+	@Test
+	public void testTryToSolveType() {
+		// act
+		SymbolReference<ResolvedReferenceTypeDeclaration> type = typeSolver
+				.tryToSolveType(TestDataClassRenameMethod.class.getName());
+		SymbolReference<ResolvedReferenceTypeDeclaration> innerType = typeSolver
+				.tryToSolveType(TestDataClassRenameMethod.class.getName() + ".TestDataInnerClassWithInterfaceImpl");
+		SymbolReference<ResolvedReferenceTypeDeclaration> unknownType = typeSolver
+				.tryToSolveType("not.existing.Type");
+
+		// assert
+		assertThat(type.isSolved()).isTrue();
+		assertThat(type.getCorrespondingDeclaration().getQualifiedName())
+				.isEqualTo(TestDataClassRenameMethod.class.getName());
+		assertThat(innerType.isSolved()).isTrue();
+		assertThat(unknownType.isSolved()).isFalse();
+	}
+
+	@Test
+	public void testTryToSolveTypeReusesParsedFiles() {
+		// arrange
+		typeSolver.tryToSolveType(TestDataClassRenameMethod.class.getName());
+		int amountOfParsedFiles = typeSolver.getAmountOfParsedFiles();
+
+		// act
+		SymbolReference<ResolvedReferenceTypeDeclaration> type = typeSolver
+				.tryToSolveType(TestDataClassRenameMethod.class.getName());
+
+		// assert
+		assertThat(type.isSolved()).isTrue();
+		assertThat(typeSolver.getAmountOfParsedFiles()).isEqualTo(amountOfParsedFiles);
+	}
+
+	@Test
+	public void testInvalidateFiles() throws IOException {
+		// arrange
+		typeSolver.tryToSolveType(TestDataClassRenameMethod.class.getName());
+		typeSolver.tryToSolveType(TestDataSubClassRenameMethod.class.getName());
+		int amountOfParsedFiles = typeSolver.getAmountOfParsedFiles();
+
+		// act
+		typeSolver.invalidateFiles(Collections.singletonList(getCanonicalPath(TestDataSubClassRenameMethod.class)));
+
+		// assert
+		assertThat(typeSolver.getAmountOfParsedFiles()).isEqualTo(amountOfParsedFiles - 1);
+		assertThat(typeSolver.tryToSolveType(TestDataSubClassRenameMethod.class.getName()).isSolved()).isTrue();
+		assertThat(typeSolver.getAmountOfParsedFiles()).isEqualTo(amountOfParsedFiles);
+	}
+
+	private String getCanonicalPath(Class<?> clazz) throws IOException {
+		return new File(TestUtils.TEST_FOLDER_PATH + ClassUtils.convertClassNameToResourcePath(clazz.getName())
+				+ ".java").getCanonicalPath();
+	}
+}
@@ -0,0 +1,126 @@
+package de.refactoringbot.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.configuration.FileHoster;
+import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+import de.refactoringbot.model.refactoredissue.RefactoredIssueFilter;
+import de.refactoringbot.services.main.RefactoredIssuesService;
+
+public class RefactoredIssuesControllerTest {
+
+	private MockMvc mockMvc;
+	private RefactoredIssuesService issuesService;
+
+	@Before
+	public void setUp() {
+		issuesService = mock(RefactoredIssuesService.class);
+
+		RefactoredIssuesController controller = new RefactoredIssuesController();
+		controller.issuesService = issuesService;
+		controller.mapper = new ObjectMapper();
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	public void testFullPageReturnsNextCursor() throws Exception {
+		// arrange
+		when(issuesService.getIssues(any(RefactoredIssueFilter.class), eq(10L), eq(2)))
+				.thenReturn(Arrays.asList(createIssue(11L), createIssue(12L)));
+
+		// act
+		mockMvc.perform(get("/refactored-issues").param("repoService", "github").param("ownerName", "owner")
+				.param("status", "FAILED").param("from", "2018-11-01").param("cursor", "10").param("limit", "2")
+				.accept("application/json"))
+
+				// assert
+				.andExpect(status().isOk()).andExpect(header().string("X-Next-Cursor", "12"));
+		ArgumentCaptor<RefactoredIssueFilter> filter = ArgumentCaptor.forClass(RefactoredIssueFilter.class);
+		verify(issuesService).getIssues(filter.capture(), eq(10L), eq(2));
+		assertThat(filter.getValue().getRepoService()).isEqualTo(FileHoster.github);
+		assertThat(filter.getValue().getOwnerName()).isEqualTo("owner");
+		assertThat(filter.getValue().getStatus()).isEqualTo("FAILED");
+		assertThat(filter.getValue().getFrom()).isEqualTo("2018-11-01");
+		assertThat(filter.getValue().getTo()).isNull();
+	}
+
+	@Test
+	public void testLastPageReturnsNoCursor() throws Exception {
+		// arrange
+		when(issuesService.getIssues(any(RefactoredIssueFilter.class), eq(null), eq(100)))
+				.thenReturn(Collections.singletonList(createIssue(1L)));
+
+		// act
+		mockMvc.perform(get("/refactored-issues").accept("application/json"))
+
+				// assert
+				.andExpect(status().isOk()).andExpect(header().doesNotExist("X-Next-Cursor"));
+	}
+
+	@Test
+	public void testInvalidLimitIsRejected() throws Exception {
+		// act
+		mockMvc.perform(get("/refactored-issues").param("limit", "0").accept("application/json"))
+
+				// assert
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testIssuesAreStreamedAsNewlineDelimitedJson() throws Exception {
+		// arrange
+		doAnswer(invocation -> {
+			Consumer<RefactoredIssue> consumer = invocation.getArgument(1);
+			consumer.accept(createIssue(1L));
+			consumer.accept(createIssue(2L));
+			return null;
+		}).when(issuesService).streamIssues(any(RefactoredIssueFilter.class), any(Consumer.class));
+
+		// act
+		MvcResult result = mockMvc.perform(get("/refactored-issues").accept("application/x-ndjson"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		// assert
+		String body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson")).andReturn().getResponse()
+				.getContentAsString();
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(new ObjectMapper().readTree(lines[0]).get("commentServiceID").asText()).isEqualTo("comment-1");
+		assertThat(new ObjectMapper().readTree(lines[1]).get("commentServiceID").asText()).isEqualTo("comment-2");
+	}
+
+	private RefactoredIssue createIssue(Long issueId) {
+		RefactoredIssue issue = new RefactoredIssue();
+		ReflectionTestUtils.setField(issue, "issueId", issueId);
+		issue.setCommentServiceID("comment-" + issueId);
+		return issue;
+	}
+}
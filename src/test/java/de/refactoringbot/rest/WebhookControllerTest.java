@@ -0,0 +1,151 @@
+package de.refactoringbot.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.modelmapper.ModelMapper;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.FileHoster;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.services.github.GithubObjectTranslator;
+import de.refactoringbot.services.main.GitService;
+import de.refactoringbot.services.main.RefactoringService;
+import de.refactoringbot.services.main.WebhookService;
+
+public class WebhookControllerTest {
+
+	private static final String SECRET = "webhook-secret";
+	private static final Long CONFIG_ID = 1L;
+
+	private static final String REVIEW_COMMENT_PAYLOAD = "{\"action\":\"created\","
+			+ "\"comment\":{\"id\":42,\"path\":\"src/main/java/Foo.java\",\"body\":\"@bot rename method to bar\","
+			+ "\"diff_hunk\":\"@@ -1,2 +1,2 @@\\n line\\n+changed\",\"user\":{\"login\":\"reviewer\"}},"
+			+ "\"pull_request\":{\"number\":7,\"title\":\"Refactoring\",\"user\":{\"login\":\"bot\"},"
+			+ "\"head\":{\"ref\":\"refactoring\",\"user\":{\"login\":\"bot\"}},"
+			+ "\"base\":{\"ref\":\"master\",\"repo\":{\"full_name\":\"owner/repo\"}}}}";
+
+	private MockMvc mockMvc;
+	private RefactoringService refactoringService;
+
+	@Before
+	public void setUp() {
+		BotConfiguration botConfig = new BotConfiguration();
+		botConfig.setWebhookSecret(SECRET);
+
+		GitConfiguration config = new GitConfiguration();
+		ReflectionTestUtils.setField(config, "configurationId", CONFIG_ID);
+		config.setRepoService(FileHoster.github);
+		ConfigurationRepository configRepo = mock(ConfigurationRepository.class);
+		when(configRepo.getByID(CONFIG_ID)).thenReturn(Optional.of(config));
+
+		refactoringService = mock(RefactoringService.class);
+
+		WebhookService webhookService = new WebhookService();
+		ReflectionTestUtils.setField(webhookService, "botConfig", botConfig);
+		ReflectionTestUtils.setField(webhookService, "configRepo", configRepo);
+		ReflectionTestUtils.setField(webhookService, "refactoringService", refactoringService);
+		ReflectionTestUtils.setField(webhookService, "githubTranslator",
+				new GithubObjectTranslator(null, new ModelMapper(), new GitService(), null));
+		ReflectionTestUtils.setField(webhookService, "schedulingExecutor", new SyncTaskExecutor());
+
+		WebhookController controller = new WebhookController();
+		controller.webhookService = webhookService;
+		controller.mapper = new ObjectMapper();
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	public void testReviewCommentIsQueued() throws Exception {
+		// act
+		sendGithubEvent("pull_request_review_comment", REVIEW_COMMENT_PAYLOAD, sign(REVIEW_COMMENT_PAYLOAD, SECRET),
+				202);
+
+		// assert
+		ArgumentCaptor<BotPullRequest> request = ArgumentCaptor.forClass(BotPullRequest.class);
+		verify(refactoringService).performCommentRefactoring(eq(CONFIG_ID), request.capture());
+		assertThat(request.getValue().getRequestNumber()).isEqualTo(7);
+		assertThat(request.getValue().getCreatorName()).isEqualTo("bot");
+		assertThat(request.getValue().getAllComments()).hasSize(1);
+		assertThat(request.getValue().getAllComments().get(0).getCommentID()).isEqualTo(42);
+		assertThat(request.getValue().getAllComments().get(0).getCommentBody()).isEqualTo("@bot rename method to bar");
+	}
+
+	@Test
+	public void testInvalidSignatureIsRejected() throws Exception {
+		// act
+		sendGithubEvent("pull_request_review_comment", REVIEW_COMMENT_PAYLOAD,
+				sign(REVIEW_COMMENT_PAYLOAD, "wrong-secret"), 401);
+		sendGithubEvent("pull_request_review_comment", REVIEW_COMMENT_PAYLOAD, null, 401);
+
+		// assert
+		verify(refactoringService, never()).performCommentRefactoring(any(), any());
+	}
+
+	@Test
+	public void testOtherEventsAreIgnored() throws Exception {
+		// act
+		sendGithubEvent("ping", "{}", sign("{}", SECRET), 200);
+		String editedPayload = REVIEW_COMMENT_PAYLOAD.replace("\"created\"", "\"edited\"");
+		sendGithubEvent("pull_request_review_comment", editedPayload, sign(editedPayload, SECRET), 200);
+
+		// assert
+		verify(refactoringService, never()).performCommentRefactoring(any(), any());
+	}
+
+	@Test
+	public void testInvalidGitlabTokenIsRejected() throws Exception {
+		mockMvc.perform(post("/configurations/" + CONFIG_ID + "/webhooks/gitlab")
+				.contentType(MediaType.APPLICATION_JSON).header("X-Gitlab-Token", "wrong-secret").content("{}"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	/**
+	 * Sends the given payload like a GitHub webhook.
+	 */
+	private void sendGithubEvent(String eventType, String payload, String signature, int expectedStatus)
+			throws Exception {
+		MockHttpServletRequestBuilder request = post("/configurations/" + CONFIG_ID + "/webhooks/github")
+				.contentType(MediaType.APPLICATION_JSON).header("X-GitHub-Event", eventType).content(payload);
+		if (signature != null) {
+			request.header("X-Hub-Signature-256", signature);
+		}
+		mockMvc.perform(request).andExpect(status().is(expectedStatus));
+	}
+
+	private String sign(String payload, String secret) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		StringBuilder signature = new StringBuilder("sha256=");
+		for (byte b : mac.doFinal(payload.getBytes(StandardCharsets.UTF_8))) {
+			signature.append(String.format("%02x", b));
+		}
+		return signature.toString();
+	}
+}
@@ -14,7 +14,7 @@ public class GithubObjectTranslatorTest {
 		comment.setCommentID(commentId);
 		String errorMessage = "test error message";
 
-		GithubObjectTranslator githubObjectTranslator = new GithubObjectTranslator(null, null, null);
+		GithubObjectTranslator githubObjectTranslator = new GithubObjectTranslator(null, null, null, null);
 		ReplyComment failureReply = githubObjectTranslator.createFailureReply(comment, errorMessage);
 
 		SoftAssertions softAssertions = new SoftAssertions();
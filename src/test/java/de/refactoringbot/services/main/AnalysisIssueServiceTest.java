@@ -0,0 +1,163 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.api.main.ApiGrabber;
+import de.refactoringbot.model.analysisissue.AnalysisIssue;
+import de.refactoringbot.model.analysisissue.AnalysisIssueRepository;
+import de.refactoringbot.model.analysisissue.AnalysisIssueStatus;
+import de.refactoringbot.model.analysisissue.AnalysisIssueSync;
+import de.refactoringbot.model.analysisissue.AnalysisIssueSyncRepository;
+import de.refactoringbot.model.botissue.AnalysisServiceIssues;
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+public class AnalysisIssueServiceTest {
+
+	private static final long CONFIG_ID = 1L;
+	private static final long FULL_SYNC_INTERVAL = 86400000L;
+	private static final long SYNC_OVERLAP = 3600000L;
+
+	private AnalysisIssueService analysisIssueService;
+	private AnalysisIssueRepository issueRepo;
+	private AnalysisIssueSyncRepository syncRepo;
+	private ApiGrabber apiGrabber;
+	private GitConfiguration gitConfig;
+
+	@Before
+	public void setUp() {
+		issueRepo = mock(AnalysisIssueRepository.class);
+		syncRepo = mock(AnalysisIssueSyncRepository.class);
+		apiGrabber = mock(ApiGrabber.class);
+
+		analysisIssueService = new AnalysisIssueService();
+		analysisIssueService.issueRepo = issueRepo;
+		analysisIssueService.syncRepo = syncRepo;
+		analysisIssueService.apiGrabber = apiGrabber;
+		ReflectionTestUtils.setField(analysisIssueService, "fullSyncIntervalInMS", FULL_SYNC_INTERVAL);
+		ReflectionTestUtils.setField(analysisIssueService, "syncOverlapInMS", SYNC_OVERLAP);
+
+		gitConfig = new GitConfiguration();
+		ReflectionTestUtils.setField(gitConfig, "configurationId", CONFIG_ID);
+	}
+
+	@Test
+	public void testFirstSyncIsFullSync() throws Exception {
+		// arrange
+		when(syncRepo.findById(CONFIG_ID)).thenReturn(Optional.empty());
+		when(apiGrabber.getAnalysisServiceIssues(eq(gitConfig), isNull()))
+				.thenReturn(new AnalysisServiceIssues(Collections.singletonList(createBotIssue("issue1")), false));
+
+		// act
+		analysisIssueService.syncIssues(gitConfig);
+
+		// assert
+		ArgumentCaptor<AnalysisIssueSync> sync = ArgumentCaptor.forClass(AnalysisIssueSync.class);
+		verify(syncRepo).save(sync.capture());
+		assertThat(sync.getValue().getLastFullSyncInMS()).isNotNull();
+		assertThat(sync.getValue().getLastSyncInMS()).isEqualTo(sync.getValue().getLastFullSyncInMS());
+	}
+
+	@Test
+	public void testIncrementalSyncRequestsOnlyNewIssues() throws Exception {
+		// arrange
+		long lastSync = System.currentTimeMillis() - 60000;
+		AnalysisIssueSync sync = new AnalysisIssueSync();
+		sync.setConfigurationId(CONFIG_ID);
+		sync.setLastSyncInMS(lastSync);
+		sync.setLastFullSyncInMS(lastSync);
+		when(syncRepo.findById(CONFIG_ID)).thenReturn(Optional.of(sync));
+		when(apiGrabber.getAnalysisServiceIssues(eq(gitConfig), any(Date.class)))
+				.thenReturn(new AnalysisServiceIssues(Collections.emptyList(), false));
+
+		// act
+		analysisIssueService.syncIssues(gitConfig);
+
+		// assert
+		verify(apiGrabber).getAnalysisServiceIssues(gitConfig, new Date(lastSync - SYNC_OVERLAP));
+		assertThat(sync.getLastFullSyncInMS()).isEqualTo(lastSync);
+		assertThat(sync.getLastSyncInMS()).isGreaterThan(lastSync);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testExistingIssuesAreUpdatedAndMissingIssuesClosedWithFullSync() throws Exception {
+		// arrange
+		AnalysisIssue existingIssue = createAnalysisIssue("issue1");
+		existingIssue.setProcessed(true);
+		AnalysisIssue missingIssue = createAnalysisIssue("issue2");
+		when(syncRepo.findById(CONFIG_ID)).thenReturn(Optional.empty());
+		when(apiGrabber.getAnalysisServiceIssues(eq(gitConfig), isNull()))
+				.thenReturn(new AnalysisServiceIssues(Arrays.asList(createBotIssue("issue1"), createBotIssue("issue3")),
+						false));
+		when(issueRepo.getIssuesByKeys(eq(CONFIG_ID), anyList())).thenReturn(Collections.singletonList(existingIssue));
+		when(issueRepo.getIssuesByStatus(CONFIG_ID, AnalysisIssueStatus.open))
+				.thenReturn(Arrays.asList(existingIssue, missingIssue));
+
+		// act
+		analysisIssueService.syncIssues(gitConfig);
+
+		// assert
+		ArgumentCaptor<List<AnalysisIssue>> savedIssues = ArgumentCaptor.forClass(List.class);
+		verify(issueRepo, times(2)).saveAll(savedIssues.capture());
+		List<AnalysisIssue> syncedIssues = savedIssues.getAllValues().get(0);
+		assertThat(syncedIssues).hasSize(2);
+		assertThat(syncedIssues.get(0)).isSameAs(existingIssue);
+		assertThat(syncedIssues.get(0).isProcessed()).isTrue();
+		assertThat(syncedIssues.get(1).getIssueKey()).isEqualTo("issue3");
+		assertThat(syncedIssues.get(1).isProcessed()).isFalse();
+		assertThat(savedIssues.getAllValues().get(1)).containsExactly(missingIssue);
+		assertThat(missingIssue.getStatus()).isEqualTo(AnalysisIssueStatus.closed);
+	}
+
+	@Test
+	public void testTruncatedFullSyncClosesNoIssues() throws Exception {
+		// arrange
+		when(syncRepo.findById(CONFIG_ID)).thenReturn(Optional.empty());
+		when(apiGrabber.getAnalysisServiceIssues(eq(gitConfig), isNull()))
+				.thenReturn(new AnalysisServiceIssues(Collections.singletonList(createBotIssue("issue1")), true));
+
+		// act
+		analysisIssueService.syncIssues(gitConfig);
+
+		// assert
+		verify(issueRepo, times(1)).saveAll(anyList());
+		verify(issueRepo, never()).getIssuesByStatus(CONFIG_ID, AnalysisIssueStatus.open);
+	}
+
+	private BotIssue createBotIssue(String issueKey) {
+		BotIssue botIssue = new BotIssue();
+		botIssue.setCommentServiceID(issueKey);
+		botIssue.setFilePath("src/main/java/Example.java");
+		botIssue.setLine(10);
+		return botIssue;
+	}
+
+	private AnalysisIssue createAnalysisIssue(String issueKey) {
+		AnalysisIssue issue = new AnalysisIssue();
+		issue.setConfigurationId(CONFIG_ID);
+		issue.setIssueKey(issueKey);
+		issue.setStatus(AnalysisIssueStatus.open);
+		return issue;
+	}
+}
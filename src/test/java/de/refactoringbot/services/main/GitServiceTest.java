@@ -1,14 +1,38 @@
 package de.refactoringbot.services.main;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.SoftAssertions;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.model.configuration.FileHoster;
+import de.refactoringbot.model.configuration.GitConfiguration;
 
 public class GitServiceTest {
 
 	@Rule
 	public final ExpectedException exception = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 	
 	@Test
 	public void getLineNumberOfLastLineInDiffHunk() {
@@ -53,4 +77,116 @@ public class GitServiceTest {
 		gitService.getLineNumberOfLastLineInDiffHunk(invalidDiffHunk);
 	}
 
+	@Test
+	public void commitChangedFilesWithoutScanningWorkingTree() throws Exception {
+		// arrange
+		File repoFolder = folder.newFolder("repo");
+		File javaFile = new File(repoFolder, "src/TestClass.java");
+		FileUtils.writeStringToFile(javaFile, "class TestClass {}\n", StandardCharsets.UTF_8);
+		GitConfiguration gitConfig = new GitConfiguration();
+		gitConfig.setBotName("bot");
+		gitConfig.setBotEmail("bot@example.com");
+
+		try (Git git = Git.init().setDirectory(repoFolder).call()) {
+			git.add().addFilepattern(".").call();
+			RevCommit initialCommit = git.commit().setMessage("Initial commit").call();
+
+			String newContent = "class TestClass { void method() {} }\n";
+			FileUtils.writeStringToFile(javaFile, newContent, Charset.defaultCharset());
+
+			// act
+			new GitService().commitChangedFiles(git.getRepository(), gitConfig, "Refactored TestClass",
+					Collections.singletonMap(javaFile.getAbsolutePath(), newContent));
+
+			// assert
+			RevCommit commit = git.log().setMaxCount(1).call().iterator().next();
+			assertThat(commit.getParent(0)).isEqualTo(initialCommit);
+			assertThat(commit.getFullMessage()).isEqualTo("Refactored TestClass");
+			assertThat(commit.getCommitterIdent().getName()).isEqualTo("bot");
+			try (TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(), "src/TestClass.java", commit.getTree())) {
+				ObjectId blobId = treeWalk.getObjectId(0);
+				assertThat(new String(git.getRepository().open(blobId).getBytes(), Charset.defaultCharset()))
+						.isEqualTo(newContent);
+			}
+			assertThat(git.status().call().isClean()).isTrue();
+		}
+	}
+
+	@Test
+	public void commitChangedFilesOfSymlinkedWorkspace() throws Exception {
+		// arrange
+		File repoFolder = folder.newFolder("repo");
+		File linkFolder = new File(folder.getRoot(), "link");
+		try {
+			Files.createSymbolicLink(linkFolder.toPath(), repoFolder.toPath());
+		} catch (IOException | UnsupportedOperationException e) {
+			Assume.assumeNoException(e);
+		}
+		File javaFile = new File(repoFolder, "src/TestClass.java");
+		FileUtils.writeStringToFile(javaFile, "class TestClass {}\n", StandardCharsets.UTF_8);
+		GitConfiguration gitConfig = new GitConfiguration();
+		gitConfig.setBotName("bot");
+		gitConfig.setBotEmail("bot@example.com");
+
+		try (Git git = Git.init().setDirectory(linkFolder).call()) {
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Initial commit").call();
+
+			String newContent = "class TestClass { void method() {} }\n";
+			FileUtils.writeStringToFile(javaFile, newContent, Charset.defaultCharset());
+
+			// act
+			new GitService().commitChangedFiles(git.getRepository(), gitConfig, "Refactored TestClass",
+					Collections.singletonMap(javaFile.getCanonicalPath(), newContent));
+
+			// assert
+			RevCommit commit = git.log().setMaxCount(1).call().iterator().next();
+			try (TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(), "src/TestClass.java", commit.getTree())) {
+				assertThat(treeWalk).isNotNull();
+			}
+			assertThat(git.status().call().isClean()).isTrue();
+		}
+	}
+
+	@Test
+	public void singleBranchWorkspaceFetchesOtherBranchesOnDemand() throws Exception {
+		// arrange
+		File forkFolder = folder.newFolder("fork");
+		FileUtils.writeStringToFile(new File(forkFolder, "TestClass.java"), "class TestClass {}\n",
+				StandardCharsets.UTF_8);
+		try (Git fork = Git.init().setDirectory(forkFolder).call()) {
+			fork.add().addFilepattern(".").call();
+			fork.commit().setMessage("Initial commit").call();
+			fork.branchCreate().setName("feature").call();
+		}
+
+		GitConfiguration gitConfig = new GitConfiguration();
+		gitConfig.setRepoService(FileHoster.gitlab);
+		gitConfig.setBotName("bot");
+		gitConfig.setBotToken("token");
+		gitConfig.setForkGitLink(forkFolder.toURI().toString());
+		gitConfig.setRepoFolder(new File(folder.getRoot(), "workspace").getAbsolutePath());
+
+		RepositoryCacheService repositoryCache = new RepositoryCacheService();
+		GitService gitService = new GitService();
+		gitService.repositoryCache = repositoryCache;
+		ReflectionTestUtils.setField(gitService, "singleBranchWorkspaces", true);
+
+		try {
+			// act
+			gitService.cloneRepository(gitConfig);
+			Repository workspace = repositoryCache.openRepository(new File(gitConfig.getRepoFolder()));
+			boolean featureCloned = workspace.findRef("refs/remotes/origin/feature") != null;
+			gitService.switchBranch(gitConfig, "feature");
+
+			// assert
+			assertThat(workspace.findRef("refs/remotes/origin/master")).isNotNull();
+			assertThat(featureCloned).isFalse();
+			assertThat(workspace.getBranch()).isEqualTo("feature");
+			workspace.close();
+		} finally {
+			repositoryCache.evictRepositories(folder.getRoot());
+		}
+	}
+
 }
@@ -0,0 +1,95 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.refactoringbot.model.configuration.FileHoster;
+import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
+
+public class RefactoredIssuesServiceTest {
+
+	private RefactoredIssuesService refactoredIssuesService;
+	private RefactoredIssueRepository repo;
+
+	@Before
+	public void setUp() {
+		repo = mock(RefactoredIssueRepository.class);
+		refactoredIssuesService = new RefactoredIssuesService();
+		refactoredIssuesService.repo = repo;
+	}
+
+	@Test
+	public void testRefactoredCommentsAreCheckedInMemoryAfterLoading() {
+		// arrange
+		when(repo.getAllCommentServiceIDs()).thenReturn(Arrays.asList(new Object[] { FileHoster.github, "1" },
+				new Object[] { FileHoster.gitlab, "2" }, new Object[] { null, "AX-3" }));
+		refactoredIssuesService.loadRefactoredIssueIDs();
+
+		// act
+		Set<String> refactoredComments = refactoredIssuesService.getRefactoredComments(FileHoster.github,
+				Arrays.asList("1", "2", "4"));
+		Set<String> refactoredIssues = refactoredIssuesService.getRefactoredAnalysisIssues(
+				Arrays.asList("AX-3", "AX-4"));
+
+		// assert
+		assertThat(refactoredComments).containsExactly("1");
+		assertThat(refactoredIssues).containsExactly("AX-3");
+		verify(repo, never()).refactoredComments(any(), anyCollection());
+		verify(repo, never()).refactoredAnalysisIssues(anyCollection());
+	}
+
+	@Test
+	public void testSavedIssuesAreAddedToLoadedIDs() {
+		// arrange
+		when(repo.getAllCommentServiceIDs()).thenReturn(Collections.emptyList());
+		refactoredIssuesService.loadRefactoredIssueIDs();
+		RefactoredIssue issue = new RefactoredIssue();
+		issue.setRepoService(FileHoster.github);
+		issue.setCommentServiceID("5");
+		when(repo.save(issue)).thenReturn(issue);
+
+		// act
+		refactoredIssuesService.save(issue);
+
+		// assert
+		assertThat(refactoredIssuesService.getRefactoredComments(FileHoster.github, Arrays.asList("5")))
+				.containsExactly("5");
+		assertThat(refactoredIssuesService.getRefactoredComments(FileHoster.gitlab, Arrays.asList("5"))).isEmpty();
+	}
+
+	@Test
+	public void testRefactoredCommentsAreQueriedInBatchesBeforeLoading() {
+		// arrange
+		List<String> commentIDs = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			commentIDs.add(Integer.toString(i));
+		}
+		when(repo.refactoredComments(eq(FileHoster.github), anyCollection()))
+				.thenReturn(Collections.singletonList("7"));
+
+		// act
+		Set<String> refactoredComments = refactoredIssuesService.getRefactoredComments(FileHoster.github,
+				commentIDs);
+
+		// assert
+		assertThat(refactoredComments).containsExactly("7");
+		verify(repo, times(3)).refactoredComments(eq(FileHoster.github), anyCollection());
+	}
+}
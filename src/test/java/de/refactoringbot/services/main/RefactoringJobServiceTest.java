@@ -0,0 +1,212 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.BotRefactoringException;
+import de.refactoringbot.model.refactoredissue.RefactoredIssue;
+import de.refactoringbot.model.refactoredissue.RefactoredIssueRepository;
+import de.refactoringbot.model.refactoringjob.RefactoringJob;
+import de.refactoringbot.model.refactoringjob.RefactoringJobIssue;
+import de.refactoringbot.model.refactoringjob.RefactoringJobIssueRepository;
+import de.refactoringbot.model.refactoringjob.RefactoringJobRepository;
+import de.refactoringbot.model.refactoringjob.RefactoringJobStatus;
+
+public class RefactoringJobServiceTest {
+
+	private static final long CONFIG_ID = 1L;
+	private static final long JOB_ID = 5L;
+
+	private RefactoringJobService jobService;
+	private RefactoringJobRepository jobRepo;
+	private RefactoringJobIssueRepository jobIssueRepo;
+	private RefactoringService refactoringService;
+	private GitConfiguration gitConfig;
+
+	@Before
+	public void setUp() {
+		jobRepo = mock(RefactoringJobRepository.class);
+		jobIssueRepo = mock(RefactoringJobIssueRepository.class);
+		refactoringService = mock(RefactoringService.class);
+		ConfigurationRepository configRepo = mock(ConfigurationRepository.class);
+
+		jobService = new RefactoringJobService();
+		jobService.jobRepo = jobRepo;
+		jobService.configRepo = configRepo;
+		jobService.issueRepo = mock(RefactoredIssueRepository.class);
+		jobService.jobIssueRepo = jobIssueRepo;
+		jobService.refactoringService = refactoringService;
+		jobService.schedulingExecutor = new SyncTaskExecutor();
+		jobService.eventExecutor = new SyncTaskExecutor();
+		jobService.mapper = new ObjectMapper();
+
+		gitConfig = new GitConfiguration();
+		ReflectionTestUtils.setField(gitConfig, "configurationId", CONFIG_ID);
+		when(configRepo.getByID(CONFIG_ID)).thenReturn(Optional.of(gitConfig));
+		when(jobRepo.save(any(RefactoringJob.class))).thenAnswer(invocation -> {
+			RefactoringJob job = invocation.getArgument(0);
+			if (job.getId() == null) {
+				ReflectionTestUtils.setField(job, "id", JOB_ID);
+			}
+			return job;
+		});
+	}
+
+	@Test
+	public void createJobRecordsRefactoredIssues() throws Exception {
+		// arrange
+		when(refactoringService.performRefactoring(eq(CONFIG_ID), eq(true), any())).thenAnswer(invocation -> {
+			Consumer<RefactoredIssue> issueListener = invocation.getArgument(2);
+			issueListener.accept(createIssue(11L));
+			issueListener.accept(createIssue(12L));
+			return new ResponseEntity<>(HttpStatus.OK);
+		});
+
+		// act
+		Long jobID = jobService.createJob(CONFIG_ID, true);
+
+		// assert
+		assertThat(jobID).isEqualTo(JOB_ID);
+		RefactoringJob job = captureLastSavedJob();
+		assertThat(job.getStatus()).isEqualTo(RefactoringJobStatus.finished);
+		assertThat(job.isCommentRefactoring()).isTrue();
+		assertThat(job.getRefactoredIssueIds()).containsExactly(11L, 12L);
+		assertThat(job.getStartedInMS()).isNotNull();
+		assertThat(job.getFinishedInMS()).isNotNull();
+		assertThat(job.getErrorMessage()).isNull();
+		// The job is only saved on creation, start and end
+		verify(jobRepo, times(3)).save(job);
+		ArgumentCaptor<RefactoringJobIssue> jobIssues = ArgumentCaptor.forClass(RefactoringJobIssue.class);
+		verify(jobIssueRepo, times(2)).save(jobIssues.capture());
+		assertThat(jobIssues.getAllValues()).extracting(RefactoringJobIssue::getIssueId).containsExactly(11L, 12L);
+		assertThat(jobIssues.getAllValues()).extracting(RefactoringJobIssue::getJobId).containsOnly(JOB_ID);
+	}
+
+	@Test
+	public void jobDoesNotWaitForSubscribers() throws Exception {
+		// arrange
+		TaskExecutor jobExecutor = mock(TaskExecutor.class);
+		TaskExecutor eventExecutor = mock(TaskExecutor.class);
+		jobService.schedulingExecutor = jobExecutor;
+		jobService.eventExecutor = eventExecutor;
+		when(jobService.issueRepo.findAllById(any())).thenReturn(Collections.emptyList());
+		when(refactoringService.performRefactoring(eq(CONFIG_ID), eq(true), any())).thenAnswer(invocation -> {
+			Consumer<RefactoredIssue> issueListener = invocation.getArgument(2);
+			issueListener.accept(createIssue(11L));
+			return new ResponseEntity<>(HttpStatus.OK);
+		});
+		jobService.createJob(CONFIG_ID, true);
+		ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+		verify(jobExecutor).execute(job.capture());
+		jobService.subscribe(JOB_ID);
+
+		// act
+		job.getValue().run();
+
+		// assert
+		assertThat(captureLastSavedJob().getStatus()).isEqualTo(RefactoringJobStatus.finished);
+		// The events wait for a single sender, which was never run
+		verify(eventExecutor, times(1)).execute(any(Runnable.class));
+	}
+
+	@Test
+	public void createJobFailsWithResponseOfRefactoring() throws Exception {
+		// arrange
+		when(refactoringService.performRefactoring(eq(CONFIG_ID), eq(true), any()))
+				.thenAnswer(invocation -> new ResponseEntity<>("Could not push!", HttpStatus.INTERNAL_SERVER_ERROR));
+
+		// act
+		jobService.createJob(CONFIG_ID, true);
+
+		// assert
+		RefactoringJob job = captureLastSavedJob();
+		assertThat(job.getStatus()).isEqualTo(RefactoringJobStatus.failed);
+		assertThat(job.getErrorMessage()).isEqualTo("Could not push!");
+	}
+
+	@Test
+	public void createJobFailsIfRefactoringIsRejected() throws Exception {
+		// arrange
+		TaskExecutor executor = mock(TaskExecutor.class);
+		doThrow(new TaskRejectedException("Queue is full")).when(executor).execute(any(Runnable.class));
+		jobService.schedulingExecutor = executor;
+
+		// act
+		assertThatThrownBy(() -> jobService.createJob(CONFIG_ID, true)).isInstanceOf(TaskRejectedException.class);
+
+		// assert
+		RefactoringJob job = captureLastSavedJob();
+		assertThat(job.getStatus()).isEqualTo(RefactoringJobStatus.failed);
+		assertThat(job.getErrorMessage()).isEqualTo("Too many queued refactorings!");
+		verify(refactoringService, never()).performRefactoring(anyLong(), anyBoolean(), any());
+	}
+
+	@Test
+	public void createJobWithoutAnalysisServiceData() throws Exception {
+		// act
+		assertThatThrownBy(() -> jobService.createJob(CONFIG_ID, false))
+				.isInstanceOf(BotRefactoringException.class);
+
+		// assert
+		verify(jobRepo, never()).save(any(RefactoringJob.class));
+	}
+
+	@Test
+	public void failInterruptedJobs() {
+		// arrange
+		RefactoringJob job = new RefactoringJob();
+		job.setStatus(RefactoringJobStatus.running);
+		when(jobRepo.getJobsByStatus(Arrays.asList(RefactoringJobStatus.queued, RefactoringJobStatus.running)))
+				.thenReturn(Arrays.asList(job));
+
+		// act
+		jobService.failInterruptedJobs();
+
+		// assert
+		assertThat(job.getStatus()).isEqualTo(RefactoringJobStatus.failed);
+		assertThat(job.getFinishedInMS()).isNotNull();
+		verify(jobRepo).save(job);
+	}
+
+	private RefactoringJob captureLastSavedJob() {
+		ArgumentCaptor<RefactoringJob> captor = ArgumentCaptor.forClass(RefactoringJob.class);
+		verify(jobRepo, atLeastOnce()).save(captor.capture());
+		return captor.getValue();
+	}
+
+	private RefactoredIssue createIssue(Long issueId) {
+		RefactoredIssue issue = new RefactoredIssue();
+		ReflectionTestUtils.setField(issue, "issueId", issueId);
+		return issue;
+	}
+}
@@ -0,0 +1,73 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.GitWorkflowException;
+import de.refactoringbot.refactoring.RefactoringOperations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RefactoringMetricsServiceTest {
+
+	private SimpleMeterRegistry registry;
+	private RefactoringMetricsService metrics;
+	private GitConfiguration gitConfig;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		metrics = new RefactoringMetricsService();
+		metrics.registry = registry;
+		gitConfig = new GitConfiguration();
+		ReflectionTestUtils.setField(gitConfig, "configurationId", 7L);
+	}
+
+	@Test
+	public void recordStageTagsSuccessfulStage() throws Exception {
+		// act
+		String commitMessage = metrics.recordStage(RefactoringMetricsService.STAGE_REFACTORING, gitConfig,
+				RefactoringOperations.REMOVE_PARAMETER, () -> "Removed parameter");
+
+		// assert
+		assertThat(commitMessage).isEqualTo("Removed parameter");
+		assertThat(registry.get("refactoring.stage").tag("stage", RefactoringMetricsService.STAGE_REFACTORING)
+				.tag("configuration", "7").tag("operation", RefactoringOperations.REMOVE_PARAMETER)
+				.tag("outcome", RefactoringMetricsService.OUTCOME_SUCCESS).timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void recordStageTagsFailedStage() {
+		// act
+		assertThatThrownBy(() -> metrics.recordStage(RefactoringMetricsService.STAGE_GIT_PUSH, gitConfig, null, () -> {
+			throw new GitWorkflowException("Could not push");
+		})).isInstanceOf(GitWorkflowException.class);
+
+		// assert
+		assertThat(registry.get("refactoring.stage").tag("stage", RefactoringMetricsService.STAGE_GIT_PUSH)
+				.tag("operation", "none").tag("outcome", RefactoringMetricsService.OUTCOME_FAILURE).timer().count())
+						.isEqualTo(1);
+	}
+
+	@Test
+	public void recordIssueCountsByOutcome() {
+		// arrange
+		String operation = RefactoringOperations.REMOVE_PARAMETER;
+
+		// act
+		metrics.recordIssue(gitConfig, operation, RefactoringMetricsService.OUTCOME_SUCCESS);
+		metrics.recordIssue(gitConfig, operation, RefactoringMetricsService.OUTCOME_SUCCESS);
+		metrics.recordIssue(gitConfig, operation, RefactoringMetricsService.OUTCOME_FAILURE);
+
+		// assert
+		assertThat(registry.get("refactoring.issues").tag("outcome", RefactoringMetricsService.OUTCOME_SUCCESS)
+				.counter().count()).isEqualTo(2);
+		assertThat(registry.get("refactoring.issues").tag("outcome", RefactoringMetricsService.OUTCOME_FAILURE)
+				.counter().count()).isEqualTo(1);
+	}
+
+}
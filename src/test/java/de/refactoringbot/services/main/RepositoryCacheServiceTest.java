@@ -0,0 +1,89 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.SystemReader;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RepositoryCacheServiceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private RepositoryCacheService repositoryCache = new RepositoryCacheService();
+
+	@After
+	public void tearDown() {
+		repositoryCache.evictRepositories(folder.getRoot());
+	}
+
+	@Test
+	public void packedGitMMAPIsDisabledOnWindowsByDefault() {
+		// act
+		boolean isPackedGitMMAP = repositoryCache.isPackedGitMMAP();
+
+		// assert
+		assertThat(isPackedGitMMAP).isEqualTo(!SystemReader.getInstance().isWindows());
+	}
+
+	@Test
+	public void packedGitMMAPCanBeConfigured() {
+		// arrange
+		ReflectionTestUtils.setField(repositoryCache, "packedGitMMAP", false);
+
+		// act
+		boolean isPackedGitMMAP = repositoryCache.isPackedGitMMAP();
+
+		// assert
+		assertThat(isPackedGitMMAP).isFalse();
+	}
+
+	@Test
+	public void openRepositoryReusesCachedRepository() throws Exception {
+		// arrange
+		File repoFolder = folder.newFolder("repo");
+		Git.init().setDirectory(repoFolder).call().close();
+
+		// act
+		Repository firstRepository;
+		Repository secondRepository;
+		try (Repository repository = repositoryCache.openRepository(repoFolder)) {
+			firstRepository = repository;
+		}
+		try (Repository repository = repositoryCache.openRepository(repoFolder)) {
+			secondRepository = repository;
+		}
+
+		// assert
+		assertThat(secondRepository).isSameAs(firstRepository);
+		assertThat(secondRepository.getWorkTree()).isEqualTo(repoFolder);
+	}
+
+	@Test
+	public void evictRepositoriesClosesRepositoriesInsideOfFolder() throws Exception {
+		// arrange
+		File repoFolder = folder.newFolder("workspaces", "repo");
+		Git.init().setDirectory(repoFolder).call().close();
+		Repository evictedRepository;
+		try (Repository repository = repositoryCache.openRepository(repoFolder)) {
+			evictedRepository = repository;
+		}
+
+		// act
+		repositoryCache.evictRepositories(new File(folder.getRoot(), "workspaces"));
+
+		// assert
+		try (Repository repository = repositoryCache.openRepository(repoFolder)) {
+			assertThat(repository).isNotSameAs(evictedRepository);
+		}
+	}
+
+}
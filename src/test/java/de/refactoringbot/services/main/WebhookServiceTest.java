@@ -0,0 +1,95 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.FileHoster;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.model.exceptions.ValidationException;
+import de.refactoringbot.model.github.pullrequest.GithubPullRequest;
+import de.refactoringbot.model.github.pullrequestcomment.PullRequestComment;
+import de.refactoringbot.model.github.webhook.GithubReviewCommentEvent;
+import de.refactoringbot.model.github.webhook.GithubWebhookRepository;
+import de.refactoringbot.model.output.botpullrequest.BotPullRequest;
+import de.refactoringbot.services.github.GithubObjectTranslator;
+
+public class WebhookServiceTest {
+
+	private static final long CONFIG_ID = 1L;
+
+	private WebhookService webhookService;
+	private TaskExecutor executor;
+
+	@Before
+	public void setUp() {
+		GitConfiguration config = new GitConfiguration();
+		ReflectionTestUtils.setField(config, "configurationId", CONFIG_ID);
+		config.setRepoService(FileHoster.github);
+		config.setRepoOwner("owner");
+		config.setRepoName("repo");
+		ConfigurationRepository configRepo = mock(ConfigurationRepository.class);
+		when(configRepo.getByID(CONFIG_ID)).thenReturn(Optional.of(config));
+		GithubObjectTranslator githubTranslator = mock(GithubObjectTranslator.class);
+		when(githubTranslator.translateReviewCommentEvent(any())).thenReturn(new BotPullRequest());
+		executor = mock(TaskExecutor.class);
+
+		webhookService = new WebhookService();
+		webhookService.configRepo = configRepo;
+		webhookService.githubTranslator = githubTranslator;
+		webhookService.refactoringService = mock(RefactoringService.class);
+		webhookService.schedulingExecutor = executor;
+	}
+
+	@Test
+	public void testEventOfOtherRepositoryIsRejected() {
+		// act
+		assertThatThrownBy(() -> webhookService.queueGithubReviewComment(CONFIG_ID, createEvent("other/repo")))
+				.isInstanceOf(ValidationException.class);
+
+		// assert
+		verify(executor, never()).execute(any(Runnable.class));
+	}
+
+	@Test
+	public void testCommentsOfConfigurationAreRefactoredByOneWorker() throws Exception {
+		// arrange
+		ArgumentCaptor<Runnable> worker = ArgumentCaptor.forClass(Runnable.class);
+
+		// act
+		webhookService.queueGithubReviewComment(CONFIG_ID, createEvent("owner/repo"));
+		webhookService.queueGithubReviewComment(CONFIG_ID, createEvent("Owner/Repo"));
+		webhookService.queueGithubReviewComment(CONFIG_ID, createEvent("owner/repo"));
+		verify(executor).execute(worker.capture());
+		worker.getValue().run();
+
+		// assert
+		verify(webhookService.refactoringService, times(3)).performCommentRefactoring(eq(CONFIG_ID),
+				any(BotPullRequest.class));
+	}
+
+	private GithubReviewCommentEvent createEvent(String repositoryPath) {
+		GithubWebhookRepository repository = new GithubWebhookRepository();
+		repository.setFullName(repositoryPath);
+		GithubReviewCommentEvent event = new GithubReviewCommentEvent();
+		event.setAction("created");
+		event.setComment(new PullRequestComment());
+		event.setPullRequest(new GithubPullRequest());
+		event.setRepository(repository);
+		return event;
+	}
+}
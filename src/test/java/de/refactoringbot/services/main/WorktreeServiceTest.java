@@ -0,0 +1,116 @@
+package de.refactoringbot.services.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.configuration.BotConfiguration;
+import de.refactoringbot.model.configuration.GitConfiguration;
+
+public class WorktreeServiceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private RepositoryCacheService repositoryCache;
+	private WorktreeService worktreeService;
+	private GitService gitService;
+	private GitConfiguration gitConfig;
+	private RevCommit initialCommit;
+
+	@Before
+	public void setUp() throws Exception {
+		BotConfiguration botConfig = new BotConfiguration();
+		botConfig.setBotRefactoringDirectory(folder.getRoot().getAbsolutePath() + File.separator);
+		repositoryCache = new RepositoryCacheService();
+		worktreeService = new WorktreeService();
+		worktreeService.botConfig = botConfig;
+		worktreeService.repositoryCache = repositoryCache;
+		gitService = new GitService();
+		gitService.repositoryCache = repositoryCache;
+
+		gitConfig = new GitConfiguration();
+		ReflectionTestUtils.setField(gitConfig, "configurationId", 7L);
+		File workspace = folder.newFolder("7");
+		gitConfig.setRepoFolder(workspace.getAbsolutePath());
+
+		FileUtils.writeStringToFile(new File(workspace, "TestClass.java"), "class TestClass {}\n",
+				StandardCharsets.UTF_8);
+		try (Git git = Git.init().setDirectory(workspace).call()) {
+			git.add().addFilepattern(".").call();
+			initialCommit = git.commit().setMessage("Initial commit").call();
+			RefUpdate refUpdate = git.getRepository().updateRef(Constants.R_REMOTES + "upstream/master");
+			refUpdate.setNewObjectId(initialCommit);
+			refUpdate.update();
+		}
+	}
+
+	@After
+	public void tearDown() {
+		repositoryCache.evictRepositories(folder.getRoot());
+	}
+
+	@Test
+	public void acquireWorktreeSharesObjectsOfWorkspace() throws Exception {
+		// act
+		GitConfiguration worktreeConfig = worktreeService.acquireWorktree(gitConfig);
+		gitService.createBranch(worktreeConfig, "master", "refactoring", "upstream");
+
+		// assert
+		assertThat(worktreeConfig.getConfigurationId()).isEqualTo(gitConfig.getConfigurationId());
+		assertThat(worktreeConfig.getRepoFolder()).isNotEqualTo(gitConfig.getRepoFolder());
+		assertThat(new File(worktreeConfig.getRepoFolder(), ".git/objects/info/alternates")).exists();
+		assertThat(new File(worktreeConfig.getRepoFolder(), "TestClass.java")).exists();
+		try (Git git = Git.open(new File(worktreeConfig.getRepoFolder()))) {
+			assertThat(git.getRepository().getBranch()).isEqualTo("refactoring");
+			assertThat(git.getRepository().resolve(Constants.HEAD)).isEqualTo(initialCommit.getId());
+		}
+		try (Git workspace = Git.open(new File(gitConfig.getRepoFolder()))) {
+			assertThat(workspace.getRepository().getBranch()).isEqualTo("master");
+		}
+	}
+
+	@Test
+	public void acquireReleasedWorktreeDiscardsChanges() throws Exception {
+		// arrange
+		GitConfiguration worktreeConfig = worktreeService.acquireWorktree(gitConfig);
+		gitService.createBranch(worktreeConfig, "master", "refactoring", "upstream");
+		File javaFile = new File(worktreeConfig.getRepoFolder(), "TestClass.java");
+		FileUtils.writeStringToFile(javaFile, "class TestClass { void method() {} }\n", StandardCharsets.UTF_8);
+		File untrackedFile = new File(worktreeConfig.getRepoFolder(), "Untracked.java");
+		FileUtils.writeStringToFile(untrackedFile, "class Untracked {}\n", StandardCharsets.UTF_8);
+		worktreeService.releaseWorktree(worktreeConfig);
+
+		// act
+		GitConfiguration reacquiredConfig = worktreeService.acquireWorktree(gitConfig);
+
+		// assert
+		assertThat(reacquiredConfig.getRepoFolder()).isEqualTo(worktreeConfig.getRepoFolder());
+		assertThat(FileUtils.readFileToString(javaFile, StandardCharsets.UTF_8)).isEqualTo("class TestClass {}\n");
+		assertThat(untrackedFile).doesNotExist();
+	}
+
+	@Test
+	public void acquireWorktreeWhileOtherIsInUse() throws Exception {
+		// act
+		GitConfiguration firstConfig = worktreeService.acquireWorktree(gitConfig);
+		GitConfiguration secondConfig = worktreeService.acquireWorktree(gitConfig);
+
+		// assert
+		assertThat(secondConfig.getRepoFolder()).isNotEqualTo(firstConfig.getRepoFolder());
+	}
+
+}
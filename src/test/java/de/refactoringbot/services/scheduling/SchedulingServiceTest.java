@@ -0,0 +1,99 @@
+package de.refactoringbot.services.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.refactoringbot.model.configuration.ConfigurationRepository;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.services.main.RefactoringService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SchedulingServiceTest {
+
+	private SchedulingService schedulingService;
+	private ThreadPoolTaskExecutor executor;
+	private CountDownLatch runningRefactorings;
+	private CountDownLatch finishRefactorings;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.initialize();
+
+		runningRefactorings = new CountDownLatch(2);
+		finishRefactorings = new CountDownLatch(1);
+		RefactoringService refactoringService = mock(RefactoringService.class);
+		doAnswer(invocation -> {
+			runningRefactorings.countDown();
+			finishRefactorings.await(10, TimeUnit.SECONDS);
+			return null;
+		}).when(refactoringService).performRefactoring(anyLong(), eq(true));
+
+		ConfigurationRepository repo = mock(ConfigurationRepository.class);
+		when(repo.findAll()).thenReturn(Arrays.asList(createConfig(1L), createConfig(2L)));
+
+		schedulingService = new SchedulingService();
+		schedulingService.refactoring = refactoringService;
+		schedulingService.repo = repo;
+		schedulingService.schedulingExecutor = executor;
+		schedulingService.registry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(schedulingService, "isSchedulingEnabled", true);
+		ReflectionTestUtils.setField(schedulingService, "delayInMS", 10000L);
+	}
+
+	@After
+	public void tearDown() {
+		finishRefactorings.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	public void testConfigurationsAreProcessedInParallel() throws Exception {
+		// act
+		schedulingService.performCommentRefactorings();
+
+		// assert
+		assertThat(runningRefactorings.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(schedulingService.getAmountOfPendingConfigurations()).isEqualTo(2);
+		assertThat(schedulingService.registry.get("scheduling.queue.lag").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	public void testPendingConfigurationsAreNotQueuedAgain() throws Exception {
+		// arrange
+		schedulingService.performCommentRefactorings();
+		assertThat(runningRefactorings.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// act
+		schedulingService.performCommentRefactorings();
+		finishRefactorings.countDown();
+
+		// assert
+		verify(schedulingService.refactoring, timeout(1000).times(1)).performRefactoring(1L, true);
+		verify(schedulingService.refactoring, timeout(1000).times(1)).performRefactoring(2L, true);
+	}
+
+	private GitConfiguration createConfig(Long configurationId) {
+		GitConfiguration config = new GitConfiguration();
+		ReflectionTestUtils.setField(config, "configurationId", configurationId);
+		return config;
+	}
+}
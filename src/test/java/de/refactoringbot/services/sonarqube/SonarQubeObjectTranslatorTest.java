@@ -2,14 +2,19 @@ package de.refactoringbot.services.sonarqube;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 
+import de.refactoringbot.model.botissue.BotIssue;
 import de.refactoringbot.model.sonarqube.Flow;
 import de.refactoringbot.model.sonarqube.Location;
 import de.refactoringbot.model.sonarqube.SonarIssue;
+import de.refactoringbot.model.sonarqube.SonarQubeIssues;
+import de.refactoringbot.refactoring.RefactoringOperations;
 
 public class SonarQubeObjectTranslatorTest {
 
@@ -48,6 +53,35 @@ public class SonarQubeObjectTranslatorTest {
 		assertThat(paramName).isEqualTo("filter");
 	}
 
+	@Test
+	public void testIssuesOfUnsupportedRulesAreSkipped() throws Exception {
+		// arrange
+		SonarQubeIssues issues = new SonarQubeIssues();
+		issues.setIssues(Arrays.asList(createSonarIssueOfRule("issue1", "squid:S1161"),
+				createSonarIssueOfRule("issue2", "squid:S00100")));
+
+		// act
+		SonarQubeObjectTranslator translator = new SonarQubeObjectTranslator();
+		List<BotIssue> botIssues = translator.translateSonarIssue(issues, null);
+
+		// assert
+		assertThat(botIssues).hasSize(1);
+		assertThat(botIssues.get(0).getCommentServiceID()).isEqualTo("issue1");
+		assertThat(botIssues.get(0).getRefactoringOperation())
+				.isEqualTo(RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
+		assertThat(botIssues.get(0).getFilePath()).isEqualTo(Paths.get("src/Example.java").toString());
+	}
+
+	private SonarIssue createSonarIssueOfRule(String key, String rule) {
+		SonarIssue issue = new SonarIssue();
+		issue.setKey(key);
+		issue.setRule(rule);
+		issue.setProject("project");
+		issue.setComponent("project:src/Example.java");
+		issue.setLine(1);
+		return issue;
+	}
+
 	private SonarIssue createSonarIssue(String message, List<String> locationMsgs) {
 		SonarIssue issue = new SonarIssue();
 		issue.setMessage(message);
@@ -0,0 +1,118 @@
+package de.refactoringbot.services.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TracerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private JsonFileSpanExporter exporter;
+
+	@Before
+	public void setUp() {
+		exporter = new JsonFileSpanExporter(folder.getRoot());
+		Tracer.setExporter(exporter);
+	}
+
+	@After
+	public void tearDown() {
+		Tracer.setExporter(null);
+	}
+
+	@Test
+	public void exportTraceWhenAllSpansEnded() throws Exception {
+		// arrange
+		String traceId;
+		String rootSpanId;
+
+		// act
+		try (Span root = Tracer.startSpan("refactoring.run")) {
+			traceId = root.getTraceId();
+			rootSpanId = root.getSpanId();
+			try (Span child = Tracer.startSpan("git.fetch")) {
+				child.setAttribute("fileCount", 3);
+			}
+			assertThat(exporter.getTraceFile(traceId)).doesNotExist();
+		}
+
+		// assert
+		List<JsonNode> spans = readSpans(exporter.getTraceFile(traceId));
+		assertThat(spans).hasSize(2);
+		assertThat(spans.get(0).get("name").asText()).isEqualTo("git.fetch");
+		assertThat(spans.get(0).get("parentSpanId").asText()).isEqualTo(rootSpanId);
+		assertThat(spans.get(0).get("attributes").get("fileCount").asInt()).isEqualTo(3);
+		assertThat(spans.get(1).get("name").asText()).isEqualTo("refactoring.run");
+		assertThat(spans.get(1).has("parentSpanId")).isFalse();
+		assertThat(Tracer.currentSpan().isRecording()).isFalse();
+	}
+
+	@Test
+	public void propagateSpanThroughExecutor() throws Exception {
+		// arrange
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskDecorator(new TracingTaskDecorator());
+		executor.initialize();
+		String traceId;
+		String rootSpanId;
+
+		// act
+		try (Span root = Tracer.startSpan("refactoring.run")) {
+			traceId = root.getTraceId();
+			rootSpanId = root.getSpanId();
+			executor.submit(() -> Tracer.startSpan("refactoring.batch").close()).get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+
+		// assert
+		List<JsonNode> spans = readSpans(exporter.getTraceFile(traceId));
+		assertThat(spans).hasSize(2);
+		assertThat(spans.get(0).get("name").asText()).isEqualTo("refactoring.batch");
+		assertThat(spans.get(0).get("parentSpanId").asText()).isEqualTo(rootSpanId);
+		assertThat(spans.get(0).get("thread").asText()).isNotEqualTo(spans.get(1).get("thread").asText());
+	}
+
+	@Test
+	public void startSpanWithoutExporterRecordsNothing() {
+		// arrange
+		Tracer.setExporter(null);
+
+		// act
+		try (Span span = Tracer.startSpan("git.fetch")) {
+			span.setAttribute("fileCount", 3);
+
+			// assert
+			assertThat(span.isRecording()).isFalse();
+			assertThat(span.getAttributes()).isEmpty();
+		}
+		assertThat(folder.getRoot().list()).isEmpty();
+	}
+
+	private List<JsonNode> readSpans(File traceFile) throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		List<JsonNode> spans = new ArrayList<>();
+		for (String line : FileUtils.readLines(traceFile, StandardCharsets.UTF_8)) {
+			spans.add(mapper.readTree(line));
+		}
+		return spans;
+	}
+
+}
@@ -0,0 +1,116 @@
+package de.refactoringbot.testutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+
+import de.refactoringbot.model.botissue.BotIssue;
+
+/**
+ * A java repository written by the {@link SyntheticRepositoryGenerator}. It
+ * knows the generated content of all files and the issues that can be
+ * refactored in them.
+ */
+public class SyntheticRepository {
+
+	private final File repoFolder;
+	private final File javaRoot;
+	private final Map<String, String> contentByFile = new LinkedHashMap<>();
+	private final List<GeneratedIssue> issues = new ArrayList<>();
+
+	SyntheticRepository(File repoFolder, File javaRoot) {
+		this.repoFolder = repoFolder;
+		this.javaRoot = javaRoot;
+	}
+
+	/**
+	 * Writes the generated content of the given files again, e.g. after they were
+	 * changed by a refactoring.
+	 *
+	 * @param filePaths
+	 * @return canonical paths of the restored files
+	 * @throws IOException
+	 */
+	public List<String> restore(Collection<String> filePaths) throws IOException {
+		List<String> restoredFiles = new ArrayList<>();
+		for (String filePath : filePaths) {
+			String canonicalPath = new File(filePath).getCanonicalPath();
+			FileUtils.writeStringToFile(new File(canonicalPath), contentByFile.get(canonicalPath),
+					StandardCharsets.UTF_8);
+			restoredFiles.add(canonicalPath);
+		}
+		return restoredFiles;
+	}
+
+	/**
+	 * Creates new issues for all generated code smells of the given refactoring
+	 * operation, like they are reported by an analysis service. The file paths of
+	 * the issues are relative to the repository folder.
+	 *
+	 * @param refactoringOperation
+	 * @return issues
+	 */
+	public List<BotIssue> createIssues(String refactoringOperation) {
+		List<BotIssue> botIssues = new ArrayList<>();
+		for (int i = 0; i < issues.size(); i++) {
+			GeneratedIssue issue = issues.get(i);
+			if (issue.refactoringOperation.equals(refactoringOperation)) {
+				BotIssue botIssue = new BotIssue();
+				botIssue.setRefactoringOperation(issue.refactoringOperation);
+				botIssue.setCommentServiceID("synthetic-" + i);
+				botIssue.setFilePath(issue.filePath);
+				botIssue.setLine(issue.line);
+				botIssue.setRefactorString(issue.refactorString);
+				botIssues.add(botIssue);
+			}
+		}
+		return botIssues;
+	}
+
+	public String getRepoFolderPath() {
+		return repoFolder.getAbsolutePath();
+	}
+
+	public String getJavaRootPath() {
+		return javaRoot.getAbsolutePath();
+	}
+
+	/**
+	 * @return canonical paths of all java files
+	 */
+	public List<String> getAllJavaFiles() {
+		return Collections.unmodifiableList(new ArrayList<>(contentByFile.keySet()));
+	}
+
+	void putContent(File javaFile, String content) throws IOException {
+		contentByFile.put(javaFile.getCanonicalPath(), content);
+	}
+
+	void addIssue(String refactoringOperation, File javaFile, int line, String refactorString) {
+		String filePath = repoFolder.toPath().relativize(javaFile.toPath()).toString();
+		issues.add(new GeneratedIssue(refactoringOperation, filePath, line, refactorString));
+	}
+
+	private static class GeneratedIssue {
+
+		private final String refactoringOperation;
+		private final String filePath;
+		private final int line;
+		private final String refactorString;
+
+		private GeneratedIssue(String refactoringOperation, String filePath, int line, String refactorString) {
+			this.refactoringOperation = refactoringOperation;
+			this.filePath = filePath;
+			this.line = line;
+			this.refactorString = refactorString;
+		}
+	}
+}
@@ -0,0 +1,375 @@
+package de.refactoringbot.testutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+
+import de.refactoringbot.refactoring.RefactoringOperations;
+
+/**
+ * This class writes large java repositories for scale and load tests. The
+ * generated code only depends on the parameters of the generator, so the same
+ * parameters always lead to the same files and commit IDs.
+ *
+ * Every package contains interfaces and inheritance chains of classes. The
+ * first class of a chain implements the interfaces of its package, every other
+ * class extends its predecessor and overrides its method <code>compute</code>.
+ * All classes call <code>compute</code> of other classes and contain commented
+ * out code. Every generated code smell is recorded as an issue of the
+ * repository.
+ */
+public class SyntheticRepositoryGenerator {
+
+	public static final String ROOT_PACKAGE = "generated";
+
+	private static final String JAVA_ROOT = "src" + File.separator + "main" + File.separator + "java";
+	private static final String AUTHOR_NAME = "Synthetic Repository Generator";
+	private static final String AUTHOR_EMAIL = "generator@refactoring-bot.invalid";
+
+	/**
+	 * Percentage of the classes that are changed by every commit after the first
+	 */
+	private static final int CHANGED_CLASSES_PER_COMMIT_PERCENTAGE = 10;
+
+	private int packageCount = 10;
+	private int classesPerPackage = 10;
+	private int inheritanceDepth = 3;
+	private int interfaceFanOut = 2;
+	private int callDensity = 2;
+	private int commentedOutCodeBlocks = 1;
+	private int commitCount = 1;
+	private long seed = 0;
+
+	/**
+	 * This method writes a repository with the current parameters into the given
+	 * folder. If the number of commits is greater than zero, a git repository with
+	 * that many commits on the master branch is created as well.
+	 *
+	 * @param repoFolder
+	 * @return repository
+	 * @throws IOException
+	 * @throws GitAPIException
+	 */
+	public SyntheticRepository generate(File repoFolder) throws IOException, GitAPIException {
+		File javaRoot = new File(repoFolder, JAVA_ROOT);
+		SyntheticRepository repository = new SyntheticRepository(repoFolder, javaRoot);
+		Random random = new Random(seed);
+
+		for (int packageNumber = 0; packageNumber < packageCount; packageNumber++) {
+			for (int interfaceNumber = 0; interfaceNumber < interfaceFanOut; interfaceNumber++) {
+				File javaFile = getFileOfType(javaRoot, packageNumber, "Interface" + interfaceNumber);
+				writeFile(repository, javaFile, createInterface(packageNumber, interfaceNumber));
+			}
+		}
+
+		List<int[]> callTargets = new ArrayList<>();
+		for (int classNumber = 0; classNumber < getClassCount(); classNumber++) {
+			int[] targets = new int[callDensity];
+			for (int i = 0; i < callDensity; i++) {
+				targets[i] = random.nextInt(getClassCount());
+			}
+			callTargets.add(targets);
+			writeFile(repository, getFileOfClass(javaRoot, classNumber),
+					createClass(repository, javaRoot, classNumber, targets, 0));
+		}
+
+		if (commitCount > 0) {
+			createHistory(repository, repoFolder, javaRoot, callTargets);
+		}
+		return repository;
+	}
+
+	/**
+	 * This method commits all generated files and creates the further commits,
+	 * which change some of the classes. Author and dates are fixed, so that the
+	 * commit IDs are reproducible.
+	 *
+	 * @param repository
+	 * @param repoFolder
+	 * @param javaRoot
+	 * @param callTargets
+	 * @throws IOException
+	 * @throws GitAPIException
+	 */
+	private void createHistory(SyntheticRepository repository, File repoFolder, File javaRoot,
+			List<int[]> callTargets) throws IOException, GitAPIException {
+		try (Git git = Git.init().setDirectory(repoFolder).call()) {
+			git.add().addFilepattern(".").call();
+			commit(git, 1, "Generated repository");
+
+			for (int commitNumber = 2; commitNumber <= commitCount; commitNumber++) {
+				for (int classNumber = 0; classNumber < getClassCount(); classNumber++) {
+					if ((classNumber + commitNumber) % (100 / CHANGED_CLASSES_PER_COMMIT_PERCENTAGE) == 0) {
+						writeFile(repository, getFileOfClass(javaRoot, classNumber),
+								createClass(null, javaRoot, classNumber, callTargets.get(classNumber), commitNumber));
+					}
+				}
+				git.add().addFilepattern(".").call();
+				commit(git, commitNumber, "Changed helper methods (" + commitNumber + ")");
+			}
+		}
+	}
+
+	private void commit(Git git, int commitNumber, String message) throws GitAPIException {
+		PersonIdent ident = new PersonIdent(AUTHOR_NAME, AUTHOR_EMAIL, new Date(commitNumber * 60000L),
+				TimeZone.getTimeZone("UTC"));
+		git.commit().setMessage(message).setAuthor(ident).setCommitter(ident).call();
+	}
+
+	private String createInterface(int packageNumber, int interfaceNumber) {
+		JavaFileContent content = new JavaFileContent();
+		content.addLine("package " + getPackageName(packageNumber) + ";");
+		content.addLine("");
+		content.addLine("public interface Interface" + interfaceNumber + " {");
+		content.addLine("");
+		content.addLine("\tint operation" + interfaceNumber + "(int input);");
+		content.addLine("}");
+		return content.toString();
+	}
+
+	/**
+	 * This method creates the content of the given class. The issues of the class
+	 * are added to the given repository, if it is not null.
+	 *
+	 * @param repository
+	 * @param javaRoot
+	 * @param classNumber
+	 * @param callTargets
+	 * @param revision
+	 *            number of the commit changing the class or 0
+	 * @return content
+	 */
+	private String createClass(SyntheticRepository repository, File javaRoot, int classNumber, int[] callTargets,
+			int revision) {
+		int positionInChain = classNumber % classesPerPackage % inheritanceDepth;
+		String declaration = "public class Class" + classNumber;
+		if (positionInChain > 0) {
+			declaration += " extends " + getQualifiedNameOfClass(classNumber - 1);
+		} else if (interfaceFanOut > 0) {
+			List<String> interfaces = new ArrayList<>();
+			for (int interfaceNumber = 0; interfaceNumber < interfaceFanOut; interfaceNumber++) {
+				interfaces.add("Interface" + interfaceNumber);
+			}
+			declaration += " implements " + String.join(", ", interfaces);
+		}
+
+		File javaFile = getFileOfClass(javaRoot, classNumber);
+		JavaFileContent content = new JavaFileContent();
+		content.addLine("package " + getPackageName(classNumber / classesPerPackage) + ";");
+		content.addLine("");
+		content.addLine(declaration + " {");
+		content.addLine("");
+		content.addLine("\tprivate int value;");
+		content.addLine("");
+
+		int computeLine = content.addLine("\tpublic int compute(int input, int unused) {");
+		content.addLine("\t\treturn input + value;");
+		content.addLine("\t}");
+		if (repository != null) {
+			if (positionInChain > 0) {
+				repository.addIssue(RefactoringOperations.ADD_OVERRIDE_ANNOTATION, javaFile, computeLine, null);
+			} else {
+				repository.addIssue(RefactoringOperations.RENAME_METHOD, javaFile, computeLine,
+						"computeOfClass" + classNumber);
+				repository.addIssue(RefactoringOperations.REMOVE_PARAMETER, javaFile, computeLine, "unused");
+			}
+		}
+
+		if (positionInChain == 0) {
+			for (int interfaceNumber = 0; interfaceNumber < interfaceFanOut; interfaceNumber++) {
+				content.addLine("");
+				int operationLine = content.addLine("\tpublic int operation" + interfaceNumber + "(int input) {");
+				content.addLine("\t\treturn input * " + interfaceNumber + ";");
+				content.addLine("\t}");
+				if (repository != null) {
+					repository.addIssue(RefactoringOperations.ADD_OVERRIDE_ANNOTATION, javaFile, operationLine, null);
+				}
+			}
+		}
+
+		content.addLine("");
+		int helperLine = content.addLine("\tstatic public int helper" + classNumber + "() {");
+		content.addLine("\t\treturn " + (classNumber + revision) + ";");
+		content.addLine("\t}");
+		if (repository != null) {
+			repository.addIssue(RefactoringOperations.REORDER_MODIFIER, javaFile, helperLine, null);
+		}
+
+		content.addLine("");
+		content.addLine("\tpublic int collect() {");
+		content.addLine("\t\tint result = 0;");
+		for (int callTarget : callTargets) {
+			content.addLine("\t\tresult += new " + getQualifiedNameOfClass(callTarget) + "().compute(value, 0);");
+		}
+		for (int i = 0; i < commentedOutCodeBlocks; i++) {
+			int blockLine = content.addLine("\t\t// result += compute(result, " + i + ");");
+			content.addLine("\t\t// result = result * 2;");
+			content.addLine("\t\tresult++;");
+			if (repository != null) {
+				repository.addIssue(RefactoringOperations.REMOVE_COMMENTED_OUT_CODE, javaFile, blockLine, null);
+			}
+		}
+		content.addLine("\t\treturn result;");
+		content.addLine("\t}");
+		content.addLine("}");
+		return content.toString();
+	}
+
+	private void writeFile(SyntheticRepository repository, File javaFile, String content) throws IOException {
+		FileUtils.writeStringToFile(javaFile, content, StandardCharsets.UTF_8);
+		repository.putContent(javaFile, content);
+	}
+
+	private File getFileOfClass(File javaRoot, int classNumber) {
+		return getFileOfType(javaRoot, classNumber / classesPerPackage, "Class" + classNumber);
+	}
+
+	private File getFileOfType(File javaRoot, int packageNumber, String typeName) {
+		return new File(javaRoot, getPackageName(packageNumber).replace('.', File.separatorChar) + File.separator
+				+ typeName + ".java");
+	}
+
+	private String getPackageName(int packageNumber) {
+		return ROOT_PACKAGE + ".pkg" + packageNumber;
+	}
+
+	private String getQualifiedNameOfClass(int classNumber) {
+		return getPackageName(classNumber / classesPerPackage) + ".Class" + classNumber;
+	}
+
+	/**
+	 * @return number of generated classes, without interfaces
+	 */
+	public int getClassCount() {
+		return packageCount * classesPerPackage;
+	}
+
+	/**
+	 * @return number of generated java files
+	 */
+	public int getFileCount() {
+		return packageCount * (classesPerPackage + interfaceFanOut);
+	}
+
+	public int getPackageCount() {
+		return packageCount;
+	}
+
+	public void setPackageCount(int packageCount) {
+		this.packageCount = packageCount;
+	}
+
+	public int getClassesPerPackage() {
+		return classesPerPackage;
+	}
+
+	public void setClassesPerPackage(int classesPerPackage) {
+		this.classesPerPackage = classesPerPackage;
+	}
+
+	public int getInheritanceDepth() {
+		return inheritanceDepth;
+	}
+
+	/**
+	 * @param inheritanceDepth
+	 *            number of classes per inheritance chain, at least 1
+	 */
+	public void setInheritanceDepth(int inheritanceDepth) {
+		this.inheritanceDepth = Math.max(1, inheritanceDepth);
+	}
+
+	public int getInterfaceFanOut() {
+		return interfaceFanOut;
+	}
+
+	/**
+	 * @param interfaceFanOut
+	 *            number of interfaces per package, which are implemented by the
+	 *            first class of every inheritance chain of that package
+	 */
+	public void setInterfaceFanOut(int interfaceFanOut) {
+		this.interfaceFanOut = interfaceFanOut;
+	}
+
+	public int getCallDensity() {
+		return callDensity;
+	}
+
+	/**
+	 * @param callDensity
+	 *            number of calls of other classes per class
+	 */
+	public void setCallDensity(int callDensity) {
+		this.callDensity = callDensity;
+	}
+
+	public int getCommentedOutCodeBlocks() {
+		return commentedOutCodeBlocks;
+	}
+
+	/**
+	 * @param commentedOutCodeBlocks
+	 *            number of blocks of commented out code per class
+	 */
+	public void setCommentedOutCodeBlocks(int commentedOutCodeBlocks) {
+		this.commentedOutCodeBlocks = commentedOutCodeBlocks;
+	}
+
+	public int getCommitCount() {
+		return commitCount;
+	}
+
+	/**
+	 * @param commitCount
+	 *            number of commits, 0 if no git repository should be created
+	 */
+	public void setCommitCount(int commitCount) {
+		this.commitCount = commitCount;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed
+	 *            seed for the choice of the called classes
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * The lines of a generated java file
+	 */
+	private static class JavaFileContent {
+
+		private final StringBuilder content = new StringBuilder();
+		private int lineCount = 0;
+
+		/**
+		 * @param line
+		 * @return number of the added line
+		 */
+		private int addLine(String line) {
+			content.append(line).append("\n");
+			return ++lineCount;
+		}
+
+		@Override
+		public String toString() {
+			return content.toString();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package de.refactoringbot.testutils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.refactoringbot.model.botissue.BotIssue;
+import de.refactoringbot.model.configuration.GitConfiguration;
+import de.refactoringbot.refactoring.RefactoringHelper;
+import de.refactoringbot.refactoring.RefactoringImpl;
+import de.refactoringbot.refactoring.RefactoringOperations;
+import de.refactoringbot.refactoring.supportedrefactorings.AddOverrideAnnotation;
+import de.refactoringbot.refactoring.supportedrefactorings.RemoveCommentedOutCode;
+import de.refactoringbot.refactoring.supportedrefactorings.RemoveMethodParameter;
+import de.refactoringbot.refactoring.supportedrefactorings.RenameMethod;
+import de.refactoringbot.refactoring.supportedrefactorings.ReorderModifier;
+
+public class SyntheticRepositoryGeneratorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@After
+	public void discardCachedCompilationUnits() {
+		RefactoringHelper.discardCachedCompilationUnits(folder.getRoot().getPath());
+	}
+
+	@Test
+	public void generateIsDeterministic() throws Exception {
+		// arrange
+		SyntheticRepositoryGenerator generator = new SyntheticRepositoryGenerator();
+		generator.setPackageCount(3);
+		generator.setCommitCount(3);
+		File firstFolder = folder.newFolder("first");
+		File secondFolder = folder.newFolder("second");
+
+		// act
+		SyntheticRepository firstRepository = generator.generate(firstFolder);
+		SyntheticRepository secondRepository = generator.generate(secondFolder);
+
+		// assert
+		assertThat(firstRepository.getAllJavaFiles()).hasSize(generator.getFileCount());
+		for (int i = 0; i < firstRepository.getAllJavaFiles().size(); i++) {
+			File firstFile = new File(firstRepository.getAllJavaFiles().get(i));
+			File secondFile = new File(secondRepository.getAllJavaFiles().get(i));
+			assertThat(FileUtils.readFileToString(secondFile, StandardCharsets.UTF_8))
+					.isEqualTo(FileUtils.readFileToString(firstFile, StandardCharsets.UTF_8));
+		}
+		try (Git first = Git.open(firstFolder); Git second = Git.open(secondFolder)) {
+			List<RevCommit> commits = new ArrayList<>();
+			first.log().call().forEach(commits::add);
+			assertThat(commits).hasSize(3);
+			assertThat(second.getRepository().resolve(Constants.HEAD))
+					.isEqualTo(first.getRepository().resolve(Constants.HEAD));
+			assertThat(first.status().call().isClean()).isTrue();
+		}
+	}
+
+	@Test
+	public void generatedIssuesCanBeRefactored() throws Exception {
+		// arrange
+		SyntheticRepositoryGenerator generator = new SyntheticRepositoryGenerator();
+		generator.setPackageCount(2);
+		generator.setCommitCount(0);
+		SyntheticRepository repository = generator.generate(folder.getRoot());
+
+		// act + assert
+		assertRefactoringOfFirstIssue(repository, new RenameMethod(), RefactoringOperations.RENAME_METHOD);
+		assertRefactoringOfFirstIssue(repository, new RemoveMethodParameter(), RefactoringOperations.REMOVE_PARAMETER);
+		assertRefactoringOfFirstIssue(repository, new AddOverrideAnnotation(),
+				RefactoringOperations.ADD_OVERRIDE_ANNOTATION);
+		assertRefactoringOfFirstIssue(repository, new ReorderModifier(), RefactoringOperations.REORDER_MODIFIER);
+		assertRefactoringOfFirstIssue(repository, new RemoveCommentedOutCode(),
+				RefactoringOperations.REMOVE_COMMENTED_OUT_CODE);
+	}
+
+	private void assertRefactoringOfFirstIssue(SyntheticRepository repository, RefactoringImpl refactoring,
+			String refactoringOperation) throws Exception {
+		GitConfiguration gitConfig = new GitConfiguration();
+		gitConfig.setRepoFolder(repository.getRepoFolderPath());
+		List<BotIssue> issues = repository.createIssues(refactoringOperation);
+		BotIssue issue = issues.get(0);
+		issue.setJavaRoots(Collections.singletonList(repository.getJavaRootPath()));
+		issue.setAllJavaFiles(repository.getAllJavaFiles());
+
+		String commitMessage = refactoring.performRefactoring(issue, gitConfig);
+
+		assertThat(issues).allMatch(botIssue -> refactoringOperation.equals(botIssue.getRefactoringOperation()));
+		assertThat(commitMessage).isNotEmpty();
+		assertThat(issue.getChangedFiles()).isNotEmpty();
+		repository.restore(issue.getChangedFiles().keySet());
+	}
+
+}